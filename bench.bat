@@ -0,0 +1,7 @@
+@echo off
+rem === Suite JMH: compilation Maven puis mesures, un rapport JSON par commit ===
+for /f %%c in ('git rev-parse --short HEAD') do set COMMIT=%%c
+call mvn -q -DskipTests package || exit /b 1
+if not exist benchmarks\results mkdir benchmarks\results
+java -cp "benchmarks/target/benchmarks.jar;lib/*" org.openjdk.jmh.Main -rf json -rff benchmarks/results/%COMMIT%.json %*
+echo Rapport: benchmarks\results\%COMMIT%.json
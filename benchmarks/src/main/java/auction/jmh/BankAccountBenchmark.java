@@ -0,0 +1,49 @@
+package auction.jmh;
+
+import auction.bank.Ledger;
+import auction.models.BankAccount;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opérations de BankAccount sur le chemin des paiements, seules puis via le
+ * grand livre (verrou du compte). debit() entame le solde: le compte est
+ * recréé à chaque itération.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BankAccountBenchmark {
+
+    private BankAccount account;
+    private Ledger ledger;
+
+    @Setup(Level.Iteration)
+    public void newAccount() {
+        account = new BankAccount("bidder1", 0, 100_000_000_000_000L, 0);
+        ledger = new Ledger();
+        ledger.open("bidder1", 100_000_000_000_000L);
+    }
+
+    @Benchmark
+    public boolean blockAndRelease() {
+        boolean blocked = account.blockFunds(12550);
+        account.releaseFunds(12550);
+        return blocked;
+    }
+
+    @Benchmark
+    public boolean debit() {
+        return account.debit(1);
+    }
+
+    @Benchmark
+    public boolean ledgerHoldAndRelease() {
+        boolean held = ledger.hold("bidder1", 12550);
+        ledger.release("bidder1", 12550);
+        return held;
+    }
+}
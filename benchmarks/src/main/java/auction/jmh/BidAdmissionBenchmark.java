@@ -0,0 +1,103 @@
+package auction.jmh;
+
+import auction.bank.CreditHeadroom;
+import auction.models.AuctionItem;
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import auction.storage.BidHistoryStore;
+import jade.core.AID;
+import jade.lang.acl.ACLMessage;
+import org.openjdk.jmh.annotations.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemin d'une offre dans ReceiveBidsBehaviour (admit + acceptBid), hors envoi
+ * et journalisation console: décodage du PROPOSE, recherche de l'article,
+ * contrôle de la marge, historique, réponse ACCEPT et BID_UPDATE encodé.
+ * Le prix des articles n'est pas relevé: chaque offre suit le chemin d'acceptation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BidAdmissionBenchmark {
+
+    @Param({"binary", "string"})
+    public String codecFormat;
+
+    private AuctionCodec codec;
+    private ACLMessage[] proposals;
+    private Map<String, AuctionItem> activeAuctions;
+    private CreditHeadroom headroom;
+    private BidHistoryStore bidHistory;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        codec = new AuctionCodec(codecFormat.equals("binary"));
+        activeAuctions = new HashMap<>();
+        for (int i = 1; i <= 8; i++) {
+            activeAuctions.put("ITEM-" + i, new AuctionItem("ITEM-" + i, "Article " + i, 100, 150));
+        }
+
+        headroom = new CreditHeadroom(Long.MAX_VALUE / 2);
+        proposals = new ACLMessage[64];
+        for (int i = 0; i < proposals.length; i++) {
+            String bidder = "bidder" + (i % 16);
+            headroom.refresh(bidder, Long.MAX_VALUE / 4, 0);
+
+            ACLMessage msg = new ACLMessage(ACLMessage.PROPOSE);
+            msg.setSender(new AID(bidder + "@bench", AID.ISGUID));  // hors plateforme: nom global
+            codec.bid(msg, "ITEM-" + (1 + i % 8), 200 + i * 1.5, 1);
+            proposals[i] = msg;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void newHistory() {
+        bidHistory = new BidHistoryStore();
+    }
+
+    @TearDown(Level.Iteration)
+    public void releaseHistory() {
+        for (String itemId : activeAuctions.keySet()) {
+            bidHistory.release(itemId);
+        }
+    }
+
+    @Benchmark
+    public AuctionMessage decode() {
+        return codec.decode(proposals[next++ & 63]);
+    }
+
+    @Benchmark
+    public ACLMessage parseAndAccept() {
+        ACLMessage msg = proposals[next++ & 63];
+        AuctionMessage bid = codec.decode(msg);
+        String bidderId = msg.getSender().getLocalName();
+
+        AuctionItem item = activeAuctions.get(bid.itemId);
+        if (item == null || bid.amount <= item.getCurrentPrice()) return null;
+
+        long cents = Math.round(bid.amount * 100);
+        if (headroom.check(bidderId, item.getId(), cents, 1) != CreditHeadroom.Decision.PASS) return null;
+        headroom.reserve(bidderId, item.getId(), cents);
+
+        if (bidHistory.count(item.getId()) >= BidHistoryStore.ROWS_PER_SEGMENT) {
+            bidHistory.release(item.getId());
+        }
+        bidHistory.append(item.getId(), bidderId, bid.amount, 1);
+
+        ACLMessage reply = msg.createReply();
+        reply.setPerformative(ACLMessage.ACCEPT_PROPOSAL);
+        reply.setContent("Offre acceptée: " + bid.amount + "€");
+
+        ACLMessage update = new ACLMessage(ACLMessage.INFORM);
+        codec.bidUpdate(update, item.getId(), bid.amount, bidderId);
+        return reply;
+    }
+}
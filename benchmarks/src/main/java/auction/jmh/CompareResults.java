@@ -0,0 +1,87 @@
+package auction.jmh;
+
+import javax.json.*;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// ============================================================================
+// COMPARAISON de deux rapports JMH (-rf json), par exemple deux commits:
+// écart relatif du score de chaque mesure (même nom, mêmes paramètres).
+// Usage: java -cp "benchmarks/target/benchmarks.jar;lib/*" auction.jmh.CompareResults
+//            benchmarks/results/<avant>.json benchmarks/results/<après>.json
+// ============================================================================
+public class CompareResults {
+
+    private static final class Score {
+        final double value;
+        final double error;
+        final String unit;
+
+        Score(double value, double error, String unit) {
+            this.value = value;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults <référence.json> <candidat.json>");
+            System.exit(1);
+        }
+
+        Map<String, Score> baseline = load(args[0]);
+        Map<String, Score> candidate = load(args[1]);
+
+        System.out.printf("%-70s %14s %14s %9s  %s%n", "Mesure", "Référence", "Candidat", "Écart", "Unité");
+        for (Map.Entry<String, Score> entry : candidate.entrySet()) {
+            Score after = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", entry.getKey(), "-", after.value, "nouveau", after.unit);
+                continue;
+            }
+
+            double change = (after.value - before.value) / before.value * 100;
+            // Écart dans les barres d'erreur des deux mesures: non significatif
+            boolean significant = Math.abs(after.value - before.value) > before.error + after.error;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%%s %s%n", entry.getKey(), before.value, after.value,
+                              change, significant ? " " : "~", after.unit);
+        }
+        for (String key : baseline.keySet()) {
+            if (!candidate.containsKey(key)) {
+                System.out.printf("%-70s %14.3f %14s %9s%n", key, baseline.get(key).value, "-", "retiré");
+            }
+        }
+        System.out.println("(~ : écart inférieur aux marges d'erreur)");
+    }
+
+    private static Map<String, Score> load(String file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            JsonArray runs = Json.createReader(reader).readArray();
+            for (JsonObject run : runs.getValuesAs(JsonObject.class)) {
+                StringBuilder key = new StringBuilder(run.getString("benchmark").replace("auction.jmh.", ""));
+                JsonObject params = run.getJsonObject("params");
+                if (params != null) {
+                    for (Map.Entry<String, JsonValue> param : params.entrySet()) {
+                        key.append(' ').append(param.getKey()).append('=')
+                           .append(((JsonString) param.getValue()).getString());
+                    }
+                }
+
+                JsonObject metric = run.getJsonObject("primaryMetric");
+                double error = metric.get("scoreError") instanceof JsonNumber
+                    ? metric.getJsonNumber("scoreError").doubleValue() : 0;
+                scores.put(key.toString(), new Score(metric.getJsonNumber("score").doubleValue(), error,
+                                                     metric.getString("scoreUnit")));
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,53 @@
+package auction.jmh;
+
+import auction.stats.MarketIndicators;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indicateurs de l'analyste (volatilité, tendance) et de l'enchérisseur
+ * intelligent (croissance moyenne) sur des historiques de tailles croissantes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketIndicatorsBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int historySize;
+
+    private List<Double> prices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Marche aléatoire haussière, comme une suite de BID_UPDATE
+        Random random = new Random(42);
+        prices = new ArrayList<>(historySize);
+        double price = 500;
+        for (int i = 0; i < historySize; i++) {
+            price *= 1 + random.nextDouble() * 0.05;
+            prices.add(price);
+        }
+    }
+
+    @Benchmark
+    public double volatility() {
+        return MarketIndicators.volatility(prices);
+    }
+
+    @Benchmark
+    public String trend() {
+        return MarketIndicators.trend(prices);
+    }
+
+    @Benchmark
+    public double averageGrowth() {
+        return MarketIndicators.averageGrowth(prices);
+    }
+}
@@ -0,0 +1,45 @@
+package auction.jmh;
+
+import auction.web.AuctionWebSocketServer;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction des trames JSON diffusées par AuctionWebSocketServer.broadcast*
+ * (une par offre acceptée, annonce, clôture ou mise à jour des statistiques).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketJsonBenchmark {
+
+    private int next;
+
+    @Benchmark
+    public String bidUpdate() {
+        return AuctionWebSocketServer.bidUpdateJson("ITEM-" + (next++ & 7), 1234.56, "bidder3");
+    }
+
+    @Benchmark
+    public String newAuction() {
+        return AuctionWebSocketServer.newAuctionJson("ITEM-42", "Article 42", 512.25, 768.4);
+    }
+
+    @Benchmark
+    public String auctionEnd() {
+        return AuctionWebSocketServer.auctionEndJson("ITEM-42", "bidder3", 1234.56);
+    }
+
+    @Benchmark
+    public String statistics() {
+        return AuctionWebSocketServer.statisticsJson(5, 15, 48213.75, 212.4);
+    }
+
+    @Benchmark
+    public String log() {
+        return AuctionWebSocketServer.logJson("bidder3 a placé une offre de 1234.56€ sur ITEM-42", "info", 1760000000000L);
+    }
+}
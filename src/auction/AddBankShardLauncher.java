@@ -0,0 +1,46 @@
+package auction;
+
+import jade.core.Profile;
+import jade.core.ProfileImpl;
+import jade.wrapper.*;
+
+// ============================================================================
+// AJOUT D'UNE PARTITION BANCAIRE à une plateforme en cours d'exécution, dans un
+// conteneur périphérique. La nouvelle banque s'annonce « joining » avec
+// partition+1 partitions: les banques existantes lui remettent les comptes que
+// l'anneau lui attribue désormais, puis elle passe « active » et les clients
+// (auctioneers, hôtes d'enchérisseurs) la prennent dans leur table de routage.
+//   -Dbank.host=localhost   hôte du conteneur principal
+//   -Dbank.port=1099        port du conteneur principal
+// Une partition à la fois: attendre « Partition bancaire ... active » avant la
+// suivante. La plateforme doit tourner sur l'horloge system (-Dauction.clock).
+// Les partitions existantes doivent suivre le nommage bank-<n>
+// (plateforme démarrée avec -Dauction.bankShards >= 2), et l'argument vaut par
+// défaut -Dauction.bankShards (première partition ajoutée).
+// Usage: java -Dauction.bankShards=2 -cp "bin;lib/*" auction.AddBankShardLauncher [partition]
+// ============================================================================
+public class AddBankShardLauncher {
+
+    public static void main(String[] args) throws Exception {
+        AuctionConfig.validate();
+        // Horloge propre à chaque JVM: une horloge accélérée ou virtuelle divergerait de la plateforme
+        if (!AuctionConfig.clockMode().equals("system")) {
+            throw new IllegalArgumentException("-Dauction.clock=" + AuctionConfig.clockMode() +
+                                               " non pris en charge pour une partition ajoutée (system uniquement)");
+        }
+        int shard = args.length > 0 ? Integer.parseInt(args[0]) : AuctionConfig.bankShards();
+        int shardCount = shard + 1;
+
+        jade.core.Runtime rt = jade.core.Runtime.instance();
+        Profile profile = new ProfileImpl(false);
+        profile.setParameter(Profile.MAIN_HOST, System.getProperty("bank.host", "localhost"));
+        profile.setParameter(Profile.MAIN_PORT, System.getProperty("bank.port", "1099"));
+        profile.setParameter(Profile.CONTAINER_NAME, "bank-shard-" + shard);
+        AgentContainer container = rt.createAgentContainer(profile);
+
+        String name = AuctionConfig.bankName(shard, shardCount);
+        container.createNewAgent(name, "auction.agents.BankAgent",
+            new Object[]{shard, shardCount, "join"}).start();
+        System.out.println("🏦 Partition bancaire " + name + " ajoutée (" + shardCount + " partitions)");
+    }
+}
@@ -0,0 +1,179 @@
+package auction;
+
+import auction.models.AuctionFormat;
+import java.util.Arrays;
+
+// ============================================================================
+// PARAMÈTRES DE DÉPLOIEMENT (surchargeables via -Dauction.xxx=...)
+// ============================================================================
+public final class AuctionConfig {
+
+    private AuctionConfig() {}
+
+    // Nombre d'agents auctioneer se partageant les articles
+    public static int auctionShards() {
+        return Math.max(1, Integer.getInteger("auction.shards", 1));
+    }
+
+    // Retard maximal toléré entre l'échéance d'une enchère et sa clôture
+    public static long closeToleranceMs() {
+        return Math.max(1, Long.getLong("auction.closeToleranceMs", 250));
+    }
+    
+    // Fermeture souple: une offre acceptée dans cette fenêtre prolonge l'enchère (0 = désactivé)
+    public static long softCloseMs() {
+        return Math.max(0, Long.getLong("auction.softCloseMs", 0));
+    }
+
+    // Nombre maximal de PROPOSE traités par passage de l'auctioneer (1 = une offre à la fois)
+    public static int bidBatchSize() {
+        return Math.max(1, Integer.getInteger("auction.bidBatchSize", 64));
+    }
+
+    // Contrôle de solvabilité des offres: none, sync ou pipelined
+    public static String solvencyMode() {
+        return mode("auction.solvency", "pipelined", "none", "sync", "pipelined");
+    }
+
+    // Durée de validité du disponible bancaire mis en cache par l'auctioneer
+    public static long creditHeadroomTtlMs() {
+        return Math.max(0, Long.getLong("auction.headroomTtlMs", 30000));
+    }
+
+    // Règlement des adjudications: immediate (un PROCESS_PAYMENT par enchère), netting (lots compensés par
+    // fenêtre) ou holds (la banque bloque les offres menantes et les débite à l'adjudication)
+    public static String settlementMode() {
+        return mode("auction.settlement", "immediate", "immediate", "netting", "holds");
+    }
+
+    public static long settlementWindowMs() {
+        return Math.max(1, Long.getLong("auction.settlementWindowMs", 1000));
+    }
+
+    // Durée de vie d'un blocage de fonds que ni surenchère ni adjudication ne solde
+    public static long holdTtlMs() {
+        return Math.max(1000, Long.getLong("auction.holdTtlMs", 600000));
+    }
+
+    // Nombre de comptes au-delà duquel une fenêtre de règlement est fermée avant son échéance
+    public static int settlementMaxAccounts() {
+        return Math.max(1, Integer.getInteger("auction.settlementMaxAccounts", 512));
+    }
+
+    // Formats attribués à tour de rôle aux nouvelles enchères (ex: ENGLISH,VICKREY)
+    public static AuctionFormat[] auctionFormats() {
+        String[] names = System.getProperty("auction.formats", "ENGLISH").split(",");
+        AuctionFormat[] formats = new AuctionFormat[names.length];
+        for (int i = 0; i < names.length; i++) {
+            try {
+                formats[i] = AuctionFormat.valueOf(names[i].trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("-Dauction.formats: format " + names[i].trim() + " inconnu (valeurs acceptées: " +
+                                                   Arrays.toString(AuctionFormat.values()) + ")");
+            }
+        }
+        return formats;
+    }
+
+    // Répertoire du journal d'événements des auctioneers (vide = journal désactivé)
+    public static String eventLogDir() {
+        return System.getProperty("auction.eventLogDir", "data/eventlog");
+    }
+
+    // Politique de synchronisation disque du journal: always, group, interval ou none
+    public static String fsyncPolicy() {
+        return mode("auction.fsync", "group", "always", "group", "interval", "none");
+    }
+
+    // Intervalle minimal entre deux fsync avec la politique interval
+    public static long fsyncIntervalMs() {
+        return Math.max(1, Long.getLong("auction.fsyncIntervalMs", 100));
+    }
+
+    // Répertoire des instantanés des auctioneers et de la banque (vide = désactivés)
+    public static String snapshotDir() {
+        return System.getProperty("auction.snapshotDir", "data/snapshots");
+    }
+
+    // Répertoire du journal des transactions de la banque (vide = aucun historique)
+    public static String journalDir() {
+        return System.getProperty("auction.journalDir", "data/journal");
+    }
+
+    public static long snapshotIntervalMs() {
+        return Math.max(1000, Long.getLong("auction.snapshotIntervalMs", 60000));
+    }
+
+    // Encodage des messages du protocole: binary ou string (format texte historique, toujours accepté en réception)
+    public static boolean binaryCodec() {
+        return mode("auction.codec", "binary", "binary", "string").equals("binary");
+    }
+
+    // Intervalle minimal entre deux trames STATS_UPDATE
+    public static long statsIntervalMs() {
+        return Math.max(50, Long.getLong("auction.statsIntervalMs", 1000));
+    }
+
+    // Intervalle des histogrammes de latence par étape (clôture, résumé console)
+    public static long latencyIntervalMs() {
+        return Math.max(1000, Long.getLong("auction.latencyIntervalMs", 10000));
+    }
+
+    // Enchérisseurs hébergés par un BidderHostAgent en plus des six agents acheteurs (0 = aucun hôte)
+    public static int hostedBidders() {
+        return Math.max(0, Integer.getInteger("auction.hostedBidders", 0));
+    }
+
+    // Horloge du domaine: system, scaled ou virtual (voir auction.scheduling.Clock)
+    public static String clockMode() {
+        return mode("auction.clock", "system", "system", "scaled", "virtual");
+    }
+
+    // Facteur d'accélération de l'horloge scaled (60 = une minute simulée par seconde)
+    public static double clockSpeed() {
+        return Double.parseDouble(System.getProperty("auction.clockSpeed", "60"));
+    }
+
+    // Granularité des échéances de l'horloge virtuelle (réveils regroupés par pas)
+    public static long clockResolutionMs() {
+        return Math.max(1, Long.getLong("auction.clockResolutionMs", 1000));
+    }
+
+    // Durée simulée au-delà de laquelle l'horloge virtuelle s'arrête (0 = sans limite)
+    public static long simulatedMs() {
+        return Math.max(0, Long.getLong("auction.simulatedMs", 0));
+    }
+
+    public static String auctioneerName(int shard, int shardCount) {
+        return shardCount == 1 ? "auctioneer" : "auctioneer-" + shard;
+    }
+
+    // Nombre de banques se partageant les comptes au démarrage (hachage cohérent de l'identifiant)
+    public static int bankShards() {
+        return Math.max(1, Integer.getInteger("auction.bankShards", 1));
+    }
+
+    public static String bankName(int shard, int shardCount) {
+        return shardCount == 1 ? "bank" : "bank-" + shard;
+    }
+
+    // Appelé par les lanceurs avant tout agent: une faute de frappe dans un sélecteur
+    // de mode arrête le démarrage au lieu de retomber silencieusement sur un autre mode
+    public static void validate() {
+        solvencyMode();
+        settlementMode();
+        fsyncPolicy();
+        binaryCodec();
+        clockMode();
+        auctionFormats();
+    }
+
+    private static String mode(String property, String defaultValue, String... accepted) {
+        String value = System.getProperty(property, defaultValue).trim().toLowerCase();
+        for (String candidate : accepted) {
+            if (candidate.equals(value)) return value;
+        }
+        throw new IllegalArgumentException("-D" + property + "=" + value + " inconnu (valeurs acceptées: " +
+                                           String.join(", ", accepted) + ")");
+    }
+}
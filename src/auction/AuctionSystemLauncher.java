@@ -4,6 +4,7 @@ import jade.core.Runtime;
 import jade.core.Profile;
 import jade.core.ProfileImpl;
 import jade.wrapper.*;
+import auction.scheduling.Clock;
 
 public class AuctionSystemLauncher {
     
@@ -14,6 +15,8 @@ public class AuctionSystemLauncher {
             System.out.println("║   ");
             System.out.println("\n");
             
+            AuctionConfig.validate();
+            
             Runtime rt = Runtime.instance();
             
             Profile profile = new ProfileImpl();
@@ -26,12 +29,15 @@ public class AuctionSystemLauncher {
             
             // Phase 1: Agents Principaux
             System.out.println("📌 Phase 1: Agents Principaux");
-            AgentController auctioneer = mainContainer.createNewAgent(
-                "auctioneer", 
-                "auction.agents.AuctioneerAgent", 
-                new Object[]{}
-            );
-            auctioneer.start();
+            int shardCount = AuctionConfig.auctionShards();
+            for (int shard = 0; shard < shardCount; shard++) {
+                AgentController auctioneer = mainContainer.createNewAgent(
+                    AuctionConfig.auctioneerName(shard, shardCount), 
+                    "auction.agents.AuctioneerAgent", 
+                    new Object[]{shard, shardCount}
+                );
+                auctioneer.start();
+            }
             Thread.sleep(500);
             
             AgentController monitor = mainContainer.createNewAgent(
@@ -44,12 +50,15 @@ public class AuctionSystemLauncher {
             
             // Phase 2: Agents Support
             System.out.println("\n📌 Phase 2: Agents Support");
-            AgentController bank = mainContainer.createNewAgent(
-                "bank", 
-                "auction.agents.BankAgent", 
-                new Object[]{}
-            );
-            bank.start();
+            int bankShards = AuctionConfig.bankShards();
+            for (int shard = 0; shard < bankShards; shard++) {
+                AgentController bank = mainContainer.createNewAgent(
+                    AuctionConfig.bankName(shard, bankShards), 
+                    "auction.agents.BankAgent", 
+                    new Object[]{shard, bankShards}
+                );
+                bank.start();
+            }
             Thread.sleep(500);
             
             AgentController authenticator = mainContainer.createNewAgent(
@@ -134,6 +143,8 @@ public class AuctionSystemLauncher {
             }
             
             System.out.println("\n✅ Tous les agents sont démarrés!");
+            System.out.println("⏱️ Horloge du domaine: " + Clock.get().describe());
+            Clock.get().start();
             System.out.println("\n╔══════════════════════════════════════════════════╗");
             System.out.println("║  SYSTÈME OPÉRATIONNEL                            ║");
             System.out.println("║  - 12 Agents actifs                              ║");
@@ -0,0 +1,127 @@
+package auction;
+
+import auction.backtest.Backtest;
+import auction.backtest.RecordedStream;
+import auction.backtest.StrategyResult;
+import auction.backtest.StrategySpec;
+import javax.json.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+// ============================================================================
+// BACKTEST DES STRATÉGIES D'ENCHÈRE SUR UN JOURNAL ENREGISTRÉ (sans JADE)
+//   -Dbacktest.log=data/eventlog      journal d'un auctioneer ou répertoire des journaux
+//   -Dbacktest.strategies=...         style:paramètre séparés par des virgules
+//                                     (aggressive:1.2, conservative:240000, intelligent:3)
+//   -Dbacktest.replicas=8             rejeux par stratégie (graines seed, seed+1, ...)
+//   -Dbacktest.seed=42
+//   -Dbacktest.budget=0               budget fixe (0 = tiré selon le style)
+//   -Dbacktest.workers=<cœurs>        workers du ForkJoinPool
+//   -Dbacktest.out=...                rapport JSON (défaut: data/backtest/backtest-<date>.json)
+// Usage: java -Dbacktest.strategies=aggressive:1.1,aggressive:1.3 -cp "bin;lib/*" auction.BacktestLauncher
+// ============================================================================
+public class BacktestLauncher {
+
+    private static final String DEFAULT_STRATEGIES =
+        "aggressive:1.1,aggressive:1.2,aggressive:1.5," +
+        "conservative:60000,conservative:120000,conservative:240000," +
+        "intelligent:2,intelligent:3,intelligent:5";
+
+    public static void main(String[] args) throws Exception {
+        String log = System.getProperty("backtest.log", AuctionConfig.eventLogDir());
+        List<StrategySpec> specs = StrategySpec.parseList(System.getProperty("backtest.strategies", DEFAULT_STRATEGIES));
+        int replicas = Math.max(1, Integer.getInteger("backtest.replicas", 8));
+        long seed = Long.getLong("backtest.seed", 42);
+        double budget = Double.parseDouble(System.getProperty("backtest.budget", "0"));
+        int workers = Math.max(1, Integer.getInteger("backtest.workers", Runtime.getRuntime().availableProcessors()));
+        String out = System.getProperty("backtest.out", "data/backtest/backtest-" +
+                                        new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+
+        System.out.println("╔══════════════════════════════════════════════════╗");
+        System.out.println("║   BACKTEST DES STRATÉGIES D'ENCHÈRE              ║");
+        System.out.println("╚══════════════════════════════════════════════════╝\n");
+
+        long loadStart = System.nanoTime();
+        RecordedStream stream = RecordedStream.load(Paths.get(log));
+        double loadS = (System.nanoTime() - loadStart) / 1e9;
+        System.out.printf("📂 %s: %,d événements, %,d articles, %,d enchérisseurs, %.1f h enregistrées (chargé en %.1f s)%n",
+                          log, stream.size(), stream.itemCount(), stream.bidderCount(),
+                          (stream.endTime() - stream.startTime()) / 3.6e6, loadS);
+        if (stream.size() == 0) {
+            System.out.println("❌ Journal vide: rien à rejouer");
+            return;
+        }
+
+        Backtest backtest = new Backtest(stream, specs, replicas, seed, budget);
+        System.out.printf("🔁 %d stratégies x %d rejeux sur %d workers...%n%n", specs.size(), replicas, workers);
+        long runStart = System.nanoTime();
+        StrategyResult[] results = backtest.run(workers);
+        double runS = (System.nanoTime() - runStart) / 1e9;
+
+        System.out.printf("  %-22s %9s %9s %11s %7s %8s %10s %8s %8s%n", "Stratégie", "Budget", "Offres",
+                          "Enchères", "Gains", "Taux", "Surpaie.", "Surp. %", "Budget %");
+        JsonArrayBuilder strategies = Json.createArrayBuilder();
+        for (StrategyResult result : results) {
+            System.out.printf("  %-22s %8.0f€ %9d %5d/%-5d %7d %7.1f%% %9.2f€ %7.1f%% %7.1f%%%n",
+                              result.getSpec(), result.getAverageBudget(),
+                              result.getBidsAccepted() / result.getRuns(),
+                              result.getAuctionsEntered() / result.getRuns(), result.getAuctionsSeen() / result.getRuns(),
+                              result.getWins() / result.getRuns(), 100 * result.getWinRate(),
+                              result.getAverageOverpay(), 100 * result.getOverpayRatio(),
+                              100 * result.getAverageBudgetUse());
+            strategies.add(Json.createObjectBuilder()
+                .add("strategy", result.getSpec().toString())
+                .add("style", result.getSpec().getStyle())
+                .add("parameter", result.getSpec().getParameter())
+                .add("runs", result.getRuns())
+                .add("averageBudget", result.getAverageBudget())
+                .add("bidsPlaced", result.getBidsPlaced())
+                .add("bidsAccepted", result.getBidsAccepted())
+                .add("auctionsSeen", result.getAuctionsSeen())
+                .add("auctionsEntered", result.getAuctionsEntered())
+                .add("wins", result.getWins())
+                .add("winRate", result.getWinRate())
+                .add("spent", result.getSpent())
+                .add("overpay", result.getOverpay())
+                .add("averageOverpay", result.getAverageOverpay())
+                .add("overpayRatio", result.getOverpayRatio())
+                .add("budgetUse", result.getAverageBudgetUse()));
+        }
+        System.out.printf("%n⏱️ %d rejeux en %.1f s (%,.0f événements/s)%n", backtest.getRunCount(), runS,
+                          (double) stream.size() * backtest.getRunCount() / runS);
+
+        JsonObject report = Json.createObjectBuilder()
+            .add("config", Json.createObjectBuilder()
+                .add("log", log)
+                .add("replicas", replicas)
+                .add("seed", seed)
+                .add("budget", budget)
+                .add("workers", workers))
+            .add("stream", Json.createObjectBuilder()
+                .add("events", stream.size())
+                .add("items", stream.itemCount())
+                .add("bidders", stream.bidderCount())
+                .add("startTime", stream.startTime())
+                .add("endTime", stream.endTime()))
+            .add("strategies", strategies)
+            .add("elapsedSeconds", runS)
+            .build();
+        writeReport(Paths.get(out), report);
+        System.out.println("💾 Rapport écrit: " + out);
+    }
+
+    private static void writeReport(Path path, JsonObject report) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            Json.createWriterFactory(java.util.Collections.singletonMap(
+                javax.json.stream.JsonGenerator.PRETTY_PRINTING, true)).createWriter(writer).write(report);
+        }
+    }
+}
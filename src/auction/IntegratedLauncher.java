@@ -10,6 +10,7 @@ import jade.core.Runtime;
 import jade.core.Profile;
 import jade.core.ProfileImpl;
 import jade.wrapper.*;
+import auction.scheduling.Clock;
 import auction.ui.AuctionDashboard;
 
 public class IntegratedLauncher {
@@ -23,6 +24,8 @@ public class IntegratedLauncher {
         System.out.println("║  JADE Platform + Interface JavaFX Moderne        ║");
         System.out.println("╚══════════════════════════════════════════════════╝\n");
         
+        AuctionConfig.validate();
+        
         // Démarrer JADE dans un thread séparé
         new Thread(() -> {
             try {
@@ -59,7 +62,12 @@ public class IntegratedLauncher {
             System.out.println("📌 Phase 1: Lancement des agents principaux...");
             
             // Agents Principaux
-            createAgent("auctioneer", "auction.agents.AuctioneerAgent");
+            int shardCount = AuctionConfig.auctionShards();
+            for (int shard = 0; shard < shardCount; shard++) {
+                createAgent(AuctionConfig.auctioneerName(shard, shardCount),
+                          "auction.agents.AuctioneerAgent",
+                          new Object[]{shard, shardCount});
+            }
             Thread.sleep(500);
             
             createAgent("monitor", "auction.agents.MonitorAgent");
@@ -68,7 +76,11 @@ public class IntegratedLauncher {
             System.out.println("\n📌 Phase 2: Lancement des agents support...");
             
             // Agents Support
-            createAgent("bank", "auction.agents.BankAgent");
+            int bankShards = AuctionConfig.bankShards();
+            for (int shard = 0; shard < bankShards; shard++) {
+                createAgent(AuctionConfig.bankName(shard, bankShards), "auction.agents.BankAgent",
+                          new Object[]{shard, bankShards});
+            }
             Thread.sleep(500);
             
             createAgent("authenticator", "auction.agents.AuthenticatorAgent");
@@ -115,6 +127,10 @@ public class IntegratedLauncher {
                 Thread.sleep(300);
             }
             
+            // Tous les agents sont créés: l'horloge virtuelle peut commencer à avancer
+            System.out.println("⏱️ Horloge du domaine: " + Clock.get().describe());
+            Clock.get().start();
+            
             System.out.println("\n╔══════════════════════════════════════════════════╗");
             System.out.println("║  ✅ TOUS LES AGENTS SONT OPÉRATIONNELS          ║");
             System.out.println("║  📊 Interface JavaFX en cours de chargement...  ║");
@@ -3,6 +3,7 @@ package auction;
 import jade.core.Profile;
 import jade.core.ProfileImpl;
 import jade.wrapper.*;
+import auction.scheduling.Clock;
 import auction.web.WebInterface;
 import auction.web.WebServer;
 
@@ -17,6 +18,8 @@ public class IntegratedWebLauncher {
             System.out.println("║   JADE + WebSocket + Interface Moderne           ║");
             System.out.println("╚══════════════════════════════════════════════════╝\n");
             
+            AuctionConfig.validate();
+            
             System.out.println("🔌 Démarrage du WebSocket Server...");
             WebInterface.start(9090);
             Thread.sleep(1000);
@@ -36,14 +39,23 @@ public class IntegratedWebLauncher {
             AgentContainer mainContainer = rt.createMainContainer(profile);
             
             System.out.println("📌 Phase 1: Agents Principaux");
-            createAgent(mainContainer, "auctioneer", "auction.agents.AuctioneerAgent");
+            int shardCount = AuctionConfig.auctionShards();
+            for (int shard = 0; shard < shardCount; shard++) {
+                createAgent(mainContainer, AuctionConfig.auctioneerName(shard, shardCount),
+                          "auction.agents.AuctioneerAgent",
+                          new Object[]{shard, shardCount});
+            }
             Thread.sleep(500);
             
             createAgent(mainContainer, "monitor", "auction.agents.MonitorAgent");
             Thread.sleep(500);
             
             System.out.println("\n📌 Phase 2: Agents Support");
-            createAgent(mainContainer, "bank", "auction.agents.BankAgent");
+            int bankShards = AuctionConfig.bankShards();
+            for (int shard = 0; shard < bankShards; shard++) {
+                createAgent(mainContainer, AuctionConfig.bankName(shard, bankShards),
+                          "auction.agents.BankAgent", new Object[]{shard, bankShards});
+            }
             Thread.sleep(500);
             
             createAgent(mainContainer, "authenticator", "auction.agents.AuthenticatorAgent");
@@ -96,14 +108,27 @@ public class IntegratedWebLauncher {
                 Thread.sleep(300);
             }
             
+            // Population nombreuse: un seul agent (un seul thread) pour tous les hébergés
+            int hosted = AuctionConfig.hostedBidders();
+            if (hosted > 0) {
+                createAgent(mainContainer, "bidderhost", "auction.agents.BidderHostAgent",
+                          new Object[]{hosted, 42L, 100L});
+            }
+            
             // ✨ NOUVEAU : Envoyer les agents support à l'interface
             System.out.println("\n📊 Envoi des agents support à l'interface...");
             Thread.sleep(1000);
             
+            for (int shard = 0; shard < shardCount; shard++) {
+                WebInterface.notifyAgentUpdate(AuctionConfig.auctioneerName(shard, shardCount),
+                                              "support", 0, 0);
+            }
+            for (int shard = 0; shard < bankShards; shard++) {
+                WebInterface.notifyAgentUpdate(AuctionConfig.bankName(shard, bankShards), "support", 0, 0);
+            }
+            
             String[][] supportAgents = {
-                {"auctioneer", "support"},
                 {"monitor", "support"},
-                {"bank", "support"},
                 {"authenticator", "support"},
                 {"analyst", "support"},
                 {"logistics", "support"},
@@ -120,6 +145,10 @@ public class IntegratedWebLauncher {
             
             System.out.println("✅ Tous les agents envoyés !");
             
+            // Tous les agents sont créés: l'horloge virtuelle peut commencer à avancer
+            System.out.println("⏱️ Horloge du domaine: " + Clock.get().describe());
+            Clock.get().start();
+            
             System.out.println("\n✅ Système complètement opérationnel !");
             System.out.println("\n╔══════════════════════════════════════════════════╗");
             System.out.println("║  🌐 Interface Web: http://localhost:8080        ║");
@@ -134,7 +163,6 @@ public class IntegratedWebLauncher {
             System.out.println("  3. Les données s'afficheront en temps réel!\n");
             
             WebInterface.log("Système démarré avec succès!", "success");
-            WebInterface.updateStatistics(0, 15, 0);
             
             java.lang.Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 System.out.println("\n🛑 Arrêt du système...");
@@ -0,0 +1,195 @@
+package auction;
+
+import jade.core.Profile;
+import jade.core.ProfileImpl;
+import jade.wrapper.*;
+import auction.scheduling.Clock;
+import auction.stats.LatencyHistogram;
+import auction.stats.LoadStatistics;
+import javax.json.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+// ============================================================================
+// TEST DE CHARGE SANS INTERFACE: population d'enchérisseurs synthétiques
+//   -Dload.bidders=1000        enchérisseurs synthétiques
+//   -Dload.rate=1000           offres/s émises par l'ensemble de la population (Poisson)
+//   -Dload.bidSize=exponential loi de l'incrément: fixed, uniform, exponential ou pareto
+//   -Dload.bidIncrementPct=5   incrément moyen au-dessus du dernier prix connu
+//   -Dload.durationS=60        durée de la fenêtre de mesure
+//   -Dload.warmupS=10          attente avant mesure (comptes bancaires, premières annonces)
+//   -Dload.seed=42
+//   -Dload.out=...             rapport JSON (défaut: data/loadtest/loadtest-<date>.json)
+// Sauf mention contraire, le journal et les instantanés vont sous data/loadtest
+// et les formats alternent anglais et sous pli scellé: avec le seul format
+// anglais, les prix dépassent vite les soldes et presque tout serait rejeté.
+// Usage: java -Dload.bidders=10000 -Dload.rate=5000 -cp "bin;lib/*" auction.LoadTestLauncher
+// ============================================================================
+public class LoadTestLauncher {
+
+    public static void main(String[] args) throws Exception {
+        int bidders = Math.max(1, Integer.getInteger("load.bidders", 1000));
+        double rate = Double.parseDouble(System.getProperty("load.rate", "1000"));
+        String bidSize = System.getProperty("load.bidSize", "exponential");
+        double incrementPct = Double.parseDouble(System.getProperty("load.bidIncrementPct", "5"));
+        int durationS = Math.max(1, Integer.getInteger("load.durationS", 60));
+        int warmupS = Math.max(0, Integer.getInteger("load.warmupS", 10));
+        long seed = Long.getLong("load.seed", 42);
+        String out = System.getProperty("load.out", "data/loadtest/loadtest-" +
+                                        new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+
+        defaultProperty("auction.eventLogDir", "data/loadtest/eventlog");
+        defaultProperty("auction.snapshotDir", "data/loadtest/snapshots");
+        defaultProperty("auction.formats", "ENGLISH,FIRST_PRICE,VICKREY,MULTI_UNIT");
+        AuctionConfig.validate();
+
+        System.out.println("╔══════════════════════════════════════════════════╗");
+        System.out.println("║   TEST DE CHARGE - ENCHÉRISSEURS SYNTHÉTIQUES    ║");
+        System.out.println("╚══════════════════════════════════════════════════╝\n");
+        System.out.printf("👥 %d enchérisseurs, %.0f offres/s, incrément %s de %.1f %%, %d s de mesure%n%n",
+                          bidders, rate, bidSize, incrementPct, durationS);
+
+        jade.core.Runtime rt = jade.core.Runtime.instance();
+        Profile profile = new ProfileImpl();
+        profile.setParameter(Profile.MAIN_HOST, "localhost");
+        profile.setParameter(Profile.GUI, "false");
+        AgentContainer container = rt.createMainContainer(profile);
+
+        // Enchérisseurs d'abord: la banque et les auctioneers les trouvent dès leur recherche initiale au DF
+        int shardCount = AuctionConfig.auctionShards();
+        long startNanos = System.nanoTime();
+        for (int i = 1; i <= bidders; i++) {
+            container.createNewAgent("synthetic" + i, "auction.agents.SyntheticBidderAgent",
+                new Object[]{shardCount, rate / bidders, bidSize, incrementPct, seed + i}).start();
+            if (i % 1000 == 0) {
+                System.out.println("  ✓ " + i + " enchérisseurs démarrés");
+            }
+        }
+        System.out.printf("✅ Population démarrée en %.1f s%n", (System.nanoTime() - startNanos) / 1e9);
+
+        int bankShards = AuctionConfig.bankShards();
+        for (int shard = 0; shard < bankShards; shard++) {
+            container.createNewAgent(AuctionConfig.bankName(shard, bankShards),
+                "auction.agents.BankAgent", new Object[]{shard, bankShards}).start();
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            container.createNewAgent(AuctionConfig.auctioneerName(shard, shardCount),
+                "auction.agents.AuctioneerAgent", new Object[]{shard, shardCount}).start();
+        }
+        // Tous les agents sont créés: l'horloge virtuelle peut commencer à avancer
+        System.out.println("⏱️ Horloge du domaine: " + Clock.get().describe());
+        Clock.get().start();
+
+        Thread.sleep(warmupS * 1000L);
+
+        LoadStatistics load = LoadStatistics.get();
+        LatencyHistogram interval = new LatencyHistogram();
+        LatencyHistogram total = new LatencyHistogram();
+        JsonArrayBuilder series = Json.createArrayBuilder();
+
+        System.out.println("\n📈 Mesure en cours...");
+        load.start();
+        long measureStart = System.nanoTime();
+        long lastSent = 0, lastAccepted = 0, lastRejected = 0;
+
+        // Un point par seconde; deux secondes de plus pour recevoir les dernières réponses
+        for (int second = 1; second <= durationS + 2; second++) {
+            long wakeAt = measureStart + second * 1_000_000_000L;
+            Thread.sleep(Math.max(0, (wakeAt - System.nanoTime()) / 1_000_000));
+            if (second == durationS) load.stop();
+
+            long sent = load.getSent(), accepted = load.getAccepted(), rejected = load.getRejected();
+            load.getAcceptLatency().drainTo(interval);
+
+            series.add(Json.createObjectBuilder()
+                .add("second", second)
+                .add("sent", sent - lastSent)
+                .add("accepted", accepted - lastAccepted)
+                .add("rejected", rejected - lastRejected)
+                .add("latencyMs", latencies(interval)));
+            System.out.printf("  t=%3ds  envoyées %,7d/s  acceptées %,7d/s  rejetées %,7d/s  %s%n",
+                              second, sent - lastSent, accepted - lastAccepted, 
+                              rejected - lastRejected, format(interval));
+
+            interval.drainTo(total);
+            lastSent = sent;
+            lastAccepted = accepted;
+            lastRejected = rejected;
+        }
+
+        JsonObject summary = Json.createObjectBuilder()
+            .add("sent", lastSent)
+            .add("accepted", lastAccepted)
+            .add("rejected", lastRejected)
+            .add("acceptedPerSecond", (double) lastAccepted / durationS)
+            .add("rejectedPerSecond", (double) lastRejected / durationS)
+            .add("latencyMs", latencies(total))
+            .build();
+
+        System.out.println("\n╔══════════════════════════════════════════════════╗");
+        System.out.println("║  RÉSULTATS                                       ║");
+        System.out.println("╚══════════════════════════════════════════════════╝");
+        System.out.printf("  Offres envoyées:  %,d%n", lastSent);
+        System.out.printf("  Acceptées:        %,d (%.0f/s)%n", lastAccepted, (double) lastAccepted / durationS);
+        System.out.printf("  Rejetées:         %,d (%.0f/s)%n", lastRejected, (double) lastRejected / durationS);
+        System.out.printf("  Offre -> ACCEPT:  %s%n", format(total));
+
+        JsonObject report = Json.createObjectBuilder()
+            .add("config", Json.createObjectBuilder()
+                .add("bidders", bidders)
+                .add("rate", rate)
+                .add("bidSize", bidSize)
+                .add("bidIncrementPct", incrementPct)
+                .add("durationS", durationS)
+                .add("warmupS", warmupS)
+                .add("seed", seed)
+                .add("shards", shardCount)
+                .add("formats", System.getProperty("auction.formats"))
+                .add("solvency", AuctionConfig.solvencyMode())
+                .add("fsync", AuctionConfig.fsyncPolicy())
+                .add("codec", AuctionConfig.binaryCodec() ? "binary" : "string"))
+            .add("summary", summary)
+            .add("seconds", series)
+            .build();
+        writeReport(Paths.get(out), report);
+        System.out.println("\n💾 Rapport écrit: " + out);
+
+        // Arrêt immédiat: le désenregistrement de milliers d'agents n'apporte rien au test
+        System.exit(0);
+    }
+
+    private static JsonObjectBuilder latencies(LatencyHistogram histogram) {
+        return Json.createObjectBuilder()
+            .add("count", histogram.count())
+            .add("p50", histogram.percentile(0.50) / 1e6)
+            .add("p99", histogram.percentile(0.99) / 1e6)
+            .add("p999", histogram.percentile(0.999) / 1e6)
+            .add("max", histogram.max() / 1e6);
+    }
+
+    private static String format(LatencyHistogram histogram) {
+        return String.format("p50 %.2f ms  p99 %.2f ms  p999 %.2f ms",
+                             histogram.percentile(0.50) / 1e6, histogram.percentile(0.99) / 1e6,
+                             histogram.percentile(0.999) / 1e6);
+    }
+
+    private static void writeReport(Path path, JsonObject report) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            Json.createWriterFactory(java.util.Collections.singletonMap(
+                javax.json.stream.JsonGenerator.PRETTY_PRINTING, true)).createWriter(writer).write(report);
+        }
+    }
+
+    private static void defaultProperty(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package auction.agents;
 
+import jade.core.AID;
 import jade.core.Agent;
 import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import auction.routing.AuctionRouter;
+import auction.routing.DirectoryCache;
+import auction.scheduling.ClockTicker;
+import auction.stats.MailboxGauge;
 import java.util.*;
 
 public class AggressiveBidderAgent extends Agent {
     private double budget;
+    private DirectoryCache directory;
+    private AuctionRouter router;
+    private AuctionCodec codec = new AuctionCodec();
     private Map<String, Double> trackedAuctions;
     private double aggressiveness = 1.2;
     
@@ -20,8 +30,11 @@ public class AggressiveBidderAgent extends Agent {
         budget = (args != null && args.length > 0) ? (Double) args[0] : 5000.0;
         trackedAuctions = new HashMap<>();
         
+        directory = new DirectoryCache(this, AuctionRouter.SERVICE_TYPE);
+        router = new AuctionRouter(directory);
         registerToDF();
         
+        addBehaviour(new MailboxGauge(this, 1000));
         addBehaviour(new ListenAuctionsBehaviour());
         addBehaviour(new AggressiveBiddingBehaviour(this, 1000));
         
@@ -43,22 +56,34 @@ public class AggressiveBidderAgent extends Agent {
     }
     
     class ListenAuctionsBehaviour extends CyclicBehaviour {
+        // Les notifications du DF (INFORM) sont réservées au cache d'annuaire;
+        // les réponses aux offres sont consommées pour ne pas s'accumuler dans la boîte
+        private final MessageTemplate template = directory.excludeNotifications(MessageTemplate.or(
+            MessageTemplate.MatchPerformative(ACLMessage.INFORM),
+            MessageTemplate.or(MessageTemplate.MatchPerformative(ACLMessage.ACCEPT_PROPOSAL),
+                               MessageTemplate.MatchPerformative(ACLMessage.REJECT_PROPOSAL))));
+        
         @Override
         public void action() {
-            ACLMessage msg = receive(MessageTemplate.MatchPerformative(ACLMessage.INFORM));
+            ACLMessage msg = receive(template);
             
-            if (msg != null) {
-                String content = msg.getContent();
-                String[] parts = content.split(";");
+            if (msg != null && msg.getPerformative() != ACLMessage.INFORM) {
+                // Enchère close: inutile de continuer à enchérir dessus (in-reply-to = article)
+                if (msg.getPerformative() == ACLMessage.REJECT_PROPOSAL &&
+                    "Enchère inexistante".equals(msg.getContent()) && msg.getInReplyTo() != null) {
+                    trackedAuctions.remove(msg.getInReplyTo());
+                }
+            } else if (msg != null) {
+                AuctionMessage event = codec.decode(msg);
                 
-                if (parts[0].equals("NEW_AUCTION")) {
-                    String itemId = parts[1];
-                    double startPrice = Double.parseDouble(parts[2]);
+                if (event != null && event.type == AuctionCodec.NEW_AUCTION) {
+                    String itemId = event.itemId;
+                    double startPrice = event.amount;
                     trackedAuctions.put(itemId, startPrice);
                     System.out.println("📢 " + getLocalName() + " détecte: " + itemId);
-                } else if (parts[0].equals("BID_UPDATE")) {
-                    String itemId = parts[1];
-                    double newPrice = Double.parseDouble(parts[2]);
+                } else if (event != null && event.type == AuctionCodec.BID_UPDATE) {
+                    String itemId = event.itemId;
+                    double newPrice = event.amount;
                     trackedAuctions.put(itemId, newPrice);
                 }
             } else {
@@ -67,7 +92,7 @@ public class AggressiveBidderAgent extends Agent {
         }
     }
     
-    class AggressiveBiddingBehaviour extends TickerBehaviour {
+    class AggressiveBiddingBehaviour extends ClockTicker {
         public AggressiveBiddingBehaviour(Agent a, long period) {
             super(a, period);
         }
@@ -89,16 +114,13 @@ public class AggressiveBidderAgent extends Agent {
     private void placeBid(String itemId, double amount) {
         try {
             ACLMessage msg = new ACLMessage(ACLMessage.PROPOSE);
-            msg.setContent(itemId + ";" + amount);
-            
-            DFAgentDescription template = new DFAgentDescription();
-            ServiceDescription sd = new ServiceDescription();
-            sd.setType("auction-service");
-            template.addServices(sd);
+            codec.bid(msg, itemId, amount, 1);
+            msg.setReplyWith(itemId);
             
-            DFAgentDescription[] results = DFService.search(this, template);
-            if (results.length > 0) {
-                msg.addReceiver(results[0].getName());
+            // Envoi direct à la partition propriétaire de l'article
+            AID auctioneer = router.route(itemId);
+            if (auctioneer != null) {
+                msg.addReceiver(auctioneer);
                 send(msg);
                 System.out.println("💸 " + getLocalName() + " offre " + amount + "€ pour " + itemId);
             }
@@ -109,6 +131,7 @@ public class AggressiveBidderAgent extends Agent {
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
@@ -5,28 +5,152 @@ import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
+import auction.AuctionConfig;
+import auction.bank.CreditHeadroom;
+import auction.bank.Ledger;
+import auction.bank.SettlementWindow;
+import auction.bank.SolvencyPipeline;
+import auction.clearing.SealedBidBook;
+import auction.clearing.UniformPriceClearing;
 import auction.models.*;
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import auction.routing.AuctionRouter;
+import auction.routing.BankRouter;
+import auction.routing.DirectoryCache;
+import auction.routing.ShardRing;
+import auction.scheduling.Clock;
+import auction.scheduling.ClockTicker;
+import auction.scheduling.TimingWheel;
+import auction.stats.LatencyStages;
+import auction.stats.MailboxGauge;
+import auction.stats.PlatformStatistics;
+import auction.stats.StatisticsPublisher;
+import auction.storage.AuctionRecovery;
+import auction.storage.BidHistoryStore;
+import auction.storage.AuctionSnapshot;
+import auction.storage.EventLog;
+import auction.storage.SnapshotStore;
+import auction.web.AuctionRegistry;
 import auction.web.WebInterface;  // ← NOUVEAU
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AuctioneerAgent extends Agent {
     private Map<String, AuctionItem> activeAuctions;
-    private Map<String, List<Bid>> bidHistory;
-    private String auctionType;
+    private BidHistoryStore bidHistory;
+    // Formats attribués à tour de rôle; carnets des enchères sous pli scellé
+    private AuctionFormat[] auctionFormats;
+    private Map<String, SealedBidBook> sealedBooks;
+    private Map<String, UniformPriceClearing> multiUnitBooks;
+    
+    // Partitionnement: cet agent ne possède que les articles que l'anneau lui attribue
+    private int shardIndex;
+    private int shardCount;
+    
+    // Échéances de clôture: O(1) par insertion/annulation au lieu d'un parcours complet
+    private TimingWheel<AuctionItem> closeTimers;
+    private Map<String, TimingWheel.Timeout<AuctionItem>> closeHandles;
+    private long softCloseMs;
+    private int bidBatchSize;
+    
+    private PlatformStatistics stats;
+    private LatencyStages latencies;
+    private DirectoryCache directory;
+    private AuctionCodec codec;
+    
+    // Journal d'écriture anticipée: l'état est reconstruit par rejeu au démarrage (null = désactivé)
+    private EventLog eventLog;
+    private SnapshotStore snapshots;
+    private List<AuctionItem> recoveredAuctions = new ArrayList<>();
+    private long itemCounter;
+    
+    // Solvabilité: marge locale + requêtes asynchrones corrélées vers la banque
+    static final String SOLVENCY_CONVERSATION = "solvency-check";
+    // Verdict de la banque sans part renvoyée: porté par l'offre remise en boîte, valable pour elle seule
+    private static final String SOLVENCY_VERDICT = "X-solvency-verdict";
+    private String solvencyMode;
+    private CreditHeadroom headroom;
+    private SolvencyPipeline<ACLMessage> solvencyPipeline;
+    private ReceiveBidsBehaviour receiveBids;
+    private long syncRequests;
+    
+    // Règlement des adjudications: paiements un par un, ou lots compensés par fenêtre (null = immédiat)
+    static final String SETTLEMENT_CONVERSATION = "settlement";
+    private static final long SETTLEMENT_TIMEOUT_MS = 10000;
+    private SettlementWindow settlement;
+    private BankRouter bankRouter;
+    // Mode holds: la banque reçoit les mises à jour et adjudications et règle elle-même
+    private boolean bankHolds;
     
     @Override
     protected void setup() {
         System.out.println("🏛️ AuctioneerAgent " + getLocalName() + " démarré!");
         
-        activeAuctions = new HashMap<>();
-        bidHistory = new HashMap<>();
-        auctionType = "ENGLISH";
+        Object[] args = getArguments();
+        shardIndex = (args != null && args.length > 0) ? (Integer) args[0] : 0;
+        shardCount = (args != null && args.length > 1) ? (Integer) args[1] : 1;
+        
+        // Lue par le serveur HTTP (/api/auctions) depuis un autre thread
+        activeAuctions = new ConcurrentHashMap<>();
+        bidHistory = new BidHistoryStore();
+        auctionFormats = AuctionConfig.auctionFormats();
+        sealedBooks = new HashMap<>();
+        multiUnitBooks = new HashMap<>();
+        
+        // Case de la roue et période de CheckAuctionEndBehaviour à la moitié de la
+        // tolérance: une clôture part au plus une case + une période après l'échéance
+        long closeTick = Math.max(1, AuctionConfig.closeToleranceMs() / 2);
+        closeTimers = new TimingWheel<>(closeTick, 512, Clock.get().millis());
+        closeHandles = new HashMap<>();
+        softCloseMs = AuctionConfig.softCloseMs();
+        bidBatchSize = AuctionConfig.bidBatchSize();
         
+        stats = PlatformStatistics.get();
+        latencies = LatencyStages.get();
+        codec = new AuctionCodec();
+        StatisticsPublisher.start(AuctionConfig.statsIntervalMs());
+        
+        solvencyMode = AuctionConfig.solvencyMode();
+        headroom = new CreditHeadroom(AuctionConfig.creditHeadroomTtlMs());
+        solvencyPipeline = new SolvencyPipeline<>(getLocalName());
+        if (AuctionConfig.settlementMode().equals("netting")) {
+            settlement = new SettlementWindow(AuctionConfig.settlementMaxAccounts());
+        }
+        bankHolds = AuctionConfig.settlementMode().equals("holds");
+        
+        recoverFromEventLog();
+        
+        AuctionRegistry.register(getLocalName(), activeAuctions);
         registerToDF();
+        directory = new DirectoryCache(this, "bidder-service", BankRouter.SERVICE_TYPE);
+        bankRouter = new BankRouter(directory);
         
+        receiveBids = new ReceiveBidsBehaviour();
+        addBehaviour(new MailboxGauge(this, 1000));
         addBehaviour(new CreateAuctionsBehaviour(this, 5000));
-        addBehaviour(new ReceiveBidsBehaviour());
-        addBehaviour(new CheckAuctionEndBehaviour(this, 2000));
+        addBehaviour(receiveBids);
+        if (!solvencyMode.equals("none")) {
+            // Aussi en sync: réponses tardives et parts poussées par la banque
+            addBehaviour(new SolvencyRepliesBehaviour());
+        }
+        if (solvencyMode.equals("pipelined")) {
+            addBehaviour(new SolvencyTimeoutBehaviour(this, 500));
+        }
+        addBehaviour(new CheckAuctionEndBehaviour(this, closeTick));
+        addBehaviour(new SettlementRepliesBehaviour());
+        if (settlement != null) {
+            addBehaviour(new SettlementBehaviour(this, AuctionConfig.settlementWindowMs()));
+        }
+        if (eventLog != null && snapshots != null) {
+            addBehaviour(new SnapshotBehaviour(this, AuctionConfig.snapshotIntervalMs()));
+        }
+        if (shardIndex == 0) {
+            // Une seule partition interroge l'AMS pour le nombre réel d'agents
+            addBehaviour(new CountAgentsBehaviour(this, 5000));
+        }
         
         // ✨ NOUVEAU: Logger vers l'interface web
         WebInterface.log("AuctioneerAgent démarré", "success");
@@ -34,13 +158,142 @@ public class AuctioneerAgent extends Agent {
         System.out.println("✅ Auctioneer prêt à gérer les enchères");
     }
     
+    private void recoverFromEventLog() {
+        String logDir = AuctionConfig.eventLogDir();
+        if (logDir.isEmpty()) return;
+        
+        try {
+            eventLog = new EventLog(Paths.get(logDir, getLocalName()), 
+                                    EventLog.FsyncPolicy.parse(AuctionConfig.fsyncPolicy()), 
+                                    AuctionConfig.fsyncIntervalMs());
+            long startNanos = System.nanoTime();
+            AuctionRecovery recovery = new AuctionRecovery(bidHistory);
+            
+            // Dernier instantané puis seulement les événements postérieurs
+            long fromLsn = 0;
+            String snapshotDir = AuctionConfig.snapshotDir();
+            if (!snapshotDir.isEmpty()) {
+                snapshots = new SnapshotStore(Paths.get(snapshotDir, getLocalName()), 2);
+                SnapshotStore.Snapshot snapshot = snapshots.loadLatest();
+                if (snapshot != null) {
+                    AuctionSnapshot.restore(snapshot.data, recovery);
+                    fromLsn = snapshot.lsn;
+                }
+            }
+            long events = eventLog.replay(recovery, fromLsn);
+            
+            for (AuctionItem item : recovery.getAuctions().values()) {
+                activeAuctions.put(item.getId(), item);
+                closeHandles.put(item.getId(), closeTimers.schedule(item, item.getEndTime().getTime()));
+                stats.auctionOpened(item.getCurrentPrice() * item.getQuantity());
+                if (item.getCurrentWinner() != null) {
+                    headroom.reserve(item.getCurrentWinner(), item.getId(), Math.round(item.getCurrentPrice() * 100));
+                }
+                recoveredAuctions.add(item);
+            }
+            sealedBooks.putAll(recovery.getSealedBooks());
+            multiUnitBooks.putAll(recovery.getMultiUnitBooks());
+            for (Map.Entry<String, SealedBidBook> book : sealedBooks.entrySet()) {
+                for (String bidder : book.getValue().bidders()) {
+                    headroom.reserve(bidder, book.getKey(), book.getValue().committedCents(bidder));
+                }
+            }
+            for (Map.Entry<String, UniformPriceClearing> book : multiUnitBooks.entrySet()) {
+                for (String bidder : book.getValue().bidders()) {
+                    headroom.reserve(bidder, book.getKey(), book.getValue().committedCents(bidder));
+                }
+            }
+            itemCounter = recovery.getLastItemNumber();
+            
+            if (fromLsn > 0 || events > 0) {
+                System.out.println("♻️ " + getLocalName() + ": instantané au LSN " + fromLsn + " + " + 
+                                 events + " événements rejoués, " + 
+                                 activeAuctions.size() + " enchères restaurées en " + 
+                                 String.format("%.1f ms", (System.nanoTime() - startNanos) / 1e6));
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Journal d'événements indisponible: " + e.getMessage());
+            eventLog = null;
+        }
+    }
+    
+    // Capture sur le thread de l'agent (copie mémoire), écriture disque sur le thread des instantanés
+    class SnapshotBehaviour extends TickerBehaviour {
+        public SnapshotBehaviour(Agent a, long period) {
+            super(a, period);
+        }
+        
+        @Override
+        protected void onTick() {
+            takeSnapshot();
+        }
+    }
+    
+    private void takeSnapshot() {
+        try {
+            // Segments couverts par le dernier instantané durable: inutiles au redémarrage
+            long durableLsn = snapshots.getLastWrittenLsn();
+            if (durableLsn > 0) {
+                eventLog.truncateBefore(durableLsn);
+            }
+            
+            commitEventLog();
+            long lsn = eventLog.getNextLsn();
+            if (lsn == durableLsn) return;
+            
+            byte[] data = AuctionSnapshot.capture(itemCounter, activeAuctions.values(), bidHistory, multiUnitBooks);
+            snapshots.writeAsync(lsn, data);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void logNewAuction(AuctionItem item) {
+        if (eventLog == null) return;
+        try {
+            eventLog.newAuction(item, Clock.get().millis());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void logBidAccepted(String itemId, String bidderId, double amount, long quantity) {
+        if (eventLog == null) return;
+        try {
+            eventLog.bidAccepted(itemId, bidderId, amount, quantity, Clock.get().millis());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void logAuctionClosed(String itemId, String winnerId, double price) {
+        if (eventLog == null) return;
+        try {
+            eventLog.auctionClosed(itemId, winnerId, price, Clock.get().millis());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    // Group commit: un seul write (+ fsync selon la politique) pour tous les événements du passage
+    private void commitEventLog() {
+        if (eventLog == null) return;
+        try {
+            eventLog.commit();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
     private void registerToDF() {
         try {
             DFAgentDescription dfd = new DFAgentDescription();
             dfd.setName(getAID());
             ServiceDescription sd = new ServiceDescription();
-            sd.setType("auction-service");
+            sd.setType(AuctionRouter.SERVICE_TYPE);
             sd.setName("auction-management");
+            sd.addProperties(new Property(AuctionRouter.SHARD_PROPERTY, String.valueOf(shardIndex)));
+            sd.addProperties(new Property(AuctionRouter.SHARD_COUNT_PROPERTY, String.valueOf(shardCount)));
             dfd.addServices(sd);
             DFService.register(this, dfd);
         } catch (Exception e) {
@@ -48,8 +301,8 @@ public class AuctioneerAgent extends Agent {
         }
     }
     
-    class CreateAuctionsBehaviour extends TickerBehaviour {
-        private int auctionCounter = 0;
+    class CreateAuctionsBehaviour extends ClockTicker {
+        private int created = 0;
         
         public CreateAuctionsBehaviour(Agent a, long period) {
             super(a, period);
@@ -57,161 +310,648 @@ public class AuctioneerAgent extends Agent {
         
         @Override
         protected void onTick() {
+            // Enchères restaurées: annoncées une fois l'annuaire des enchérisseurs alimenté
+            for (AuctionItem item : recoveredAuctions) {
+                WebInterface.notifyNewAuction(item.getId(), item.getName(), item.getCurrentPrice(), item.getReservePrice());
+                broadcastNewAuction(item);
+            }
+            recoveredAuctions.clear();
+            
             if (activeAuctions.size() < 5) {
-                String itemId = "ITEM-" + (++auctionCounter);
+                String itemId = nextOwnedItemId();
                 double startPrice = 100 + Math.random() * 900;
                 double reservePrice = startPrice * 1.5;
+                AuctionFormat format = auctionFormats[created++ % auctionFormats.length];
+                // Lot multi-unités: prix de départ et de réserve unitaires
+                long quantity = format.isMultiUnit() ? 10 + (long) (Math.random() * 91) : 1;
                 
                 AuctionItem item = new AuctionItem(
                     itemId,
-                    "Article " + auctionCounter,
+                    "Article " + itemCounter,
                     startPrice,
-                    reservePrice
+                    reservePrice,
+                    format,
+                    quantity
                 );
                 
                 activeAuctions.put(itemId, item);
-                bidHistory.put(itemId, new ArrayList<>());
+                if (format.isMultiUnit()) {
+                    multiUnitBooks.put(itemId, new UniformPriceClearing());
+                } else if (format.isSealed()) {
+                    sealedBooks.put(itemId, new SealedBidBook());
+                }
+                closeHandles.put(itemId, closeTimers.schedule(item, item.getEndTime().getTime()));
+                logNewAuction(item);
+                commitEventLog();
                 
-                System.out.println("🆕 Nouvelle enchère: " + itemId + " - Prix départ: " + startPrice + "€");
+                System.out.println("🆕 Nouvelle enchère: " + itemId + " (" + format + ") - Prix départ: " + startPrice + "€");
                 
                 // ✨ NOUVEAU: Notifier l'interface web
                 WebInterface.notifyNewAuction(itemId, item.getName(), startPrice, reservePrice);
                 WebInterface.log("Nouvelle enchère créée: " + itemId, "info");
                 
-                // Mettre à jour les statistiques
-                updateStatistics();
+                stats.auctionOpened(startPrice * quantity);
                 
                 broadcastNewAuction(item);
             }
         }
+        
+        // Identifiant unique dont l'anneau attribue la propriété à cette partition
+        private String nextOwnedItemId() {
+            if (shardCount == 1) {
+                return "ITEM-" + (++itemCounter);
+            }
+            String itemId;
+            do {
+                itemId = "ITEM-" + shardIndex + "-" + (++itemCounter);
+            } while (ShardRing.shardFor(itemId, shardCount) != shardIndex);
+            return itemId;
+        }
     }
     
+    // Admission par lots: draine jusqu'à bidBatchSize PROPOSE par passage, ne retient
+    // que la meilleure offre par article et n'émet qu'un BID_UPDATE par article et par lot
     class ReceiveBidsBehaviour extends CyclicBehaviour {
+        private final MessageTemplate template = MessageTemplate.MatchPerformative(ACLMessage.PROPOSE);
+        private final Map<String, BidCandidate> bestByItem = new LinkedHashMap<>();
+        private final List<BidCandidate> outbid = new ArrayList<>();
+        private final List<String> rejectLogs = new ArrayList<>();
+        // Acceptations envoyées seulement après le commit du journal
+        private final List<ACLMessage> acceptances = new ArrayList<>();
+        // Part de l'offre en cours passée à modifier l'état (exclue de la validation)
+        private long stateNanos;
+        
         @Override
         public void action() {
-            ACLMessage msg = receive(MessageTemplate.MatchPerformative(ACLMessage.PROPOSE));
-            
-            if (msg != null) {
-                try {
-                    String content = msg.getContent();
-                    String[] parts = content.split(";");
-                    String itemId = parts[0];
-                    double bidAmount = Double.parseDouble(parts[1]);
-                    String bidderId = msg.getSender().getLocalName();
+            ACLMessage msg = receive(template);
+            if (msg == null) {
+                block();
+                return;
+            }
+            
+            int drained = 0;
+            while (msg != null) {
+                admit(msg);
+                if (++drained >= bidBatchSize) break;
+                msg = receive(template);
+            }
+            
+            for (BidCandidate best : bestByItem.values()) {
+                acceptBid(best);
+            }
+            long commitStart = System.nanoTime();
+            commitEventLog();
+            latencies.record(LatencyStages.Stage.LOG_COMMIT, System.nanoTime() - commitStart);
+            for (ACLMessage acceptance : acceptances) {
+                send(acceptance);
+            }
+            for (BidCandidate loser : outbid) {
+                rejectBid(loser.msg, "Offre surenchérie");
+            }
+            
+            if (rejectLogs.size() == 1) {
+                WebInterface.log(rejectLogs.get(0), "warning");
+            } else if (rejectLogs.size() > 1) {
+                WebInterface.log(rejectLogs.size() + " offres rejetées dans le lot (ex: " + 
+                               rejectLogs.get(0) + ")", "warning");
+            }
+            
+            bestByItem.clear();
+            outbid.clear();
+            rejectLogs.clear();
+            acceptances.clear();
+        }
+        
+        private void admit(ACLMessage msg) {
+            long received = System.currentTimeMillis();
+            if (msg.getPostTimeStamp() > 0) {
+                latencies.record(LatencyStages.Stage.MAILBOX_DWELL, (received - msg.getPostTimeStamp()) * 1_000_000);
+            }
+            
+            long parseStart = System.nanoTime();
+            AuctionMessage bid = codec.decode(msg);
+            long validationStart = System.nanoTime();
+            latencies.record(LatencyStages.Stage.PARSE, validationStart - parseStart);
+            
+            if (bid != null && bid.type == AuctionCodec.BID_BATCH) {
+                admitBatch(msg, bid);
+                return;
+            }
+            
+            stateNanos = 0;
+            validate(msg, bid);
+            latencies.record(LatencyStages.Stage.VALIDATION, System.nanoTime() - validationStart - stateNanos);
+        }
+        
+        // Lot d'un BidderHostAgent: une offre autonome par entrée (répondue « lot#i »), admise
+        // comme un PROPOSE ordinaire; tout le lot est ré-encodé avant la première admission,
+        // qui réutilise le message décodé du codec
+        private void admitBatch(ACLMessage batch, AuctionMessage bid) {
+            ACLMessage[] singles = new ACLMessage[bid.batchSize];
+            for (int i = 0; i < singles.length; i++) {
+                ACLMessage single = new ACLMessage(ACLMessage.PROPOSE);
+                single.setSender(batch.getSender());
+                single.setConversationId(batch.getConversationId());
+                single.setReplyWith(batch.getReplyWith() + "#" + i);
+                codec.bid(single, bid.batchItems[i], bid.batchAmounts[i], bid.batchQuantities[i], 
+                          bid.batchBidders[i]);
+                singles[i] = single;
+            }
+            for (ACLMessage single : singles) {
+                admit(single);
+            }
+        }
+        
+        private void validate(ACLMessage msg, AuctionMessage bid) {
+            try {
+                if (bid == null || bid.type != AuctionCodec.BID) {
+                    rejectBid(msg, "Offre illisible");
+                    return;
+                }
+                String itemId = bid.itemId;
+                double bidAmount = bid.amount;
+                String sender = msg.getSender().getLocalName();
+                String bidderId = bid.bidderId != null ? bid.bidderId : sender;
+                if (!BidderHostAgent.mayBidFor(sender, bidderId)) {
+                    rejectBid(msg, "Enchérisseur non autorisé");
+                    return;
+                }
+                
+                AuctionItem item = activeAuctions.get(itemId);
+                if (item == null) {
+                    rejectBid(msg, "Enchère inexistante");
+                    return;
+                }
+                
+                if (item.getFormat().isMultiUnit()) {
+                    // Prix unitaire et quantité (une unité par défaut)
+                    admitMultiUnit(msg, item, bidderId, bidAmount, bid.quantity);
+                    return;
+                }
+                
+                if (item.getFormat().isSealed()) {
+                    admitSealed(msg, item, bidderId, bidAmount);
+                    return;
+                }
+                
+                BidCandidate best = bestByItem.get(itemId);
+                double floor = best != null ? best.amount : item.getCurrentPrice();
+                
+                if (bidAmount > floor) {
+                    long cents = Math.round(bidAmount * 100);
+                    CreditHeadroom.Decision solvency = checkSolvency(msg, bidderId, itemId, cents);
                     
-                    if (activeAuctions.containsKey(itemId)) {
-                        AuctionItem item = activeAuctions.get(itemId);
-                        
-                        if (bidAmount > item.getCurrentPrice()) {
-                            if (checkSolvency(bidderId, bidAmount)) {
-                                item.setCurrentPrice(bidAmount);
-                                item.setCurrentWinner(bidderId);
-                                
-                                Bid bid = new Bid(bidderId, itemId, bidAmount);
-                                bidHistory.get(itemId).add(bid);
-                                
-                                System.out.println("✅ Offre acceptée: " + bidderId + " - " + bidAmount + "€ pour " + itemId);
-                                
-                                // ✨ NOUVEAU: Notifier l'interface web
-                                WebInterface.notifyBidUpdate(itemId, bidAmount, bidderId);
-                                WebInterface.log(String.format("%s a placé une offre de %.2f€ sur %s", 
-                                               bidderId, bidAmount, itemId), "info");
-                                
-                                // Mettre à jour les statistiques
-                                updateStatistics();
-                                
-                                ACLMessage reply = msg.createReply();
-                                reply.setPerformative(ACLMessage.ACCEPT_PROPOSAL);
-                                reply.setContent("Offre acceptée: " + bidAmount + "€");
-                                send(reply);
-                                
-                                notifyBidUpdate(itemId, bidAmount, bidderId);
-                            } else {
-                                rejectBid(msg, "Fonds insuffisants");
-                                // ✨ NOUVEAU: Logger le rejet
-                                WebInterface.log(bidderId + " - Offre rejetée: fonds insuffisants", "warning");
-                            }
-                        } else {
-                            rejectBid(msg, "Offre trop basse");
-                            WebInterface.log(bidderId + " - Offre trop basse", "warning");
+                    if (solvency == CreditHeadroom.Decision.PASS) {
+                        if (best != null) {
+                            outbid.add(best);
+                            headroom.release(best.bidderId, itemId);
                         }
-                    } else {
-                        rejectBid(msg, "Enchère inexistante");
+                        headroom.reserve(bidderId, itemId, cents);
+                        bestByItem.put(itemId, new BidCandidate(msg, item, bidderId, bidAmount));
+                    } else if (solvency == CreditHeadroom.Decision.FAIL) {
+                        rejectBid(msg, "Fonds insuffisants");
+                        rejectLogs.add(bidderId + " - Offre rejetée: fonds insuffisants");
                     }
-                } catch (Exception e) {
-                    e.printStackTrace();
+                    // CHECK: offre mise en attente de la réponse de la banque
+                } else if (best != null && bidAmount > item.getCurrentPrice()) {
+                    rejectBid(msg, "Offre surenchérie");
+                } else {
+                    rejectBid(msg, "Offre trop basse");
+                    rejectLogs.add(bidderId + " - Offre trop basse");
                 }
-            } else {
-                block();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        
+        // Pli scellé: l'offre est seulement consignée, sans diffusion ni mise à jour du prix
+        private void admitSealed(ACLMessage msg, AuctionItem item, String bidderId, double bidAmount) {
+            if (bidAmount < item.getStartingPrice()) {
+                rejectBid(msg, "Offre trop basse");
+                return;
+            }
+            
+            SealedBidBook book = sealedBooks.get(item.getId());
+            long cents = Math.round(bidAmount * 100);
+            // Le gagnant paie au plus sa meilleure offre: c'est elle qui est réservée
+            long committedCents = Math.max(book.committedCents(bidderId), cents);
+            CreditHeadroom.Decision solvency = checkSolvency(msg, bidderId, item.getId(), committedCents);
+            if (solvency == CreditHeadroom.Decision.FAIL) {
+                rejectBid(msg, "Fonds insuffisants");
+                return;
+            }
+            if (solvency == CreditHeadroom.Decision.CHECK) return;
+            
+            long stateStart = System.nanoTime();
+            headroom.reserve(bidderId, item.getId(), committedCents);
+            book.submit(bidderId, cents);
+            stats.bidRecorded();
+            bidHistory.append(item.getId(), bidderId, bidAmount, Clock.get().millis());
+            logBidAccepted(item.getId(), bidderId, bidAmount, 1);
+            stateUpdated(stateStart);
+            
+            ACLMessage reply = msg.createReply();
+            reply.setPerformative(ACLMessage.ACCEPT_PROPOSAL);
+            reply.setContent("Offre scellée enregistrée: " + bidAmount + "€");
+            acceptances.add(reply);
+            stats.countAcceptance();
+        }
+        
+        // Offre de demande: la solvabilité porte sur l'engagement total de l'enchérisseur sur le lot
+        private void admitMultiUnit(ACLMessage msg, AuctionItem item, String bidderId, 
+                                    double unitPrice, long quantity) {
+            if (unitPrice < item.getStartingPrice() || quantity <= 0 || quantity > item.getQuantity()) {
+                rejectBid(msg, quantity <= 0 || quantity > item.getQuantity() ? 
+                          "Quantité invalide" : "Offre trop basse");
+                return;
+            }
+            
+            UniformPriceClearing book = multiUnitBooks.get(item.getId());
+            long unitCents = Math.round(unitPrice * 100);
+            long totalCents = book.committedCents(bidderId) + quantity * unitCents;
+            CreditHeadroom.Decision solvency = checkSolvency(msg, bidderId, item.getId(), totalCents);
+            if (solvency == CreditHeadroom.Decision.FAIL) {
+                rejectBid(msg, "Fonds insuffisants");
+                return;
+            }
+            if (solvency == CreditHeadroom.Decision.CHECK) return;
+            
+            long stateStart = System.nanoTime();
+            headroom.reserve(bidderId, item.getId(), totalCents);
+            book.submit(bidderId, quantity, unitCents);
+            stats.bidRecorded();
+            bidHistory.append(item.getId(), bidderId, unitPrice, Clock.get().millis());
+            logBidAccepted(item.getId(), bidderId, unitPrice, quantity);
+            stateUpdated(stateStart);
+            
+            ACLMessage reply = msg.createReply();
+            reply.setPerformative(ACLMessage.ACCEPT_PROPOSAL);
+            reply.setContent("Offre enregistrée: " + quantity + " x " + unitPrice + "€");
+            acceptances.add(reply);
+            stats.countAcceptance();
+        }
+        
+        private void stateUpdated(long stateStart) {
+            long elapsed = System.nanoTime() - stateStart;
+            stateNanos += elapsed;
+            latencies.record(LatencyStages.Stage.STATE_UPDATE, elapsed);
+        }
+        
+        private void acceptBid(BidCandidate bid) {
+            long stateStart = System.nanoTime();
+            AuctionItem item = bid.item;
+            String itemId = item.getId();
+            
+            // L'ancien meneur récupère sa marge
+            String previousWinner = item.getCurrentWinner();
+            if (previousWinner != null && !previousWinner.equals(bid.bidderId)) {
+                headroom.release(previousWinner, itemId);
             }
+            
+            stats.bidAccepted(item.getCurrentPrice(), bid.amount);
+            item.setCurrentPrice(bid.amount);
+            item.setCurrentWinner(bid.bidderId);
+            
+            bidHistory.append(itemId, bid.bidderId, bid.amount, Clock.get().millis());
+            logBidAccepted(itemId, bid.bidderId, bid.amount, 1);
+            applySoftClose(item);
+            latencies.record(LatencyStages.Stage.STATE_UPDATE, System.nanoTime() - stateStart);
+            
+            System.out.println("✅ Offre acceptée: " + bid.bidderId + " - " + bid.amount + "€ pour " + itemId);
+            
+            // ✨ NOUVEAU: Notifier l'interface web
+            WebInterface.notifyBidUpdate(itemId, bid.amount, bid.bidderId);
+            WebInterface.log(String.format("%s a placé une offre de %.2f€ sur %s", 
+                           bid.bidderId, bid.amount, itemId), "info");
+            
+            ACLMessage reply = bid.msg.createReply();
+            reply.setPerformative(ACLMessage.ACCEPT_PROPOSAL);
+            reply.setContent("Offre acceptée: " + bid.amount + "€");
+            acceptances.add(reply);
+            stats.countAcceptance();
+            
+            notifyBidUpdate(itemId, bid.amount, bid.bidderId, previousWinner);
         }
     }
     
-    class CheckAuctionEndBehaviour extends TickerBehaviour {
+    private static class BidCandidate {
+        final ACLMessage msg;
+        final AuctionItem item;
+        final String bidderId;
+        final double amount;
+        
+        BidCandidate(ACLMessage msg, AuctionItem item, String bidderId, double amount) {
+            this.msg = msg;
+            this.item = item;
+            this.bidderId = bidderId;
+            this.amount = amount;
+        }
+    }
+    
+    /**
+     * Clôtures échues: chacune est journalisée (gagnant, prix), le groupe est
+     * commité, et seulement ensuite les gagnants sont notifiés et réglés. Un
+     * arrêt entre les deux perd au pire la notification, jamais ne la double:
+     * au rejeu, une enchère dont la clôture est journalisée reste close.
+     */
+    class CheckAuctionEndBehaviour extends ClockTicker {
+        private final List<Runnable> awards = new ArrayList<>();
+        
         public CheckAuctionEndBehaviour(Agent a, long period) {
             super(a, period);
         }
         
         @Override
         protected void onTick() {
-            Date now = new Date();
-            List<String> toRemove = new ArrayList<>();
+            closeTimers.advance(Clock.get().millis(), this::closeAuction);
+            commitEventLog();
+            for (Runnable award : awards) {
+                award.run();
+            }
+            awards.clear();
+        }
+        
+        private void closeAuction(AuctionItem item) {
+            if (item.getFormat().isMultiUnit()) {
+                closeMultiUnitAuction(item);
+                return;
+            }
+            if (item.getFormat().isSealed()) {
+                clearSealedAuction(item);
+            }
+            
+            String winner = item.getCurrentWinner();
+            double finalPrice = item.getCurrentPrice();
             
-            for (Map.Entry<String, AuctionItem> entry : activeAuctions.entrySet()) {
-                AuctionItem item = entry.getValue();
+            System.out.println("🏁 Enchère terminée: " + item.getId());
+            
+            if (winner != null && finalPrice >= item.getReservePrice()) {
+                System.out.println("🎉 Gagnant: " + winner + " - Prix: " + finalPrice + "€");
                 
-                if (now.after(item.getEndTime())) {
-                    String winner = item.getCurrentWinner();
-                    double finalPrice = item.getCurrentPrice();
-                    
-                    System.out.println("🏁 Enchère terminée: " + item.getId());
-                    
-                    if (winner != null && finalPrice >= item.getReservePrice()) {
-                        System.out.println("🎉 Gagnant: " + winner + " - Prix: " + finalPrice + "€");
-                        
-                        // ✨ NOUVEAU: Notifier l'interface web
-                        WebInterface.notifyAuctionEnd(item.getId(), winner, finalPrice);
-                        WebInterface.log(String.format("🎉 Enchère terminée - Gagnant: %s (%.2f€)", 
-                                       winner, finalPrice), "success");
-                        
-                        notifyWinner(winner, item);
-                        processPayment(winner, finalPrice);
-                    } else {
-                        System.out.println("❌ Enchère échouée - Prix de réserve non atteint");
-                        WebInterface.log("Enchère " + item.getId() + " échouée", "error");
+                // ✨ NOUVEAU: Notifier l'interface web
+                WebInterface.notifyAuctionEnd(item.getId(), winner, finalPrice);
+                WebInterface.log(String.format("🎉 Enchère terminée - Gagnant: %s (%.2f€)", 
+                               winner, finalPrice), "success");
+                
+                awards.add(() -> {
+                    notifyWinner(winner, item);
+                    settle(winner, Math.round(finalPrice * 100));
+                });
+                headroom.settle(winner, item.getId());
+                stats.auctionSold(finalPrice);
+                releaseAuction(item, finalPrice, winner, finalPrice);
+            } else {
+                if (winner != null) headroom.release(winner, item.getId());
+                System.out.println("❌ Enchère échouée - Prix de réserve non atteint");
+                WebInterface.log("Enchère " + item.getId() + " échouée", "error");
+                releaseAuction(item, finalPrice, null, 0);
+            }
+        }
+        
+        // Prix uniforme: chaque gagnant paie ses unités au prix marginal
+        private void closeMultiUnitAuction(AuctionItem item) {
+            UniformPriceClearing book = multiUnitBooks.remove(item.getId());
+            String itemId = item.getId();
+            double volume = item.getCurrentPrice() * item.getQuantity();
+            
+            System.out.println("🏁 Enchère terminée: " + itemId);
+            
+            long startNanos = System.nanoTime();
+            long reserveCents = Math.round(item.getReservePrice() * 100);
+            UniformPriceClearing.Result result = book.clear(item.getQuantity(), reserveCents);
+            double unitPrice = result.clearingPriceCents / 100.0;
+            
+            System.out.println("📜 Dépouillement MULTI_UNIT de " + itemId + ": " + book.size() + " offres, " + 
+                             result.unitsSold + "/" + item.getQuantity() + " unités à " + unitPrice + "€ en " + 
+                             String.format("%.3f ms", (System.nanoTime() - startNanos) / 1e6));
+            
+            String firstWinner = null;
+            if (result.winners.length > 0) {
+                double soldVolume = unitPrice * result.unitsSold;
+                stats.adjustVolume(volume, soldVolume);
+                volume = soldVolume;
+                stats.auctionSold(soldVolume);
+                item.setCurrentPrice(unitPrice);
+                firstWinner = result.winners[0];
+                
+                awards.add(() -> {
+                    for (int w = 0; w < result.winners.length; w++) {
+                        notifyWinner(result.winners[w], item, result.units[w]);
+                        settle(result.winners[w], result.costCents(w));
                     }
-                    
-                    toRemove.add(entry.getKey());
+                });
+                for (String winner : result.winners) {
+                    headroom.settle(winner, itemId);
                 }
+                
+                WebInterface.notifyAuctionEnd(itemId, result.winners[0], unitPrice);
+                WebInterface.log(String.format("🎉 Lot %s adjugé à %d enchérisseurs: %d unités à %.2f€", 
+                               itemId, result.winners.length, result.unitsSold, unitPrice), "success");
+            } else {
+                System.out.println("❌ Enchère échouée - Prix de réserve non atteint");
+                WebInterface.log("Enchère " + itemId + " échouée", "error");
             }
             
-            toRemove.forEach(activeAuctions::remove);
-            
-            // Mettre à jour les statistiques après suppression
-            if (!toRemove.isEmpty()) {
-                updateStatistics();
+            for (String bidder : book.bidders()) {
+                headroom.release(bidder, itemId);
             }
+            // Lot multi-unités: premier gagnant et prix unitaire au journal
+            releaseAuction(item, volume, firstWinner, unitPrice);
         }
     }
     
-    // ✨ NOUVEAU: Méthode pour mettre à jour les statistiques
-    private void updateStatistics() {
-        int activeAuctionCount = activeAuctions.size();
+    private void releaseAuction(AuctionItem item, double volume, String winnerId, double price) {
+        logAuctionClosed(item.getId(), winnerId, price);
+        activeAuctions.remove(item.getId());
+        closeHandles.remove(item.getId());
+        bidHistory.release(item.getId());
+        stats.auctionClosed(volume);
+    }
+    
+    // Dépouillement à l'échéance: top-2 en une passe, prix selon le format
+    private void clearSealedAuction(AuctionItem item) {
+        SealedBidBook book = sealedBooks.remove(item.getId());
+        if (book == null) return;
+        
+        long startNanos = System.nanoTime();
+        SealedBidBook.Clearing clearing = book.clear();
+        if (clearing.winnerId == null) return;
         
-        // Compter les agents (simplification)
-        int agentCount = 15; // TODO: compter dynamiquement
+        long priceCents = clearing.winningBidCents;
+        if (item.getFormat() == AuctionFormat.VICKREY) {
+            // Deuxième prix, borné par le prix de départ et le prix de réserve
+            long floorCents = Math.round(Math.max(item.getStartingPrice(), item.getReservePrice()) * 100);
+            long second = Math.max(clearing.secondBidCents, floorCents);
+            priceCents = Math.min(clearing.winningBidCents, second);
+        }
+        double price = priceCents / 100.0;
         
-        // Calculer le volume total
-        double totalVolume = activeAuctions.values().stream()
-            .mapToDouble(AuctionItem::getCurrentPrice)
-            .sum();
+        stats.adjustVolume(item.getCurrentPrice(), price);
+        item.setCurrentPrice(price);
+        item.setCurrentWinner(clearing.winnerId);
+        for (String bidder : book.bidders()) {
+            if (!bidder.equals(clearing.winnerId)) headroom.release(bidder, item.getId());
+        }
+        headroom.reserve(clearing.winnerId, item.getId(), priceCents);
         
-        WebInterface.updateStatistics(activeAuctionCount, agentCount, totalVolume);
+        System.out.println("📜 Dépouillement " + item.getFormat() + " de " + item.getId() + ": " + 
+                         clearing.bidCount + " offres en " + 
+                         String.format("%.3f ms", (System.nanoTime() - startNanos) / 1e6));
+    }
+    
+    // Prolonge l'échéance d'une enchère (reprogrammation O(1) dans la roue)
+    private boolean extendAuction(String itemId, long newEndMs) {
+        AuctionItem item = activeAuctions.get(itemId);
+        TimingWheel.Timeout<AuctionItem> handle = closeHandles.get(itemId);
+        if (item == null || handle == null || newEndMs <= item.getEndTime().getTime()) {
+            return false;
+        }
+        item.setEndTime(new Date(newEndMs));
+        return closeTimers.reschedule(handle, newEndMs);
+    }
+    
+    // Fermeture souple: une offre de dernière minute repousse la clôture
+    private void applySoftClose(AuctionItem item) {
+        if (softCloseMs == 0) return;
+        long minEnd = Clock.get().millis() + softCloseMs;
+        if (extendAuction(item.getId(), minEnd)) {
+            System.out.println("⏱️ Enchère " + item.getId() + " prolongée (offre de dernière minute)");
+        }
+    }
+    
+    // Nombre réel d'agents de la plateforme (hors agents système)
+    class CountAgentsBehaviour extends TickerBehaviour {
+        public CountAgentsBehaviour(Agent a, long period) {
+            super(a, period);
+        }
+        
+        @Override
+        protected void onTick() {
+            try {
+                SearchConstraints all = new SearchConstraints();
+                all.setMaxResults(-1L);
+                AMSAgentDescription[] agents = AMSService.search(myAgent, new AMSAgentDescription(), all);
+                
+                int count = 0;
+                for (AMSAgentDescription agent : agents) {
+                    String name = agent.getName().getLocalName();
+                    if (!name.equals("ams") && !name.equals("df") && !name.equals("rma")) {
+                        count++;
+                    }
+                }
+                stats.setAgentCount(count);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
     }
     
     // Méthodes existantes (inchangées)
-    private boolean checkSolvency(String bidderId, double amount) {
-        return true;
+    // none: aucune vérification | sync: aller-retour bloquant | pipelined: marge locale + requête asynchrone
+    private CreditHeadroom.Decision checkSolvency(ACLMessage bidMsg, String bidderId, String itemId, long cents) {
+        long now = System.currentTimeMillis();
+        
+        switch (solvencyMode) {
+            case "none":
+                return CreditHeadroom.Decision.PASS;
+                
+            case "sync": {
+                String correlationId = getLocalName() + "-sync-" + (++syncRequests);
+                send(solvencyRequest(bidderId, headroom.commitment(bidderId, itemId, cents), correlationId));
+                ACLMessage reply = blockingReceive(MessageTemplate.and(
+                    MessageTemplate.MatchConversationId(SOLVENCY_CONVERSATION),
+                    MessageTemplate.MatchInReplyTo(correlationId)), 2000);
+                return reply != null && reply.getPerformative() == ACLMessage.CONFIRM
+                    ? CreditHeadroom.Decision.PASS : CreditHeadroom.Decision.FAIL;
+            }
+                
+            default: {
+                String verdict = bidMsg.getUserDefinedParameter(SOLVENCY_VERDICT);
+                if (verdict != null) {
+                    bidMsg.removeUserDefinedParameter(SOLVENCY_VERDICT);
+                    return CreditHeadroom.Decision.valueOf(verdict);
+                }
+                CreditHeadroom.Decision decision = headroom.check(bidderId, itemId, cents, now);
+                if (decision == CreditHeadroom.Decision.CHECK) {
+                    String correlationId = solvencyPipeline.park(bidderId, bidMsg, now);
+                    if (correlationId != null) {
+                        // La banque couvre l'engagement total de l'enchérisseur chez cet auctioneer
+                        send(solvencyRequest(bidderId, headroom.commitment(bidderId, itemId, cents), correlationId));
+                    }
+                }
+                return decision;
+            }
+        }
+    }
+    
+    private ACLMessage solvencyRequest(String bidderId, long cents, String correlationId) {
+        ACLMessage request = new ACLMessage(ACLMessage.REQUEST);
+        codec.checkSolvency(request, bidderId, cents / 100.0);
+        request.setConversationId(SOLVENCY_CONVERSATION);
+        request.setReplyWith(correlationId);
+        request.addReceiver(bankRouter.route(bidderId));
+        return request;
+    }
+    
+    // Réponses de la banque: rafraîchit la marge et réinjecte les offres en attente
+    class SolvencyRepliesBehaviour extends CyclicBehaviour {
+        private final MessageTemplate template = MessageTemplate.MatchConversationId(SOLVENCY_CONVERSATION);
+        
+        @Override
+        public void action() {
+            ACLMessage reply = receive(template);
+            if (reply == null) {
+                block();
+                return;
+            }
+            
+            long now = System.currentTimeMillis();
+            AuctionMessage solvency = codec.decode(reply);
+            String correlationId = reply.getInReplyTo();
+            String bidderId = correlationId != null ? solvencyPipeline.bidderFor(correlationId) : null;
+            if (bidderId == null) {
+                // Part recalculée par la banque hors requête (blocage explicite, non financé ou échu)
+                if (reply.getPerformative() == ACLMessage.INFORM && solvency != null && 
+                    solvency.type == AuctionCodec.SOLVENCY && solvency.bidderId != null && !Double.isNaN(solvency.amount)) {
+                    headroom.update(solvency.bidderId, Math.round(solvency.amount * 100), now);
+                }
+                return;
+            }
+            
+            String verdict = null;
+            if (reply.getPerformative() == ACLMessage.FAILURE) {
+                headroom.accountMissing(bidderId, now);
+            } else if (solvency != null && solvency.type == AuctionCodec.SOLVENCY && !Double.isNaN(solvency.amount)) {
+                headroom.refresh(bidderId, Math.round(solvency.amount * 100), now);
+            } else {
+                // Banque sans marge renvoyée: la réponse ne vaut que pour l'offre qui l'a demandée,
+                // rien n'est mis en cache et les suivantes redemandent
+                verdict = (reply.getPerformative() == ACLMessage.CONFIRM ? 
+                           CreditHeadroom.Decision.PASS : CreditHeadroom.Decision.FAIL).name();
+            }
+            
+            List<ACLMessage> parked = solvencyPipeline.complete(correlationId);
+            if (verdict != null && !parked.isEmpty()) {
+                parked.get(0).addUserDefinedParameter(SOLVENCY_VERDICT, verdict);
+            }
+            for (int i = parked.size() - 1; i >= 0; i--) {
+                putBack(parked.get(i));
+            }
+            receiveBids.restart();
+        }
+    }
+    
+    class SolvencyTimeoutBehaviour extends TickerBehaviour {
+        public SolvencyTimeoutBehaviour(Agent a, long period) {
+            super(a, period);
+        }
+        
+        @Override
+        protected void onTick() {
+            for (ACLMessage bidMsg : solvencyPipeline.expire(System.currentTimeMillis(), 2000)) {
+                rejectBid(bidMsg, "Banque indisponible");
+            }
+        }
     }
     
     private void rejectBid(ACLMessage originalMsg, String reason) {
@@ -219,68 +959,172 @@ public class AuctioneerAgent extends Agent {
         reply.setPerformative(ACLMessage.REJECT_PROPOSAL);
         reply.setContent(reason);
         send(reply);
+        stats.countRejection(reason);
     }
     
     private void broadcastNewAuction(AuctionItem item) {
         ACLMessage msg = new ACLMessage(ACLMessage.INFORM);
-        msg.setContent("NEW_AUCTION;" + item.getId() + ";" + item.getCurrentPrice());
+        codec.newAuction(msg, item.getId(), item.getCurrentPrice(), item.getFormat(), item.getQuantity());
         
-        try {
-            DFAgentDescription template = new DFAgentDescription();
-            ServiceDescription sd = new ServiceDescription();
-            sd.setType("bidder-service");
-            template.addServices(sd);
-            
-            DFAgentDescription[] results = DFService.search(this, template);
-            for (DFAgentDescription dfd : results) {
-                msg.addReceiver(dfd.getName());
-            }
-            
-            send(msg);
-        } catch (Exception e) {
-            e.printStackTrace();
+        for (jade.core.AID bidder : directory.lookup("bidder-service")) {
+            msg.addReceiver(bidder);
         }
+        
+        send(msg);
     }
     
-    private void notifyBidUpdate(String itemId, double newPrice, String bidder) {
+    private void notifyBidUpdate(String itemId, double newPrice, String bidder, String previousWinner) {
+        long start = System.nanoTime();
         ACLMessage msg = new ACLMessage(ACLMessage.INFORM);
-        msg.setContent("BID_UPDATE;" + itemId + ";" + newPrice + ";" + bidder);
+        codec.bidUpdate(msg, itemId, newPrice, bidder);
         
-        try {
-            DFAgentDescription template = new DFAgentDescription();
-            ServiceDescription sd = new ServiceDescription();
-            sd.setType("bidder-service");
-            template.addServices(sd);
-            
-            DFAgentDescription[] results = DFService.search(this, template);
-            for (DFAgentDescription dfd : results) {
-                if (!dfd.getName().getLocalName().equals(bidder)) {
-                    msg.addReceiver(dfd.getName());
-                }
+        for (jade.core.AID receiver : directory.lookup("bidder-service")) {
+            if (!receiver.getLocalName().equals(bidder)) {
+                msg.addReceiver(receiver);
+            }
+        }
+        if (bankHolds) {
+            // Même message: la banque du meneur bloque son offre, celle de l'ancien le libère
+            jade.core.AID leaderBank = bankRouter.route(bidder);
+            msg.addReceiver(leaderBank);
+            if (previousWinner != null) {
+                jade.core.AID previousBank = bankRouter.route(previousWinner);
+                if (!previousBank.equals(leaderBank)) msg.addReceiver(previousBank);
             }
-            
-            send(msg);
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+        
+        send(msg);
+        latencies.record(LatencyStages.Stage.FANOUT, System.nanoTime() - start);
     }
     
     private void notifyWinner(String winner, AuctionItem item) {
+        notifyWinner(winner, item, 1);
+    }
+    
+    private void notifyWinner(String winner, AuctionItem item, long units) {
         ACLMessage msg = new ACLMessage(ACLMessage.INFORM);
-        msg.setContent("YOU_WON;" + item.getId() + ";" + item.getCurrentPrice());
-        msg.addReceiver(new jade.core.AID(winner, jade.core.AID.ISLOCALNAME));
+        msg.addReceiver(new jade.core.AID(BidderHostAgent.agentOf(winner), jade.core.AID.ISLOCALNAME));
+        if (bankHolds) {
+            // Gagnant nommé, même message adressé à la banque: elle débite le blocage
+            codec.youWon(msg, item.getId(), item.getCurrentPrice(), units, winner);
+            msg.addReceiver(bankRouter.route(winner));
+        } else {
+            codec.youWon(msg, item.getId(), item.getCurrentPrice(), units);
+        }
         send(msg);
     }
     
+    private void settle(String buyer, long cents) {
+        if (bankHolds) {
+            // Débit fait par la banque à réception de la copie du YOU_WON
+            return;
+        }
+        if (settlement == null) {
+            processPayment(buyer, cents / 100.0);
+        } else if (settlement.add(buyer, cents)) {
+            flushSettlement();
+        }
+    }
+    
     private void processPayment(String buyer, double amount) {
         ACLMessage msg = new ACLMessage(ACLMessage.REQUEST);
-        msg.setContent("PROCESS_PAYMENT;" + buyer + ";" + amount);
-        msg.addReceiver(new jade.core.AID("bank", jade.core.AID.ISLOCALNAME));
+        codec.processPayment(msg, buyer, amount);
+        msg.setConversationId(SETTLEMENT_CONVERSATION);
+        msg.addReceiver(bankRouter.route(buyer));
         send(msg);
     }
     
+    // Ferme la fenêtre courante: un seul message par banque pour toutes ses adjudications
+    private void flushSettlement() {
+        SettlementWindow.Batch batch = settlement.close(System.currentTimeMillis());
+        if (batch == null) return;
+        
+        Map<jade.core.AID, List<Integer>> byBank = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size; i++) {
+            byBank.computeIfAbsent(bankRouter.route(batch.accounts[i]), k -> new ArrayList<>()).add(i);
+        }
+        batch.expectReplies(byBank.size());
+        for (Map.Entry<jade.core.AID, List<Integer>> entry : byBank.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            String[] accounts = new String[indexes.size()];
+            long[] cents = new long[indexes.size()];
+            for (int j = 0; j < accounts.length; j++) {
+                accounts[j] = batch.accounts[indexes.get(j)];
+                cents[j] = batch.cents[indexes.get(j)];
+            }
+            ACLMessage msg = new ACLMessage(ACLMessage.REQUEST);
+            codec.settlementBatch(msg, batch.window, accounts.length, accounts, cents);
+            msg.setConversationId(SETTLEMENT_CONVERSATION);
+            msg.addReceiver(entry.getKey());
+            send(msg);
+        }
+    }
+    
+    class SettlementBehaviour extends ClockTicker {
+        public SettlementBehaviour(Agent a, long period) {
+            super(a, period);
+        }
+        
+        @Override
+        protected void onTick() {
+            flushSettlement();
+            // Pas de renvoi: la banque a pu poster le lot et perdre la réponse
+            for (SettlementWindow.Batch batch : settlement.expire(System.currentTimeMillis(), SETTLEMENT_TIMEOUT_MS)) {
+                System.err.println("⚠️ Lot de règlement " + batch.window + " sans réponse de la banque: " + 
+                                 batch.size + " comptes, " + batch.totalCents() / 100.0 + "€");
+            }
+        }
+    }
+    
+    // Réponses de la banque aux paiements et aux lots: seuls les refus sont signalés
+    class SettlementRepliesBehaviour extends CyclicBehaviour {
+        private final MessageTemplate template = MessageTemplate.MatchConversationId(SETTLEMENT_CONVERSATION);
+        
+        @Override
+        public void action() {
+            ACLMessage reply = receive(template);
+            if (reply == null) {
+                block();
+                return;
+            }
+            
+            AuctionMessage result = codec.decode(reply);
+            if (result == null || result.type != AuctionCodec.SETTLEMENT_RESULT) {
+                if (reply.getPerformative() == ACLMessage.FAILURE) {
+                    System.err.println("❌ Paiement refusé par la banque: " + reply.getContent());
+                }
+                return;
+            }
+            
+            SettlementWindow.Batch batch = settlement != null ? settlement.complete(result.window, result.relayed) : null;
+            for (int i = 0; i < result.batchSize; i++) {
+                if (result.batchStatuses[i] == Ledger.POSTED) continue;
+                System.err.println("❌ Règlement refusé pour " + result.batchBidders[i] + " (" + 
+                                 (batch != null ? batch.obligationsOf(result.batchBidders[i]) + " adjudications, " : "") + 
+                                 result.batchQuantities[i] / 100.0 + "€): " + 
+                                 (result.batchStatuses[i] == Ledger.ACCOUNT_NOT_FOUND ? "compte inconnu" : "fonds insuffisants"));
+            }
+        }
+    }
+    
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
+        AuctionRegistry.unregister(getLocalName());
+        if (settlement != null) {
+            flushSettlement();
+        }
+        if (eventLog != null) {
+            try {
+                if (snapshots != null) {
+                    takeSnapshot();
+                    snapshots.close();
+                }
+                eventLog.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
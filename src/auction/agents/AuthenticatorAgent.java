@@ -5,6 +5,9 @@ import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
+import auction.scheduling.Clock;
+import auction.scheduling.ClockTicker;
+import auction.stats.MailboxGauge;
 import java.util.*;
 
 public class AuthenticatorAgent extends Agent {
@@ -21,7 +24,7 @@ public class AuthenticatorAgent extends Agent {
         AgentCredentials(String id, String role) {
             this.agentId = id;
             this.role = role;
-            this.registrationDate = new Date();
+            this.registrationDate = Clock.get().now();
             this.verified = false;
         }
     }
@@ -36,6 +39,7 @@ public class AuthenticatorAgent extends Agent {
         
         registerToDF();
         
+        addBehaviour(new MailboxGauge(this, 1000));
         addBehaviour(new AuthenticationBehaviour());
         addBehaviour(new SecurityMonitorBehaviour(this, 8000));
         
@@ -137,7 +141,7 @@ public class AuthenticatorAgent extends Agent {
         }
     }
     
-    class SecurityMonitorBehaviour extends TickerBehaviour {
+    class SecurityMonitorBehaviour extends ClockTicker {
         public SecurityMonitorBehaviour(Agent a, long period) {
             super(a, period);
         }
@@ -158,6 +162,7 @@ public class AuthenticatorAgent extends Agent {
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
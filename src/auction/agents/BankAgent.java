@@ -5,108 +5,481 @@ import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
-import auction.models.*;
+import auction.AuctionConfig;
+import auction.bank.CreditGrants;
+import auction.bank.HoldManager;
+import auction.bank.Ledger;
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import auction.routing.AuctionRouter;
+import auction.routing.BankRouter;
+import auction.routing.DirectoryCache;
+import auction.routing.ShardRing;
+import auction.scheduling.Clock;
+import auction.scheduling.ClockTicker;
+import auction.storage.BankSnapshot;
+import auction.storage.SnapshotStore;
+import auction.storage.TransactionJournal;
+import auction.stats.MailboxGauge;
+import jade.core.AID;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 
+/**
+ * Banque, éventuellement partitionnée par compte: arguments (partition,
+ * partitions[, "join"]), partition 0 sur 1 par défaut. Chaque partition tient
+ * les comptes que l'anneau lui attribue (ShardRing sur l'identifiant du
+ * titulaire); les clients s'adressent directement à la bonne (BankRouter).
+ * Une requête arrivée sur une autre partition, faute de table à jour chez le
+ * client, est relayée une fois au propriétaire, qui répond directement.
+ *
+ * Une partition ajoutée (AddBankShardLauncher) s'annonce « joining » avec le
+ * nouveau nombre de partitions: les autres lui remettent les comptes (soldes
+ * et blocages) qui lui reviennent, puis elle passe « active » et entre dans
+ * les tables de routage. L'historique du journal reste sur l'ancienne
+ * partition.
+ *
+ * Au redémarrage, les soldes de l'instantané sont complétés par le rejeu des
+ * transactions journalisées depuis sa capture; les blocages, non journalisés,
+ * sont ceux de l'instantané.
+ */
 public class BankAgent extends Agent {
-    private Map<String, BankAccount> accounts;
+    private static final int MAX_STATEMENT_ENTRIES = 500;
+    private static final long HOLD_EXPIRY_TICK_MS = 1000;
+    private static final long REBALANCE_CHECK_MS = 1000;
+    static final String MIGRATION_CONVERSATION = "bank-migration";
+    // Marque une requête relayée par une autre partition: jamais relayée deux fois
+    private static final String FORWARDED = "X-bank-forwarded";
+    
+    private Ledger ledger;
+    private HoldManager holds;
+    private CreditGrants grants;
+    private DirectoryCache directory;
+    private BankRouter router;
+    private int shardIndex;
+    private int shardCount;
+    private boolean joining;
+    private int migrationsReceived;
+    private SnapshotStore snapshots;
+    private TransactionJournal journal;
+    private long snapshotVersion;
+    private AuctionCodec codec;
     
     @Override
     protected void setup() {
-        System.out.println("🏦 BankAgent " + getLocalName() + " démarré!");
+        Object[] args = getArguments();
+        shardIndex = args != null && args.length > 0 ? (Integer) args[0] : 0;
+        shardCount = args != null && args.length > 1 ? (Integer) args[1] : 1;
+        joining = args != null && args.length > 2 && "join".equals(args[2]);
+        System.out.println("🏦 BankAgent " + getLocalName() + " démarré! (partition " + shardIndex + "/" + shardCount +
+                         (joining ? ", en cours d'arrivée" : "") + ")");
         
-        accounts = new HashMap<>();
+        journal = openJournal();
+        ledger = new Ledger(journal);
+        holds = new HoldManager(ledger, AuctionConfig.holdTtlMs(), HOLD_EXPIRY_TICK_MS, Clock.get().millis());
+        grants = new CreditGrants(AuctionConfig.creditHeadroomTtlMs(), AuctionConfig.auctionShards());
+        codec = new AuctionCodec();
+        replayJournal(restoreSnapshot());
+        directory = new DirectoryCache(this, "bidder-service", BankRouter.SERVICE_TYPE);
+        router = new BankRouter(directory);
         
         registerToDF();
+        // Première partition à arriver: aucun compte à attendre
+        if (joining && shardIndex == 0) activate();
         
+        addBehaviour(new MailboxGauge(this, 1000));
         addBehaviour(new ProcessBankingRequestsBehaviour());
         addBehaviour(new CreateAccountsBehaviour(this, 3000));
+        addBehaviour(new HoldExpiryBehaviour(this, HOLD_EXPIRY_TICK_MS));
+        addBehaviour(new RebalanceBehaviour(this, REBALANCE_CHECK_MS));
+        if (snapshots != null) {
+            addBehaviour(new SnapshotBehaviour(this, AuctionConfig.snapshotIntervalMs()));
+        }
         
         System.out.println("✅ Services bancaires actifs");
     }
     
+    private TransactionJournal openJournal() {
+        String journalDir = AuctionConfig.journalDir();
+        if (journalDir.isEmpty()) return null;
+        
+        try {
+            TransactionJournal opened = new TransactionJournal(Paths.get(journalDir, getLocalName()));
+            if (opened.size() > 0) {
+                System.out.println("📒 Journal des transactions: " + opened.size() + " transactions, " +
+                                 opened.accounts() + " comptes");
+            }
+            return opened;
+        } catch (IOException e) {
+            System.err.println("❌ Journal des transactions indisponible: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // Position du journal atteinte par l'instantané restauré (0 sans instantané, -1 si inconnue)
+    private long restoreSnapshot() {
+        String snapshotDir = AuctionConfig.snapshotDir();
+        if (snapshotDir.isEmpty()) return 0;
+        
+        try {
+            snapshots = new SnapshotStore(Paths.get(snapshotDir, getLocalName()), 2);
+            SnapshotStore.Snapshot snapshot = snapshots.loadLatest();
+            if (snapshot != null) {
+                int restored = BankSnapshot.restore(snapshot.data, ledger, holds);
+                snapshotVersion = snapshot.lsn;
+                System.out.println("♻️ " + restored + " comptes restaurés depuis l'instantané " + snapshot.lsn);
+                return BankSnapshot.readJournalPosition(snapshot.data);
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Instantanés bancaires indisponibles: " + e.getMessage());
+            snapshots = null;
+        }
+        return 0;
+    }
+    
+    // Transactions postées après la capture de l'instantané (ouvertures comprises)
+    private void replayJournal(long fromRecord) {
+        if (journal == null || fromRecord >= journal.size()) return;
+        if (fromRecord < 0) {
+            System.out.println("⚠️ Instantané sans position dans le journal: soldes repris tels quels");
+            return;
+        }
+        
+        long[] applied = {0};
+        long visited = journal.replay(fromRecord, (owner, type, cents, timestamp) -> {
+            if (ledger.replay(owner, type, cents)) applied[0]++;
+        });
+        System.out.println("📒 " + applied[0] + "/" + visited + " transactions rejouées depuis le journal");
+    }
+    
+    // Capture des soldes sur le thread de l'agent, écriture sur le thread des instantanés
+    class SnapshotBehaviour extends TickerBehaviour {
+        public SnapshotBehaviour(Agent a, long period) {
+            super(a, period);
+        }
+        
+        @Override
+        protected void onTick() {
+            takeSnapshot();
+        }
+    }
+    
+    private void takeSnapshot() {
+        try {
+            long journalPosition = journal != null ? journal.size() : -1;
+            snapshots.writeAsync(++snapshotVersion, BankSnapshot.capture(ledger, holds, journalPosition));
+            if (journal != null) journal.force();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private DFAgentDescription description() {
+        DFAgentDescription dfd = new DFAgentDescription();
+        dfd.setName(getAID());
+        ServiceDescription sd = new ServiceDescription();
+        sd.setType(BankRouter.SERVICE_TYPE);
+        sd.setName("banking-service");
+        sd.addProperties(new Property(AuctionRouter.SHARD_PROPERTY, String.valueOf(shardIndex)));
+        sd.addProperties(new Property(AuctionRouter.SHARD_COUNT_PROPERTY, String.valueOf(shardCount)));
+        sd.addProperties(new Property(AuctionRouter.STATE_PROPERTY, joining ? AuctionRouter.JOINING : AuctionRouter.ACTIVE));
+        dfd.addServices(sd);
+        return dfd;
+    }
+    
     private void registerToDF() {
         try {
-            DFAgentDescription dfd = new DFAgentDescription();
-            dfd.setName(getAID());
-            ServiceDescription sd = new ServiceDescription();
-            sd.setType("bank-service");
-            sd.setName("banking-service");
-            dfd.addServices(sd);
-            DFService.register(this, dfd);
+            DFService.register(this, description());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    // Nouveau nombre de partitions ou nouvel état: l'enregistrement DF est remplacé
+    private void updateRegistration() {
+        try {
+            DFService.modify(this, description());
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
     
-    class CreateAccountsBehaviour extends TickerBehaviour {
+    // Partition propriétaire du compte, null si c'est celle-ci
+    private AID ownerOf(String accountId) {
+        int shard = ShardRing.shardFor(accountId, shardCount);
+        return shard == shardIndex ? null : router.shard(shard, shardCount);
+    }
+    
+    // Expéditeur d'origine d'une requête relayée (reply-to posé par la partition qui relaie)
+    private static AID origin(ACLMessage msg) {
+        Iterator<?> replyTo = msg.getAllReplyTo();
+        return replyTo.hasNext() ? (AID) replyTo.next() : msg.getSender();
+    }
+    
+    private void relay(ACLMessage msg, AID owner) {
+        msg.clearAllReceiver();
+        msg.addReceiver(owner);
+        msg.addUserDefinedParameter(FORWARDED, getLocalName());
+        send(msg);
+    }
+    
+    /**
+     * Relaie au propriétaire une requête sur un compte inconnu ici et tenu par
+     * une autre partition; faux si elle doit être traitée ici (compte local,
+     * partition propriétaire, ou requête déjà relayée).
+     */
+    private boolean forwardIfElsewhere(ACLMessage msg, String accountId) {
+        if (accountId == null || ledger.exists(accountId) || msg.getUserDefinedParameter(FORWARDED) != null) {
+            return false;
+        }
+        AID owner = ownerOf(accountId);
+        if (owner == null) return false;
+        
+        ACLMessage copy = (ACLMessage) msg.clone();
+        if (!copy.getAllReplyTo().hasNext()) copy.addReplyTo(msg.getSender());
+        relay(copy, owner);
+        return true;
+    }
+    
+    // Comptes restés sur cette partition: activée une fois ceux des partitions précédentes reçus
+    private void activate() {
+        joining = false;
+        updateRegistration();
+        System.out.println("✅ Partition bancaire " + shardIndex + "/" + shardCount + " active (" + 
+                         ledger.size() + " comptes)");
+    }
+    
+    /**
+     * Passage à newCount partitions: chaque compte qui n'appartient plus à
+     * celle-ci part, soldes et blocages, en un message par partition cible
+     * (format BankSnapshot). Une partition en cours d'arrivée reçoit toujours
+     * un message, même vide: il lui sert d'accusé de fin de migration.
+     */
+    private void rebalance(int newCount, Map<Integer, AID> joiningShards) {
+        shardCount = newCount;
+        Map<Integer, List<String>> moving = new TreeMap<>();
+        ledger.forEach((owner, balanceCents, blockedCents) -> {
+            int shard = ShardRing.shardFor(owner, newCount);
+            if (shard != shardIndex) moving.computeIfAbsent(shard, k -> new ArrayList<>()).add(owner);
+        });
+        for (Integer shard : joiningShards.keySet()) {
+            if (shard != shardIndex) moving.putIfAbsent(shard, new ArrayList<>());
+        }
+        
+        long now = Clock.get().millis();
+        for (Map.Entry<Integer, List<String>> entry : moving.entrySet()) {
+            Ledger moved = new Ledger();
+            HoldManager movedHolds = new HoldManager(moved, AuctionConfig.holdTtlMs(), HOLD_EXPIRY_TICK_MS, now);
+            for (String owner : entry.getValue()) {
+                Ledger.Balance balance = ledger.remove(owner);
+                if (balance == null) continue;
+                moved.restore(owner, balance.balanceCents, balance.blockedCents);
+                holds.detach(owner, movedHolds::restore);
+            }
+            
+            AID target = joiningShards.get(entry.getKey());
+            if (target == null) target = router.shard(entry.getKey(), newCount);
+            try {
+                ACLMessage migration = new ACLMessage(ACLMessage.INFORM);
+                migration.addReceiver(target);
+                migration.setConversationId(MIGRATION_CONVERSATION);
+                migration.setByteSequenceContent(BankSnapshot.capture(moved, movedHolds));
+                send(migration);
+                System.out.println("🔀 " + moved.size() + " comptes migrés vers " + target.getLocalName());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        updateRegistration();
+        // Comptes partis: un rejeu du journal depuis un instantané antérieur les rouvrirait ici
+        if (snapshots != null && !moving.isEmpty()) takeSnapshot();
+    }
+    
+    private void handleMigration(ACLMessage msg) {
+        try {
+            int imported = BankSnapshot.restore(
+                    new DataInputStream(new ByteArrayInputStream(msg.getByteSequenceContent())), ledger, holds);
+            System.out.println("🔀 " + imported + " comptes reçus de " + msg.getSender().getLocalName());
+            // Comptes arrivés sans ouverture journalisée ici: rendus durables par l'instantané
+            if (snapshots != null && imported > 0) takeSnapshot();
+        } catch (IOException e) {
+            System.err.println("❌ Migration illisible de " + msg.getSender().getLocalName() + ": " + e.getMessage());
+        }
+        if (joining && ++migrationsReceived >= shardIndex) activate();
+    }
+    
+    // Disponible modifié hors du fil des enchères (blocage explicite, non financé ou échu):
+    // chaque auctioneer qui détient une part pour ce compte reçoit sa part recalculée
+    private void pushGrants(String bidderId) {
+        long now = System.currentTimeMillis();
+        for (String auctioneer : grants.holders(bidderId, now)) {
+            long available = ledger.available(bidderId);
+            if (available < 0) return;
+            available += holds.heldCents(bidderId, auctioneer);
+            long granted = grants.regrant(bidderId, auctioneer, available, holds, now);
+            
+            ACLMessage update = new ACLMessage(ACLMessage.INFORM);
+            codec.solvencyUpdate(update, bidderId, granted / 100.0);
+            update.setConversationId(AuctioneerAgent.SOLVENCY_CONVERSATION);
+            update.addReceiver(new AID(auctioneer, AID.ISLOCALNAME));
+            send(update);
+        }
+    }
+    
+    // Surveille les annonces DF des autres partitions: une partition arrivante déclenche la migration
+    class RebalanceBehaviour extends TickerBehaviour {
+        private DirectoryCache.View lastView;
+        private boolean ownershipChecked;
+        
+        public RebalanceBehaviour(Agent a, long period) {
+            super(a, period);
+        }
+        
+        @Override
+        protected void onTick() {
+            DirectoryCache.View view = directory.view(BankRouter.SERVICE_TYPE);
+            if (view == lastView || joining) return;
+            lastView = view;
+            
+            // Premier passage: comptes restaurés d'un instantané pris avec un autre découpage
+            int announced = BankRouter.announcedShardCount(view.descriptions);
+            if (announced > shardCount || !ownershipChecked) {
+                ownershipChecked = true;
+                rebalance(Math.max(announced, shardCount), BankRouter.joiningShards(view.descriptions));
+            }
+        }
+    }
+    
+    class CreateAccountsBehaviour extends ClockTicker {
         public CreateAccountsBehaviour(Agent a, long period) {
             super(a, period);
         }
         
         @Override
         protected void onTick() {
-            try {
-                DFAgentDescription template = new DFAgentDescription();
-                ServiceDescription sd = new ServiceDescription();
-                sd.setType("bidder-service");
-                template.addServices(sd);
-                
-                DFAgentDescription[] results = DFService.search(myAgent, template);
-                
-                for (DFAgentDescription dfd : results) {
-                    String agentName = dfd.getName().getLocalName();
-                    if (!accounts.containsKey(agentName)) {
-                        double initialBalance = 5000 + Math.random() * 10000;
-                        accounts.put(agentName, new BankAccount(agentName, initialBalance));
-                        System.out.println("💳 Compte créé pour " + agentName + 
-                                         " - Solde: " + String.format("%.2f€", initialBalance));
-                    }
+            // Comptes reçus des autres partitions d'abord
+            if (joining) return;
+            // Vue locale tenue à jour par abonnement au DF
+            for (jade.core.AID bidder : directory.lookup("bidder-service")) {
+                String agentName = bidder.getLocalName();
+                if (ownerOf(agentName) == null && !ledger.exists(agentName)) {
+                    long initialBalance = Ledger.toCents(5000 + Math.random() * 10000);
+                    ledger.open(agentName, initialBalance);
+                    System.out.println("💳 Compte créé pour " + agentName + 
+                                     " - Solde: " + String.format("%.2f€", initialBalance / 100.0));
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
+            }
+        }
+    }
+    
+    // Blocages échus (enchère échouée, lot multi-unités, BLOCK_FUNDS explicite)
+    class HoldExpiryBehaviour extends ClockTicker {
+        public HoldExpiryBehaviour(Agent a, long period) {
+            super(a, period);
+        }
+        
+        @Override
+        protected void onTick() {
+            Set<String> released = new HashSet<>();
+            int expired = holds.expire(Clock.get().millis(), 
+                                       (bidderId, itemId, auctioneer, cents, expiresAt) -> released.add(bidderId));
+            for (String bidderId : released) {
+                pushGrants(bidderId);
+            }
+            grants.expire(System.currentTimeMillis());
+            if (expired > 0) {
+                System.out.println("⏳ " + expired + " blocages expirés (" + holds.size() + " en cours)");
             }
         }
     }
     
     class ProcessBankingRequestsBehaviour extends CyclicBehaviour {
+        private final MessageTemplate template = directory.excludeNotifications(null);
+        
         @Override
         public void action() {
-            ACLMessage msg = receive();
+            ACLMessage msg = receive(template);
             
             if (msg != null) {
+                if (MIGRATION_CONVERSATION.equals(msg.getConversationId())) {
+                    handleMigration(msg);
+                    return;
+                }
+                // Chemin chaud (solvabilité, paiements) via le codec; le reste en texte
+                AuctionMessage request = codec.decode(msg);
+                if (request != null && (request.type == AuctionCodec.CHECK_SOLVENCY || 
+                                        request.type == AuctionCodec.PROCESS_PAYMENT ||
+                                        request.type == AuctionCodec.YOU_WON) &&
+                    forwardIfElsewhere(msg, request.bidderId)) {
+                    return;
+                }
+                if (request != null && request.type == AuctionCodec.CHECK_SOLVENCY) {
+                    handleSolvencyCheck(msg, request.bidderId, request.amount);
+                    return;
+                }
+                if (request != null && request.type == AuctionCodec.PROCESS_PAYMENT) {
+                    handlePayment(msg, request.bidderId, request.amount);
+                    return;
+                }
+                if (request != null && request.type == AuctionCodec.SETTLEMENT_BATCH) {
+                    handleSettlement(msg, request);
+                    return;
+                }
+                // Événements d'enchères (mode holds): pas de réponse. L'auctioneer adresse
+                // BID_UPDATE aux banques du nouveau et de l'ancien meneur: rien à relayer
+                if (request != null && request.type == AuctionCodec.BID_UPDATE) {
+                    if (!holds.outbid(request.itemId, request.bidderId, msg.getSender().getLocalName(), 
+                                      Ledger.toCents(request.amount), Clock.get().millis()) &&
+                        ledger.exists(request.bidderId)) {
+                        // Meneur non financé: les auctioneers le croyaient solvable
+                        pushGrants(request.bidderId);
+                    }
+                    return;
+                }
+                if (request != null && request.type == AuctionCodec.YOU_WON) {
+                    if (request.bidderId != null) handleAward(request);
+                    return;
+                }
+                
                 String content = msg.getContent();
                 String[] parts = content.split(";");
+                if (parts.length > 1 && !parts[0].equals("OPEN_ACCOUNTS") && forwardIfElsewhere(msg, parts[1])) {
+                    return;
+                }
                 
-                if (parts[0].equals("CHECK_SOLVENCY")) {
-                    handleSolvencyCheck(msg, parts);
-                } else if (parts[0].equals("BLOCK_FUNDS")) {
+                if (parts[0].equals("BLOCK_FUNDS")) {
                     handleBlockFunds(msg, parts);
-                } else if (parts[0].equals("PROCESS_PAYMENT")) {
-                    handlePayment(msg, parts);
                 } else if (parts[0].equals("GET_BALANCE")) {
                     handleBalanceInquiry(msg, parts);
+                } else if (parts[0].equals("GET_STATEMENT")) {
+                    handleStatement(msg, parts);
+                } else if (parts[0].equals("OPEN_ACCOUNTS")) {
+                    handleOpenAccounts(msg, parts);
                 }
             } else {
                 block();
             }
         }
         
-        private void handleSolvencyCheck(ACLMessage msg, String[] parts) {
-            String agentId = parts[1];
-            double amount = Double.parseDouble(parts[2]);
-            
+        private void handleSolvencyCheck(ACLMessage msg, String agentId, double amount) {
             ACLMessage reply = msg.createReply();
+            long available = ledger.available(agentId);
             
-            if (accounts.containsKey(agentId)) {
-                BankAccount account = accounts.get(agentId);
-                if (account.hasSufficientFunds(amount)) {
-                    reply.setPerformative(ACLMessage.CONFIRM);
-                    reply.setContent("SOLVENT");
-                } else {
-                    reply.setPerformative(ACLMessage.DISCONFIRM);
-                    reply.setContent("INSUFFICIENT_FUNDS");
-                }
+            if (available >= 0) {
+                // L'auctioneer réserve déjà ses offres menantes: ses blocages lui sont rendus
+                String auctioneer = origin(msg).getLocalName();
+                available += holds.heldCents(agentId, auctioneer);
+                // amount: engagement total de l'enchérisseur chez cet auctioneer. Sa part du
+                // disponible (hors parts des autres partitions) accompagne la réponse et devient sa marge
+                long requested = Ledger.toCents(amount);
+                long granted = grants.grant(agentId, auctioneer, available, requested, holds, 
+                                            System.currentTimeMillis());
+                boolean solvent = granted >= requested;
+                reply.setPerformative(solvent ? ACLMessage.CONFIRM : ACLMessage.DISCONFIRM);
+                codec.solvency(reply, solvent, granted / 100.0);
             } else {
                 reply.setPerformative(ACLMessage.FAILURE);
                 reply.setContent("ACCOUNT_NOT_FOUND");
@@ -115,18 +488,54 @@ public class BankAgent extends Agent {
             send(reply);
         }
         
+        // Enchérisseurs hébergés par un BidderHostAgent: absents du DF, comptes ouverts à sa demande
+        // Les identifiants d'une autre partition lui sont relayés; la réponse ne compte que ceux ouverts ici
+        private void handleOpenAccounts(ACLMessage msg, String[] parts) {
+            String host = origin(msg).getLocalName();
+            boolean forwarded = msg.getUserDefinedParameter(FORWARDED) != null;
+            Map<AID, StringBuilder> elsewhere = new HashMap<>();
+            int opened = 0;
+            for (int i = 1; i < parts.length; i++) {
+                String bidderId = parts[i];
+                AID owner = forwarded ? null : ownerOf(bidderId);
+                if (owner != null) {
+                    elsewhere.computeIfAbsent(owner, k -> new StringBuilder("OPEN_ACCOUNTS")).append(';').append(bidderId);
+                } else if (!joining && BidderHostAgent.agentOf(bidderId).equals(host) &&
+                           ledger.open(bidderId, Ledger.toCents(5000 + Math.random() * 10000))) {
+                    opened++;
+                }
+            }
+            for (Map.Entry<AID, StringBuilder> entry : elsewhere.entrySet()) {
+                ACLMessage copy = (ACLMessage) msg.clone();
+                copy.setContent(entry.getValue().toString());
+                copy.addReplyTo(msg.getSender());
+                relay(copy, entry.getKey());
+            }
+            if (opened > 0) {
+                System.out.println("💳 " + opened + " comptes ouverts pour les enchérisseurs de " + host);
+            }
+            
+            ACLMessage reply = msg.createReply();
+            reply.setPerformative(ACLMessage.INFORM);
+            reply.setContent("ACCOUNTS_OPENED;" + opened);
+            send(reply);
+        }
+        
+        // BLOCK_FUNDS;agentId;montant[;article]: remplace le blocage précédent sur l'article, expire faute d'être soldé
         private void handleBlockFunds(ACLMessage msg, String[] parts) {
             String agentId = parts[1];
             double amount = Double.parseDouble(parts[2]);
+            String itemId = parts.length > 3 ? parts[3] : "";
             
             ACLMessage reply = msg.createReply();
             
-            if (accounts.containsKey(agentId)) {
-                BankAccount account = accounts.get(agentId);
-                if (account.blockFunds(amount)) {
+            if (ledger.exists(agentId)) {
+                if (holds.place(agentId, itemId, origin(msg).getLocalName(), Ledger.toCents(amount), 
+                                Clock.get().millis())) {
                     reply.setPerformative(ACLMessage.CONFIRM);
                     reply.setContent("FUNDS_BLOCKED");
                     System.out.println("🔒 Fonds bloqués: " + amount + "€ pour " + agentId);
+                    pushGrants(agentId);
                 } else {
                     reply.setPerformative(ACLMessage.REFUSE);
                     reply.setContent("INSUFFICIENT_FUNDS");
@@ -139,15 +548,11 @@ public class BankAgent extends Agent {
             send(reply);
         }
         
-        private void handlePayment(ACLMessage msg, String[] parts) {
-            String buyer = parts[1];
-            double amount = Double.parseDouble(parts[2]);
-            
+        private void handlePayment(ACLMessage msg, String buyer, double amount) {
             ACLMessage reply = msg.createReply();
             
-            if (accounts.containsKey(buyer)) {
-                BankAccount account = accounts.get(buyer);
-                if (account.debit(amount)) {
+            if (ledger.exists(buyer)) {
+                if (ledger.debit(buyer, Ledger.toCents(amount))) {
                     reply.setPerformative(ACLMessage.INFORM);
                     reply.setContent("PAYMENT_PROCESSED");
                     System.out.println("💸 Paiement traité: " + amount + "€ de " + buyer);
@@ -155,21 +560,99 @@ public class BankAgent extends Agent {
                     reply.setPerformative(ACLMessage.FAILURE);
                     reply.setContent("PAYMENT_FAILED");
                 }
+            } else {
+                reply.setPerformative(ACLMessage.FAILURE);
+                reply.setContent("ACCOUNT_NOT_FOUND");
             }
             
             send(reply);
         }
         
+        // Adjudication (mode holds): le blocage du gagnant devient un débit au prix final
+        private void handleAward(AuctionMessage award) {
+            long priceCents = Ledger.toCents(award.amount) * award.quantity;
+            if (holds.settle(award.bidderId, award.itemId, priceCents)) {
+                System.out.println("💸 Paiement traité: " + priceCents / 100.0 + "€ de " + award.bidderId + 
+                                 " pour " + award.itemId);
+            } else {
+                System.err.println("❌ Paiement impossible: " + priceCents / 100.0 + "€ de " + award.bidderId + 
+                                 " pour " + award.itemId);
+            }
+        }
+        
+        // Lot compensé d'une fenêtre de règlement: posté d'un bloc, une seule réponse
+        // Les comptes d'une autre partition y partent en sous-lot de même fenêtre, réglé et acquitté par elle;
+        // la réponse annonce ces sous-lots (même vide) pour que l'auctioneer attende leurs réponses
+        private void handleSettlement(ACLMessage msg, AuctionMessage batch) {
+            String[] accounts = batch.batchBidders;
+            long[] cents = batch.batchQuantities;
+            int size = batch.batchSize;
+            int relayed = -1;
+            if (msg.getUserDefinedParameter(FORWARDED) == null) {
+                relayed = 0;
+                Map<AID, List<Integer>> elsewhere = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    AID owner = ledger.exists(accounts[i]) ? null : ownerOf(accounts[i]);
+                    if (owner != null) elsewhere.computeIfAbsent(owner, k -> new ArrayList<>()).add(i);
+                }
+                if (!elsewhere.isEmpty()) {
+                    for (Map.Entry<AID, List<Integer>> entry : elsewhere.entrySet()) {
+                        List<Integer> indexes = entry.getValue();
+                        String[] subAccounts = new String[indexes.size()];
+                        long[] subCents = new long[indexes.size()];
+                        for (int j = 0; j < subAccounts.length; j++) {
+                            subAccounts[j] = accounts[indexes.get(j)];
+                            subCents[j] = cents[indexes.get(j)];
+                        }
+                        ACLMessage sub = new ACLMessage(msg.getPerformative());
+                        sub.setConversationId(msg.getConversationId());
+                        sub.addReplyTo(origin(msg));
+                        codec.settlementBatch(sub, batch.window, subAccounts.length, subAccounts, subCents);
+                        relay(sub, entry.getKey());
+                        relayed++;
+                    }
+                    // Entrées restantes, compactées
+                    String[] localAccounts = new String[size];
+                    long[] localCents = new long[size];
+                    int local = 0;
+                    for (int i = 0; i < size; i++) {
+                        if (ledger.exists(accounts[i]) || ownerOf(accounts[i]) == null) {
+                            localAccounts[local] = accounts[i];
+                            localCents[local++] = cents[i];
+                        }
+                    }
+                    accounts = localAccounts;
+                    cents = localCents;
+                    size = local;
+                }
+            }
+            
+            byte[] statuses = new byte[size];
+            int posted = ledger.postBatch(accounts, cents, size, statuses);
+            
+            long totalCents = 0;
+            for (int i = 0; i < size; i++) {
+                if (statuses[i] == Ledger.POSTED) totalCents += cents[i];
+            }
+            System.out.println("💸 Lot de règlement " + batch.window + " de " + origin(msg).getLocalName() + 
+                             ": " + posted + "/" + size + " comptes, " + String.format("%.2f€", totalCents / 100.0));
+            
+            ACLMessage reply = msg.createReply();
+            reply.setPerformative(ACLMessage.INFORM);
+            codec.settlementResult(reply, batch.window, size, accounts, cents, statuses, relayed);
+            send(reply);
+        }
+        
         private void handleBalanceInquiry(ACLMessage msg, String[] parts) {
             String agentId = parts[1];
             
             ACLMessage reply = msg.createReply();
             
-            if (accounts.containsKey(agentId)) {
-                BankAccount account = accounts.get(agentId);
+            Ledger.Balance balance = ledger.balance(agentId);
+            if (balance != null) {
                 reply.setPerformative(ACLMessage.INFORM);
-                reply.setContent("BALANCE;" + account.getBalance() + ";" + 
-                               account.getAvailableBalance());
+                reply.setContent("BALANCE;" + balance.balanceCents / 100.0 + ";" + 
+                               balance.availableCents() / 100.0);
             } else {
                 reply.setPerformative(ACLMessage.FAILURE);
                 reply.setContent("ACCOUNT_NOT_FOUND");
@@ -177,10 +660,41 @@ public class BankAgent extends Agent {
             
             send(reply);
         }
+        
+        // GET_STATEMENT;agentId[;depuisMs[;jusquàMs]]: au plus MAX_STATEMENT_ENTRIES transactions, les plus récentes
+        private void handleStatement(ACLMessage msg, String[] parts) {
+            String agentId = parts[1];
+            long fromMs = parts.length > 2 ? Long.parseLong(parts[2]) : 0;
+            long toMs = parts.length > 3 ? Long.parseLong(parts[3]) : Long.MAX_VALUE;
+            
+            ACLMessage reply = msg.createReply();
+            
+            if (journal != null && ledger.exists(agentId)) {
+                StringBuilder content = new StringBuilder("STATEMENT");
+                journal.statement(agentId, fromMs, toMs, MAX_STATEMENT_ENTRIES, (type, cents, timestamp) ->
+                        content.append(';').append(TransactionJournal.typeName(type)).append(',')
+                               .append(cents / 100.0).append(',').append(timestamp));
+                reply.setPerformative(ACLMessage.INFORM);
+                reply.setContent(content.toString());
+            } else {
+                reply.setPerformative(ACLMessage.FAILURE);
+                reply.setContent(journal == null ? "NO_JOURNAL" : "ACCOUNT_NOT_FOUND");
+            }
+            
+            send(reply);
+        }
     }
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
+        if (snapshots != null) {
+            takeSnapshot();
+            snapshots.close();
+        }
+        if (journal != null) {
+            journal.close();
+        }
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
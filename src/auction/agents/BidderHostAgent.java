@@ -0,0 +1,337 @@
+package auction.agents;
+
+import jade.core.AID;
+import jade.core.Agent;
+import jade.core.behaviours.*;
+import jade.lang.acl.*;
+import jade.domain.*;
+import jade.domain.FIPAAgentManagement.*;
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import auction.routing.AuctionRouter;
+import auction.routing.BankRouter;
+import auction.routing.DirectoryCache;
+import auction.scheduling.Clock;
+import auction.scheduling.ClockTicker;
+import auction.stats.MailboxGauge;
+import auction.strategy.BidderStrategy;
+import java.util.*;
+
+// ============================================================================
+// HÔTE D'ENCHÉRISSEURS: des milliers de stratégies (agressive, conservatrice,
+// intelligente) dans un seul agent JADE, donc un seul thread au lieu d'un par
+// enchérisseur.
+//   - NEW_AUCTION, BID_UPDATE et YOU_WON sont reçus une fois et diffusés en
+//     mémoire à toutes les stratégies;
+//   - un tick (100 ms de l'horloge du domaine par défaut) fait décider les stratégies arrivées à
+//     échéance, puis envoie leurs offres en un BID_BATCH par auctioneer;
+//   - chaque enchérisseur hébergé a son propre compte bancaire et son nom
+//     « hôte.styleN »: l'auctioneer n'accepte d'un hôte que les offres faites
+//     pour ses propres enchérisseurs, et lui adresse leurs adjudications.
+// Arguments: {nombre d'enchérisseurs (Integer), graine (Long), tick en ms (Long)}
+// ============================================================================
+public class BidderHostAgent extends Agent {
+
+    public static final char SEPARATOR = '.';
+    static final String ACCOUNTS_CONVERSATION = "open-accounts";
+
+    private static final String[] STYLES = {"aggressive", "conservative", "intelligent"};
+    private static final int ACCOUNTS_PER_REQUEST = 500;
+    private static final long BATCH_TIMEOUT_MS = 30000;
+
+    private final List<BidderStrategy> bidders = new ArrayList<>();
+    private final Map<AID, Batch> outgoing = new HashMap<>();
+    private final Map<String, SentBatch> inFlight = new HashMap<>();
+    private final Map<String, List<String>> unopenedAccounts = new LinkedHashMap<>();
+    private DirectoryCache directory;
+    private AuctionRouter router;
+    private BankRouter bankRouter;
+    private AuctionCodec codec = new AuctionCodec();
+    private long batchCounter;
+    private long sent, accepted, rejected, won;
+
+    // Offres d'un tick pour un même auctioneer
+    private static final class Batch {
+        int size;
+        String[] bidders = new String[16];
+        String[] items = new String[16];
+        double[] amounts = new double[16];
+        long[] quantities = new long[16];
+
+        void add(String bidderId, String itemId, double amount) {
+            if (size == bidders.length) {
+                bidders = Arrays.copyOf(bidders, 2 * size);
+                items = Arrays.copyOf(items, 2 * size);
+                amounts = Arrays.copyOf(amounts, 2 * size);
+                quantities = Arrays.copyOf(quantities, 2 * size);
+            }
+            bidders[size] = bidderId;
+            items[size] = itemId;
+            amounts[size] = amount;
+            quantities[size] = 1;
+            size++;
+        }
+    }
+
+    // Lot envoyé: articles des entrées, pour interpréter les réponses « lot#i »
+    private static final class SentBatch {
+        final String[] items;
+        final long sentAt;
+        int pending;
+
+        SentBatch(String[] items, long sentAt) {
+            this.items = items;
+            this.sentAt = sentAt;
+            this.pending = items.length;
+        }
+    }
+
+    // Nom de l'agent qui reçoit les messages d'un enchérisseur (lui-même s'il n'est pas hébergé)
+    public static String agentOf(String bidderId) {
+        int separator = bidderId.indexOf(SEPARATOR);
+        return separator < 0 ? bidderId : bidderId.substring(0, separator);
+    }
+
+    // Vrai si l'agent émetteur peut enchérir au nom de cet enchérisseur
+    public static boolean mayBidFor(String sender, String bidderId) {
+        return bidderId.equals(sender) || agentOf(bidderId).equals(sender);
+    }
+
+    @Override
+    protected void setup() {
+        Object[] args = getArguments();
+        int count = (args != null && args.length > 0) ? (Integer) args[0] : 1000;
+        long seed = (args != null && args.length > 1) ? (Long) args[1] : 42L;
+        long tickMs = (args != null && args.length > 2) ? (Long) args[2] : 100L;
+
+        Random random = new Random(seed);
+        long now = Clock.get().millis();
+        List<String> ids = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            String style = STYLES[i % STYLES.length];
+            String id = getLocalName() + SEPARATOR + style + i;
+            BidderStrategy bidder = BidderStrategy.create(style, id, BidderStrategy.initialBudget(style, random), now);
+            // Premières décisions étalées sur une période pour lisser les lots
+            bidder.delayFirstDecision(random.nextDouble());
+            bidders.add(bidder);
+            ids.add(id);
+            if (ids.size() == ACCOUNTS_PER_REQUEST || i == count) {
+                unopenedAccounts.put(getLocalName() + "-accounts-" + unopenedAccounts.size(), ids);
+                ids = new ArrayList<>();
+            }
+        }
+
+        directory = new DirectoryCache(this, AuctionRouter.SERVICE_TYPE, BankRouter.SERVICE_TYPE);
+        router = new AuctionRouter(directory);
+        bankRouter = new BankRouter(directory);
+        registerToDF();
+
+        addBehaviour(new MailboxGauge(this, 1000));
+        addBehaviour(new ListenBehaviour());
+        addBehaviour(new TickBehaviour(this, tickMs));
+        addBehaviour(new OpenAccountsBehaviour(this, 3000));
+        addBehaviour(new ReportBehaviour(this, 10000));
+
+        System.out.println("🏠 BidderHost " + getLocalName() + " démarré: " + count +
+                         " enchérisseurs hébergés, tick " + tickMs + " ms");
+    }
+
+    private void registerToDF() {
+        try {
+            DFAgentDescription dfd = new DFAgentDescription();
+            dfd.setName(getAID());
+            ServiceDescription sd = new ServiceDescription();
+            sd.setType("bidder-service");
+            sd.setName("bidder-host");
+            dfd.addServices(sd);
+            DFService.register(this, dfd);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    class ListenBehaviour extends CyclicBehaviour {
+        // Les notifications du DF (INFORM) sont réservées au cache d'annuaire
+        private final MessageTemplate template = directory.excludeNotifications(null);
+
+        @Override
+        public void action() {
+            ACLMessage msg = receive(template);
+            if (msg == null) {
+                block();
+                return;
+            }
+
+            int drained = 0;
+            while (msg != null) {
+                handle(msg);
+                if (++drained >= 256) break;
+                msg = receive(template);
+            }
+        }
+
+        private void handle(ACLMessage msg) {
+            switch (msg.getPerformative()) {
+                case ACLMessage.ACCEPT_PROPOSAL:
+                    accepted++;
+                    replyReceived(msg.getInReplyTo(), false);
+                    return;
+                case ACLMessage.REJECT_PROPOSAL:
+                    rejected++;
+                    replyReceived(msg.getInReplyTo(), "Enchère inexistante".equals(msg.getContent()));
+                    return;
+                case ACLMessage.INFORM:
+                    if (ACCOUNTS_CONVERSATION.equals(msg.getConversationId())) {
+                        unopenedAccounts.remove(msg.getInReplyTo());
+                        return;
+                    }
+                    break;
+                default:
+                    return;  // FAILURE de l'AMS (banque pas encore démarrée): réessai au prochain tour
+            }
+
+            AuctionMessage event = codec.decode(msg);
+            if (event == null) return;
+
+            long now = Clock.get().millis();
+            switch (event.type) {
+                case AuctionCodec.NEW_AUCTION:
+                    for (BidderStrategy bidder : bidders) {
+                        bidder.onNewAuction(event.itemId, event.amount, now);
+                    }
+                    break;
+                case AuctionCodec.BID_UPDATE:
+                    for (BidderStrategy bidder : bidders) {
+                        bidder.onBidUpdate(event.itemId, event.amount, now);
+                    }
+                    break;
+                case AuctionCodec.YOU_WON:
+                    // Enchère adjugée à l'un des hébergés: close pour tous
+                    won++;
+                    forget(event.itemId);
+                    break;
+            }
+        }
+
+        // Réponse « lot#i »: entrée i du lot
+        private void replyReceived(String inReplyTo, boolean unknownAuction) {
+            int hash = inReplyTo != null ? inReplyTo.lastIndexOf('#') : -1;
+            if (hash < 0) return;
+            String batchId = inReplyTo.substring(0, hash);
+            SentBatch batch = inFlight.get(batchId);
+            if (batch == null) return;
+
+            if (unknownAuction) {
+                forget(batch.items[Integer.parseInt(inReplyTo.substring(hash + 1))]);
+            }
+            if (--batch.pending == 0) {
+                inFlight.remove(batchId);
+            }
+        }
+    }
+
+    private void forget(String itemId) {
+        for (BidderStrategy bidder : bidders) {
+            bidder.forget(itemId);
+        }
+    }
+
+    class TickBehaviour extends ClockTicker {
+        private final BidderStrategy.BidSink sink = (bidder, itemId, amount) -> {
+            AID auctioneer = router.route(itemId);
+            if (auctioneer != null) {
+                outgoing.computeIfAbsent(auctioneer, a -> new Batch()).add(bidder.getId(), itemId, amount);
+            }
+        };
+
+        public TickBehaviour(Agent a, long period) {
+            super(a, period);
+        }
+
+        @Override
+        protected void onTick() {
+            long now = Clock.get().millis();
+            for (BidderStrategy bidder : bidders) {
+                bidder.tick(now, sink);
+            }
+
+            for (Map.Entry<AID, Batch> entry : outgoing.entrySet()) {
+                Batch batch = entry.getValue();
+                if (batch.size == 0) continue;
+
+                String batchId = getLocalName() + "-b" + (++batchCounter);
+                ACLMessage msg = new ACLMessage(ACLMessage.PROPOSE);
+                codec.bidBatch(msg, batch.size, batch.bidders, batch.items, batch.amounts, batch.quantities);
+                msg.setReplyWith(batchId);
+                msg.addReceiver(entry.getKey());
+                send(msg);
+
+                inFlight.put(batchId, new SentBatch(Arrays.copyOf(batch.items, batch.size), 
+                                                    System.currentTimeMillis()));
+                sent += batch.size;
+                Arrays.fill(batch.bidders, 0, batch.size, null);
+                Arrays.fill(batch.items, 0, batch.size, null);
+                batch.size = 0;
+            }
+
+            // Lots dont des réponses ne viendront plus (offre perdue en route), en temps réel
+            long wallNow = System.currentTimeMillis();
+            inFlight.values().removeIf(batch -> wallNow - batch.sentAt > BATCH_TIMEOUT_MS);
+        }
+    }
+
+    // Ouverture des comptes des hébergés, par paquets, jusqu'à confirmation de la banque
+    class OpenAccountsBehaviour extends TickerBehaviour {
+        public OpenAccountsBehaviour(Agent a, long period) {
+            super(a, period);
+        }
+
+        @Override
+        protected void onTick() {
+            // Banque partitionnée: chaque paquet est scindé par banque propriétaire, qui confirme sa part
+            for (String key : new ArrayList<>(unopenedAccounts.keySet())) {
+                Map<AID, List<String>> byBank = new LinkedHashMap<>();
+                for (String id : unopenedAccounts.get(key)) {
+                    byBank.computeIfAbsent(bankRouter.route(id), k -> new ArrayList<>()).add(id);
+                }
+                if (byBank.size() > 1) {
+                    unopenedAccounts.remove(key);
+                    int part = 0;
+                    for (List<String> ids : byBank.values()) {
+                        unopenedAccounts.put(key + "." + part++, ids);
+                    }
+                }
+            }
+            for (Map.Entry<String, List<String>> entry : unopenedAccounts.entrySet()) {
+                ACLMessage request = new ACLMessage(ACLMessage.REQUEST);
+                request.setContent("OPEN_ACCOUNTS;" + String.join(";", entry.getValue()));
+                request.setConversationId(ACCOUNTS_CONVERSATION);
+                request.setReplyWith(entry.getKey());
+                request.addReceiver(bankRouter.route(entry.getValue().get(0)));
+                send(request);
+            }
+        }
+    }
+
+    class ReportBehaviour extends TickerBehaviour {
+        public ReportBehaviour(Agent a, long period) {
+            super(a, period);
+        }
+
+        @Override
+        protected void onTick() {
+            System.out.println("🏠 " + getLocalName() + ": " + bidders.size() + " enchérisseurs, " +
+                             sent + " offres envoyées, " + accepted + " acceptées, " +
+                             rejected + " rejetées, " + won + " adjudications");
+        }
+    }
+
+    @Override
+    protected void takeDown() {
+        MailboxGauge.unregister(this);
+        try {
+            DFService.deregister(this);
+        } catch (Exception e) {}
+        System.out.println("🛑 BidderHost terminé");
+    }
+}
@@ -5,11 +5,19 @@ import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
+import auction.protocol.AuctionCodec;
+import auction.protocol.MessageDispatcher;
+import auction.routing.AuctionRouter;
+import auction.routing.DirectoryCache;
+import auction.stats.MailboxGauge;
 import java.util.*;
 
 public class CoalitionAgent extends Agent {
     private Map<String, Coalition> activeCoalitions;
     private int coalitionCounter = 0;
+    private DirectoryCache directory;
+    private AuctionRouter router;
+    private AuctionCodec codec = new AuctionCodec();
     
     class Coalition {
         String id;
@@ -34,11 +42,18 @@ public class CoalitionAgent extends Agent {
         System.out.println("🤝 CoalitionAgent " + getLocalName() + " démarré!");
         
         activeCoalitions = new HashMap<>();
+        directory = new DirectoryCache(this, AuctionRouter.SERVICE_TYPE);
+        router = new AuctionRouter(directory);
         
         registerToDF();
         
-        addBehaviour(new ManageCoalitionsBehaviour());
-        addBehaviour(new CoordinateGroupBidsBehaviour());
+        // Les notifications du DF restent à l'abonnement de l'annuaire
+        addBehaviour(new MailboxGauge(this, 1000));
+        addBehaviour(new MessageDispatcher(this, directory.excludeNotifications(null))
+            .on("CREATE_COALITION", this::handleCreate)
+            .on("JOIN_COALITION", this::handleJoin)
+            .on("SET_TARGET", this::handleSetTarget)
+            .on("PLACE_GROUP_BID", this::handleGroupBid));
         
         System.out.println("✅ Service de coalitions actif");
     }
@@ -57,114 +72,84 @@ public class CoalitionAgent extends Agent {
         }
     }
     
-    class ManageCoalitionsBehaviour extends CyclicBehaviour {
-        @Override
-        public void action() {
-            ACLMessage msg = receive();
+    // CREATE_COALITION
+    private void handleCreate(ACLMessage msg, String[] parts) {
+        String coalitionId = "COALITION-" + (++coalitionCounter);
+        Coalition coalition = new Coalition(coalitionId);
+        activeCoalitions.put(coalitionId, coalition);
+        
+        ACLMessage reply = msg.createReply();
+        reply.setPerformative(ACLMessage.INFORM);
+        reply.setContent("COALITION_CREATED;" + coalitionId);
+        send(reply);
+        
+        System.out.println("🤝 Coalition créée: " + coalitionId);
+    }
+    
+    // JOIN_COALITION;coalitionId;contribution
+    private void handleJoin(ACLMessage msg, String[] parts) {
+        String senderId = msg.getSender().getLocalName();
+        String coalitionId = parts[1];
+        double contribution = Double.parseDouble(parts[2]);
+        
+        ACLMessage reply = msg.createReply();
+        
+        if (activeCoalitions.containsKey(coalitionId)) {
+            Coalition coalition = activeCoalitions.get(coalitionId);
+            coalition.addMember(senderId, contribution);
             
-            if (msg != null) {
-                String content = msg.getContent();
-                String[] parts = content.split(";");
-                String senderId = msg.getSender().getLocalName();
-                
-                if (parts[0].equals("CREATE_COALITION")) {
-                    String coalitionId = "COALITION-" + (++coalitionCounter);
-                    Coalition coalition = new Coalition(coalitionId);
-                    activeCoalitions.put(coalitionId, coalition);
-                    
-                    ACLMessage reply = msg.createReply();
-                    reply.setPerformative(ACLMessage.INFORM);
-                    reply.setContent("COALITION_CREATED;" + coalitionId);
-                    send(reply);
-                    
-                    System.out.println("🤝 Coalition créée: " + coalitionId);
-                    
-                } else if (parts[0].equals("JOIN_COALITION")) {
-                    String coalitionId = parts[1];
-                    double contribution = Double.parseDouble(parts[2]);
-                    
-                    ACLMessage reply = msg.createReply();
-                    
-                    if (activeCoalitions.containsKey(coalitionId)) {
-                        Coalition coalition = activeCoalitions.get(coalitionId);
-                        coalition.addMember(senderId, contribution);
-                        
-                        reply.setPerformative(ACLMessage.AGREE);
-                        reply.setContent("JOINED_COALITION");
-                        
-                        System.out.println("👥 " + senderId + " rejoint " + coalitionId + 
-                                         " (contribution: " + contribution + "€)");
-                    } else {
-                        reply.setPerformative(ACLMessage.REFUSE);
-                        reply.setContent("COALITION_NOT_FOUND");
-                    }
-                    
-                    send(reply);
-                    
-                } else if (parts[0].equals("SET_TARGET")) {
-                    String coalitionId = parts[1];
-                    String itemId = parts[2];
-                    
-                    if (activeCoalitions.containsKey(coalitionId)) {
-                        activeCoalitions.get(coalitionId).targetItem = itemId;
-                        System.out.println("🎯 " + coalitionId + " cible: " + itemId);
-                    }
-                }
-            } else {
-                block();
-            }
+            reply.setPerformative(ACLMessage.AGREE);
+            reply.setContent("JOINED_COALITION");
+            
+            System.out.println("👥 " + senderId + " rejoint " + coalitionId + 
+                             " (contribution: " + contribution + "€)");
+        } else {
+            reply.setPerformative(ACLMessage.REFUSE);
+            reply.setContent("COALITION_NOT_FOUND");
         }
+        
+        send(reply);
     }
     
-    class CoordinateGroupBidsBehaviour extends CyclicBehaviour {
-        @Override
-        public void action() {
-            ACLMessage msg = receive(MessageTemplate.MatchPerformative(ACLMessage.REQUEST));
+    // SET_TARGET;coalitionId;itemId
+    private void handleSetTarget(ACLMessage msg, String[] parts) {
+        String coalitionId = parts[1];
+        String itemId = parts[2];
+        
+        if (activeCoalitions.containsKey(coalitionId)) {
+            activeCoalitions.get(coalitionId).targetItem = itemId;
+            System.out.println("🎯 " + coalitionId + " cible: " + itemId);
+        }
+    }
+    
+    // PLACE_GROUP_BID;coalitionId
+    private void handleGroupBid(ACLMessage msg, String[] parts) {
+        String coalitionId = parts[1];
+        
+        if (activeCoalitions.containsKey(coalitionId)) {
+            Coalition coalition = activeCoalitions.get(coalitionId);
             
-            if (msg != null) {
-                String content = msg.getContent();
-                String[] parts = content.split(";");
+            if (coalition.targetItem != null) {
+                double groupBid = coalition.pooledBudget * 0.8;
+                
+                System.out.println("💪 " + coalitionId + " enchère groupée: " + 
+                                 groupBid + "€ pour " + coalition.targetItem);
+                
+                ACLMessage bid = new ACLMessage(ACLMessage.PROPOSE);
+                codec.bid(bid, coalition.targetItem, groupBid, 1);
                 
-                if (parts[0].equals("PLACE_GROUP_BID")) {
-                    String coalitionId = parts[1];
-                    
-                    if (activeCoalitions.containsKey(coalitionId)) {
-                        Coalition coalition = activeCoalitions.get(coalitionId);
-                        
-                        if (coalition.targetItem != null) {
-                            double groupBid = coalition.pooledBudget * 0.8;
-                            
-                            System.out.println("💪 " + coalitionId + " enchère groupée: " + 
-                                             groupBid + "€ pour " + coalition.targetItem);
-                            
-                            ACLMessage bid = new ACLMessage(ACLMessage.PROPOSE);
-                            bid.setContent(coalition.targetItem + ";" + groupBid);
-                            
-                            try {
-                                DFAgentDescription template = new DFAgentDescription();
-                                ServiceDescription sd = new ServiceDescription();
-                                sd.setType("auction-service");
-                                template.addServices(sd);
-                                
-                                DFAgentDescription[] results = DFService.search(myAgent, template);
-                                if (results.length > 0) {
-                                    bid.addReceiver(results[0].getName());
-                                    send(bid);
-                                }
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                            }
-                        }
-                    }
+                jade.core.AID auctioneer = router.route(coalition.targetItem);
+                if (auctioneer != null) {
+                    bid.addReceiver(auctioneer);
+                    send(bid);
                 }
-            } else {
-                block();
             }
         }
     }
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
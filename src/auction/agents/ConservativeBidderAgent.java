@@ -1,14 +1,25 @@
 package auction.agents;
 
+import jade.core.AID;
 import jade.core.Agent;
 import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import auction.routing.AuctionRouter;
+import auction.routing.DirectoryCache;
+import auction.scheduling.Clock;
+import auction.scheduling.ClockTicker;
+import auction.stats.MailboxGauge;
 import java.util.*;
 
 public class ConservativeBidderAgent extends Agent {
     private double budget;
+    private DirectoryCache directory;
+    private AuctionRouter router;
+    private AuctionCodec codec = new AuctionCodec();
     private Map<String, AuctionInfo> trackedAuctions;
     
     class AuctionInfo {
@@ -19,7 +30,7 @@ public class ConservativeBidderAgent extends Agent {
         AuctionInfo(String id, double price) {
             this.id = id;
             this.currentPrice = price;
-            this.lastUpdate = System.currentTimeMillis();
+            this.lastUpdate = Clock.get().millis();
         }
     }
     
@@ -31,8 +42,11 @@ public class ConservativeBidderAgent extends Agent {
         budget = (args != null && args.length > 0) ? (Double) args[0] : 3000.0;
         trackedAuctions = new HashMap<>();
         
+        directory = new DirectoryCache(this, AuctionRouter.SERVICE_TYPE);
+        router = new AuctionRouter(directory);
         registerToDF();
         
+        addBehaviour(new MailboxGauge(this, 1000));
         addBehaviour(new ListenAuctionsBehaviour());
         addBehaviour(new ConservativeBiddingBehaviour(this, 3000));
         
@@ -54,25 +68,37 @@ public class ConservativeBidderAgent extends Agent {
     }
     
     class ListenAuctionsBehaviour extends CyclicBehaviour {
+        // Les notifications du DF (INFORM) sont réservées au cache d'annuaire;
+        // les réponses aux offres sont consommées pour ne pas s'accumuler dans la boîte
+        private final MessageTemplate template = directory.excludeNotifications(MessageTemplate.or(
+            MessageTemplate.MatchPerformative(ACLMessage.INFORM),
+            MessageTemplate.or(MessageTemplate.MatchPerformative(ACLMessage.ACCEPT_PROPOSAL),
+                               MessageTemplate.MatchPerformative(ACLMessage.REJECT_PROPOSAL))));
+        
         @Override
         public void action() {
-            ACLMessage msg = receive(MessageTemplate.MatchPerformative(ACLMessage.INFORM));
+            ACLMessage msg = receive(template);
             
-            if (msg != null) {
-                String content = msg.getContent();
-                String[] parts = content.split(";");
+            if (msg != null && msg.getPerformative() != ACLMessage.INFORM) {
+                // Enchère close: inutile de continuer à enchérir dessus (in-reply-to = article)
+                if (msg.getPerformative() == ACLMessage.REJECT_PROPOSAL &&
+                    "Enchère inexistante".equals(msg.getContent()) && msg.getInReplyTo() != null) {
+                    trackedAuctions.remove(msg.getInReplyTo());
+                }
+            } else if (msg != null) {
+                AuctionMessage event = codec.decode(msg);
                 
-                if (parts[0].equals("NEW_AUCTION")) {
-                    String itemId = parts[1];
-                    double startPrice = Double.parseDouble(parts[2]);
+                if (event != null && event.type == AuctionCodec.NEW_AUCTION) {
+                    String itemId = event.itemId;
+                    double startPrice = event.amount;
                     trackedAuctions.put(itemId, new AuctionInfo(itemId, startPrice));
-                } else if (parts[0].equals("BID_UPDATE")) {
-                    String itemId = parts[1];
-                    double newPrice = Double.parseDouble(parts[2]);
+                } else if (event != null && event.type == AuctionCodec.BID_UPDATE) {
+                    String itemId = event.itemId;
+                    double newPrice = event.amount;
                     if (trackedAuctions.containsKey(itemId)) {
                         AuctionInfo info = trackedAuctions.get(itemId);
                         info.currentPrice = newPrice;
-                        info.lastUpdate = System.currentTimeMillis();
+                        info.lastUpdate = Clock.get().millis();
                     }
                 }
             } else {
@@ -81,14 +107,14 @@ public class ConservativeBidderAgent extends Agent {
         }
     }
     
-    class ConservativeBiddingBehaviour extends TickerBehaviour {
+    class ConservativeBiddingBehaviour extends ClockTicker {
         public ConservativeBiddingBehaviour(Agent a, long period) {
             super(a, period);
         }
         
         @Override
         protected void onTick() {
-            long now = System.currentTimeMillis();
+            long now = Clock.get().millis();
             
             for (AuctionInfo info : trackedAuctions.values()) {
                 long timeSinceUpdate = now - info.lastUpdate;
@@ -109,16 +135,13 @@ public class ConservativeBidderAgent extends Agent {
     private void placeBid(String itemId, double amount) {
         try {
             ACLMessage msg = new ACLMessage(ACLMessage.PROPOSE);
-            msg.setContent(itemId + ";" + amount);
-            
-            DFAgentDescription template = new DFAgentDescription();
-            ServiceDescription sd = new ServiceDescription();
-            sd.setType("auction-service");
-            template.addServices(sd);
+            codec.bid(msg, itemId, amount, 1);
+            msg.setReplyWith(itemId);
             
-            DFAgentDescription[] results = DFService.search(this, template);
-            if (results.length > 0) {
-                msg.addReceiver(results[0].getName());
+            // Envoi direct à la partition propriétaire de l'article
+            AID auctioneer = router.route(itemId);
+            if (auctioneer != null) {
+                msg.addReceiver(auctioneer);
                 send(msg);
             }
         } catch (Exception e) {
@@ -128,6 +151,7 @@ public class ConservativeBidderAgent extends Agent {
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
@@ -1,14 +1,25 @@
 package auction.agents;
 
+import jade.core.AID;
 import jade.core.Agent;
 import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import auction.routing.AuctionRouter;
+import auction.routing.DirectoryCache;
+import auction.scheduling.ClockTicker;
+import auction.stats.MarketIndicators;
+import auction.stats.MailboxGauge;
 import java.util.*;
 
 public class IntelligentBidderAgent extends Agent {
     private double budget;
+    private DirectoryCache directory;
+    private AuctionRouter router;
+    private AuctionCodec codec = new AuctionCodec();
     private Map<String, List<Double>> priceHistory;
     private Map<String, Double> predictedMaxPrices;
     
@@ -21,8 +32,11 @@ public class IntelligentBidderAgent extends Agent {
         priceHistory = new HashMap<>();
         predictedMaxPrices = new HashMap<>();
         
+        directory = new DirectoryCache(this, AuctionRouter.SERVICE_TYPE);
+        router = new AuctionRouter(directory);
         registerToDF();
         
+        addBehaviour(new MailboxGauge(this, 1000));
         addBehaviour(new ListenAuctionsBehaviour());
         addBehaviour(new IntelligentBiddingBehaviour(this, 2000));
         addBehaviour(new LearnPatternsBehaviour(this, 5000));
@@ -45,22 +59,35 @@ public class IntelligentBidderAgent extends Agent {
     }
     
     class ListenAuctionsBehaviour extends CyclicBehaviour {
+        // Les notifications du DF (INFORM) sont réservées au cache d'annuaire;
+        // les réponses aux offres sont consommées pour ne pas s'accumuler dans la boîte
+        private final MessageTemplate template = directory.excludeNotifications(MessageTemplate.or(
+            MessageTemplate.MatchPerformative(ACLMessage.INFORM),
+            MessageTemplate.or(MessageTemplate.MatchPerformative(ACLMessage.ACCEPT_PROPOSAL),
+                               MessageTemplate.MatchPerformative(ACLMessage.REJECT_PROPOSAL))));
+        
         @Override
         public void action() {
-            ACLMessage msg = receive(MessageTemplate.MatchPerformative(ACLMessage.INFORM));
+            ACLMessage msg = receive(template);
             
-            if (msg != null) {
-                String content = msg.getContent();
-                String[] parts = content.split(";");
+            if (msg != null && msg.getPerformative() != ACLMessage.INFORM) {
+                // Enchère close: inutile de continuer à enchérir dessus (in-reply-to = article)
+                if (msg.getPerformative() == ACLMessage.REJECT_PROPOSAL &&
+                    "Enchère inexistante".equals(msg.getContent()) && msg.getInReplyTo() != null) {
+                    priceHistory.remove(msg.getInReplyTo());
+                    predictedMaxPrices.remove(msg.getInReplyTo());
+                }
+            } else if (msg != null) {
+                AuctionMessage event = codec.decode(msg);
                 
-                if (parts[0].equals("NEW_AUCTION")) {
-                    String itemId = parts[1];
-                    double startPrice = Double.parseDouble(parts[2]);
+                if (event != null && event.type == AuctionCodec.NEW_AUCTION) {
+                    String itemId = event.itemId;
+                    double startPrice = event.amount;
                     priceHistory.putIfAbsent(itemId, new ArrayList<>());
                     priceHistory.get(itemId).add(startPrice);
-                } else if (parts[0].equals("BID_UPDATE")) {
-                    String itemId = parts[1];
-                    double newPrice = Double.parseDouble(parts[2]);
+                } else if (event != null && event.type == AuctionCodec.BID_UPDATE) {
+                    String itemId = event.itemId;
+                    double newPrice = event.amount;
                     if (priceHistory.containsKey(itemId)) {
                         priceHistory.get(itemId).add(newPrice);
                     }
@@ -71,7 +98,7 @@ public class IntelligentBidderAgent extends Agent {
         }
     }
     
-    class LearnPatternsBehaviour extends TickerBehaviour {
+    class LearnPatternsBehaviour extends ClockTicker {
         public LearnPatternsBehaviour(Agent a, long period) {
             super(a, period);
         }
@@ -83,7 +110,7 @@ public class IntelligentBidderAgent extends Agent {
                 List<Double> prices = entry.getValue();
                 
                 if (prices.size() >= 3) {
-                    double avgGrowth = calculateAverageGrowth(prices);
+                    double avgGrowth = MarketIndicators.averageGrowth(prices);
                     double predictedMax = prices.get(prices.size() - 1) * (1 + avgGrowth * 3);
                     predictedMaxPrices.put(itemId, predictedMax);
                     
@@ -92,17 +119,9 @@ public class IntelligentBidderAgent extends Agent {
                 }
             }
         }
-        
-        private double calculateAverageGrowth(List<Double> prices) {
-            double totalGrowth = 0;
-            for (int i = 1; i < prices.size(); i++) {
-                totalGrowth += (prices.get(i) - prices.get(i-1)) / prices.get(i-1);
-            }
-            return totalGrowth / (prices.size() - 1);
-        }
     }
     
-    class IntelligentBiddingBehaviour extends TickerBehaviour {
+    class IntelligentBiddingBehaviour extends ClockTicker {
         public IntelligentBiddingBehaviour(Agent a, long period) {
             super(a, period);
         }
@@ -134,16 +153,13 @@ public class IntelligentBidderAgent extends Agent {
     private void placeBid(String itemId, double amount) {
         try {
             ACLMessage msg = new ACLMessage(ACLMessage.PROPOSE);
-            msg.setContent(itemId + ";" + amount);
-            
-            DFAgentDescription template = new DFAgentDescription();
-            ServiceDescription sd = new ServiceDescription();
-            sd.setType("auction-service");
-            template.addServices(sd);
+            codec.bid(msg, itemId, amount, 1);
+            msg.setReplyWith(itemId);
             
-            DFAgentDescription[] results = DFService.search(this, template);
-            if (results.length > 0) {
-                msg.addReceiver(results[0].getName());
+            // Envoi direct à la partition propriétaire de l'article
+            AID auctioneer = router.route(itemId);
+            if (auctioneer != null) {
+                msg.addReceiver(auctioneer);
                 send(msg);
             }
         } catch (Exception e) {
@@ -153,6 +169,7 @@ public class IntelligentBidderAgent extends Agent {
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
@@ -5,6 +5,10 @@ import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
+import auction.protocol.MessageDispatcher;
+import auction.scheduling.Clock;
+import auction.scheduling.ClockTicker;
+import auction.stats.MailboxGauge;
 import java.util.*;
 
 public class LogisticsAgent extends Agent {
@@ -33,7 +37,7 @@ public class LogisticsAgent extends Agent {
         
         private Date calculateDeliveryDate() {
             long daysToAdd = 2 + (long)(Math.random() * 5);
-            return new Date(System.currentTimeMillis() + daysToAdd * 86400000);
+            return new Date(Clock.get().millis() + daysToAdd * 86400000);
         }
     }
     
@@ -45,7 +49,9 @@ public class LogisticsAgent extends Agent {
         
         registerToDF();
         
-        addBehaviour(new ProcessDeliveryRequestsBehaviour());
+        addBehaviour(new MailboxGauge(this, 1000));
+        addBehaviour(new MessageDispatcher(this, null)
+            .on("ARRANGE_DELIVERY", this::handleDeliveryRequest));
         addBehaviour(new UpdateDeliveryStatusBehaviour(this, 6000));
         
         System.out.println("✅ Services logistiques actifs");
@@ -65,47 +71,34 @@ public class LogisticsAgent extends Agent {
         }
     }
     
-    class ProcessDeliveryRequestsBehaviour extends CyclicBehaviour {
-        @Override
-        public void action() {
-            ACLMessage msg = receive();
-            
-            if (msg != null) {
-                String content = msg.getContent();
-                String[] parts = content.split(";");
-                
-                if (parts[0].equals("ARRANGE_DELIVERY")) {
-                    String itemId = parts[1];
-                    String buyer = parts[2];
-                    String destination = parts.length > 3 ? parts[3] : "Default Location";
-                    
-                    DeliveryInfo delivery = new DeliveryInfo(itemId, buyer, destination);
-                    deliveries.put(itemId, delivery);
-                    
-                    ACLMessage reply = msg.createReply();
-                    reply.setPerformative(ACLMessage.INFORM);
-                    reply.setContent("DELIVERY_ARRANGED;" + delivery.shippingCost + ";" + 
-                                   delivery.estimatedDelivery);
-                    send(reply);
-                    
-                    System.out.println("📦 Livraison organisée: " + itemId + " -> " + buyer);
-                    System.out.println("   Coût: " + String.format("%.2f€", delivery.shippingCost));
-                    System.out.println("   Livraison estimée: " + delivery.estimatedDelivery);
-                }
-            } else {
-                block();
-            }
-        }
+    // ARRANGE_DELIVERY;item;buyer[;destination]
+    private void handleDeliveryRequest(ACLMessage msg, String[] parts) {
+        String itemId = parts[1];
+        String buyer = parts[2];
+        String destination = parts.length > 3 ? parts[3] : "Default Location";
+        
+        DeliveryInfo delivery = new DeliveryInfo(itemId, buyer, destination);
+        deliveries.put(itemId, delivery);
+        
+        ACLMessage reply = msg.createReply();
+        reply.setPerformative(ACLMessage.INFORM);
+        reply.setContent("DELIVERY_ARRANGED;" + delivery.shippingCost + ";" + 
+                       delivery.estimatedDelivery);
+        send(reply);
+        
+        System.out.println("📦 Livraison organisée: " + itemId + " -> " + buyer);
+        System.out.println("   Coût: " + String.format("%.2f€", delivery.shippingCost));
+        System.out.println("   Livraison estimée: " + delivery.estimatedDelivery);
     }
     
-    class UpdateDeliveryStatusBehaviour extends TickerBehaviour {
+    class UpdateDeliveryStatusBehaviour extends ClockTicker {
         public UpdateDeliveryStatusBehaviour(Agent a, long period) {
             super(a, period);
         }
         
         @Override
         protected void onTick() {
-            Date now = new Date();
+            Date now = Clock.get().now();
             
             for (DeliveryInfo delivery : deliveries.values()) {
                 if (delivery.status.equals("PENDING") && Math.random() > 0.7) {
@@ -127,6 +120,7 @@ public class LogisticsAgent extends Agent {
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
@@ -6,12 +6,18 @@ import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
 import auction.models.*;
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import auction.scheduling.ClockTicker;
+import auction.stats.MarketIndicators;
+import auction.stats.MailboxGauge;
 import java.util.*;
 
 public class MarketAnalystAgent extends Agent {
     private Map<String, List<Double>> priceHistory;
     private Map<String, Double> volatilityIndex;
     private MarketStatistics stats;
+    private AuctionCodec codec = new AuctionCodec();
     
     @Override
     protected void setup() {
@@ -23,6 +29,7 @@ public class MarketAnalystAgent extends Agent {
         
         registerToDF();
         
+        addBehaviour(new MailboxGauge(this, 1000));
         addBehaviour(new CollectMarketDataBehaviour());
         addBehaviour(new AnalyzeMarketBehaviour(this, 7000));
         addBehaviour(new ProvideRecommendationsBehaviour());
@@ -50,12 +57,11 @@ public class MarketAnalystAgent extends Agent {
             ACLMessage msg = receive(MessageTemplate.MatchPerformative(ACLMessage.INFORM));
             
             if (msg != null) {
-                String content = msg.getContent();
-                String[] parts = content.split(";");
+                AuctionMessage event = codec.decode(msg);
                 
-                if (parts[0].equals("BID_UPDATE")) {
-                    String itemId = parts[1];
-                    double price = Double.parseDouble(parts[2]);
+                if (event != null && event.type == AuctionCodec.BID_UPDATE) {
+                    String itemId = event.itemId;
+                    double price = event.amount;
                     
                     priceHistory.putIfAbsent(itemId, new ArrayList<>());
                     priceHistory.get(itemId).add(price);
@@ -66,7 +72,7 @@ public class MarketAnalystAgent extends Agent {
         }
     }
     
-    class AnalyzeMarketBehaviour extends TickerBehaviour {
+    class AnalyzeMarketBehaviour extends ClockTicker {
         public AnalyzeMarketBehaviour(Agent a, long period) {
             super(a, period);
         }
@@ -85,13 +91,13 @@ public class MarketAnalystAgent extends Agent {
                 
                 if (prices.size() >= 2) {
                     double avg = prices.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-                    double volatility = calculateVolatility(prices);
+                    double volatility = MarketIndicators.volatility(prices);
                     
                     volatilityIndex.put(itemId, volatility);
                     totalAvg += avg;
                     count++;
                     
-                    String trend = determineTrend(prices);
+                    String trend = MarketIndicators.trend(prices);
                     
                     System.out.println("  " + itemId + ":");
                     System.out.println("    Prix moyen: " + String.format("%.2f€", avg));
@@ -114,30 +120,6 @@ public class MarketAnalystAgent extends Agent {
             
             System.out.println("-".repeat(50) + "\n");
         }
-        
-        private double calculateVolatility(List<Double> prices) {
-            double mean = prices.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-            double variance = prices.stream()
-                .mapToDouble(p -> Math.pow(p - mean, 2))
-                .average()
-                .orElse(0);
-            return Math.sqrt(variance) / mean;
-        }
-        
-        private String determineTrend(List<Double> prices) {
-            if (prices.size() < 3) return "NEUTRE";
-            
-            double firstThird = prices.subList(0, prices.size() / 3).stream()
-                .mapToDouble(Double::doubleValue).average().orElse(0);
-            double lastThird = prices.subList(2 * prices.size() / 3, prices.size()).stream()
-                .mapToDouble(Double::doubleValue).average().orElse(0);
-            
-            double change = (lastThird - firstThird) / firstThird;
-            
-            if (change > 0.1) return "📈 HAUSSIÈRE";
-            if (change < -0.1) return "📉 BAISSIÈRE";
-            return "➡️ STABLE";
-        }
     }
     
     class ProvideRecommendationsBehaviour extends CyclicBehaviour {
@@ -185,6 +167,7 @@ public class MarketAnalystAgent extends Agent {
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
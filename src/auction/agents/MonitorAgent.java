@@ -5,6 +5,11 @@ import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import auction.scheduling.Clock;
+import auction.scheduling.ClockTicker;
+import auction.stats.MailboxGauge;
 import java.util.*;
 
 public class MonitorAgent extends Agent {
@@ -12,6 +17,7 @@ public class MonitorAgent extends Agent {
     private Map<String, Double> totalSpent;
     private int totalAuctions;
     private List<String> activityLog;
+    private AuctionCodec codec = new AuctionCodec();
     
     @Override
     protected void setup() {
@@ -24,6 +30,7 @@ public class MonitorAgent extends Agent {
         
         registerToDF();
         
+        addBehaviour(new MailboxGauge(this, 1000));
         addBehaviour(new MonitorCommunicationsBehaviour());
         addBehaviour(new GenerateReportsBehaviour(this, 10000));
         addBehaviour(new DetectAnomaliesBehaviour(this, 5000));
@@ -52,23 +59,22 @@ public class MonitorAgent extends Agent {
             
             if (msg != null) {
                 String sender = msg.getSender().getLocalName();
-                String content = msg.getContent();
+                // Les messages binaires du protocole sont journalisés sous leur forme texte
+                AuctionMessage event = codec.decode(msg);
+                String content = event != null ? event.toString() : msg.getContent();
                 int performative = msg.getPerformative();
                 
                 String logEntry = String.format("[%s] %s -> %s: %s", 
-                    new Date(), sender, ACLMessage.getPerformative(performative), content);
+                    Clock.get().now(), sender, ACLMessage.getPerformative(performative), content);
                 activityLog.add(logEntry);
                 
                 if (performative == ACLMessage.PROPOSE) {
                     bidCounts.put(sender, bidCounts.getOrDefault(sender, 0) + 1);
                 }
                 
-                if (content != null && content.contains("YOU_WON")) {
-                    String[] parts = content.split(";");
-                    if (parts.length >= 3) {
-                        double amount = Double.parseDouble(parts[2]);
-                        totalSpent.put(sender, totalSpent.getOrDefault(sender, 0.0) + amount);
-                    }
+                if (event != null && event.type == AuctionCodec.YOU_WON) {
+                    double amount = event.amount * event.quantity;
+                    totalSpent.put(sender, totalSpent.getOrDefault(sender, 0.0) + amount);
                 }
             } else {
                 block();
@@ -76,7 +82,7 @@ public class MonitorAgent extends Agent {
         }
     }
     
-    class GenerateReportsBehaviour extends TickerBehaviour {
+    class GenerateReportsBehaviour extends ClockTicker {
         public GenerateReportsBehaviour(Agent a, long period) {
             super(a, period);
         }
@@ -84,7 +90,7 @@ public class MonitorAgent extends Agent {
         @Override
         protected void onTick() {
             System.out.println("\n" + "=".repeat(60));
-            System.out.println("📈 RAPPORT DE MONITORING - " + new Date());
+            System.out.println("📈 RAPPORT DE MONITORING - " + Clock.get().now());
             System.out.println("=".repeat(60));
             
             System.out.println("\n🎯 Activité des enchérisseurs:");
@@ -111,7 +117,7 @@ public class MonitorAgent extends Agent {
         }
     }
     
-    class DetectAnomaliesBehaviour extends TickerBehaviour {
+    class DetectAnomaliesBehaviour extends ClockTicker {
         public DetectAnomaliesBehaviour(Agent a, long period) {
             super(a, period);
         }
@@ -136,6 +142,7 @@ public class MonitorAgent extends Agent {
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
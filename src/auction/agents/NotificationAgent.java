@@ -5,6 +5,7 @@ import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
+import auction.stats.MailboxGauge;
 import java.util.*;
 
 public class NotificationAgent extends Agent {
@@ -18,6 +19,7 @@ public class NotificationAgent extends Agent {
         
         registerToDF();
         
+        addBehaviour(new MailboxGauge(this, 1000));
         addBehaviour(new ManageSubscriptionsBehaviour());
         addBehaviour(new SendNotificationsBehaviour());
         
@@ -98,6 +100,7 @@ public class NotificationAgent extends Agent {
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
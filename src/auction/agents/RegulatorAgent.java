@@ -5,6 +5,10 @@ import jade.core.behaviours.*;
 import jade.lang.acl.*;
 import jade.domain.*;
 import jade.domain.FIPAAgentManagement.*;
+import auction.protocol.MessageDispatcher;
+import auction.scheduling.Clock;
+import auction.scheduling.ClockTicker;
+import auction.stats.MailboxGauge;
 import java.util.*;
 
 public class RegulatorAgent extends Agent {
@@ -22,7 +26,7 @@ public class RegulatorAgent extends Agent {
             this.agentId = agentId;
             this.violationType = type;
             this.description = desc;
-            this.timestamp = new Date();
+            this.timestamp = Clock.get().now();
         }
     }
     
@@ -36,8 +40,11 @@ public class RegulatorAgent extends Agent {
         
         registerToDF();
         
-        addBehaviour(new MonitorComplianceBehaviour());
-        addBehaviour(new HandleDisputesBehaviour());
+        // Un seul consommateur de la boîte: violations et litiges ne se volent plus leurs messages
+        addBehaviour(new MailboxGauge(this, 1000));
+        addBehaviour(new MessageDispatcher(this, null)
+            .on("REPORT_VIOLATION", this::handleViolation)
+            .on("RESOLVE_DISPUTE", this::handleDispute));
         addBehaviour(new EnforceRulesBehaviour(this, 10000));
         
         System.out.println("✅ Régulation du marché active");
@@ -57,101 +64,74 @@ public class RegulatorAgent extends Agent {
         }
     }
     
-    class MonitorComplianceBehaviour extends CyclicBehaviour {
-        @Override
-        public void action() {
-            ACLMessage msg = receive();
-            
-            if (msg != null) {
-                String content = msg.getContent();
-                String[] parts = content.split(";");
-                String sender = msg.getSender().getLocalName();
-                
-                if (parts[0].equals("REPORT_VIOLATION")) {
-                    String violatorId = parts[1];
-                    String violationType = parts[2];
-                    String description = parts.length > 3 ? parts[3] : "";
-                    
-                    Violation v = new Violation(violatorId, violationType, description);
-                    violations.add(v);
-                    
-                    penaltyPoints.put(violatorId, 
-                        penaltyPoints.getOrDefault(violatorId, 0) + calculatePenalty(violationType));
-                    
-                    System.out.println("⚠️ Violation reportée: " + violatorId + 
-                                     " (" + violationType + ")");
-                    
-                    ACLMessage reply = msg.createReply();
-                    reply.setPerformative(ACLMessage.INFORM);
-                    reply.setContent("VIOLATION_RECORDED");
-                    send(reply);
-                    
-                    if (penaltyPoints.get(violatorId) > 10) {
-                        imposeSanction(violatorId);
-                    }
-                }
-            } else {
-                block();
-            }
-        }
+    // REPORT_VIOLATION;violator;type[;description]
+    private void handleViolation(ACLMessage msg, String[] parts) {
+        String violatorId = parts[1];
+        String violationType = parts[2];
+        String description = parts.length > 3 ? parts[3] : "";
         
-        private int calculatePenalty(String type) {
-            switch (type) {
-                case "PRICE_MANIPULATION": return 5;
-                case "LATE_PAYMENT": return 2;
-                case "FALSE_BID": return 3;
-                case "COLLUSION": return 10;
-                default: return 1;
-            }
+        Violation v = new Violation(violatorId, violationType, description);
+        violations.add(v);
+        
+        penaltyPoints.put(violatorId, 
+            penaltyPoints.getOrDefault(violatorId, 0) + calculatePenalty(violationType));
+        
+        System.out.println("⚠️ Violation reportée: " + violatorId + 
+                         " (" + violationType + ")");
+        
+        ACLMessage reply = msg.createReply();
+        reply.setPerformative(ACLMessage.INFORM);
+        reply.setContent("VIOLATION_RECORDED");
+        send(reply);
+        
+        if (penaltyPoints.get(violatorId) > 10) {
+            imposeSanction(violatorId);
         }
     }
     
-    class HandleDisputesBehaviour extends CyclicBehaviour {
-        @Override
-        public void action() {
-            ACLMessage msg = receive(MessageTemplate.MatchPerformative(ACLMessage.REQUEST));
-            
-            if (msg != null) {
-                String content = msg.getContent();
-                String[] parts = content.split(";");
-                
-                if (parts[0].equals("RESOLVE_DISPUTE")) {
-                    String party1 = parts[1];
-                    String party2 = parts[2];
-                    String issue = parts.length > 3 ? parts[3] : "Unknown";
-                    
-                    System.out.println("⚖️ Résolution de litige: " + party1 + " vs " + party2);
-                    System.out.println("   Motif: " + issue);
-                    
-                    String decision = arbitrateDispute(party1, party2, issue);
-                    
-                    ACLMessage reply = msg.createReply();
-                    reply.setPerformative(ACLMessage.INFORM);
-                    reply.setContent("DISPUTE_RESOLVED;" + decision);
-                    send(reply);
-                    
-                    System.out.println("   Décision: " + decision);
-                }
-            } else {
-                block();
-            }
+    private int calculatePenalty(String type) {
+        switch (type) {
+            case "PRICE_MANIPULATION": return 5;
+            case "LATE_PAYMENT": return 2;
+            case "FALSE_BID": return 3;
+            case "COLLUSION": return 10;
+            default: return 1;
         }
+    }
+    
+    // RESOLVE_DISPUTE;party1;party2[;issue]
+    private void handleDispute(ACLMessage msg, String[] parts) {
+        String party1 = parts[1];
+        String party2 = parts[2];
+        String issue = parts.length > 3 ? parts[3] : "Unknown";
         
-        private String arbitrateDispute(String p1, String p2, String issue) {
-            int points1 = penaltyPoints.getOrDefault(p1, 0);
-            int points2 = penaltyPoints.getOrDefault(p2, 0);
-            
-            if (points1 > points2) {
-                return "FAULT_" + p1;
-            } else if (points2 > points1) {
-                return "FAULT_" + p2;
-            } else {
-                return "SHARED_RESPONSIBILITY";
-            }
+        System.out.println("⚖️ Résolution de litige: " + party1 + " vs " + party2);
+        System.out.println("   Motif: " + issue);
+        
+        String decision = arbitrateDispute(party1, party2, issue);
+        
+        ACLMessage reply = msg.createReply();
+        reply.setPerformative(ACLMessage.INFORM);
+        reply.setContent("DISPUTE_RESOLVED;" + decision);
+        send(reply);
+        
+        System.out.println("   Décision: " + decision);
+    }
+    
+    private String arbitrateDispute(String p1, String p2, String issue) {
+        int points1 = penaltyPoints.getOrDefault(p1, 0);
+        int points2 = penaltyPoints.getOrDefault(p2, 0);
+        
+        if (points1 > points2) {
+            return "FAULT_" + p1;
+        } else if (points2 > points1) {
+            return "FAULT_" + p2;
+        } else {
+            return "SHARED_RESPONSIBILITY";
         }
     }
     
-    class EnforceRulesBehaviour extends TickerBehaviour {
+    class EnforceRulesBehaviour extends ClockTicker {
         public EnforceRulesBehaviour(Agent a, long period) {
             super(a, period);
         }
@@ -194,6 +174,7 @@ public class RegulatorAgent extends Agent {
     
     @Override
     protected void takeDown() {
+        MailboxGauge.unregister(this);
         try {
             DFService.deregister(this);
         } catch (Exception e) {}
@@ -0,0 +1,195 @@
+package auction.agents;
+
+import jade.core.AID;
+import jade.core.Agent;
+import jade.core.behaviours.*;
+import jade.lang.acl.*;
+import jade.domain.*;
+import jade.domain.FIPAAgentManagement.*;
+import auction.AuctionConfig;
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import auction.routing.ShardRing;
+import auction.stats.LoadStatistics;
+import java.util.*;
+
+/**
+ * Enchérisseur synthétique des tests de charge (LoadTestLauncher).
+ *
+ * Arrivées de Poisson: les délais entre deux offres suivent une loi
+ * exponentielle de moyenne 1 / débit. Chaque offre vise un article connu tiré
+ * au hasard, au dernier prix diffusé augmenté d'un pourcentage tiré selon la
+ * loi choisie (fixed, uniform, exponential, pareto). Le routage vers la
+ * partition se fait par l'anneau, sans abonnement au DF, et la corrélation
+ * offre -> réponse par reply-with.
+ *
+ * Arguments: nombre de partitions, offres/s de cet agent, loi, incrément moyen (%), graine.
+ */
+public class SyntheticBidderAgent extends Agent {
+    private int shardCount;
+    private double bidsPerSecond;
+    private String bidSize;
+    private double meanIncrement;
+    private Random random;
+
+    private AuctionCodec codec = new AuctionCodec();
+    private LoadStatistics load = LoadStatistics.get();
+    private List<String> knownItems = new ArrayList<>();
+    private Map<String, Double> prices = new HashMap<>();
+    private Map<String, PendingBid> pending = new HashMap<>();
+    private long bidCounter;
+
+    private static class PendingBid {
+        final String itemId;
+        final long sentNanos;
+
+        PendingBid(String itemId, long sentNanos) {
+            this.itemId = itemId;
+            this.sentNanos = sentNanos;
+        }
+    }
+
+    @Override
+    protected void setup() {
+        Object[] args = getArguments();
+        shardCount = (Integer) args[0];
+        bidsPerSecond = (Double) args[1];
+        bidSize = (String) args[2];
+        meanIncrement = (Double) args[3] / 100.0;
+        random = new Random((Long) args[4]);
+
+        // Enregistré comme enchérisseur: compte bancaire et diffusions des auctioneers
+        registerToDF();
+
+        addBehaviour(new ListenBehaviour());
+        addBehaviour(new ArrivalBehaviour());
+    }
+
+    private void registerToDF() {
+        try {
+            DFAgentDescription dfd = new DFAgentDescription();
+            dfd.setName(getAID());
+            ServiceDescription sd = new ServiceDescription();
+            sd.setType("bidder-service");
+            sd.setName("synthetic-bidder");
+            dfd.addServices(sd);
+            DFService.register(this, dfd);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    class ListenBehaviour extends CyclicBehaviour {
+        @Override
+        public void action() {
+            ACLMessage msg = receive();
+            if (msg == null) {
+                block();
+                return;
+            }
+
+            int performative = msg.getPerformative();
+            if (performative == ACLMessage.ACCEPT_PROPOSAL || performative == ACLMessage.REJECT_PROPOSAL) {
+                onReply(msg, performative == ACLMessage.ACCEPT_PROPOSAL);
+                return;
+            }
+
+            AuctionMessage event = codec.decode(msg);
+            if (event == null) return;
+            if (event.type == AuctionCodec.NEW_AUCTION && !prices.containsKey(event.itemId)) {
+                knownItems.add(event.itemId);
+                prices.put(event.itemId, event.amount);
+            } else if (event.type == AuctionCodec.BID_UPDATE && prices.containsKey(event.itemId)) {
+                prices.put(event.itemId, event.amount);
+            }
+        }
+
+        private void onReply(ACLMessage msg, boolean accepted) {
+            PendingBid bid = pending.remove(msg.getInReplyTo());
+            if (bid == null) return;  // offre émise hors de la fenêtre de mesure
+
+            if (accepted) {
+                load.bidAccepted(System.nanoTime() - bid.sentNanos);
+            } else {
+                load.bidRejected();
+                if ("Enchère inexistante".equals(msg.getContent())) {
+                    forget(bid.itemId);
+                }
+            }
+        }
+    }
+
+    // Prochaine arrivée tirée à chaque offre; block(délai) rend la main entre deux offres
+    class ArrivalBehaviour extends SimpleBehaviour {
+        // Échéance en double: les délais de quelques millisecondes ne sont pas arrondis
+        private double nextBidMs = System.currentTimeMillis() + nextDelayMs();
+
+        @Override
+        public void action() {
+            long now = System.currentTimeMillis();
+            if (now < nextBidMs) {
+                block(Math.max(1, (long) (nextBidMs - now)));
+                return;
+            }
+
+            if (load.isMeasuring() && !knownItems.isEmpty()) {
+                placeBid(knownItems.get(random.nextInt(knownItems.size())));
+            }
+            nextBidMs = Math.max(nextBidMs + nextDelayMs(), now - 1000);
+        }
+
+        @Override
+        public boolean done() {
+            return false;
+        }
+    }
+
+    private void placeBid(String itemId) {
+        double amount = Math.round(prices.get(itemId) * (1 + sampleIncrement()) * 100) / 100.0;
+        String replyWith = getLocalName() + "-" + (++bidCounter);
+
+        ACLMessage msg = new ACLMessage(ACLMessage.PROPOSE);
+        codec.bid(msg, itemId, amount, 1);
+        msg.setReplyWith(replyWith);
+        msg.addReceiver(new AID(AuctionConfig.auctioneerName(ShardRing.shardFor(itemId, shardCount), shardCount),
+                                AID.ISLOCALNAME));
+
+        pending.put(replyWith, new PendingBid(itemId, System.nanoTime()));
+        load.bidSent();
+        send(msg);
+    }
+
+    private double nextDelayMs() {
+        return -Math.log(1 - random.nextDouble()) * 1000.0 / bidsPerSecond;
+    }
+
+    // Incrément relatif au dernier prix connu, de moyenne meanIncrement
+    private double sampleIncrement() {
+        switch (bidSize) {
+            case "fixed":
+                return meanIncrement;
+            case "uniform":
+                return random.nextDouble() * 2 * meanIncrement;
+            case "pareto": {
+                // alpha = 3: moyenne xm * 3/2, queue lourde de quelques très grosses offres
+                double xm = meanIncrement * 2 / 3;
+                return xm / Math.pow(1 - random.nextDouble(), 1.0 / 3);
+            }
+            default:
+                return -Math.log(1 - random.nextDouble()) * meanIncrement;
+        }
+    }
+
+    private void forget(String itemId) {
+        if (prices.remove(itemId) != null) {
+            knownItems.remove(itemId);
+        }
+    }
+
+    @Override
+    protected void takeDown() {
+        try {
+            DFService.deregister(this);
+        } catch (Exception e) {}
+    }
+}
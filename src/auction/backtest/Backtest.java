@@ -0,0 +1,88 @@
+package auction.backtest;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Backtest de stratégies d'enchère sur un flux enregistré.
+ *
+ * Chaque stratégie est rejouée {@code replicas} fois, avec les graines
+ * seed, seed+1, ... (budget tiré et décalage de la première décision): les
+ * mêmes graines pour toutes les stratégies, pour que les écarts tiennent aux
+ * stratégies et non au tirage. Les rejeux sont indépendants et partagent le
+ * flux en lecture seule; ils sont répartis sur un ForkJoinPool par division
+ * récursive de la liste, et les résultats sont additionnés en remontant
+ * l'arbre dans un ordre fixe: le rapport ne dépend pas du nombre de workers.
+ */
+public final class Backtest {
+
+    private final RecordedStream stream;
+    private final List<StrategySpec> specs;
+    private final int replicas;
+    private final long seed;
+    private final double fixedBudget;
+
+    // fixedBudget <= 0: budget tiré selon le style à chaque rejeu
+    public Backtest(RecordedStream stream, List<StrategySpec> specs, int replicas, long seed, double fixedBudget) {
+        if (specs.isEmpty()) throw new IllegalArgumentException("Aucune stratégie à évaluer");
+        this.stream = stream;
+        this.specs = specs;
+        this.replicas = Math.max(1, replicas);
+        this.seed = seed;
+        this.fixedBudget = fixedBudget;
+    }
+
+    // Un résultat par stratégie, dans l'ordre de la liste
+    public StrategyResult[] run(int workers) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, workers));
+        try {
+            return pool.invoke(new Runs(0, specs.size() * replicas));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public int getRunCount() {
+        return specs.size() * replicas;
+    }
+
+    // Rejeux [from, to): le rejeu r évalue la stratégie r / replicas avec la graine seed + r % replicas
+    private final class Runs extends RecursiveTask<StrategyResult[]> {
+        private final int from;
+        private final int to;
+
+        Runs(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected StrategyResult[] compute() {
+            if (to - from == 1) {
+                StrategyResult[] results = empty();
+                int spec = from / replicas;
+                results[spec] = BacktestRun.run(stream, specs.get(spec), seed + from % replicas, fixedBudget);
+                return results;
+            }
+
+            int middle = (from + to) >>> 1;
+            Runs left = new Runs(from, middle);
+            left.fork();
+            StrategyResult[] right = new Runs(middle, to).compute();
+            StrategyResult[] results = left.join();
+            for (int i = 0; i < results.length; i++) {
+                results[i].add(right[i]);
+            }
+            return results;
+        }
+
+        private StrategyResult[] empty() {
+            StrategyResult[] results = new StrategyResult[specs.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = new StrategyResult(specs.get(i));
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package auction.backtest;
+
+import auction.models.AuctionFormat;
+import auction.strategy.BidderStrategy;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Rejeu d'un flux enregistré face à une stratégie, sans JADE.
+ *
+ * La stratégie reçoit les mêmes notifications qu'en production (NEW_AUCTION,
+ * BID_UPDATE à chaque prix accepté, y compris le sien) et décide à sa propre
+ * cadence, en temps du flux. Ses offres sont admises selon les règles de
+ * l'auctioneer: au-dessus du prix courant en anglaise, au moins le prix de
+ * départ sous pli scellé, dans la limite du budget ni dépensé ni engagé.
+ * Les autres enchérisseurs sont ceux du flux et ne réagissent pas à la
+ * stratégie: une offre enregistrée qui ne dépasse plus le prix courant est
+ * ignorée. Les lots multi-unités ne sont pas annoncés à la stratégie.
+ *
+ * Déterministe: même flux, même spécification et même graine donnent le même
+ * résultat.
+ */
+final class BacktestRun {
+
+    private static final byte OPEN = 1, CLOSED = 2;  // 0: article pas encore annoncé
+
+    private final RecordedStream stream;
+    private final BidderStrategy strategy;
+    private final StrategyResult result;
+    private final double budget;
+
+    // État par article, indexé comme dans le flux
+    private final byte[] state;
+    private final AuctionFormat[] formats;
+    private final double[] prices;            // anglaise: prix courant
+    private final double[] reserves;
+    private final double[] startingPrices;
+    private final double[] ownBids;           // offre en tête (anglaise) ou meilleure offre scellée de la stratégie, 0 sinon
+    private final double[] bestRecorded;      // meilleure offre concurrente enregistrée
+    private final boolean[] entered;
+
+    // Prix acceptés de la stratégie pendant un tick, notifiés après le tick comme en production
+    private int[] ownUpdates = new int[16];
+    private int ownUpdateCount;
+
+    private double committed;
+    private double spent;
+    private long now;
+
+    private BacktestRun(RecordedStream stream, StrategySpec spec, long seed, double fixedBudget) {
+        this.stream = stream;
+        Random random = new Random(seed);
+        this.budget = fixedBudget > 0 ? fixedBudget : BidderStrategy.initialBudget(spec.getStyle(), random);
+        this.strategy = spec.create("backtest." + spec.getStyle(), budget, stream.startTime());
+        strategy.delayFirstDecision(random.nextDouble());
+        this.result = new StrategyResult(spec);
+
+        int items = stream.itemCount();
+        state = new byte[items];
+        formats = new AuctionFormat[items];
+        prices = new double[items];
+        reserves = new double[items];
+        startingPrices = new double[items];
+        ownBids = new double[items];
+        bestRecorded = new double[items];
+        entered = new boolean[items];
+    }
+
+    // fixedBudget <= 0: budget tiré selon le style, comme pour les agents du lanceur intégré
+    static StrategyResult run(RecordedStream stream, StrategySpec spec, long seed, double fixedBudget) {
+        return new BacktestRun(stream, spec, seed, fixedBudget).replay();
+    }
+
+    private StrategyResult replay() {
+        BidderStrategy.BidSink sink = (bidder, itemId, amount) -> placeBid(itemId, amount);
+
+        for (int event = 0, size = stream.size(); event < size; event++) {
+            long time = stream.time(event);
+            // Décisions échues avant l'événement, une par période (pas de rattrapage groupé)
+            long due;
+            while ((due = strategy.getNextDecisionMs()) <= time) {
+                now = due;
+                strategy.tick(due, sink);
+                notifyOwnUpdates();
+            }
+            now = time;
+
+            int item = stream.item(event);
+            switch (stream.type(event)) {
+                case RecordedStream.NEW_AUCTION:
+                    newAuction(event, item);
+                    break;
+                case RecordedStream.BID:
+                    recordedBid(item, stream.amount(event));
+                    break;
+                case RecordedStream.CLOSE:
+                    close(item);
+                    break;
+            }
+        }
+
+        result.runs = 1;
+        result.spent = spent;
+        result.budget = budget;
+        result.budgetUse = spent / budget;
+        return result;
+    }
+
+    private void newAuction(int event, int item) {
+        AuctionFormat format = stream.format(event);
+        state[item] = OPEN;
+        formats[item] = format;
+        startingPrices[item] = stream.amount(event);
+        prices[item] = stream.amount(event);
+        reserves[item] = stream.reservePrice(event);
+        ownBids[item] = 0;
+        bestRecorded[item] = 0;
+        entered[item] = false;
+
+        if (!format.isMultiUnit()) {
+            result.auctionsSeen++;
+            strategy.onNewAuction(stream.itemId(item), startingPrices[item], now);
+        }
+    }
+
+    private void recordedBid(int item, double amount) {
+        if (state[item] != OPEN || formats[item].isMultiUnit()) return;
+        bestRecorded[item] = Math.max(bestRecorded[item], amount);
+
+        // Anglaise: l'offre enregistrée n'est admise que si elle dépasse encore le prix courant
+        if (formats[item] == AuctionFormat.ENGLISH && amount > prices[item]) {
+            committed -= ownBids[item];
+            ownBids[item] = 0;
+            prices[item] = amount;
+            strategy.onBidUpdate(stream.itemId(item), amount, now);
+        }
+    }
+
+    private void placeBid(String itemId, double amount) {
+        result.bidsPlaced++;
+        int item = stream.itemIndex(itemId);
+        if (item < 0 || state[item] != OPEN) return;  // « Enchère inexistante »
+
+        AuctionFormat format = formats[item];
+        if (format.isMultiUnit()) return;
+        if (format == AuctionFormat.ENGLISH ? amount <= prices[item] : amount < startingPrices[item]) return;
+        // Engagement remplacé par la nouvelle offre (en tête ou déjà déposée sur cet article)
+        double available = budget - spent - committed + ownBids[item];
+        if (amount > available) return;  // « Fonds insuffisants »
+        if (format.isSealed() && amount <= ownBids[item]) {
+            result.bidsAccepted++;  // consignée, sans effet sur la meilleure offre de la stratégie
+            return;
+        }
+
+        committed += amount - ownBids[item];
+        ownBids[item] = amount;
+        result.bidsAccepted++;
+        if (!entered[item]) {
+            entered[item] = true;
+            result.auctionsEntered++;
+        }
+        if (format == AuctionFormat.ENGLISH) {
+            prices[item] = amount;
+            if (ownUpdateCount == ownUpdates.length) {
+                ownUpdates = Arrays.copyOf(ownUpdates, 2 * ownUpdateCount);
+            }
+            ownUpdates[ownUpdateCount++] = item;
+        }
+    }
+
+    private void notifyOwnUpdates() {
+        for (int i = 0; i < ownUpdateCount; i++) {
+            int item = ownUpdates[i];
+            strategy.onBidUpdate(stream.itemId(item), prices[item], now);
+        }
+        ownUpdateCount = 0;
+    }
+
+    private void close(int item) {
+        if (state[item] != OPEN) return;
+        state[item] = CLOSED;
+        AuctionFormat format = formats[item];
+        if (format.isMultiUnit()) return;
+
+        double own = ownBids[item];
+        double price = 0;
+        if (own > 0) {
+            switch (format) {
+                case ENGLISH:
+                    price = own;  // toujours en tête: aucune offre enregistrée ne l'a dépassée
+                    break;
+                case FIRST_PRICE:
+                    // À égalité, l'offre la plus ancienne l'emporte: la stratégie doit dépasser
+                    price = own > bestRecorded[item] ? own : 0;
+                    break;
+                case VICKREY:
+                    if (own > bestRecorded[item]) {
+                        double floor = Math.max(startingPrices[item], reserves[item]);
+                        price = Math.min(own, Math.max(bestRecorded[item], floor));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        committed -= own;
+        ownBids[item] = 0;
+        if (price > 0 && price >= reserves[item]) {
+            result.wins++;
+            spent += price;
+            result.overpay += Math.max(0, price - Math.max(bestRecorded[item], reserves[item]));
+        }
+        strategy.forget(stream.itemId(item));
+    }
+}
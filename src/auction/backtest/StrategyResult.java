@@ -0,0 +1,73 @@
+package auction.backtest;
+
+/**
+ * Résultats cumulés d'une stratégie sur un ou plusieurs rejeux.
+ *
+ * Surpaiement d'une adjudication: prix payé moins le prix minimal qui
+ * suffisait à l'emporter, soit la meilleure offre concurrente enregistrée ou
+ * le prix de réserve s'il est plus élevé.
+ */
+public final class StrategyResult {
+
+    private final StrategySpec spec;
+    long runs;
+    long bidsPlaced;
+    long bidsAccepted;
+    long auctionsSeen;
+    long auctionsEntered;
+    long wins;
+    double spent;
+    double overpay;
+    double budget;
+    double budgetUse;   // somme des taux d'utilisation du budget par rejeu
+
+    public StrategyResult(StrategySpec spec) {
+        this.spec = spec;
+    }
+
+    // Ordre d'addition fixe (arbre de fork-join): résultats identiques quel que soit le nombre de workers
+    public void add(StrategyResult other) {
+        runs += other.runs;
+        bidsPlaced += other.bidsPlaced;
+        bidsAccepted += other.bidsAccepted;
+        auctionsSeen += other.auctionsSeen;
+        auctionsEntered += other.auctionsEntered;
+        wins += other.wins;
+        spent += other.spent;
+        overpay += other.overpay;
+        budget += other.budget;
+        budgetUse += other.budgetUse;
+    }
+
+    public StrategySpec getSpec() { return spec; }
+    public long getRuns() { return runs; }
+    public long getBidsPlaced() { return bidsPlaced; }
+    public long getBidsAccepted() { return bidsAccepted; }
+    public long getAuctionsSeen() { return auctionsSeen; }
+    public long getAuctionsEntered() { return auctionsEntered; }
+    public long getWins() { return wins; }
+    public double getSpent() { return spent; }
+    public double getOverpay() { return overpay; }
+
+    // Adjudications sur enchères où la stratégie a déposé au moins une offre acceptée
+    public double getWinRate() {
+        return auctionsEntered > 0 ? (double) wins / auctionsEntered : 0;
+    }
+
+    public double getAverageOverpay() {
+        return wins > 0 ? overpay / wins : 0;
+    }
+
+    // Part du montant payé qui n'était pas nécessaire
+    public double getOverpayRatio() {
+        return spent > 0 ? overpay / spent : 0;
+    }
+
+    public double getAverageBudgetUse() {
+        return runs > 0 ? budgetUse / runs : 0;
+    }
+
+    public double getAverageBudget() {
+        return runs > 0 ? budget / runs : 0;
+    }
+}
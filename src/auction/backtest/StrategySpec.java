@@ -0,0 +1,68 @@
+package auction.backtest;
+
+import auction.strategy.AggressiveStrategy;
+import auction.strategy.BidderStrategy;
+import auction.strategy.ConservativeStrategy;
+import auction.strategy.IntelligentStrategy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stratégie évaluée par le backtest: style et valeur du paramètre étudié.
+ *   aggressive:1.2       multiplicateur de surenchère (aggressiveness)
+ *   conservative:240000  délai sans offre avant sniping (ms)
+ *   intelligent:3        horizon d'extrapolation de la croissance moyenne
+ * Sans valeur, le paramètre par défaut des agents est utilisé.
+ */
+public final class StrategySpec {
+
+    private final String style;
+    private final double parameter;
+
+    public StrategySpec(String style, double parameter) {
+        this.style = style;
+        this.parameter = parameter;
+        create("", 1, 0);  // style inconnu: erreur dès la lecture de la configuration
+    }
+
+    // Liste séparée par des virgules: "aggressive:1.1,aggressive:1.3,conservative"
+    public static List<StrategySpec> parseList(String specs) {
+        List<StrategySpec> parsed = new ArrayList<>();
+        for (String spec : specs.split(",")) {
+            spec = spec.trim();
+            if (spec.isEmpty()) continue;
+            int colon = spec.indexOf(':');
+            String style = colon < 0 ? spec : spec.substring(0, colon);
+            parsed.add(new StrategySpec(style, colon < 0 ? defaultParameter(style)
+                                                         : Double.parseDouble(spec.substring(colon + 1))));
+        }
+        return parsed;
+    }
+
+    private static double defaultParameter(String style) {
+        switch (style) {
+            case "aggressive":   return AggressiveStrategy.DEFAULT_AGGRESSIVENESS;
+            case "conservative": return ConservativeStrategy.DEFAULT_QUIET_MS;
+            case "intelligent":  return IntelligentStrategy.DEFAULT_HORIZON;
+            default: throw new IllegalArgumentException("Stratégie inconnue: " + style);
+        }
+    }
+
+    public BidderStrategy create(String id, double budget, long firstDecisionMs) {
+        switch (style) {
+            case "aggressive":   return new AggressiveStrategy(id, budget, firstDecisionMs, parameter);
+            case "conservative": return new ConservativeStrategy(id, budget, firstDecisionMs, (long) parameter);
+            case "intelligent":  return new IntelligentStrategy(id, budget, firstDecisionMs, parameter);
+            default: throw new IllegalArgumentException("Stratégie inconnue: " + style);
+        }
+    }
+
+    public String getStyle() { return style; }
+    public double getParameter() { return parameter; }
+
+    @Override
+    public String toString() {
+        return style + ":" + (parameter == Math.rint(parameter) ? Long.toString((long) parameter)
+                                                                : Double.toString(parameter));
+    }
+}
@@ -0,0 +1,96 @@
+package auction.bank;
+
+import java.util.*;
+
+/**
+ * Parts du disponible de chaque enchérisseur accordées aux auctioneers.
+ *
+ * Un auctioneer tranche localement les offres dans la limite de la marge que
+ * la banque lui renvoie (CreditHeadroom). Avec plusieurs partitions
+ * d'enchères, le même disponible serait promis à chacune jusqu'à ce qu'elle
+ * le redemande: la banque retient donc la part accordée à chaque auctioneer
+ * et la déduit de ce qu'elle laisse aux autres. Une part couvre l'engagement
+ * demandé, ou à défaut une fraction égale (1/partitions) de ce que les autres
+ * laissent libre; elle ne dépasse jamais ce reste. Elle échoit au double de
+ * la durée de validité des marges, décomptée côté auctioneer à la réception.
+ *
+ * Les blocages d'un auctioneer (mode holds) sont déjà sortis du disponible:
+ * ils ne sont pas déduits une seconde fois de sa part. Les parts restent sur
+ * la partition bancaire qui les a accordées quand un compte migre.
+ *
+ * Non thread-safe: piloté par le thread de la banque. Montants en centimes.
+ */
+public class CreditGrants {
+
+    private static final class Grant {
+        long cents;
+        long expiresAt;
+    }
+
+    private final Map<String, Map<String, Grant>> byBidder = new HashMap<>();
+    private final long ttlMs;
+    private final int shares;
+
+    public CreditGrants(long ttlMs, int shares) {
+        this.ttlMs = ttlMs;
+        this.shares = Math.max(1, shares);
+    }
+
+    /**
+     * Part de l'auctioneer pour un engagement total requestedCents de
+     * l'enchérisseur chez lui. availableCents inclut déjà les blocages de cet
+     * auctioneer. La part couverte vaut au moins requestedCents si et
+     * seulement si l'engagement est solvable.
+     */
+    public long grant(String bidderId, String auctioneer, long availableCents, long requestedCents,
+                      HoldManager holds, long now) {
+        long free = availableCents - othersCents(bidderId, auctioneer, holds, now);
+        long cents = Math.max(0, Math.min(free, Math.max(requestedCents, free / shares)));
+        Grant grant = byBidder.computeIfAbsent(bidderId, k -> new HashMap<>(4))
+                              .computeIfAbsent(auctioneer, k -> new Grant());
+        grant.cents = cents;
+        grant.expiresAt = now + 2 * ttlMs;
+        return cents;
+    }
+
+    // Disponible modifié hors requête: la part est recalculée sur la base de la précédente
+    public long regrant(String bidderId, String auctioneer, long availableCents, HoldManager holds, long now) {
+        Map<String, Grant> grants = byBidder.get(bidderId);
+        Grant previous = grants != null ? grants.get(auctioneer) : null;
+        return grant(bidderId, auctioneer, availableCents, previous != null ? previous.cents : 0, holds, now);
+    }
+
+    // Auctioneers qui détiennent une part en cours pour ce compte
+    public List<String> holders(String bidderId, long now) {
+        Map<String, Grant> grants = byBidder.get(bidderId);
+        if (grants == null) return Collections.emptyList();
+        List<String> holders = new ArrayList<>(grants.size());
+        for (Map.Entry<String, Grant> entry : grants.entrySet()) {
+            if (entry.getValue().expiresAt > now) holders.add(entry.getKey());
+        }
+        return holders;
+    }
+
+    // Oublie les parts échues; retourne le nombre de comptes encore concernés
+    public int expire(long now) {
+        Iterator<Map<String, Grant>> it = byBidder.values().iterator();
+        while (it.hasNext()) {
+            Map<String, Grant> grants = it.next();
+            grants.values().removeIf(grant -> grant.expiresAt <= now);
+            if (grants.isEmpty()) it.remove();
+        }
+        return byBidder.size();
+    }
+
+    private long othersCents(String bidderId, String auctioneer, HoldManager holds, long now) {
+        Map<String, Grant> grants = byBidder.get(bidderId);
+        if (grants == null) return 0;
+        long total = 0;
+        for (Map.Entry<String, Grant> entry : grants.entrySet()) {
+            Grant grant = entry.getValue();
+            if (entry.getKey().equals(auctioneer) || grant.expiresAt <= now) continue;
+            total += Math.max(0, grant.cents - holds.heldCents(bidderId, entry.getKey()));
+        }
+        return total;
+    }
+}
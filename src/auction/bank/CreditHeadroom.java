@@ -0,0 +1,114 @@
+package auction.bank;
+
+import java.util.*;
+
+/**
+ * Marge de crédit locale de chaque enchérisseur, tenue par l'auctioneer.
+ *
+ * Le disponible est la part que la banque accorde à cet auctioneer (CreditGrants):
+ * renvoyée dans ses réponses de solvabilité, et poussée hors requête quand un
+ * blocage (BLOCK_FUNDS, blocage non financé ou échu) modifie le disponible du
+ * compte. Chaque offre menante y réserve son montant (équivalent local de
+ * BLOCK_FUNDS), libéré quand l'offre est surenchérie et imputé au disponible à
+ * la clôture. Dans un carnet
+ * scellé ou multi-unités, c'est l'engagement maximal de l'enchérisseur sur le
+ * lot qui est réservé jusqu'au dépouillement. Tant que le
+ * disponible connu est frais, la plupart des offres sont tranchées sans
+ * aller-retour avec la banque. Montants en centimes.
+ */
+public class CreditHeadroom {
+
+    public enum Decision { PASS, FAIL, CHECK }
+
+    // Un compte absent peut être créé entre-temps: on redemande plus tôt
+    private static final long MISSING_ACCOUNT_RETRY_MS = 2000;
+
+    private static final class CreditLine {
+        long availableCents = -1;
+        long reservedCents;
+        long refreshedAt;
+        boolean missingAccount;
+        final Map<String, Long> reservations = new HashMap<>(4);
+    }
+
+    private final Map<String, CreditLine> lines = new HashMap<>();
+    private final long ttlMs;
+
+    public CreditHeadroom(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public Decision check(String bidderId, String itemId, long amountCents, long now) {
+        CreditLine line = lines.get(bidderId);
+        if (line == null || now - line.refreshedAt > ttlMs) {
+            return Decision.CHECK;
+        }
+        if (line.missingAccount) {
+            return now - line.refreshedAt > MISSING_ACCOUNT_RETRY_MS ? Decision.CHECK : Decision.FAIL;
+        }
+
+        // Une nouvelle offre sur le même article remplace la réservation précédente
+        long needed = amountCents - line.reservations.getOrDefault(itemId, 0L);
+        return line.availableCents - line.reservedCents >= needed ? Decision.PASS : Decision.FAIL;
+    }
+
+    public void refresh(String bidderId, long availableCents, long now) {
+        CreditLine line = lines.computeIfAbsent(bidderId, k -> new CreditLine());
+        line.availableCents = availableCents;
+        line.missingAccount = false;
+        line.refreshedAt = now;
+    }
+
+    // Part recalculée par la banque hors requête: seules les lignes déjà suivies sont rafraîchies
+    public void update(String bidderId, long availableCents, long now) {
+        CreditLine line = lines.get(bidderId);
+        if (line != null && !line.missingAccount) {
+            line.availableCents = availableCents;
+            line.refreshedAt = now;
+        }
+    }
+
+    public void accountMissing(String bidderId, long now) {
+        CreditLine line = lines.computeIfAbsent(bidderId, k -> new CreditLine());
+        line.missingAccount = true;
+        line.refreshedAt = now;
+    }
+
+    public void reserve(String bidderId, String itemId, long amountCents) {
+        CreditLine line = lines.computeIfAbsent(bidderId, k -> new CreditLine());
+        Long previous = line.reservations.put(itemId, amountCents);
+        line.reservedCents += amountCents - (previous != null ? previous : 0L);
+    }
+
+    public void release(String bidderId, String itemId) {
+        CreditLine line = lines.get(bidderId);
+        if (line == null) return;
+        Long previous = line.reservations.remove(itemId);
+        if (previous != null) line.reservedCents -= previous;
+    }
+
+    // Clôture gagnée: la réservation devient une dépense et quitte le disponible
+    public void settle(String bidderId, String itemId) {
+        CreditLine line = lines.get(bidderId);
+        if (line == null) return;
+        Long amount = line.reservations.remove(itemId);
+        if (amount != null) {
+            line.reservedCents -= amount;
+            if (line.availableCents >= 0) line.availableCents -= amount;
+        }
+    }
+
+    // Engagement total de l'enchérisseur si l'offre est retenue: c'est lui que la banque doit couvrir
+    public long commitment(String bidderId, String itemId, long amountCents) {
+        CreditLine line = lines.get(bidderId);
+        if (line == null) return amountCents;
+        return line.reservedCents - line.reservations.getOrDefault(itemId, 0L) + amountCents;
+    }
+
+    // Marge restante, -1 si inconnue
+    public long headroom(String bidderId) {
+        CreditLine line = lines.get(bidderId);
+        if (line == null || line.availableCents < 0) return -1;
+        return line.availableCents - line.reservedCents;
+    }
+}
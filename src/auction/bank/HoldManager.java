@@ -0,0 +1,184 @@
+package auction.bank;
+
+import auction.scheduling.TimingWheel;
+import java.util.*;
+
+/**
+ * Blocages de fonds de la banque, un par (enchérisseur, article).
+ *
+ * Les blocages suivent les événements d'enchères que l'auctioneer adresse déjà
+ * aux enchérisseurs (la banque figure parmi les destinataires, sans message
+ * supplémentaire ni réponse): une offre acceptée (BID_UPDATE) bloque le
+ * montant du nouveau meneur et libère l'ancien; l'adjudication (YOU_WON)
+ * transforme le blocage du gagnant en débit. Un blocage que rien ne vient
+ * solder (enchère échouée, lot multi-unités, BLOCK_FUNDS explicite) expire au
+ * bout de ttlMs, sur une roue temporelle.
+ *
+ * Chaque blocage retient l'auctioneer qui l'a provoqué: ce dernier réserve
+ * déjà les offres menantes dans sa marge locale (CreditHeadroom) et la banque
+ * les lui rend dans ses réponses de solvabilité (heldCents). Un blocage qui
+ * change le disponible hors du fil des enchères (non financé, explicite ou
+ * échu) est signalé aux auctioneers détenteurs d'une part (CreditGrants).
+ *
+ * Non thread-safe: piloté par le thread de la banque. Montants en centimes.
+ */
+public class HoldManager {
+
+    public interface HoldVisitor {
+        void hold(String bidderId, String itemId, String auctioneer, long cents, long expiresAt);
+    }
+
+    private static final class Hold {
+        final String bidderId;
+        final String itemId;
+        final String auctioneer;
+        final long cents;
+        TimingWheel.Timeout<Hold> timeout;
+
+        Hold(String bidderId, String itemId, String auctioneer, long cents) {
+            this.bidderId = bidderId;
+            this.itemId = itemId;
+            this.auctioneer = auctioneer;
+            this.cents = cents;
+        }
+    }
+
+    private final Ledger ledger;
+    private final long ttlMs;
+    private final TimingWheel<Hold> expirations;
+    private final Map<String, Map<String, Hold>> byItem = new HashMap<>();
+    private final Map<String, Map<String, Hold>> byBidder = new HashMap<>();
+    private long unfunded;
+    private long expired;
+
+    public HoldManager(Ledger ledger, long ttlMs, long tickMs, long now) {
+        this.ledger = ledger;
+        this.ttlMs = ttlMs;
+        this.expirations = new TimingWheel<>(tickMs, 512, now);
+    }
+
+    /**
+     * Bloque cents pour (enchérisseur, article), en remplacement d'un blocage
+     * précédent sur le même article. Faux si le disponible ne suffit pas (ou
+     * compte inconnu): aucun blocage n'est alors gardé.
+     */
+    public boolean place(String bidderId, String itemId, String auctioneer, long cents, long now) {
+        release(bidderId, itemId);
+        if (!ledger.hold(bidderId, cents)) {
+            unfunded++;
+            return false;
+        }
+        track(new Hold(bidderId, itemId, auctioneer, cents), now + ttlMs);
+        return true;
+    }
+
+    // Offre acceptée: le nouveau meneur bloque son offre, les autres blocages de l'article sont libérés
+    public boolean outbid(String itemId, String leaderId, String auctioneer, long cents, long now) {
+        Map<String, Hold> holders = byItem.get(itemId);
+        if (holders != null) {
+            for (Hold hold : new ArrayList<>(holders.values())) {
+                if (!hold.bidderId.equals(leaderId)) release(hold.bidderId, hold.itemId);
+            }
+        }
+        // Meneur tenu par une autre banque: cette copie ne sert qu'à libérer l'ancien
+        if (!ledger.exists(leaderId)) return false;
+        return place(leaderId, itemId, auctioneer, cents, now);
+    }
+
+    /**
+     * Adjudication: le blocage du gagnant est débité à hauteur du prix, le
+     * surplus (prix de Vickrey, par exemple) libéré; un prix supérieur au
+     * blocage est complété sur le disponible. Faux si le débit échoue.
+     */
+    public boolean settle(String winnerId, String itemId, long priceCents) {
+        Hold hold = remove(winnerId, itemId);
+        if (hold == null) return ledger.debit(winnerId, priceCents);
+
+        long captured = Math.min(hold.cents, priceCents);
+        if (!ledger.capture(winnerId, captured)) {
+            ledger.release(winnerId, hold.cents);
+            return false;
+        }
+        if (hold.cents > captured) ledger.release(winnerId, hold.cents - captured);
+        return captured == priceCents || ledger.debit(winnerId, priceCents - captured);
+    }
+
+    // Montant libéré (0 si aucun blocage)
+    public long release(String bidderId, String itemId) {
+        Hold hold = remove(bidderId, itemId);
+        return hold != null ? ledger.release(bidderId, hold.cents) : 0;
+    }
+
+    // Libère les blocages échus, remis à released; retourne leur nombre
+    public int expire(long now, HoldVisitor released) {
+        return expirations.advance(now, hold -> {
+            hold.timeout = null;
+            if (remove(hold.bidderId, hold.itemId) == hold) {
+                ledger.release(hold.bidderId, hold.cents);
+                expired++;
+                released.hold(hold.bidderId, hold.itemId, hold.auctioneer, hold.cents, now);
+            }
+        });
+    }
+
+    // Montant bloqué pour le compte d'un auctioneer sur les articles qu'il gère
+    public long heldCents(String bidderId, String auctioneer) {
+        Map<String, Hold> holds = byBidder.get(bidderId);
+        if (holds == null) return 0;
+        long total = 0;
+        for (Hold hold : holds.values()) {
+            if (hold.auctioneer.equals(auctioneer)) total += hold.cents;
+        }
+        return total;
+    }
+
+    // Restauration depuis un instantané: les montants sont déjà bloqués dans les soldes restaurés
+    public void restore(String bidderId, String itemId, String auctioneer, long cents, long expiresAt) {
+        track(new Hold(bidderId, itemId, auctioneer, cents), expiresAt);
+    }
+
+    // Remet les blocages d'un compte qui quitte cette banque, sans toucher au grand livre (ils partent avec lui)
+    public void detach(String bidderId, HoldVisitor visitor) {
+        Map<String, Hold> holds = byBidder.get(bidderId);
+        if (holds == null) return;
+        for (Hold hold : new ArrayList<>(holds.values())) {
+            long expiresAt = hold.timeout != null ? hold.timeout.getDeadline() : 0;
+            remove(hold.bidderId, hold.itemId);
+            visitor.hold(hold.bidderId, hold.itemId, hold.auctioneer, hold.cents, expiresAt);
+        }
+    }
+
+    public void forEach(HoldVisitor visitor) {
+        for (Map<String, Hold> holds : byBidder.values()) {
+            for (Hold hold : holds.values()) {
+                visitor.hold(hold.bidderId, hold.itemId, hold.auctioneer, hold.cents, hold.timeout.getDeadline());
+            }
+        }
+    }
+
+    public int size() {
+        return expirations.size();
+    }
+
+    public long getUnfunded() { return unfunded; }
+    public long getExpired() { return expired; }
+
+    private void track(Hold hold, long expiresAt) {
+        hold.timeout = expirations.schedule(hold, expiresAt);
+        byItem.computeIfAbsent(hold.itemId, k -> new HashMap<>(4)).put(hold.bidderId, hold);
+        byBidder.computeIfAbsent(hold.bidderId, k -> new HashMap<>(4)).put(hold.itemId, hold);
+    }
+
+    private Hold remove(String bidderId, String itemId) {
+        Map<String, Hold> holds = byBidder.get(bidderId);
+        Hold hold = holds != null ? holds.remove(itemId) : null;
+        if (hold == null) return null;
+        if (holds.isEmpty()) byBidder.remove(bidderId);
+
+        Map<String, Hold> holders = byItem.get(itemId);
+        holders.remove(bidderId);
+        if (holders.isEmpty()) byItem.remove(itemId);
+        if (hold.timeout != null) expirations.cancel(hold.timeout);
+        return hold;
+    }
+}
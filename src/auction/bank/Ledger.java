@@ -0,0 +1,315 @@
+package auction.bank;
+
+import auction.models.BankAccount;
+import auction.scheduling.Clock;
+import auction.storage.TransactionJournal;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Grand livre de la banque: comptes en centimes (long), sûr entre threads.
+ *
+ * Chaque compte est protégé par l'un des STRIPES verrous, choisi par son rang
+ * d'ouverture: des opérations sur des comptes différents avancent en
+ * parallèle, sans verrou global. Un virement ou un lot prend ses verrous dans
+ * l'ordre croissant des verrous (pas d'interblocage), une seule fois chacun.
+ * Toute lecture ou écriture d'un compte se fait sous son verrou: les
+ * invariants (0 <= bloqué <= solde, somme des soldes conservée par les
+ * virements) tiennent quel que soit le nombre de threads.
+ *
+ * Les opérations sur un compte inconnu échouent (false, null ou 0) sans
+ * exception, y compris sur un compte retiré (remove) entre sa lecture dans la
+ * table et la prise de son verrou: rien n'est posté sur un compte détaché.
+ *
+ * Avec un journal, chaque ouverture, débit, capture, crédit et virement y est
+ * consigné sous le verrou du compte: l'ordre du journal d'un compte est celui
+ * de ses soldes. Blocages et libérations ne changent pas le solde et n'y
+ * figurent pas. Après un instantané, replay() réapplique les transactions
+ * journalisées depuis.
+ */
+public final class Ledger {
+
+    private static final int STRIPES = 1024;
+    private static final int MASK = STRIPES - 1;
+
+    // Résultat de chaque entrée d'un lot (postBatch)
+    public static final byte POSTED = 0;
+    public static final byte INSUFFICIENT_FUNDS = 1;
+    public static final byte ACCOUNT_NOT_FOUND = 2;
+
+    // Lecture atomique d'un compte
+    public static final class Balance {
+        public final long balanceCents;
+        public final long blockedCents;
+
+        Balance(long balanceCents, long blockedCents) {
+            this.balanceCents = balanceCents;
+            this.blockedCents = blockedCents;
+        }
+
+        public long availableCents() {
+            return balanceCents - blockedCents;
+        }
+    }
+
+    public interface AccountVisitor {
+        void account(String ownerId, long balanceCents, long blockedCents);
+    }
+
+    private final ConcurrentHashMap<String, BankAccount> accounts = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final TransactionJournal journal;
+
+    public Ledger() {
+        this(null);
+    }
+
+    // journal: historique des transactions, null pour n'en garder aucun
+    public Ledger(TransactionJournal journal) {
+        this.journal = journal;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    public static long toCents(double euros) {
+        return Math.round(euros * 100);
+    }
+
+    // Ouvre le compte s'il n'existe pas; faux s'il existait déjà (solde inchangé)
+    public boolean open(String ownerId, long balanceCents) {
+        if (!restore(ownerId, balanceCents, 0)) return false;
+        BankAccount account = accounts.get(ownerId);
+        if (account != null) {
+            synchronized (lockOf(account)) {
+                if (current(account)) record(account, TransactionJournal.OPEN, balanceCents);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Réapplique une transaction du journal postérieure à l'instantané restauré,
+     * sans la journaliser de nouveau. Les montants bloqués ne sont pas
+     * journalisés: un débit rejoué sur un compte dont les blocages restaurés
+     * ne laissent pas assez de disponible les réduit d'autant. Faux si le
+     * compte est inconnu (ou déjà ouvert, pour OPEN).
+     */
+    public boolean replay(String ownerId, byte type, long cents) {
+        if (type == TransactionJournal.OPEN) return restore(ownerId, cents, 0);
+        BankAccount account = accounts.get(ownerId);
+        if (account == null) return false;
+        synchronized (lockOf(account)) {
+            if (!current(account)) return false;
+            switch (type) {
+                case TransactionJournal.CREDIT:
+                case TransactionJournal.TRANSFER_IN:
+                    account.credit(cents);
+                    return true;
+                case TransactionJournal.DEBIT:
+                case TransactionJournal.TRANSFER_OUT:
+                    account.replayDebit(cents);
+                    return true;
+                case TransactionJournal.CAPTURE:
+                    account.releaseFunds(cents);
+                    account.replayDebit(cents);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    // Restauration depuis un instantané: solde et montant bloqué
+    public boolean restore(String ownerId, long balanceCents, long blockedCents) {
+        if (accounts.containsKey(ownerId)) return false;
+        BankAccount account = new BankAccount(ownerId, nextIndex.getAndIncrement(), balanceCents, blockedCents);
+        // Publication sous le verrou: les lectures ultérieures, sous ce même verrou, voient le solde initial
+        synchronized (lockOf(account)) {
+            return accounts.putIfAbsent(ownerId, account) == null;
+        }
+    }
+
+    // Retire le compte (migration vers une autre banque): son dernier état, null s'il est inconnu
+    public Balance remove(String ownerId) {
+        BankAccount account = accounts.get(ownerId);
+        if (account == null) return null;
+        synchronized (lockOf(account)) {
+            if (!accounts.remove(ownerId, account)) return null;
+            return new Balance(account.getBalanceCents(), account.getBlockedCents());
+        }
+    }
+
+    public boolean exists(String ownerId) {
+        return accounts.containsKey(ownerId);
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+
+    public Balance balance(String ownerId) {
+        BankAccount account = accounts.get(ownerId);
+        if (account == null) return null;
+        synchronized (lockOf(account)) {
+            return current(account) ? new Balance(account.getBalanceCents(), account.getBlockedCents()) : null;
+        }
+    }
+
+    // Disponible (solde moins montants bloqués), -1 si le compte est inconnu
+    public long available(String ownerId) {
+        BankAccount account = accounts.get(ownerId);
+        if (account == null) return -1;
+        synchronized (lockOf(account)) {
+            return current(account) ? account.getAvailableCents() : -1;
+        }
+    }
+
+    public boolean hold(String ownerId, long cents) {
+        BankAccount account = accounts.get(ownerId);
+        if (account == null) return false;
+        synchronized (lockOf(account)) {
+            return current(account) && account.blockFunds(cents);
+        }
+    }
+
+    // Montant effectivement libéré (borné au montant bloqué)
+    public long release(String ownerId, long cents) {
+        BankAccount account = accounts.get(ownerId);
+        if (account == null) return 0;
+        synchronized (lockOf(account)) {
+            return current(account) ? account.releaseFunds(cents) : 0;
+        }
+    }
+
+    // Débit d'un montant bloqué auparavant
+    public boolean capture(String ownerId, long cents) {
+        BankAccount account = accounts.get(ownerId);
+        if (account == null) return false;
+        synchronized (lockOf(account)) {
+            if (!current(account) || !account.capture(cents)) return false;
+            record(account, TransactionJournal.CAPTURE, cents);
+            return true;
+        }
+    }
+
+    public boolean debit(String ownerId, long cents) {
+        BankAccount account = accounts.get(ownerId);
+        if (account == null) return false;
+        synchronized (lockOf(account)) {
+            if (!current(account) || !account.debit(cents)) return false;
+            record(account, TransactionJournal.DEBIT, cents);
+            return true;
+        }
+    }
+
+    public boolean credit(String ownerId, long cents) {
+        BankAccount account = accounts.get(ownerId);
+        if (account == null) return false;
+        synchronized (lockOf(account)) {
+            if (!current(account)) return false;
+            account.credit(cents);
+            record(account, TransactionJournal.CREDIT, cents);
+            return true;
+        }
+    }
+
+    // Virement du disponible de from vers to, atomique pour tout observateur du grand livre
+    public boolean transfer(String fromId, String toId, long cents) {
+        BankAccount from = accounts.get(fromId);
+        BankAccount to = accounts.get(toId);
+        if (from == null || to == null || from == to || cents < 0) return false;
+
+        Object first = stripes[Math.min(from.getIndex() & MASK, to.getIndex() & MASK)];
+        Object second = stripes[Math.max(from.getIndex() & MASK, to.getIndex() & MASK)];
+        synchronized (first) {
+            synchronized (second) {
+                if (!current(from) || !current(to) || !from.debit(cents)) return false;
+                to.credit(cents);
+                record(from, TransactionJournal.TRANSFER_OUT, cents);
+                record(to, TransactionJournal.TRANSFER_IN, cents);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Poste un lot de montants nets, positifs (débit du disponible) ou négatifs
+     * (crédit), sous les verrous de tous ses comptes: aucun observateur ne voit
+     * le lot à moitié appliqué. Chaque entrée réussit ou échoue seule (compte
+     * inconnu, disponible insuffisant); statuses reçoit son résultat. Retourne
+     * le nombre d'entrées postées.
+     */
+    public int postBatch(String[] owners, long[] cents, int count, byte[] statuses) {
+        BankAccount[] batch = new BankAccount[count];
+        BitSet locks = new BitSet(STRIPES);
+        for (int i = 0; i < count; i++) {
+            batch[i] = accounts.get(owners[i]);
+            if (batch[i] != null) locks.set(batch[i].getIndex() & MASK);
+        }
+
+        int[] order = locks.stream().toArray();
+        int[] posted = {0};
+        withStripes(order, 0, () -> {
+            for (int i = 0; i < count; i++) {
+                BankAccount account = batch[i];
+                if (account == null || !current(account)) {
+                    statuses[i] = ACCOUNT_NOT_FOUND;
+                } else if (cents[i] >= 0) {
+                    statuses[i] = account.debit(cents[i]) ? POSTED : INSUFFICIENT_FUNDS;
+                    if (statuses[i] == POSTED) record(account, TransactionJournal.DEBIT, cents[i]);
+                } else {
+                    account.credit(-cents[i]);
+                    record(account, TransactionJournal.CREDIT, -cents[i]);
+                    statuses[i] = POSTED;
+                }
+                if (statuses[i] == POSTED) posted[0]++;
+            }
+        });
+        return posted[0];
+    }
+
+    // Verrous pris dans l'ordre croissant, imbriqués
+    private void withStripes(int[] order, int from, Runnable body) {
+        if (from == order.length) {
+            body.run();
+            return;
+        }
+        synchronized (stripes[order[from]]) {
+            withStripes(order, from + 1, body);
+        }
+    }
+
+    /**
+     * Parcourt les comptes, chacun lu sous son verrou. Cohérent globalement
+     * seulement si aucun virement n'est en cours (instantané pris sur le
+     * thread qui poste les opérations, par exemple).
+     */
+    public void forEach(AccountVisitor visitor) {
+        for (BankAccount account : accounts.values()) {
+            long balance, blocked;
+            synchronized (lockOf(account)) {
+                if (!current(account)) continue;
+                balance = account.getBalanceCents();
+                blocked = account.getBlockedCents();
+            }
+            visitor.account(account.getOwnerId(), balance, blocked);
+        }
+    }
+
+    // Sous le verrou du compte: faux s'il a été retiré (remove) depuis sa lecture dans la table
+    private boolean current(BankAccount account) {
+        return accounts.get(account.getOwnerId()) == account;
+    }
+
+    // Appelé sous le verrou du compte
+    private void record(BankAccount account, byte type, long cents) {
+        if (journal != null) journal.append(account.getOwnerId(), type, cents, Clock.get().millis());
+    }
+
+    private Object lockOf(BankAccount account) {
+        return stripes[account.getIndex() & MASK];
+    }
+}
@@ -0,0 +1,148 @@
+package auction.bank;
+
+import java.util.*;
+
+/**
+ * Fenêtre de règlement des adjudications, tenue par l'auctioneer.
+ *
+ * Les enchères closes s'y accumulent au lieu d'un PROCESS_PAYMENT chacune;
+ * les montants d'un même compte sont compensés (somme des dettes, un crédit
+ * viendrait en négatif). À l'échéance de la fenêtre, ou quand elle atteint
+ * maxAccounts comptes, close() en fait un lot: un seul message vers la banque,
+ * qui le poste d'un bloc (Ledger.postBatch) et répond par un seul message. Le
+ * lot reste en vol jusqu'à cette réponse (complete), ou jusqu'à la dernière
+ * de ses parties s'il a été réparti entre plusieurs partitions de la banque:
+ * une par banque destinataire (expectReplies), plus les sous-lots que chacune
+ * annonce avoir relayés. Ceux-ci répondent directement et peuvent arriver
+ * avant l'annonce. Montants en centimes.
+ */
+public class SettlementWindow {
+
+    // Lot d'une fenêtre: une entrée par compte, dans l'ordre de première adjudication
+    public static final class Batch {
+        public final long window;
+        public final int size;
+        public final String[] accounts;
+        public final long[] cents;
+        public final int[] obligations;
+        final long closedAt;
+        // Réponses attendues des banques destinataires, et des sous-lots annoncés (négatif si en avance)
+        int pendingReplies = 1;
+        int pendingRelayed;
+
+        Batch(long window, int size, long closedAt) {
+            this.window = window;
+            this.size = size;
+            this.accounts = new String[size];
+            this.cents = new long[size];
+            this.obligations = new int[size];
+            this.closedAt = closedAt;
+        }
+
+        public long totalCents() {
+            long total = 0;
+            for (int i = 0; i < size; i++) total += cents[i];
+            return total;
+        }
+
+        // Lot réparti entre plusieurs banques: une réponse par partie, même numéro de fenêtre
+        public void expectReplies(int replies) {
+            pendingReplies = Math.max(1, replies);
+        }
+
+        // Adjudications compensées dans l'entrée du compte (0 s'il n'est pas dans le lot)
+        public int obligationsOf(String account) {
+            for (int i = 0; i < size; i++) {
+                if (accounts[i].equals(account)) return obligations[i];
+            }
+            return 0;
+        }
+    }
+
+    private static final class Net {
+        long cents;
+        int obligations;
+    }
+
+    private final int maxAccounts;
+    private final Map<String, Net> open = new LinkedHashMap<>();
+    private final Map<Long, Batch> inFlight = new HashMap<>();
+    private long nextWindow = 1;
+    private int openObligations;
+
+    public SettlementWindow(int maxAccounts) {
+        this.maxAccounts = Math.max(1, maxAccounts);
+    }
+
+    // Ajoute une dette du compte; vrai si la fenêtre est pleine et doit être fermée
+    public boolean add(String account, long cents) {
+        Net net = open.computeIfAbsent(account, k -> new Net());
+        net.cents += cents;
+        net.obligations++;
+        openObligations++;
+        return open.size() >= maxAccounts;
+    }
+
+    public boolean isEmpty() {
+        return open.isEmpty();
+    }
+
+    public int openObligations() {
+        return openObligations;
+    }
+
+    // Ferme la fenêtre courante en un lot mis en vol (null si elle est vide)
+    public Batch close(long now) {
+        if (open.isEmpty()) return null;
+
+        Batch batch = new Batch(nextWindow++, open.size(), now);
+        int i = 0;
+        for (Map.Entry<String, Net> entry : open.entrySet()) {
+            batch.accounts[i] = entry.getKey();
+            batch.cents[i] = entry.getValue().cents;
+            batch.obligations[i] = entry.getValue().obligations;
+            i++;
+        }
+        open.clear();
+        openObligations = 0;
+        inFlight.put(batch.window, batch);
+        return batch;
+    }
+
+    /**
+     * Réponse d'une partie du lot reçue; relayed est le nombre de sous-lots
+     * annoncés par une banque destinataire, -1 pour la réponse d'un sous-lot.
+     * Le lot n'est plus en vol après la dernière partie (null s'il est inconnu
+     * ou déjà expiré).
+     */
+    public Batch complete(long window, int relayed) {
+        Batch batch = inFlight.get(window);
+        if (batch == null) return null;
+        if (relayed < 0) {
+            batch.pendingRelayed--;
+        } else {
+            batch.pendingReplies--;
+            batch.pendingRelayed += relayed;
+        }
+        if (batch.pendingReplies <= 0 && batch.pendingRelayed <= 0) inFlight.remove(window);
+        return batch;
+    }
+
+    // Lots restés sans réponse au-delà de timeoutMs
+    public List<Batch> expire(long now, long timeoutMs) {
+        List<Batch> expired = new ArrayList<>();
+        Iterator<Batch> it = inFlight.values().iterator();
+        while (it.hasNext()) {
+            Batch batch = it.next();
+            if (now - batch.closedAt > timeoutMs) {
+                expired.add(batch);
+                it.remove();
+            }
+        }
+        return expired;
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,85 @@
+package auction.bank;
+
+import java.util.*;
+
+/**
+ * Offres en attente d'une réponse de solvabilité de la banque.
+ *
+ * Une seule requête est en vol par enchérisseur: les offres suivantes du même
+ * enchérisseur s'y rattachent. Chaque requête porte un identifiant de
+ * corrélation (reply-with) que la banque renvoie dans in-reply-to.
+ */
+public class SolvencyPipeline<T> {
+
+    private static final class Pending<T> {
+        final String correlationId;
+        final String bidderId;
+        final long sentAt;
+        final List<T> parked = new ArrayList<>(2);
+
+        Pending(String correlationId, String bidderId, long sentAt) {
+            this.correlationId = correlationId;
+            this.bidderId = bidderId;
+            this.sentAt = sentAt;
+        }
+    }
+
+    private final String prefix;
+    private final Map<String, Pending<T>> byBidder = new HashMap<>();
+    private final Map<String, Pending<T>> byCorrelation = new LinkedHashMap<>();
+    private long sequence;
+    private int parkedCount;
+
+    public SolvencyPipeline(String prefix) {
+        this.prefix = prefix;
+    }
+
+    // Retourne l'identifiant de corrélation si une requête doit partir, null sinon
+    public String park(String bidderId, T bid, long now) {
+        Pending<T> pending = byBidder.get(bidderId);
+        String toSend = null;
+        if (pending == null) {
+            pending = new Pending<>(prefix + "-" + (++sequence), bidderId, now);
+            byBidder.put(bidderId, pending);
+            byCorrelation.put(pending.correlationId, pending);
+            toSend = pending.correlationId;
+        }
+        pending.parked.add(bid);
+        parkedCount++;
+        return toSend;
+    }
+
+    public String bidderFor(String correlationId) {
+        Pending<T> pending = byCorrelation.get(correlationId);
+        return pending != null ? pending.bidderId : null;
+    }
+
+    // Offres libérées par la réponse, dans leur ordre d'arrivée
+    public List<T> complete(String correlationId) {
+        Pending<T> pending = byCorrelation.remove(correlationId);
+        if (pending == null) return Collections.emptyList();
+        byBidder.remove(pending.bidderId);
+        parkedCount -= pending.parked.size();
+        return pending.parked;
+    }
+
+    // Offres dont la requête n'a pas reçu de réponse dans le délai
+    public List<T> expire(long now, long timeoutMs) {
+        List<T> expired = null;
+        Iterator<Pending<T>> it = byCorrelation.values().iterator();
+        while (it.hasNext()) {
+            Pending<T> pending = it.next();
+            // Insertion ordonnée par date d'envoi: on s'arrête au premier non expiré
+            if (now - pending.sentAt < timeoutMs) break;
+            it.remove();
+            byBidder.remove(pending.bidderId);
+            parkedCount -= pending.parked.size();
+            if (expired == null) expired = new ArrayList<>();
+            expired.addAll(pending.parked);
+        }
+        return expired != null ? expired : Collections.emptyList();
+    }
+
+    public int getParkedCount() { return parkedCount; }
+    public int getInFlight() { return byCorrelation.size(); }
+}
@@ -0,0 +1,85 @@
+package auction.bench;
+
+import auction.models.Bid;
+import auction.storage.BidHistoryStore;
+import java.util.*;
+
+// ============================================================================
+// MESURE: empreinte mémoire par offre (BidHistoryStore vs Map<String, List<Bid>>)
+// Usage: java -cp "bin;lib/*" auction.bench.BidHistoryFootprint [offres] [articles]
+// ============================================================================
+public class BidHistoryFootprint {
+
+    public static void main(String[] args) {
+        int bids = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int itemCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        String[] itemIds = new String[itemCount];
+        for (int i = 0; i < itemCount; i++) itemIds[i] = "ITEM-" + i;
+        String[] bidderIds = new String[64];
+        for (int i = 0; i < bidderIds.length; i++) bidderIds[i] = "bidder" + i;
+
+        Random random = new Random(42);
+
+        // --- Historique colonnaire hors tas ---
+        long heapBefore = usedHeap();
+        BidHistoryStore store = new BidHistoryStore();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < bids; i++) {
+            store.append(itemIds[random.nextInt(itemCount)], bidderIds[random.nextInt(bidderIds.length)],
+                         100 + random.nextDouble() * 900, now + i);
+        }
+        long storeHeap = usedHeap() - heapBefore;
+
+        System.out.println("📦 BidHistoryStore: " + bids + " offres sur " + itemCount + " articles");
+        System.out.printf("   Hors tas: %.1f Mo | Index (tas): %.1f Mo | Tas mesuré: %.1f Mo%n",
+                          store.offHeapBytes() / 1e6, store.indexBytes() / 1e6, storeHeap / 1e6);
+        System.out.printf("   Octets par offre: %.1f%n", store.bytesPerBid());
+
+        // Vérifications: top-K trié, aucune allocation par offre lors du parcours
+        int[] top = new int[10];
+        int n = store.topK(itemIds[0], top);
+        for (int i = 1; i < n; i++) {
+            check(store.priceCents(top[i - 1]) >= store.priceCents(top[i]), "top-K non trié");
+        }
+        long[] max = {0};
+        store.forEachBid(itemIds[0], (bidder, cents, ts) -> max[0] = Math.max(max[0], cents));
+        check(n == 0 || max[0] == store.priceCents(top[0]), "top-K incohérent avec le parcours");
+
+        // Clôture de tous les articles: les segments doivent retourner au pool
+        for (String itemId : itemIds) store.release(itemId);
+        check(store.getLiveBids() == 0, "offres encore vivantes après libération");
+        check(store.getAllocatedSegments() <= 1, "segments non recyclés");
+        System.out.println("   ✅ Libération à la clôture: " + store.getAllocatedSegments() + " segment actif");
+
+        store = null;
+
+        // --- Référence: Map<String, List<Bid>> ---
+        heapBefore = usedHeap();
+        Map<String, List<Bid>> history = new HashMap<>();
+        random = new Random(42);
+        for (int i = 0; i < bids; i++) {
+            String itemId = itemIds[random.nextInt(itemCount)];
+            history.computeIfAbsent(itemId, k -> new ArrayList<>())
+                   .add(new Bid(bidderIds[random.nextInt(bidderIds.length)], itemId,
+                                100 + random.nextDouble() * 900));
+        }
+        long listHeap = usedHeap() - heapBefore;
+        System.out.printf("📚 Map<String, List<Bid>>: %.1f Mo de tas, %.1f octets par offre%n",
+                          listHeap / 1e6, (double) listHeap / bids);
+        history.clear();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new IllegalStateException(message);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try { Thread.sleep(50); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
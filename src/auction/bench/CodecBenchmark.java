@@ -0,0 +1,85 @@
+package auction.bench;
+
+import auction.protocol.AuctionCodec;
+import auction.protocol.AuctionMessage;
+import jade.lang.acl.ACLMessage;
+import java.lang.management.ManagementFactory;
+
+// ============================================================================
+// MESURE: décodage des messages du protocole, texte (split + parseDouble) vs binaire
+// Usage: java -cp "bin;lib/*" auction.bench.CodecBenchmark [messages]
+// ============================================================================
+public class CodecBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        AuctionCodec text = new AuctionCodec(false);
+        AuctionCodec binary = new AuctionCodec(true);
+        ACLMessage[] textMessages = new ACLMessage[64];
+        ACLMessage[] binaryMessages = new ACLMessage[64];
+        for (int i = 0; i < textMessages.length; i++) {
+            textMessages[i] = new ACLMessage(ACLMessage.INFORM);
+            text.bidUpdate(textMessages[i], "ITEM-" + (i % 8), 100 + i * 1.25, "bidder" + (i % 5));
+            binaryMessages[i] = new ACLMessage(ACLMessage.INFORM);
+            binary.bidUpdate(binaryMessages[i], "ITEM-" + (i % 8), 100 + i * 1.25, "bidder" + (i % 5));
+        }
+
+        // Contrôle: les deux formats décodent les mêmes valeurs
+        for (int i = 0; i < textMessages.length; i++) {
+            String expected = text.decode(textMessages[i]).toString();
+            check(expected.equals(binary.decode(binaryMessages[i]).toString()), "formats divergents: " + expected);
+        }
+
+        for (int run = 0; run < 3; run++) {
+            measure("split (historique)", count, () -> {
+                double sum = 0;
+                for (int i = 0; i < count; i++) {
+                    String[] parts = textMessages[i & 63].getContent().split(";");
+                    if (parts[0].equals("BID_UPDATE")) sum += Double.parseDouble(parts[2]);
+                }
+                return sum;
+            });
+            measure("codec texte", count, () -> {
+                double sum = 0;
+                for (int i = 0; i < count; i++) {
+                    AuctionMessage m = text.decode(textMessages[i & 63]);
+                    if (m.type == AuctionCodec.BID_UPDATE) sum += m.amount;
+                }
+                return sum;
+            });
+            measure("codec binaire", count, () -> {
+                double sum = 0;
+                for (int i = 0; i < count; i++) {
+                    AuctionMessage m = binary.decode(binaryMessages[i & 63]);
+                    if (m.type == AuctionCodec.BID_UPDATE) sum += m.amount;
+                }
+                return sum;
+            });
+            System.out.println();
+        }
+    }
+
+    private interface Workload {
+        double run();
+    }
+
+    private static void measure(String label, int count, Workload workload) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        double sink = workload.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        System.out.printf("   %-20s %,12.0f msg/s  %6.1f octets alloués/msg  (%s)%n",
+                          label, count / seconds, (double) allocated / count, sink > 0 ? "ok" : "-");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new IllegalStateException(message);
+    }
+}
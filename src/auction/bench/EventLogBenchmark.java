@@ -0,0 +1,138 @@
+package auction.bench;
+
+import auction.models.AuctionFormat;
+import auction.models.AuctionItem;
+import auction.storage.AuctionRecovery;
+import auction.storage.BidHistoryStore;
+import auction.storage.EventLog;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+// ============================================================================
+// MESURE: débit du journal d'événements par politique de fsync, temps de rejeu
+// Usage: java -cp "bin;lib/*" auction.bench.EventLogBenchmark [événements rejeu] [taille du groupe]
+// ============================================================================
+public class EventLogBenchmark {
+
+    private static final int OPEN_ITEMS = 1000;
+    private static final int BIDS_PER_ITEM = 100;
+
+    public static void main(String[] args) throws IOException {
+        long recoveryEvents = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        int groupSize = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        Path root = Files.createTempDirectory("eventlog-bench");
+        try {
+            System.out.println("📝 Débit d'écriture (commit tous les " + groupSize + " événements)");
+            measureThroughput(root, EventLog.FsyncPolicy.ALWAYS, 20_000, groupSize);
+            measureThroughput(root, EventLog.FsyncPolicy.GROUP, 500_000, groupSize);
+            measureThroughput(root, EventLog.FsyncPolicy.INTERVAL, 2_000_000, groupSize);
+            measureThroughput(root, EventLog.FsyncPolicy.NONE, 2_000_000, groupSize);
+
+            measureRecovery(root, recoveryEvents, groupSize);
+        } finally {
+            deleteRecursively(root);
+        }
+    }
+
+    private static void measureThroughput(Path root, EventLog.FsyncPolicy policy, long events, int groupSize)
+            throws IOException {
+        Path dir = root.resolve(policy.name().toLowerCase());
+        long start = System.nanoTime();
+        long forces;
+        try (EventLog log = new EventLog(dir, policy, 100)) {
+            log.replay(null);
+            writeWorkload(log, events, groupSize);
+            forces = log.getForces();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("   %-8s %,12.0f événements/s  (%,d événements, %,d fsync)%n",
+                          policy, events / seconds, events, forces);
+        deleteRecursively(dir);
+    }
+
+    private static void measureRecovery(Path root, long events, int groupSize) throws IOException {
+        Path dir = root.resolve("recovery");
+        int open;
+        try (EventLog log = new EventLog(dir, EventLog.FsyncPolicy.NONE, 100)) {
+            log.replay(null);
+            open = writeWorkload(log, events, groupSize);
+        }
+        long bytes = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path segment : stream) bytes += Files.size(segment);
+        }
+
+        long start = System.nanoTime();
+        BidHistoryStore bidHistory = new BidHistoryStore();
+        AuctionRecovery recovery = new AuctionRecovery(bidHistory);
+        long replayed;
+        try (EventLog log = new EventLog(dir, EventLog.FsyncPolicy.NONE, 100)) {
+            replayed = log.replay(recovery);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        check(replayed == events, "événements rejoués: " + replayed + " au lieu de " + events);
+        check(recovery.getAuctions().size() == open, "enchères ouvertes: " + recovery.getAuctions().size());
+        check(bidHistory.getLiveBids() <= (long) OPEN_ITEMS * BIDS_PER_ITEM, "historique non libéré");
+
+        System.out.printf("♻️ Rejeu de %,d événements (%.0f Mo): %.2f s, %,.0f événements/s, %d enchères restaurées%n",
+                          replayed, bytes / 1e6, seconds, replayed / seconds, recovery.getAuctions().size());
+        deleteRecursively(dir);
+    }
+
+    // OPEN_ITEMS enchères ouvertes en permanence; chacune reçoit BIDS_PER_ITEM offres puis est clôturée
+    private static int writeWorkload(EventLog log, long events, int groupSize) throws IOException {
+        Random random = new Random(42);
+        String[] bidders = new String[64];
+        for (int i = 0; i < bidders.length; i++) bidders[i] = "bidder" + i;
+
+        String[] open = new String[OPEN_ITEMS];
+        int[] bids = new int[OPEN_ITEMS];
+        long counter = 0;
+        long now = System.currentTimeMillis();
+        long written = 0;
+
+        while (written < events) {
+            int slot = random.nextInt(OPEN_ITEMS);
+            if (open[slot] == null) {
+                AuctionItem item = new AuctionItem("ITEM-" + (++counter), "Article " + counter,
+                                                   100, 150, AuctionFormat.ENGLISH);
+                open[slot] = item.getId();
+                bids[slot] = 0;
+                log.newAuction(item, now);
+            } else if (bids[slot] == BIDS_PER_ITEM && events - written > OPEN_ITEMS) {
+                log.auctionClosed(open[slot], null, 0, now);
+                open[slot] = null;
+            } else {
+                bids[slot]++;
+                log.bidAccepted(open[slot], bidders[random.nextInt(bidders.length)],
+                                100 + bids[slot], 1, now + written);
+            }
+            if (++written % groupSize == 0) log.commit();
+        }
+        log.commit();
+
+        int stillOpen = 0;
+        for (String itemId : open) {
+            if (itemId != null) stillOpen++;
+        }
+        return stillOpen;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) return;
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                for (Path child : stream) deleteRecursively(child);
+            }
+        }
+        Files.delete(path);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new IllegalStateException(message);
+    }
+}
@@ -0,0 +1,203 @@
+package auction.bench;
+
+import auction.bank.Ledger;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// ============================================================================
+// STRESS DU GRAND LIVRE: virements, blocages, libérations, captures, débits,
+// crédits et lots de règlement postés par plusieurs threads sur des comptes
+// tirés au hasard, pendant qu'un thread de migration retire des comptes et les
+// rouvre aussitôt avec leur solde (comme une migration entre banques): une
+// opération tombée sur un compte retiré doit échouer, pas se perdre.
+// Un thread observateur vérifie en continu 0 <= bloqué <= solde; à la fin, la
+// somme des soldes doit valoir le total initial + crédits - débits - captures
+// (les virements la conservent) et le montant bloqué total les blocages moins
+// libérations et captures.
+// Usage: java -cp "bin;lib/*" auction.bench.LedgerStressTest [threads] [comptes] [secondes]
+// ============================================================================
+public class LedgerStressTest {
+
+    private static final long INITIAL_CENTS = 1_000_000;
+    private static final int BATCH_SIZE = 16;
+
+    // Totaux d'un thread, lus après la fin de tous les threads
+    private static final class Totals {
+        long operations;
+        long credited;
+        long debited;
+        long held;
+        long released;
+        long captured;
+        long failed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int accounts = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        Ledger ledger = new Ledger();
+        String[] ids = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            ids[i] = "bidder" + i;
+            ledger.open(ids[i], INITIAL_CENTS);
+        }
+
+        System.out.printf("🏦 %d threads, %,d comptes, %d s%n", threads, accounts, seconds);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        Totals[] totals = new Totals[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            Totals mine = totals[t] = new Totals();
+            long seed = 42 + t;
+            workers[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                await(start);
+                while (running.get()) {
+                    // Lot de 1024 opérations entre deux lectures du drapeau
+                    for (int i = 0; i < 1024; i++) {
+                        post(ledger, ids, random, mine);
+                    }
+                }
+            }, "ledger-worker-" + t);
+            workers[t].start();
+        }
+
+        long[] migrations = {0};
+        Thread migrator = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(11);
+            await(start);
+            while (running.get()) {
+                String id = ids[random.nextInt(ids.length)];
+                Ledger.Balance moved = ledger.remove(id);
+                if (moved != null) {
+                    ledger.restore(id, moved.balanceCents, moved.blockedCents);
+                    migrations[0]++;
+                }
+            }
+        }, "ledger-migrator");
+        migrator.start();
+
+        long[] checks = {0};
+        String[] violation = {null};
+        Thread observer = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(7);
+            await(start);
+            while (running.get() && violation[0] == null) {
+                Ledger.Balance balance = ledger.balance(ids[random.nextInt(ids.length)]);
+                if (balance == null) continue;  // compte en cours de migration
+                if (balance.blockedCents < 0 || balance.blockedCents > balance.balanceCents) {
+                    violation[0] = "solde " + balance.balanceCents + ", bloqué " + balance.blockedCents;
+                }
+                checks[0]++;
+            }
+        }, "ledger-observer");
+        observer.start();
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        long previous = 0;
+        for (int second = 1; second <= seconds; second++) {
+            Thread.sleep(1000);
+            long operations = 0;
+            for (Totals total : totals) operations += total.operations;  // lecture approximative, pour l'affichage
+            System.out.printf("  t=%2ds  %,12d opérations/s%n", second, operations - previous);
+            previous = operations;
+        }
+        running.set(false);
+        double elapsedS = (System.nanoTime() - startNanos) / 1e9;
+        for (Thread worker : workers) worker.join();
+        observer.join();
+        migrator.join();
+
+        Totals sum = new Totals();
+        for (Totals total : totals) {
+            sum.operations += total.operations;
+            sum.credited += total.credited;
+            sum.debited += total.debited;
+            sum.held += total.held;
+            sum.released += total.released;
+            sum.captured += total.captured;
+            sum.failed += total.failed;
+        }
+
+        long[] balances = {0, 0};
+        boolean[] accountOk = {true};
+        ledger.forEach((owner, balance, blocked) -> {
+            balances[0] += balance;
+            balances[1] += blocked;
+            if (blocked < 0 || blocked > balance) accountOk[0] = false;
+        });
+        long expectedBalance = accounts * INITIAL_CENTS + sum.credited - sum.debited - sum.captured;
+        long expectedBlocked = sum.held - sum.released - sum.captured;
+
+        System.out.printf("%n  %,d opérations en %.1f s: %,.0f opérations/s (%,d refusées)%n",
+                          sum.operations, elapsedS, sum.operations / elapsedS, sum.failed);
+        System.out.printf("  Somme des soldes:  %,d (attendu %,d)%n", balances[0], expectedBalance);
+        System.out.printf("  Total bloqué:      %,d (attendu %,d)%n", balances[1], expectedBlocked);
+        System.out.printf("  Lectures de contrôle: %,d, migrations: %,d%n", checks[0], migrations[0]);
+
+        boolean ok = violation[0] == null && accountOk[0] && ledger.size() == accounts &&
+                     balances[0] == expectedBalance && balances[1] == expectedBlocked;
+        if (violation[0] != null) System.out.println("  Invariant violé pendant le test: " + violation[0]);
+        System.out.println(ok ? "✅ Invariants respectés" : "❌ Invariants violés");
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void post(Ledger ledger, String[] ids, SplittableRandom random, Totals totals) {
+        String account = ids[random.nextInt(ids.length)];
+        long cents = 1 + random.nextInt(5_000);
+        int kind = random.nextInt(100);
+        totals.operations++;
+
+        if (kind < 40) {
+            String other = ids[random.nextInt(ids.length)];
+            if (!ledger.transfer(account, other, cents)) totals.failed++;
+        } else if (kind < 60) {
+            if (ledger.hold(account, cents)) totals.held += cents;
+            else totals.failed++;
+        } else if (kind < 80) {
+            totals.released += ledger.release(account, cents);
+        } else if (kind < 88) {
+            if (ledger.capture(account, cents)) totals.captured += cents;
+            else totals.failed++;
+        } else if (kind < 93) {
+            if (ledger.debit(account, cents)) totals.debited += cents;
+            else totals.failed++;
+        } else if (kind < 94) {
+            postBatch(ledger, ids, random, totals);
+        } else {
+            if (ledger.credit(account, cents)) totals.credited += cents;
+            else totals.failed++;
+        }
+    }
+
+    // Lot de montants nets, débits et crédits mêlés, sur des comptes épars
+    private static void postBatch(Ledger ledger, String[] ids, SplittableRandom random, Totals totals) {
+        String[] owners = new String[BATCH_SIZE];
+        long[] cents = new long[BATCH_SIZE];
+        byte[] statuses = new byte[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            owners[i] = ids[random.nextInt(ids.length)];
+            cents[i] = random.nextInt(10_000) - 2_000;
+        }
+        ledger.postBatch(owners, cents, BATCH_SIZE, statuses);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (statuses[i] != Ledger.POSTED) totals.failed++;
+            else if (cents[i] >= 0) totals.debited += cents[i];
+            else totals.credited -= cents[i];
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
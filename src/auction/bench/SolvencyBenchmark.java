@@ -0,0 +1,191 @@
+package auction.bench;
+
+import auction.bank.CreditHeadroom;
+import auction.bank.SolvencyPipeline;
+import java.util.*;
+import java.util.concurrent.*;
+
+// ============================================================================
+// MESURE: offres acceptées/s selon le mode de contrôle de solvabilité
+//   none      : aucun contrôle (référence)
+//   sync      : un aller-retour bloquant avec la banque par offre
+//   pipelined : marge locale + requêtes asynchrones corrélées
+// La banque est simulée par un thread avec une latence fixe par requête.
+// Usage: java -cp "bin;lib/*" auction.bench.SolvencyBenchmark [offres] [latenceMicros]
+// ============================================================================
+public class SolvencyBenchmark {
+
+    private static final int BIDDERS = 1000;
+    private static final int ITEMS = 200;
+
+    private static final class Request {
+        final String correlationId;
+        final String bidderId;
+        Request(String correlationId, String bidderId) {
+            this.correlationId = correlationId;
+            this.bidderId = bidderId;
+        }
+    }
+
+    private static final class Reply {
+        final String correlationId;
+        final long availableCents;
+        Reply(String correlationId, long availableCents) {
+            this.correlationId = correlationId;
+            this.availableCents = availableCents;
+        }
+    }
+
+    private static final class Bid {
+        final String bidderId;
+        final int item;
+        final long cents;
+        Bid(String bidderId, int item, long cents) {
+            this.bidderId = bidderId;
+            this.item = item;
+            this.cents = cents;
+        }
+    }
+
+    // Banque simulée: file de requêtes traitée par un thread avec latence fixe
+    private static final class SimulatedBank implements Runnable {
+        final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+        final BlockingQueue<Reply> replies = new LinkedBlockingQueue<>();
+        final Map<String, Long> balances = new ConcurrentHashMap<>();
+        final long latencyNanos;
+        volatile boolean running = true;
+
+        SimulatedBank(long latencyNanos) {
+            this.latencyNanos = latencyNanos;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    Request request = requests.poll(10, TimeUnit.MILLISECONDS);
+                    if (request == null) continue;
+                    long until = System.nanoTime() + latencyNanos;
+                    while (System.nanoTime() < until) Thread.onSpinWait();
+                    replies.add(new Reply(request.correlationId,
+                                          balances.getOrDefault(request.bidderId, 0L)));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int bidCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        long latencyMicros = args.length > 1 ? Long.parseLong(args[1]) : 100;
+
+        List<Bid> bids = generateBids(bidCount);
+
+        System.out.println("🏦 Solvabilité: " + bidCount + " offres, " + BIDDERS + 
+                           " enchérisseurs, latence banque " + latencyMicros + "µs");
+        for (String mode : new String[]{"none", "sync", "pipelined"}) {
+            run(mode, bids, latencyMicros * 1000);
+        }
+    }
+
+    private static void run(String mode, List<Bid> bids, long latencyNanos) throws Exception {
+        SimulatedBank bank = new SimulatedBank(latencyNanos);
+        for (int b = 0; b < BIDDERS; b++) {
+            bank.balances.put("bidder" + b, 500_000L + (b % 10) * 100_000L);
+        }
+        Thread bankThread = new Thread(bank, "simulated-bank");
+        bankThread.start();
+
+        // En mode sync, le nombre d'offres est réduit pour garder une durée raisonnable
+        List<Bid> workload = mode.equals("sync") ? bids.subList(0, Math.min(bids.size(), 20_000)) : bids;
+
+        long[] price = new long[ITEMS];
+        String[] leader = new String[ITEMS];
+        CreditHeadroom headroom = new CreditHeadroom(30_000);
+        SolvencyPipeline<Bid> pipeline = new SolvencyPipeline<>("bench");
+        ArrayDeque<Bid> retry = new ArrayDeque<>();
+        long accepted = 0;
+        long rejected = 0;
+        long sequence = 0;
+
+        long start = System.nanoTime();
+        Iterator<Bid> it = workload.iterator();
+        while (it.hasNext() || pipeline.getParkedCount() > 0 || !retry.isEmpty()) {
+            // Réponses arrivées: marge rafraîchie, offres réinjectées en tête
+            Reply reply;
+            while ((reply = bank.replies.poll()) != null) {
+                String bidderId = pipeline.bidderFor(reply.correlationId);
+                headroom.refresh(bidderId, reply.availableCents, System.currentTimeMillis());
+                retry.addAll(pipeline.complete(reply.correlationId));
+            }
+
+            Bid bid = !retry.isEmpty() ? retry.poll() : (it.hasNext() ? it.next() : null);
+            if (bid == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (bid.cents <= price[bid.item]) {
+                rejected++;
+                continue;
+            }
+
+            boolean solvent;
+            switch (mode) {
+                case "none":
+                    solvent = true;
+                    break;
+                case "sync": {
+                    bank.requests.add(new Request("sync-" + (++sequence), bid.bidderId));
+                    solvent = bank.replies.take().availableCents >= bid.cents;
+                    break;
+                }
+                default: {
+                    CreditHeadroom.Decision decision = headroom.check(bid.bidderId, "I" + bid.item,
+                                                                      bid.cents, System.currentTimeMillis());
+                    if (decision == CreditHeadroom.Decision.CHECK) {
+                        String correlationId = pipeline.park(bid.bidderId, bid, System.currentTimeMillis());
+                        if (correlationId != null) {
+                            bank.requests.add(new Request(correlationId, bid.bidderId));
+                        }
+                        continue;
+                    }
+                    solvent = decision == CreditHeadroom.Decision.PASS;
+                }
+            }
+
+            if (solvent) {
+                if (leader[bid.item] != null && !leader[bid.item].equals(bid.bidderId)) {
+                    headroom.release(leader[bid.item], "I" + bid.item);
+                }
+                headroom.reserve(bid.bidderId, "I" + bid.item, bid.cents);
+                price[bid.item] = bid.cents;
+                leader[bid.item] = bid.bidderId;
+                accepted++;
+            } else {
+                rejected++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        bank.running = false;
+        bankThread.join();
+
+        System.out.printf("  %-10s %,10.0f offres acceptées/s (%d acceptées, %d rejetées, %.2fs)%n",
+                          mode, accepted / seconds, accepted, rejected, seconds);
+    }
+
+    private static List<Bid> generateBids(int count) {
+        Random random = new Random(7);
+        long[] price = new long[ITEMS];
+        List<Bid> bids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int item = random.nextInt(ITEMS);
+            // La plupart des offres surenchérissent, quelques-unes arrivent trop basses
+            price[item] += random.nextInt(10) == 0 ? -50 : 100 + random.nextInt(400);
+            bids.add(new Bid("bidder" + random.nextInt(BIDDERS), item, Math.max(1, price[item])));
+            if (price[item] > 2_000_000) price[item] = 10_000;
+        }
+        return bids;
+    }
+}
@@ -0,0 +1,102 @@
+package auction.bench;
+
+import auction.bank.Ledger;
+import auction.storage.TransactionJournal;
+import java.nio.file.*;
+import java.util.SplittableRandom;
+
+// ============================================================================
+// JOURNAL DES TRANSACTIONS: paiements ajoutés au journal, tas mesuré après GC à
+// chaque tranche (il doit rester plat), puis réouverture du journal, relevés
+// par plage de dates comparés aux montants attendus et débits via le grand livre.
+// Horodatages synthétiques: une transaction par milliseconde.
+// Usage: java -cp "bin;lib/*" auction.bench.TransactionJournalBench [paiements] [comptes] [répertoire]
+// ============================================================================
+public class TransactionJournalBench {
+
+    private static final int CHUNKS = 10;
+    private static final int QUERIES = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        long payments = args.length > 0 ? Long.parseLong(args[0]) : 5_000_000;
+        int accounts = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        Path directory = args.length > 2 ? Paths.get(args[2]) : Files.createTempDirectory("journal-bench");
+
+        TransactionJournal journal = new TransactionJournal(directory);
+        if (journal.size() > 0) {
+            System.out.println("❌ Le répertoire du journal doit être vide: " + directory);
+            System.exit(1);
+        }
+        String[] ids = new String[accounts];
+        for (int i = 0; i < accounts; i++) ids[i] = "bidder" + i;
+
+        System.out.printf("📒 %,d paiements, %,d comptes, journal %s%n", payments, accounts, directory);
+
+        // Paiement p: débit de account+1 centimes horodaté p, écrit directement dans le journal
+        // pour maîtriser les horodatages; le coût via le grand livre est mesuré à la fin
+        long perChunk = payments / CHUNKS;
+        long startNanos = System.nanoTime();
+        for (int chunk = 0; chunk < CHUNKS; chunk++) {
+            for (long p = chunk * perChunk; p < (chunk + 1) * perChunk; p++) {
+                int account = (int) (p % accounts);
+                journal.append(ids[account], TransactionJournal.DEBIT, account + 1, p);
+            }
+            System.out.printf("  %,12d transactions  tas après GC: %,6d Ko%n", journal.size(), usedHeapKb());
+        }
+        double appendS = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("  Ajouts: %,.0f transactions/s%n", perChunk * CHUNKS / appendS);
+        journal.close();
+
+        // Réouverture: têtes de chaîne reconstruites depuis les segments
+        startNanos = System.nanoTime();
+        journal = new TransactionJournal(directory);
+        System.out.printf("  Réouverture: %,d transactions en %.2f s%n", journal.size(), (System.nanoTime() - startNanos) / 1e9);
+        boolean ok = journal.size() == perChunk * CHUNKS;
+
+        // Relevés de 100 ms tirés au hasard: 100 ms = 100 transactions, réparties entre les comptes
+        SplittableRandom random = new SplittableRandom(42);
+        long span = perChunk * CHUNKS;
+        long visited = 0;
+        startNanos = System.nanoTime();
+        for (int q = 0; q < QUERIES && span > 100; q++) {
+            int account = random.nextInt(accounts);
+            long from = random.nextLong(span - 100);
+            long[] sum = {0, 0};
+            journal.statement(ids[account], from, from + 99, Integer.MAX_VALUE, (type, cents, timestamp) -> {
+                sum[0] += cents;
+                sum[1]++;
+            });
+            long expected = countInRange(from, from + 99, account, accounts);
+            if (sum[1] != expected || sum[0] != expected * (account + 1)) ok = false;
+            visited += sum[1];
+        }
+        double queryS = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("  Relevés: %,d en %.2f s (%,.1f µs/relevé, %,d transactions lues)%n",
+                          QUERIES, queryS, queryS * 1e6 / QUERIES, visited);
+
+        // Coût par paiement à travers le grand livre (verrou du compte + journal)
+        Ledger ledger = new Ledger(journal);
+        for (String id : ids) ledger.open(id, Long.MAX_VALUE / 2);
+        startNanos = System.nanoTime();
+        for (int p = 0; p < 1_000_000; p++) {
+            ledger.debit(ids[p % accounts], 1);
+        }
+        System.out.printf("  Grand livre journalisé: %,.0f débits/s%n", 1e6 / ((System.nanoTime() - startNanos) / 1e9));
+        journal.close();
+
+        System.out.println(ok ? "✅ Journal cohérent" : "❌ Journal incohérent");
+        System.exit(ok ? 0 : 1);
+    }
+
+    // Nombre de p dans [from, to] avec p % accounts == account
+    private static long countInRange(long from, long to, int account, int accounts) {
+        long first = from + Math.floorMod(account - from, accounts);
+        return first > to ? 0 : (to - first) / accounts + 1;
+    }
+
+    private static long usedHeapKb() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return (runtime.totalMemory() - runtime.freeMemory()) / 1024;
+    }
+}
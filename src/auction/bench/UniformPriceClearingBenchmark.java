@@ -0,0 +1,58 @@
+package auction.bench;
+
+import auction.clearing.UniformPriceClearing;
+import java.util.*;
+
+// ============================================================================
+// MESURE: temps de dépouillement d'une enchère multi-unités à prix uniforme
+// Usage: java -cp "bin;lib/*" auction.bench.UniformPriceClearingBenchmark [offres] [enchérisseurs]
+// ============================================================================
+public class UniformPriceClearingBenchmark {
+
+    public static void main(String[] args) {
+        int points = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int bidderCount = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        String[] bidderIds = new String[bidderCount];
+        for (int i = 0; i < bidderCount; i++) bidderIds[i] = "bidder" + i;
+
+        // Cas de contrôle: 10 unités, offres 4@50, 4@40, 2@30 + 2@30 -> prix 30, servi partiel 1/1
+        UniformPriceClearing small = new UniformPriceClearing();
+        small.submit("a", 4, 5000);
+        small.submit("b", 4, 4000);
+        small.submit("c", 2, 3000);
+        small.submit("d", 2, 3000);
+        small.submit("e", 5, 1000);
+        UniformPriceClearing.Result r = small.clear(10, 2000);
+        check(r.clearingPriceCents == 3000, "prix marginal incorrect: " + r.clearingPriceCents);
+        check(r.unitsSold == 10, "unités vendues incorrectes");
+        check(r.winners.length == 4 && r.units[2] == 1 && r.units[3] == 1, "servi partiel incorrect");
+
+        for (int run = 0; run < 5; run++) {
+            Random random = new Random(42 + run);
+            UniformPriceClearing book = new UniformPriceClearing();
+            long demand = 0;
+            for (int i = 0; i < points; i++) {
+                long quantity = 1 + random.nextInt(50);
+                book.submit(bidderIds[random.nextInt(bidderCount)], quantity, 10_000 + random.nextInt(90_000));
+                demand += quantity;
+            }
+            long supply = demand / 3;
+
+            long start = System.nanoTime();
+            UniformPriceClearing.Result result = book.clear(supply, 15_000);
+            double ms = (System.nanoTime() - start) / 1e6;
+
+            long allocated = 0;
+            for (long units : result.units) allocated += units;
+            check(allocated == result.unitsSold && allocated == supply, "allocation incohérente");
+
+            System.out.printf("⚖️ %d offres, %d unités: prix %.2f€, %d gagnants en %.1f ms%n",
+                              points, supply, result.clearingPriceCents / 100.0, result.winners.length, ms);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new IllegalStateException(message);
+    }
+}
@@ -0,0 +1,89 @@
+package auction.clearing;
+
+import java.util.*;
+
+/**
+ * Carnet d'offres scellées d'un article: colonnes primitives alimentées en O(1)
+ * pendant la manche, dépouillées à l'échéance par une sélection top-2 en une passe.
+ */
+public class SealedBidBook {
+
+    // Résultat du dépouillement; winnerId null si aucune offre
+    public static final class Clearing {
+        public final String winnerId;
+        public final long winningBidCents;
+        public final long secondBidCents;   // meilleure offre d'un autre enchérisseur, -1 sinon
+        public final int bidCount;
+
+        Clearing(String winnerId, long winningBidCents, long secondBidCents, int bidCount) {
+            this.winnerId = winnerId;
+            this.winningBidCents = winningBidCents;
+            this.secondBidCents = secondBidCents;
+            this.bidCount = bidCount;
+        }
+    }
+
+    private final Map<String, Integer> bidderIndexes = new HashMap<>();
+    private final List<String> bidders = new ArrayList<>();
+    // Meilleure offre de chaque enchérisseur: ce qu'il peut avoir à payer
+    private final List<Long> best = new ArrayList<>();
+    private long[] amounts = new long[16];
+    private int[] bidderOf = new int[16];
+    private int size;
+
+    public void submit(String bidderId, long amountCents) {
+        Integer idx = bidderIndexes.get(bidderId);
+        if (idx == null) {
+            idx = bidders.size();
+            bidderIndexes.put(bidderId, idx);
+            bidders.add(bidderId);
+            best.add(0L);
+        }
+        if (amountCents > best.get(idx)) best.set(idx, amountCents);
+        if (size == amounts.length) {
+            amounts = Arrays.copyOf(amounts, size * 2);
+            bidderOf = Arrays.copyOf(bidderOf, size * 2);
+        }
+        amounts[size] = amountCents;
+        bidderOf[size] = idx;
+        size++;
+    }
+
+    public int size() { return size; }
+
+    public long committedCents(String bidderId) {
+        Integer idx = bidderIndexes.get(bidderId);
+        return idx != null ? best.get(idx) : 0L;
+    }
+
+    public List<String> bidders() {
+        return Collections.unmodifiableList(bidders);
+    }
+
+    /**
+     * Une passe: meilleure offre et meilleure offre d'un enchérisseur différent.
+     * À égalité, l'offre la plus ancienne l'emporte.
+     */
+    public Clearing clear() {
+        int best = -1;
+        long bestAmount = -1;
+        long secondAmount = -1;
+
+        for (int i = 0; i < size; i++) {
+            long amount = amounts[i];
+            int bidder = bidderOf[i];
+
+            if (best >= 0 && bidder == best) {
+                if (amount > bestAmount) bestAmount = amount;
+            } else if (amount > bestAmount) {
+                secondAmount = bestAmount;
+                bestAmount = amount;
+                best = bidder;
+            } else if (amount > secondAmount) {
+                secondAmount = amount;
+            }
+        }
+
+        return new Clearing(best >= 0 ? bidders.get(best) : null, bestAmount, secondAmount, size);
+    }
+}
@@ -0,0 +1,170 @@
+package auction.clearing;
+
+import java.util.*;
+
+/**
+ * Enchère multi-unités à prix uniforme.
+ *
+ * Chaque offre de demande est un couple (quantité, prix unitaire). Au
+ * dépouillement, la courbe de demande est triée par un tri primitif sur des
+ * clés longues compactées (prix unitaire en centimes dans les bits de poids
+ * fort, rang de l'offre dans les 24 bits de poids faible), puis parcourue par
+ * prix décroissant jusqu'à épuisement de l'offre. Tous les gagnants paient le
+ * prix de l'offre marginale; les offres à ce prix se partagent les unités
+ * restantes au prorata (servi partiel).
+ */
+public class UniformPriceClearing {
+
+    public static final int MAX_BIDS = 1 << 24;
+
+    private static final int INDEX_BITS = 24;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final long MAX_PRICE_CENTS = (1L << (63 - INDEX_BITS)) - 1;
+
+    // Attribution agrégée par enchérisseur
+    public static final class Result {
+        public final long clearingPriceCents;
+        public final long unitsSold;
+        public final String[] winners;
+        public final long[] units;
+
+        Result(long clearingPriceCents, long unitsSold, String[] winners, long[] units) {
+            this.clearingPriceCents = clearingPriceCents;
+            this.unitsSold = unitsSold;
+            this.winners = winners;
+            this.units = units;
+        }
+
+        public long costCents(int winner) {
+            return units[winner] * clearingPriceCents;
+        }
+    }
+
+    private final Map<String, Integer> bidderIndexes = new HashMap<>();
+    private final List<String> bidders = new ArrayList<>();
+    private final List<Long> committed = new ArrayList<>();
+    private int[] bidderOf = new int[16];
+    private long[] quantities = new long[16];
+    private long[] unitPrices = new long[16];
+    private int size;
+
+    public void submit(String bidderId, long quantity, long unitPriceCents) {
+        if (quantity <= 0 || unitPriceCents <= 0 || unitPriceCents > MAX_PRICE_CENTS) {
+            throw new IllegalArgumentException("Offre de demande invalide: " + quantity + " x " + unitPriceCents);
+        }
+        if (size == MAX_BIDS) {
+            throw new IllegalStateException("Carnet multi-unités plein");
+        }
+
+        Integer idx = bidderIndexes.get(bidderId);
+        if (idx == null) {
+            idx = bidders.size();
+            bidderIndexes.put(bidderId, idx);
+            bidders.add(bidderId);
+            committed.add(0L);
+        }
+        if (size == bidderOf.length) {
+            int capacity = Math.min(size * 2, MAX_BIDS);
+            bidderOf = Arrays.copyOf(bidderOf, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            unitPrices = Arrays.copyOf(unitPrices, capacity);
+        }
+        bidderOf[size] = idx;
+        quantities[size] = quantity;
+        unitPrices[size] = unitPriceCents;
+        size++;
+        committed.set(idx, committed.get(idx) + quantity * unitPriceCents);
+    }
+
+    public int size() { return size; }
+
+    // Quantité de la i-ème offre, dans l'ordre de soumission
+    public long quantity(int bid) {
+        return quantities[bid];
+    }
+
+    // Engagement maximal d'un enchérisseur (somme de ses offres), pour la vérification de solvabilité
+    public long committedCents(String bidderId) {
+        Integer idx = bidderIndexes.get(bidderId);
+        return idx != null ? committed.get(idx) : 0L;
+    }
+
+    public List<String> bidders() {
+        return Collections.unmodifiableList(bidders);
+    }
+
+    /**
+     * @param supply unités mises en vente
+     * @param reservePriceCents prix unitaire minimal; c'est aussi le prix si la demande
+     *                          ne couvre pas l'offre
+     */
+    public Result clear(long supply, long reservePriceCents) {
+        // Clés compactées: le tri croissant des longs ordonne par prix puis par rang
+        long[] keys = new long[size];
+        int eligible = 0;
+        for (int i = 0; i < size; i++) {
+            if (unitPrices[i] >= reservePriceCents) {
+                keys[eligible++] = (unitPrices[i] << INDEX_BITS) | i;
+            }
+        }
+        Arrays.sort(keys, 0, eligible);
+
+        long[] allocated = new long[bidders.size()];
+        long remaining = supply;
+        long clearingPrice = reservePriceCents;
+        int pos = eligible - 1;
+
+        while (pos >= 0 && remaining > 0) {
+            long price = keys[pos] >>> INDEX_BITS;
+
+            // Groupe des offres au même prix (parcouru par rang croissant)
+            int groupEnd = pos;
+            long groupDemand = 0;
+            while (pos >= 0 && (keys[pos] >>> INDEX_BITS) == price) {
+                groupDemand += quantities[(int) (keys[pos] & INDEX_MASK)];
+                pos--;
+            }
+            int groupStart = pos + 1;
+
+            if (groupDemand <= remaining) {
+                for (int k = groupStart; k <= groupEnd; k++) {
+                    int bid = (int) (keys[k] & INDEX_MASK);
+                    allocated[bidderOf[bid]] += quantities[bid];
+                }
+                remaining -= groupDemand;
+                if (remaining == 0) clearingPrice = price;
+            } else {
+                // Offre marginale: servi partiel au prorata, reliquat aux offres les plus anciennes
+                long granted = 0;
+                for (int k = groupStart; k <= groupEnd; k++) {
+                    int bid = (int) (keys[k] & INDEX_MASK);
+                    long share = (long) ((double) quantities[bid] * remaining / groupDemand);
+                    allocated[bidderOf[bid]] += share;
+                    granted += share;
+                }
+                for (int k = groupStart; k <= groupEnd && granted < remaining; k++) {
+                    int bid = (int) (keys[k] & INDEX_MASK);
+                    allocated[bidderOf[bid]]++;
+                    granted++;
+                }
+                remaining = 0;
+                clearingPrice = price;
+            }
+        }
+
+        int winnerCount = 0;
+        for (long units : allocated) {
+            if (units > 0) winnerCount++;
+        }
+        String[] winners = new String[winnerCount];
+        long[] units = new long[winnerCount];
+        int w = 0;
+        for (int b = 0; b < allocated.length; b++) {
+            if (allocated[b] > 0) {
+                winners[w] = bidders.get(b);
+                units[w++] = allocated[b];
+            }
+        }
+        return new Result(clearingPrice, supply - remaining, winners, units);
+    }
+}
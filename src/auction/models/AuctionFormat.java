@@ -0,0 +1,17 @@
+package auction.models;
+
+// Format d'enchère d'un article
+public enum AuctionFormat {
+    ENGLISH,        // ascendante ouverte, chaque offre acceptée est diffusée
+    FIRST_PRICE,    // sous pli scellé, le gagnant paie son offre
+    VICKREY,        // sous pli scellé, le gagnant paie la deuxième meilleure offre
+    MULTI_UNIT;     // lot de plusieurs unités, offres (quantité, prix unitaire), prix uniforme
+
+    public boolean isSealed() {
+        return this != ENGLISH;
+    }
+
+    public boolean isMultiUnit() {
+        return this == MULTI_UNIT;
+    }
+}
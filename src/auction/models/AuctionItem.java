@@ -1,5 +1,6 @@
 package auction.models;
 
+import auction.scheduling.Clock;
 import java.io.Serializable;
 import java.util.Date;
 
@@ -14,23 +15,41 @@ public class AuctionItem implements Serializable {
     private Date startTime;
     private Date endTime;
     private String currentWinner;
+    private AuctionFormat format;
+    private long quantity = 1;  // unités du lot (MULTI_UNIT); les prix sont alors unitaires
     
     public AuctionItem(String id, String name, double startingPrice, double reservePrice) {
+        this(id, name, startingPrice, reservePrice, AuctionFormat.ENGLISH);
+    }
+    
+    public AuctionItem(String id, String name, double startingPrice, double reservePrice, 
+                       AuctionFormat format) {
         this.id = id;
         this.name = name;
         this.startingPrice = startingPrice;
         this.currentPrice = startingPrice;
         this.reservePrice = reservePrice;
-        this.startTime = new Date();
-        this.endTime = new Date(System.currentTimeMillis() + 300000);
+        this.startTime = Clock.get().now();
+        this.endTime = new Date(startTime.getTime() + 300000);
+        this.format = format;
+    }
+    
+    public AuctionItem(String id, String name, double startingPrice, double reservePrice, 
+                       AuctionFormat format, long quantity) {
+        this(id, name, startingPrice, reservePrice, format);
+        this.quantity = quantity;
     }
     
     public String getId() { return id; }
     public String getName() { return name; }
+    public double getStartingPrice() { return startingPrice; }
+    public AuctionFormat getFormat() { return format; }
+    public long getQuantity() { return quantity; }
     public double getCurrentPrice() { return currentPrice; }
     public void setCurrentPrice(double price) { this.currentPrice = price; }
     public String getCurrentWinner() { return currentWinner; }
     public void setCurrentWinner(String winner) { this.currentWinner = winner; }
     public double getReservePrice() { return reservePrice; }
     public Date getEndTime() { return endTime; }
+    public void setEndTime(Date endTime) { this.endTime = endTime; }
 }
\ No newline at end of file
@@ -1,51 +1,88 @@
 package auction.models;
 
 import java.io.Serializable;
-import java.util.*;
 
+/**
+ * Compte d'un enchérisseur, montants en centimes.
+ *
+ * Invariants: 0 <= bloqué <= solde. Les méthodes ne sont pas synchronisées:
+ * les comptes sont tenus par un grand livre (auction.bank.Ledger) qui prend
+ * le verrou du compte autour de chaque opération. L'historique des
+ * transactions n'est pas gardé en mémoire: le grand livre le consigne dans un
+ * journal sur disque (auction.storage.TransactionJournal).
+ */
 public class BankAccount implements Serializable {
-    private String ownerId;
-    private double balance;
-    private double blockedAmount;
-    private List<Transaction> transactions;
-    
-    public BankAccount(String ownerId, double initialBalance) {
+    private final String ownerId;
+    private final int index;
+    private long balanceCents;
+    private long blockedCents;
+
+    // index: rang d'ouverture dans le grand livre (verrou et ordre de verrouillage)
+    public BankAccount(String ownerId, int index, long balanceCents, long blockedCents) {
+        if (balanceCents < 0 || blockedCents < 0 || blockedCents > balanceCents) {
+            throw new IllegalArgumentException("Compte " + ownerId + " incohérent: solde " + balanceCents +
+                                               ", bloqué " + blockedCents);
+        }
         this.ownerId = ownerId;
-        this.balance = initialBalance;
-        this.blockedAmount = 0;
-        this.transactions = new ArrayList<>();
-    }
-    
-    public boolean hasSufficientFunds(double amount) {
-        return (balance - blockedAmount) >= amount;
-    }
-    
-    public boolean blockFunds(double amount) {
-        if (hasSufficientFunds(amount)) {
-            blockedAmount += amount;
+        this.index = index;
+        this.balanceCents = balanceCents;
+        this.blockedCents = blockedCents;
+    }
+
+    public boolean hasSufficientFunds(long cents) {
+        return balanceCents - blockedCents >= cents;
+    }
+
+    public boolean blockFunds(long cents) {
+        if (cents >= 0 && hasSufficientFunds(cents)) {
+            blockedCents += cents;
             return true;
         }
         return false;
     }
-    
-    public void releaseFunds(double amount) {
-        blockedAmount -= amount;
+
+    // Borné au montant bloqué: une libération en double ne crée pas de disponible fictif
+    public long releaseFunds(long cents) {
+        long released = Math.min(Math.max(0, cents), blockedCents);
+        blockedCents -= released;
+        return released;
     }
-    
-    public boolean debit(double amount) {
-        if (balance >= amount) {
-            balance -= amount;
-            transactions.add(new Transaction("DEBIT", amount, new Date()));
+
+    // Débit sur le disponible (hors montants bloqués)
+    public boolean debit(long cents) {
+        if (cents >= 0 && hasSufficientFunds(cents)) {
+            balanceCents -= cents;
             return true;
         }
         return false;
     }
-    
-    public void credit(double amount) {
-        balance += amount;
-        transactions.add(new Transaction("CREDIT", amount, new Date()));
+
+    // Débit d'un montant préalablement bloqué
+    public boolean capture(long cents) {
+        if (cents >= 0 && cents <= blockedCents) {
+            blockedCents -= cents;
+            balanceCents -= cents;
+            return true;
+        }
+        return false;
+    }
+
+    // Rejeu d'un débit déjà accepté: les montants bloqués, absents du journal, cèdent au besoin
+    public void replayDebit(long cents) {
+        balanceCents = Math.max(0, balanceCents - Math.max(0, cents));
+        blockedCents = Math.min(blockedCents, balanceCents);
+    }
+
+    public void credit(long cents) {
+        if (cents < 0) throw new IllegalArgumentException("Crédit négatif: " + cents);
+        balanceCents = Math.addExact(balanceCents, cents);
     }
-    
-    public double getBalance() { return balance; }
-    public double getAvailableBalance() { return balance - blockedAmount; }
-}
\ No newline at end of file
+
+    public String getOwnerId() { return ownerId; }
+    public int getIndex() { return index; }
+    public long getBalanceCents() { return balanceCents; }
+    public long getBlockedCents() { return blockedCents; }
+    public long getAvailableCents() { return balanceCents - blockedCents; }
+    public double getBalance() { return balanceCents / 100.0; }
+    public double getAvailableBalance() { return getAvailableCents() / 100.0; }
+}
@@ -1,5 +1,6 @@
 package auction.models;
 
+import auction.scheduling.Clock;
 import java.io.Serializable;
 import java.util.Date;
 
@@ -13,7 +14,7 @@ public class Bid implements Serializable {
         this.bidderId = bidderId;
         this.itemId = itemId;
         this.amount = amount;
-        this.timestamp = new Date();
+        this.timestamp = Clock.get().now();
     }
     
     public String getBidderId() { return bidderId; }
@@ -0,0 +1,636 @@
+package auction.protocol;
+
+import auction.AuctionConfig;
+import auction.models.AuctionFormat;
+import jade.lang.acl.ACLMessage;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Codec des messages du protocole d'enchères (offres, annonces, mises à jour,
+ * adjudications, solvabilité, paiements et lots de règlement).
+ *
+ * Format binaire, porté par {@code setByteSequenceContent}: octet magique, type,
+ * puis les champs (chaînes préfixées par leur longueur, montants en double,
+ * quantités en long). L'encodage se fait dans un tampon réutilisé, agrandi
+ * d'avance selon la taille maximale du message; le seul objet alloué est le
+ * tableau d'octets remis au message. Une chaîne est limitée à 65535 octets
+ * UTF-8 (longueur sur 2 octets non signés). Au décodage, les
+ * identifiants déjà vus sont repris d'un cache au lieu d'être réalloués.
+ *
+ * Le format texte historique (« BID_UPDATE;ITEM-1;120.0;bidder1 ») reste émis
+ * si {@code -Dauction.codec=string} et est toujours accepté en réception, pour
+ * les déploiements mixtes.
+ *
+ * Le décodage binaire vérifie chaque lecture contre la taille du contenu: une
+ * trame tronquée ou corrompue donne null, comme un contenu hors protocole,
+ * sans exception.
+ *
+ * Une instance par agent: ni l'encodeur ni le message décodé ne sont partagés
+ * entre threads.
+ */
+public class AuctionCodec {
+
+    public static final byte MAGIC = (byte) 0xA5;
+
+    public static final byte BID = 1;
+    public static final byte NEW_AUCTION = 2;
+    public static final byte BID_UPDATE = 3;
+    public static final byte YOU_WON = 4;
+    public static final byte CHECK_SOLVENCY = 5;
+    public static final byte SOLVENCY = 6;
+    public static final byte PROCESS_PAYMENT = 7;
+    public static final byte BID_BATCH = 8;
+    public static final byte SETTLEMENT_BATCH = 9;
+    public static final byte SETTLEMENT_RESULT = 10;
+
+    private static final AuctionFormat[] FORMATS = AuctionFormat.values();
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private final boolean binary;
+    private ByteBuffer out = ByteBuffer.allocate(1024);
+    private final AuctionMessage decoded = new AuctionMessage();
+    private final StringCache strings = new StringCache(512);
+    private final int[] separators = new int[8];
+    private byte[] in;
+    private int pos;
+    // Lecture hors des bornes pendant le décodage courant
+    private boolean malformed;
+
+    public AuctionCodec() {
+        this(AuctionConfig.binaryCodec());
+    }
+
+    public AuctionCodec(boolean binary) {
+        this.binary = binary;
+    }
+
+    // ========================================================================
+    // ENCODAGE
+    // ========================================================================
+
+    // PROPOSE vers l'auctioneer; l'enchérisseur est l'émetteur du message
+    public void bid(ACLMessage msg, String itemId, double amount, long quantity) {
+        if (!binary) {
+            msg.setContent(itemId + ";" + amount + (quantity != 1 ? ";" + quantity : ""));
+            return;
+        }
+        begin(BID, sizeOf(itemId) + 16);
+        putString(itemId);
+        out.putDouble(amount);
+        out.putLong(quantity);
+        finish(msg);
+    }
+
+    // Offre pour le compte d'un enchérisseur hébergé par l'émetteur (BidderHostAgent)
+    public void bid(ACLMessage msg, String itemId, double amount, long quantity, String bidderId) {
+        if (!binary) {
+            msg.setContent(itemId + ";" + amount + ";" + quantity + ";" + bidderId);
+            return;
+        }
+        begin(BID, sizeOf(itemId) + 16 + sizeOf(bidderId));
+        putString(itemId);
+        out.putDouble(amount);
+        out.putLong(quantity);
+        putString(bidderId);
+        finish(msg);
+    }
+
+    // Offres d'un tick de l'hôte vers un même auctioneer, en un seul PROPOSE
+    public void bidBatch(ACLMessage msg, int count, String[] bidderIds, String[] itemIds,
+                         double[] amounts, long[] quantities) {
+        if (!binary) {
+            StringBuilder content = new StringBuilder(32 * count + 16).append("BID_BATCH;").append(count);
+            for (int i = 0; i < count; i++) {
+                content.append(';').append(bidderIds[i]).append(';').append(itemIds[i])
+                       .append(';').append(amounts[i]).append(';').append(quantities[i]);
+            }
+            msg.setContent(content.toString());
+            return;
+        }
+        int bytes = 4;
+        for (int i = 0; i < count; i++) {
+            bytes += sizeOf(bidderIds[i]) + sizeOf(itemIds[i]) + 16;
+        }
+        begin(BID_BATCH, bytes);
+        out.putInt(count);
+        for (int i = 0; i < count; i++) {
+            putString(bidderIds[i]);
+            putString(itemIds[i]);
+            out.putDouble(amounts[i]);
+            out.putLong(quantities[i]);
+        }
+        finish(msg);
+    }
+
+    public void newAuction(ACLMessage msg, String itemId, double price, AuctionFormat format, long quantity) {
+        if (!binary) {
+            msg.setContent("NEW_AUCTION;" + itemId + ";" + price + ";" + format + ";" + quantity);
+            return;
+        }
+        begin(NEW_AUCTION, sizeOf(itemId) + 17);
+        putString(itemId);
+        out.putDouble(price);
+        out.put((byte) format.ordinal());
+        out.putLong(quantity);
+        finish(msg);
+    }
+
+    public void bidUpdate(ACLMessage msg, String itemId, double price, String bidderId) {
+        if (!binary) {
+            msg.setContent("BID_UPDATE;" + itemId + ";" + price + ";" + bidderId);
+            return;
+        }
+        begin(BID_UPDATE, sizeOf(itemId) + 8 + sizeOf(bidderId));
+        putString(itemId);
+        out.putDouble(price);
+        putString(bidderId);
+        finish(msg);
+    }
+
+    public void youWon(ACLMessage msg, String itemId, double price, long units) {
+        youWon(msg, itemId, price, units, null);
+    }
+
+    // Gagnant nommé: copie adressée à la banque, qui solde son blocage
+    public void youWon(ACLMessage msg, String itemId, double price, long units, String winnerId) {
+        if (!binary) {
+            msg.setContent("YOU_WON;" + itemId + ";" + price + 
+                           (winnerId != null ? ";" + units + ";" + winnerId : units != 1 ? ";" + units : ""));
+            return;
+        }
+        begin(YOU_WON, sizeOf(itemId) + 16 + (winnerId != null ? sizeOf(winnerId) : 0));
+        putString(itemId);
+        out.putDouble(price);
+        out.putLong(units);
+        if (winnerId != null) putString(winnerId);
+        finish(msg);
+    }
+
+    public void checkSolvency(ACLMessage msg, String bidderId, double amount) {
+        if (!binary) {
+            msg.setContent("CHECK_SOLVENCY;" + bidderId + ";" + amount);
+            return;
+        }
+        begin(CHECK_SOLVENCY, sizeOf(bidderId) + 8);
+        putString(bidderId);
+        out.putDouble(amount);
+        finish(msg);
+    }
+
+    public void solvency(ACLMessage msg, boolean solvent, double available) {
+        if (!binary) {
+            msg.setContent((solvent ? "SOLVENT;" : "INSUFFICIENT_FUNDS;") + available);
+            return;
+        }
+        begin(SOLVENCY, 9);
+        out.put((byte) (solvent ? 1 : 0));
+        out.putDouble(available);
+        finish(msg);
+    }
+
+    // Part recalculée par la banque hors de toute requête: l'enchérisseur est nommé
+    public void solvencyUpdate(ACLMessage msg, String bidderId, double available) {
+        if (!binary) {
+            msg.setContent("SOLVENT;" + available + ";" + bidderId);
+            return;
+        }
+        begin(SOLVENCY, 9 + sizeOf(bidderId));
+        out.put((byte) 1);
+        out.putDouble(available);
+        putString(bidderId);
+        finish(msg);
+    }
+
+    public void processPayment(ACLMessage msg, String buyer, double amount) {
+        if (!binary) {
+            msg.setContent("PROCESS_PAYMENT;" + buyer + ";" + amount);
+            return;
+        }
+        begin(PROCESS_PAYMENT, sizeOf(buyer) + 8);
+        putString(buyer);
+        out.putDouble(amount);
+        finish(msg);
+    }
+
+    // Montants nets d'une fenêtre de règlement, un par compte, de l'auctioneer vers la banque
+    public void settlementBatch(ACLMessage msg, long window, int count, String[] accounts, long[] cents) {
+        settlement(msg, SETTLEMENT_BATCH, window, count, accounts, cents, null, 0);
+    }
+
+    // Réponse de la banque: chaque entrée du lot avec son résultat (Ledger.POSTED, ...)
+    // relayed: sous-lots relayés à d'autres partitions, qui répondront elles-mêmes (-1 pour leur réponse)
+    public void settlementResult(ACLMessage msg, long window, int count, String[] accounts, long[] cents,
+                                 byte[] statuses, int relayed) {
+        settlement(msg, SETTLEMENT_RESULT, window, count, accounts, cents, statuses, relayed);
+    }
+
+    private void settlement(ACLMessage msg, byte type, long window, int count, String[] accounts, long[] cents,
+                            byte[] statuses, int relayed) {
+        if (!binary) {
+            StringBuilder content = new StringBuilder(24 * count + 32)
+                .append(type == SETTLEMENT_BATCH ? "SETTLEMENT_BATCH;" : "SETTLEMENT_RESULT;")
+                .append(window).append(';').append(count);
+            for (int i = 0; i < count; i++) {
+                content.append(';').append(accounts[i]).append(';').append(cents[i]);
+                if (statuses != null) content.append(';').append(statuses[i]);
+            }
+            if (statuses != null && relayed != 0) content.append(';').append(relayed);
+            msg.setContent(content.toString());
+            return;
+        }
+        int bytes = 16;
+        for (int i = 0; i < count; i++) {
+            bytes += sizeOf(accounts[i]) + 9;
+        }
+        begin(type, bytes);
+        out.putLong(window);
+        out.putInt(count);
+        for (int i = 0; i < count; i++) {
+            putString(accounts[i]);
+            out.putLong(cents[i]);
+            if (statuses != null) out.put(statuses[i]);
+        }
+        if (statuses != null && relayed != 0) out.putInt(relayed);
+        finish(msg);
+    }
+
+    // fields: taille maximale des champs après le type (voir sizeOf)
+    private void begin(byte type, int fields) {
+        int bytes = 2 + fields;
+        if (bytes > out.capacity()) {
+            out = ByteBuffer.allocate(Integer.highestOneBit(bytes) << 1);
+        }
+        out.clear();
+        out.put(MAGIC);
+        out.put(type);
+    }
+
+    private void finish(ACLMessage msg) {
+        msg.setByteSequenceContent(Arrays.copyOf(out.array(), out.position()));
+    }
+
+    // Pire cas d'une chaîne encodée: longueur puis 3 octets UTF-8 par caractère
+    // Appelé avant begin: une chaîne trop longue est refusée avant d'agrandir le tampon
+    private static int sizeOf(String s) {
+        if (s.length() > MAX_STRING_BYTES) throw tooLong(s);
+        return 2 + 3 * s.length();
+    }
+
+    // Identifiants ASCII écrits sans passer par String.getBytes
+    private void putString(String s) {
+        int length = s.length();
+        int lengthPos = out.position();
+        out.putShort((short) 0);
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                out.position(lengthPos);
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > MAX_STRING_BYTES) throw tooLong(s);
+                out.putShort((short) bytes.length);
+                out.put(bytes);
+                return;
+            }
+            out.put((byte) c);
+        }
+        out.putShort(lengthPos, (short) length);
+    }
+
+    private static IllegalArgumentException tooLong(String s) {
+        return new IllegalArgumentException("Chaîne de plus de " + MAX_STRING_BYTES + " octets UTF-8 (" + 
+                                            s.length() + " caractères): " + s.substring(0, 32) + "...");
+    }
+
+    // ========================================================================
+    // DÉCODAGE
+    // ========================================================================
+
+    /**
+     * Décode un message du protocole, binaire ou texte. Retourne l'instance
+     * réutilisée du codec, ou null si le contenu n'appartient pas au protocole
+     * (accusés de réception, messages d'autres services) ou s'il est illisible.
+     */
+    public AuctionMessage decode(ACLMessage msg) {
+        if (msg.hasByteSequenceContent()) {
+            byte[] bytes = msg.getByteSequenceContent();
+            if (bytes != null && bytes.length >= 2 && bytes[0] == MAGIC) {
+                return decodeBinary(bytes);
+            }
+        }
+        String content = msg.getContent();
+        return content != null ? decodeText(content, msg.getPerformative()) : null;
+    }
+
+    // Lecture directe du tableau (sans ByteBuffer.wrap): aucun objet alloué pour un identifiant en cache
+    private AuctionMessage decodeBinary(byte[] bytes) {
+        in = bytes;
+        pos = 2;
+        malformed = false;
+        byte type = bytes[1];
+        AuctionMessage m = decoded;
+        m.reset(type);
+
+        switch (type) {
+            case BID:
+                m.itemId = getString();
+                m.amount = getDouble();
+                m.quantity = getLong();
+                if (pos < in.length) {
+                    m.bidderId = getString();
+                }
+                break;
+            case BID_BATCH: {
+                int count = getInt();
+                // Entrée minimale: deux chaînes vides, montant et quantité (20 octets)
+                if (count < 0 || count > (in.length - pos) / 20) {
+                    m = null;
+                    break;
+                }
+                m.ensureBatchCapacity(count);
+                for (int i = 0; i < count; i++) {
+                    m.batchBidders[i] = getString();
+                    m.batchItems[i] = getString();
+                    m.batchAmounts[i] = getDouble();
+                    m.batchQuantities[i] = getLong();
+                }
+                m.batchSize = count;
+                break;
+            }
+            case SETTLEMENT_BATCH:
+            case SETTLEMENT_RESULT: {
+                m.window = getLong();
+                int count = getInt();
+                // Entrée minimale: compte vide et montant (10 octets)
+                if (count < 0 || count > (in.length - pos) / 10) {
+                    m = null;
+                    break;
+                }
+                m.ensureBatchCapacity(count);
+                for (int i = 0; i < count; i++) {
+                    m.batchBidders[i] = getString();
+                    m.batchQuantities[i] = getLong();
+                    if (type == SETTLEMENT_RESULT) m.batchStatuses[i] = (byte) getByte();
+                }
+                m.batchSize = count;
+                // Champ ajouté: absent des réponses sans relais
+                if (type == SETTLEMENT_RESULT && pos < in.length) m.relayed = getInt();
+                break;
+            }
+            case NEW_AUCTION:
+                m.itemId = getString();
+                m.amount = getDouble();
+                int format = getByte();
+                m.format = format >= 0 && format < FORMATS.length ? FORMATS[format] : null;
+                if (m.format == null) malformed = true;
+                m.quantity = getLong();
+                break;
+            case BID_UPDATE:
+                m.itemId = getString();
+                m.amount = getDouble();
+                m.bidderId = getString();
+                break;
+            case YOU_WON:
+                m.itemId = getString();
+                m.amount = getDouble();
+                m.quantity = getLong();
+                if (pos < in.length) {
+                    m.bidderId = getString();
+                }
+                break;
+            case CHECK_SOLVENCY:
+            case PROCESS_PAYMENT:
+                m.bidderId = getString();
+                m.amount = getDouble();
+                break;
+            case SOLVENCY:
+                m.solvent = getByte() != 0;
+                m.amount = getDouble();
+                if (pos < in.length) {
+                    m.bidderId = getString();
+                }
+                break;
+            default:
+                m = null;
+        }
+        in = null;
+        return malformed ? null : m;
+    }
+
+    // Vrai si n octets restent à lire; sinon la trame est marquée illisible
+    private boolean available(int n) {
+        if (pos + n <= in.length) return true;
+        malformed = true;
+        pos = in.length;
+        return false;
+    }
+
+    private int getByte() {
+        return available(1) ? in[pos++] : 0;
+    }
+
+    private String getString() {
+        if (!available(2)) return "";
+        int length = ((in[pos] & 0xFF) << 8) | (in[pos + 1] & 0xFF);
+        pos += 2;
+        if (!available(length)) return "";
+        int offset = pos;
+        pos = offset + length;
+        return strings.get(in, offset, length);
+    }
+
+    // Gros-boutiste, comme ByteBuffer à l'encodage
+    private int getInt() {
+        if (!available(4)) return 0;
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (in[pos++] & 0xFF);
+        }
+        return value;
+    }
+
+    private long getLong() {
+        if (!available(8)) return 0;
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (in[pos++] & 0xFF);
+        }
+        return value;
+    }
+
+    private double getDouble() {
+        return Double.longBitsToDouble(getLong());
+    }
+
+    // Format texte: découpe par indexOf, sans expression régulière
+    private AuctionMessage decodeText(String content, int performative) {
+        int fields = split(content);
+        String head = field(content, 0, fields);
+        AuctionMessage m = decoded;
+
+        try {
+            switch (head) {
+                case "NEW_AUCTION":
+                    if (fields < 3) return null;
+                    m.reset(NEW_AUCTION);
+                    m.itemId = field(content, 1, fields);
+                    m.amount = Double.parseDouble(field(content, 2, fields));
+                    m.format = fields > 3 ? AuctionFormat.valueOf(field(content, 3, fields)) : AuctionFormat.ENGLISH;
+                    m.quantity = fields > 4 ? Long.parseLong(field(content, 4, fields)) : 1;
+                    return m;
+                case "BID_UPDATE":
+                    if (fields < 4) return null;
+                    m.reset(BID_UPDATE);
+                    m.itemId = field(content, 1, fields);
+                    m.amount = Double.parseDouble(field(content, 2, fields));
+                    m.bidderId = field(content, 3, fields);
+                    return m;
+                case "YOU_WON":
+                    if (fields < 3) return null;
+                    m.reset(YOU_WON);
+                    m.itemId = field(content, 1, fields);
+                    m.amount = Double.parseDouble(field(content, 2, fields));
+                    m.quantity = fields > 3 ? Long.parseLong(field(content, 3, fields)) : 1;
+                    if (fields > 4) m.bidderId = field(content, 4, fields);
+                    return m;
+                case "CHECK_SOLVENCY":
+                case "PROCESS_PAYMENT":
+                    if (fields < 3) return null;
+                    m.reset(head.equals("CHECK_SOLVENCY") ? CHECK_SOLVENCY : PROCESS_PAYMENT);
+                    m.bidderId = field(content, 1, fields);
+                    m.amount = Double.parseDouble(field(content, 2, fields));
+                    return m;
+                case "BID_BATCH":
+                    return decodeTextBatch(content);
+                case "SETTLEMENT_BATCH":
+                case "SETTLEMENT_RESULT":
+                    return decodeTextSettlement(content, head.equals("SETTLEMENT_BATCH") ? SETTLEMENT_BATCH : SETTLEMENT_RESULT);
+                case "SOLVENT":
+                case "INSUFFICIENT_FUNDS":
+                    m.reset(SOLVENCY);
+                    m.solvent = head.equals("SOLVENT");
+                    if (fields > 1) m.amount = Double.parseDouble(field(content, 1, fields));
+                    if (fields > 2) m.bidderId = field(content, 2, fields);
+                    return m;
+                default:
+                    // Offre historique « itemId;montant[;quantité] », sans étiquette
+                    if (performative != ACLMessage.PROPOSE || fields < 2) return null;
+                    m.reset(BID);
+                    m.itemId = head;
+                    m.amount = Double.parseDouble(field(content, 1, fields));
+                    m.quantity = fields > 2 ? Long.parseLong(field(content, 2, fields)) : 1;
+                    if (fields > 3) m.bidderId = field(content, 3, fields);
+                    return m;
+            }
+        } catch (IllegalArgumentException e) {
+            // Montant ou format illisible: hors protocole
+            return null;
+        }
+    }
+
+    // « BID_BATCH;n;enchérisseur;article;montant;quantité;... »: plus de champs que split() n'en retient
+    private AuctionMessage decodeTextBatch(String content) {
+        int from = content.indexOf(';') + 1;
+        int sep = content.indexOf(';', from);
+        int count = Integer.parseInt(sep < 0 ? content.substring(from) : content.substring(from, sep));
+        if (count < 0 || count > content.length() / 8) return null;
+        AuctionMessage m = decoded;
+        m.reset(BID_BATCH);
+        m.ensureBatchCapacity(count);
+        for (int i = 0; i < count; i++) {
+            int bidderEnd = content.indexOf(';', sep + 1);
+            int itemEnd = content.indexOf(';', bidderEnd + 1);
+            int amountEnd = content.indexOf(';', itemEnd + 1);
+            int quantityEnd = content.indexOf(';', amountEnd + 1);
+            if (bidderEnd < 0 || itemEnd < 0 || amountEnd < 0) return null;
+            if (quantityEnd < 0) quantityEnd = content.length();
+            m.batchBidders[i] = content.substring(sep + 1, bidderEnd);
+            m.batchItems[i] = content.substring(bidderEnd + 1, itemEnd);
+            m.batchAmounts[i] = Double.parseDouble(content.substring(itemEnd + 1, amountEnd));
+            m.batchQuantities[i] = Long.parseLong(content.substring(amountEnd + 1, quantityEnd));
+            sep = quantityEnd;
+        }
+        m.batchSize = count;
+        return m;
+    }
+
+    // « SETTLEMENT_BATCH;fenêtre;n;compte;centimes;... », « SETTLEMENT_RESULT;fenêtre;n;compte;centimes;statut;...[;relais] »
+    private AuctionMessage decodeTextSettlement(String content, byte type) {
+        String[] fields = content.split(";");
+        int width = type == SETTLEMENT_RESULT ? 3 : 2;
+        if (fields.length < 3) return null;
+        int count = Integer.parseInt(fields[2]);
+        if (count < 0 || fields.length < 3 + count * width) return null;
+        AuctionMessage m = decoded;
+        m.reset(type);
+        m.window = Long.parseLong(fields[1]);
+        m.ensureBatchCapacity(count);
+        for (int i = 0; i < count; i++) {
+            int f = 3 + i * width;
+            m.batchBidders[i] = fields[f];
+            m.batchQuantities[i] = Long.parseLong(fields[f + 1]);
+            if (type == SETTLEMENT_RESULT) m.batchStatuses[i] = Byte.parseByte(fields[f + 2]);
+        }
+        m.batchSize = count;
+        if (type == SETTLEMENT_RESULT && fields.length > 3 + count * width) {
+            m.relayed = Integer.parseInt(fields[3 + count * width]);
+        }
+        return m;
+    }
+
+    private int split(String content) {
+        int fields = 1;
+        int from = 0;
+        int sep;
+        while (fields < separators.length && (sep = content.indexOf(';', from)) >= 0) {
+            separators[fields - 1] = sep;
+            from = sep + 1;
+            fields++;
+        }
+        separators[fields - 1] = content.length();
+        return fields;
+    }
+
+    private String field(String content, int index, int fields) {
+        int start = index == 0 ? 0 : separators[index - 1] + 1;
+        int end = index < fields - 1 ? separators[index] : content.length();
+        return content.substring(start, end);
+    }
+
+    // ========================================================================
+    // CACHE DE CHAÎNES
+    // ========================================================================
+
+    // Table à adressage direct: un identifiant déjà décodé est rendu sans allocation
+    private static final class StringCache {
+        private final String[] values;
+        private final byte[][] keys;
+        private final int mask;
+
+        StringCache(int capacity) {
+            int size = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+            values = new String[size];
+            keys = new byte[size][];
+            mask = size - 1;
+        }
+
+        String get(byte[] src, int offset, int length) {
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + src[offset + i];
+            }
+            int slot = (hash ^ (hash >>> 16)) & mask;
+
+            byte[] key = keys[slot];
+            if (key != null && Arrays.equals(key, 0, key.length, src, offset, offset + length)) {
+                return values[slot];
+            }
+
+            String value = new String(src, offset, length, StandardCharsets.UTF_8);
+            keys[slot] = Arrays.copyOfRange(src, offset, offset + length);
+            values[slot] = value;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package auction.protocol;
+
+import auction.models.AuctionFormat;
+
+/**
+ * Message du protocole d'enchères décodé par {@link AuctionCodec}.
+ *
+ * Instance réutilisée par le codec d'un agent: les champs ne sont valides que
+ * jusqu'au décodage suivant. Champs renseignés selon le type:
+ * BID (itemId, amount, quantity, bidderId si l'offre est faite pour un
+ * enchérisseur hébergé), BID_BATCH (batchSize entrées dans les tableaux batch*),
+ * NEW_AUCTION (itemId, amount, format, quantity),
+ * BID_UPDATE (itemId, amount, bidderId), YOU_WON (itemId, amount, quantity,
+ * bidderId si le gagnant est nommé),
+ * CHECK_SOLVENCY et PROCESS_PAYMENT (bidderId, amount), SOLVENCY (solvent, amount
+ * = disponible, NaN si absent), SETTLEMENT_BATCH (window, batchSize comptes dans
+ * batchBidders et montants nets en centimes dans batchQuantities),
+ * SETTLEMENT_RESULT (idem, plus batchStatuses et relayed: sous-lots relayés par
+ * la banque destinataire, -1 pour la réponse d'un sous-lot relayé).
+ */
+public final class AuctionMessage {
+    public byte type;
+    public String itemId;
+    public String bidderId;
+    public double amount;
+    public long quantity;
+    public AuctionFormat format;
+    public boolean solvent;
+    // BID_BATCH: tableaux réutilisés d'un décodage à l'autre, valides jusqu'à batchSize
+    public int batchSize;
+    public String[] batchBidders = new String[0];
+    public String[] batchItems = new String[0];
+    public double[] batchAmounts = new double[0];
+    public long[] batchQuantities = new long[0];
+    public byte[] batchStatuses = new byte[0];
+    public long window;
+    public int relayed;
+
+    void reset(byte type) {
+        this.type = type;
+        this.itemId = null;
+        this.bidderId = null;
+        this.amount = Double.NaN;
+        this.quantity = 1;
+        this.format = null;
+        this.solvent = false;
+        this.batchSize = 0;
+        this.window = 0;
+        this.relayed = 0;
+    }
+
+    void ensureBatchCapacity(int count) {
+        if (batchBidders.length < count) {
+            int capacity = Math.max(count, 2 * batchBidders.length);
+            batchBidders = new String[capacity];
+            batchItems = new String[capacity];
+            batchAmounts = new double[capacity];
+            batchQuantities = new long[capacity];
+            batchStatuses = new byte[capacity];
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case AuctionCodec.BID:             return "BID;" + itemId + ";" + amount + ";" + quantity + 
+                                                      (bidderId != null ? ";" + bidderId : "");
+            case AuctionCodec.BID_BATCH:       return "BID_BATCH;" + batchSize;
+            case AuctionCodec.NEW_AUCTION:     return "NEW_AUCTION;" + itemId + ";" + amount + ";" + format + ";" + quantity;
+            case AuctionCodec.BID_UPDATE:      return "BID_UPDATE;" + itemId + ";" + amount + ";" + bidderId;
+            case AuctionCodec.YOU_WON:         return "YOU_WON;" + itemId + ";" + amount + ";" + quantity + 
+                                                      (bidderId != null ? ";" + bidderId : "");
+            case AuctionCodec.CHECK_SOLVENCY:  return "CHECK_SOLVENCY;" + bidderId + ";" + amount;
+            case AuctionCodec.SOLVENCY:        return (solvent ? "SOLVENT;" : "INSUFFICIENT_FUNDS;") + amount;
+            case AuctionCodec.PROCESS_PAYMENT: return "PROCESS_PAYMENT;" + bidderId + ";" + amount;
+            case AuctionCodec.SETTLEMENT_BATCH:  return "SETTLEMENT_BATCH;" + window + ";" + batchSize;
+            case AuctionCodec.SETTLEMENT_RESULT: return "SETTLEMENT_RESULT;" + window + ";" + batchSize;
+            default:                           return "UNKNOWN(" + type + ")";
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package auction.protocol;
+
+import jade.core.Agent;
+import jade.core.behaviours.CyclicBehaviour;
+import jade.lang.acl.ACLMessage;
+import jade.lang.acl.MessageTemplate;
+import java.util.*;
+
+/**
+ * Unique consommateur de la boîte aux lettres d'un agent.
+ *
+ * Plusieurs CyclicBehaviour appelant receive() sur la même boîte se volent les
+ * messages et sont tous réveillés à chaque arrivée. Le répartiteur draine la
+ * boîte en un passage, lit le type du message (premier champ du contenu texte,
+ * ou étiquette du codec binaire) et appelle le gestionnaire enregistré pour ce
+ * type via une table de hachage.
+ *
+ * Compteurs: messages illisibles (sans contenu exploitable) et non routés
+ * (type sans gestionnaire), signalés une fois par type.
+ */
+public class MessageDispatcher extends CyclicBehaviour {
+
+    @FunctionalInterface
+    public interface Handler {
+        // fields[0] est le type; les champs suivants sont ceux du contenu « TYPE;a;b;... »
+        void handle(ACLMessage msg, String[] fields);
+    }
+
+    private static final int MAX_PER_PASS = 64;
+
+    private final MessageTemplate template;
+    private final Map<String, Handler> handlers = new HashMap<>();
+    private final AuctionCodec codec = new AuctionCodec();
+    private final Set<String> reportedUnrouted = new HashSet<>();
+
+    private long dispatched;
+    private long unknown;
+    private long unrouted;
+
+    // template: messages laissés aux autres consommateurs exclus (null = toute la boîte)
+    public MessageDispatcher(Agent agent, MessageTemplate template) {
+        super(agent);
+        this.template = template;
+    }
+
+    public MessageDispatcher on(String type, Handler handler) {
+        handlers.put(type, handler);
+        return this;
+    }
+
+    @Override
+    public void action() {
+        ACLMessage msg = receive();
+        if (msg == null) {
+            block();
+            return;
+        }
+
+        int drained = 0;
+        while (msg != null) {
+            dispatch(msg);
+            if (++drained >= MAX_PER_PASS) break;  // laisse la main aux autres comportements
+            msg = receive();
+        }
+    }
+
+    private ACLMessage receive() {
+        return template != null ? myAgent.receive(template) : myAgent.receive();
+    }
+
+    private void dispatch(ACLMessage msg) {
+        String content;
+        try {
+            content = content(msg);
+        } catch (RuntimeException e) {
+            // Trame binaire corrompue: comptée comme illisible, le répartiteur continue
+            unknown++;
+            System.out.println("⚠️ " + myAgent.getLocalName() + ": trame de " +
+                             msg.getSender().getLocalName() + " illisible (" + e + ")");
+            return;
+        }
+
+        if (content == null || content.isEmpty()) {
+            unknown++;
+            return;
+        }
+
+        String[] fields = content.split(";");
+        Handler handler = handlers.get(fields[0]);
+        if (handler == null) {
+            unrouted++;
+            if (reportedUnrouted.add(fields[0])) {
+                System.out.println("⚠️ " + myAgent.getLocalName() + ": message non routé " + fields[0] +
+                                 " de " + msg.getSender().getLocalName());
+            }
+            return;
+        }
+
+        try {
+            handler.handle(msg, fields);
+            dispatched++;
+        } catch (RuntimeException e) {
+            // Champs manquants ou illisibles: le message est compté comme illisible
+            unknown++;
+            System.out.println("⚠️ " + myAgent.getLocalName() + ": message " + fields[0] + " illisible (" + e + ")");
+        }
+    }
+
+    private String content(ACLMessage msg) {
+        if (msg.hasByteSequenceContent()) {
+            AuctionMessage decoded = codec.decode(msg);
+            return decoded != null ? decoded.toString() : null;
+        }
+        return msg.getContent();
+    }
+
+    public long getDispatched() { return dispatched; }
+    public long getUnknown() { return unknown; }
+    public long getUnrouted() { return unrouted; }
+}
@@ -0,0 +1,94 @@
+package auction.routing;
+
+import jade.core.AID;
+import jade.domain.FIPAAgentManagement.*;
+import java.util.*;
+
+/**
+ * Routage côté enchérisseur: envoie chaque offre directement à l'auctioneer
+ * propriétaire de l'article (hachage cohérent sur l'identifiant de l'article).
+ * La table des partitions est reconstruite seulement quand la vue DF change.
+ */
+public class AuctionRouter {
+    public static final String SERVICE_TYPE = "auction-service";
+    public static final String SHARD_PROPERTY = "shard";
+    public static final String SHARD_COUNT_PROPERTY = "shard-count";
+    public static final String STATE_PROPERTY = "state";
+    public static final String JOINING = "joining";
+    public static final String ACTIVE = "active";
+
+    private final DirectoryCache directory;
+    private DirectoryCache.View lastView;
+    private AID[] shards = new AID[0];
+
+    public AuctionRouter(DirectoryCache directory) {
+        this.directory = directory;
+    }
+
+    public AID route(String itemId) {
+        DirectoryCache.View view = directory.view(SERVICE_TYPE);
+        if (view != lastView) {
+            shards = toShardTable(view.descriptions);
+            lastView = view;
+        }
+        if (shards.length == 0) return null;
+
+        // null si la partition propriétaire n'est pas (encore) enregistrée
+        return shards[ShardRing.shardFor(itemId, shards.length)];
+    }
+
+    // Construit la table partition -> AID à partir des descriptions DF
+    public static AID[] toShardTable(DFAgentDescription[] results) {
+        return toShardTable(results, SERVICE_TYPE);
+    }
+
+    // Même table pour un autre service partitionné; les partitions en cours d'arrivée (state=joining) sont ignorées
+    public static AID[] toShardTable(DFAgentDescription[] results, String serviceType) {
+        int shardCount = 1;
+        Map<Integer, AID> byShard = new HashMap<>();
+
+        for (DFAgentDescription dfd : results) {
+            Iterator<?> services = dfd.getAllServices();
+            while (services.hasNext()) {
+                ServiceDescription sd = (ServiceDescription) services.next();
+                if (!serviceType.equals(sd.getType())) continue;
+                if (JOINING.equals(stringProperty(sd, STATE_PROPERTY))) continue;
+
+                int shard = intProperty(sd, SHARD_PROPERTY, 0);
+                shardCount = Math.max(shardCount, intProperty(sd, SHARD_COUNT_PROPERTY, 1));
+                byShard.put(shard, dfd.getName());
+            }
+        }
+
+        if (byShard.isEmpty()) return new AID[0];
+
+        AID[] table = new AID[shardCount];
+        for (Map.Entry<Integer, AID> entry : byShard.entrySet()) {
+            if (entry.getKey() < shardCount) {
+                table[entry.getKey()] = entry.getValue();
+            }
+        }
+        return table;
+    }
+
+    public static int intProperty(ServiceDescription sd, String name, int defaultValue) {
+        String value = stringProperty(sd, name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static String stringProperty(ServiceDescription sd, String name) {
+        Iterator<?> props = sd.getAllProperties();
+        while (props.hasNext()) {
+            Property p = (Property) props.next();
+            if (name.equals(p.getName())) {
+                return String.valueOf(p.getValue());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,91 @@
+package auction.routing;
+
+import auction.AuctionConfig;
+import jade.core.AID;
+import jade.domain.FIPAAgentManagement.*;
+import java.util.*;
+
+/**
+ * Routage côté client vers la banque propriétaire d'un compte (hachage
+ * cohérent de l'identifiant du titulaire, même anneau que les articles).
+ *
+ * La table vient des enregistrements DF « bank-service »; une banque en cours
+ * d'arrivée (state=joining) n'y entre qu'une fois ses comptes reçus des
+ * autres partitions, si bien qu'aucune requête ne lui parvient avant. Tant
+ * que le DF ne connaît aucune banque, les noms de déploiement servent
+ * (AuctionConfig.bankName).
+ */
+public class BankRouter {
+    public static final String SERVICE_TYPE = "bank-service";
+
+    private final DirectoryCache directory;
+    private DirectoryCache.View lastView;
+    private AID[] shards = new AID[0];
+
+    public BankRouter(DirectoryCache directory) {
+        this.directory = directory;
+    }
+
+    public AID route(String accountId) {
+        refresh();
+        int count = shardCount();
+        return shard(ShardRing.shardFor(accountId, count), count);
+    }
+
+    // Banque d'une partition pour count partitions (nom de déploiement si le DF ne la connaît pas)
+    public AID shard(int index, int count) {
+        refresh();
+        AID owner = index < shards.length ? shards[index] : null;
+        return owner != null ? owner : new AID(AuctionConfig.bankName(index, count), AID.ISLOCALNAME);
+    }
+
+    public int shardCount() {
+        refresh();
+        return shards.length > 0 ? shards.length : AuctionConfig.bankShards();
+    }
+
+    private void refresh() {
+        DirectoryCache.View view = directory.view(SERVICE_TYPE);
+        if (view != lastView) {
+            shards = AuctionRouter.toShardTable(view.descriptions, SERVICE_TYPE);
+            lastView = view;
+        }
+    }
+
+    // Plus grand nombre de partitions annoncé, partitions en cours d'arrivée comprises
+    public static int announcedShardCount(DFAgentDescription[] results) {
+        int count = 1;
+        for (ServiceDescription sd : services(results)) {
+            count = Math.max(count, AuctionRouter.intProperty(sd, AuctionRouter.SHARD_COUNT_PROPERTY, 1));
+        }
+        return count;
+    }
+
+    // Partitions en cours d'arrivée: index -> AID
+    public static Map<Integer, AID> joiningShards(DFAgentDescription[] results) {
+        Map<Integer, AID> joining = new TreeMap<>();
+        for (DFAgentDescription dfd : results) {
+            Iterator<?> it = dfd.getAllServices();
+            while (it.hasNext()) {
+                ServiceDescription sd = (ServiceDescription) it.next();
+                if (SERVICE_TYPE.equals(sd.getType()) &&
+                    AuctionRouter.JOINING.equals(AuctionRouter.stringProperty(sd, AuctionRouter.STATE_PROPERTY))) {
+                    joining.put(AuctionRouter.intProperty(sd, AuctionRouter.SHARD_PROPERTY, 0), dfd.getName());
+                }
+            }
+        }
+        return joining;
+    }
+
+    private static List<ServiceDescription> services(DFAgentDescription[] results) {
+        List<ServiceDescription> services = new ArrayList<>();
+        for (DFAgentDescription dfd : results) {
+            Iterator<?> it = dfd.getAllServices();
+            while (it.hasNext()) {
+                ServiceDescription sd = (ServiceDescription) it.next();
+                if (SERVICE_TYPE.equals(sd.getType())) services.add(sd);
+            }
+        }
+        return services;
+    }
+}
@@ -0,0 +1,63 @@
+package auction.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Anneau de hachage cohérent avec noeuds virtuels.
+ * Chaque partition est projetée plusieurs fois sur l'anneau afin de répartir
+ * les clés uniformément; l'ajout d'une partition ne déplace qu'environ 1/N des clés.
+ */
+public class ConsistentHashRing<T> {
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final TreeMap<Long, T> ring = new TreeMap<>();
+    private final Set<T> nodes = new LinkedHashSet<>();
+    private final int virtualNodes;
+
+    public ConsistentHashRing() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashRing(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public void add(T node) {
+        if (!nodes.add(node)) return;
+        for (int v = 0; v < virtualNodes; v++) {
+            ring.put(hash(node + "#" + v), node);
+        }
+    }
+
+    public void remove(T node) {
+        if (!nodes.remove(node)) return;
+        for (int v = 0; v < virtualNodes; v++) {
+            ring.remove(hash(node + "#" + v));
+        }
+    }
+
+    public T nodeFor(String key) {
+        if (ring.isEmpty()) return null;
+        Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public Set<T> getNodes() { return Collections.unmodifiableSet(nodes); }
+    public int size() { return nodes.size(); }
+
+    // FNV-1a 64 bits suivi d'un mélange final (fmix64 de MurmurHash3)
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
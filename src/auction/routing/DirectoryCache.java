@@ -0,0 +1,150 @@
+package auction.routing;
+
+import jade.core.AID;
+import jade.core.Agent;
+import jade.domain.DFService;
+import jade.domain.FIPAAgentManagement.*;
+import jade.domain.FIPAException;
+import jade.lang.acl.ACLMessage;
+import jade.lang.acl.MessageTemplate;
+import jade.proto.SubscriptionInitiator;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache local des Pages Jaunes (DF), tenu à jour par abonnement.
+ *
+ * Chaque type de service suivi est abonné auprès du DF
+ * ({@link DFService#createSubscriptionMessage}); les notifications
+ * d'enregistrement et de désenregistrement remplacent la vue par une nouvelle
+ * copie immuable. Les recherches deviennent une lecture de map en O(1),
+ * sans aller-retour avec le DF sur le chemin critique des offres.
+ */
+public class DirectoryCache {
+
+    // Vue immuable d'un type de service (copy-on-write)
+    public static final class View {
+        public final DFAgentDescription[] descriptions;
+        public final AID[] agents;
+
+        View(DFAgentDescription[] descriptions) {
+            this.descriptions = descriptions;
+            this.agents = new AID[descriptions.length];
+            for (int i = 0; i < descriptions.length; i++) {
+                agents[i] = descriptions[i].getName();
+            }
+        }
+    }
+
+    private static final View EMPTY = new View(new DFAgentDescription[0]);
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder notifications = new LongAdder();
+
+    private final Agent agent;
+    private final Map<String, View> views = new ConcurrentHashMap<>();
+
+    public DirectoryCache(Agent agent, String... serviceTypes) {
+        this.agent = agent;
+        for (String type : serviceTypes) {
+            views.put(type, search(type));
+            agent.addBehaviour(new DirectorySubscription(type));
+        }
+    }
+
+    public AID[] lookup(String serviceType) {
+        return view(serviceType).agents;
+    }
+
+    public View view(String serviceType) {
+        View view = views.get(serviceType);
+        if (view != null) {
+            hits.increment();
+            return view;
+        }
+        // Type non suivi: recherche synchrone, résultat conservé
+        misses.increment();
+        view = search(serviceType);
+        views.put(serviceType, view);
+        return view;
+    }
+
+    // Exclut les notifications du DF d'un gabarit de réception de l'agent
+    public MessageTemplate excludeNotifications(MessageTemplate template) {
+        MessageTemplate notFromDF = MessageTemplate.not(MessageTemplate.MatchSender(agent.getDefaultDF()));
+        return template != null ? MessageTemplate.and(template, notFromDF) : notFromDF;
+    }
+
+    public static long getHits() { return hits.sum(); }
+    public static long getMisses() { return misses.sum(); }
+    public static long getNotifications() { return notifications.sum(); }
+
+    private View search(String serviceType) {
+        try {
+            SearchConstraints all = new SearchConstraints();
+            all.setMaxResults(-1L);
+            return new View(DFService.search(agent, template(serviceType), all));
+        } catch (FIPAException e) {
+            e.printStackTrace();
+            return EMPTY;
+        }
+    }
+
+    private static DFAgentDescription template(String serviceType) {
+        DFAgentDescription template = new DFAgentDescription();
+        ServiceDescription sd = new ServiceDescription();
+        sd.setType(serviceType);
+        template.addServices(sd);
+        return template;
+    }
+
+    private void apply(String serviceType, DFAgentDescription[] changes) {
+        View current = views.getOrDefault(serviceType, EMPTY);
+        Map<AID, DFAgentDescription> next = new LinkedHashMap<>();
+        for (DFAgentDescription dfd : current.descriptions) {
+            next.put(dfd.getName(), dfd);
+        }
+
+        for (DFAgentDescription dfd : changes) {
+            if (providesService(dfd, serviceType)) {
+                next.put(dfd.getName(), dfd);
+            } else {
+                // Désenregistrement (aucun service) ou service retiré
+                next.remove(dfd.getName());
+            }
+        }
+        views.put(serviceType, new View(next.values().toArray(new DFAgentDescription[0])));
+    }
+
+    private static boolean providesService(DFAgentDescription dfd, String serviceType) {
+        Iterator<?> services = dfd.getAllServices();
+        while (services.hasNext()) {
+            if (serviceType.equals(((ServiceDescription) services.next()).getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    class DirectorySubscription extends SubscriptionInitiator {
+        private final String serviceType;
+
+        DirectorySubscription(String serviceType) {
+            super(agent, DFService.createSubscriptionMessage(agent, agent.getDefaultDF(),
+                                                             template(serviceType), null));
+            this.serviceType = serviceType;
+        }
+
+        @Override
+        protected void handleInform(ACLMessage inform) {
+            try {
+                apply(serviceType, DFService.decodeNotification(inform.getContent()));
+                notifications.increment();
+            } catch (FIPAException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package auction.routing;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Anneau partagé par les auctioneers et les enchérisseurs: un même nombre de
+// partitions donne toujours la même affectation article -> partition.
+public final class ShardRing {
+    private static final ConcurrentHashMap<Integer, ConsistentHashRing<Integer>> RINGS =
+        new ConcurrentHashMap<>();
+
+    private ShardRing() {}
+
+    public static ConsistentHashRing<Integer> forShardCount(int shardCount) {
+        return RINGS.computeIfAbsent(shardCount, n -> {
+            ConsistentHashRing<Integer> ring = new ConsistentHashRing<>();
+            for (int i = 0; i < n; i++) {
+                ring.add(i);
+            }
+            return ring;
+        });
+    }
+
+    public static int shardFor(String itemId, int shardCount) {
+        if (shardCount <= 1) return 0;
+        return forShardCount(shardCount).nodeFor(itemId);
+    }
+}
@@ -0,0 +1,82 @@
+package auction.scheduling;
+
+import auction.AuctionConfig;
+import jade.core.behaviours.Behaviour;
+import java.util.Date;
+
+/**
+ * Horloge du domaine: durée des enchères, cadence des agents, horodatage des
+ * offres, du journal d'événements et des comptes.
+ *
+ * Trois modes (-Dauction.clock):
+ *   system   temps réel (défaut);
+ *   scaled   temps réel accéléré de -Dauction.clockSpeed (60: une minute par seconde);
+ *   virtual  simulation à événements discrets: le temps saute à la prochaine
+ *            échéance dès que la plateforme est au repos (voir VirtualClock).
+ * Les mesures de performance (latences, débit, fsync, attente de la banque,
+ * instantanés) restent en temps réel quel que soit le mode.
+ */
+public abstract class Clock {
+
+    private static volatile Clock current;
+
+    public static Clock get() {
+        Clock clock = current;
+        if (clock == null) {
+            synchronized (Clock.class) {
+                if (current == null) {
+                    current = fromConfig();
+                }
+                clock = current;
+            }
+        }
+        return clock;
+    }
+
+    // Avant la création des agents (tests, simulations pilotées par programme)
+    public static synchronized void install(Clock clock) {
+        current = clock;
+    }
+
+    private static Clock fromConfig() {
+        switch (AuctionConfig.clockMode()) {
+            case "scaled":  return new ScaledClock(AuctionConfig.clockSpeed());
+            case "virtual": return new VirtualClock(AuctionConfig.clockResolutionMs(), AuctionConfig.simulatedMs());
+            default:        return new SystemClock();
+        }
+    }
+
+    public abstract long millis();
+
+    public Date now() {
+        return new Date(millis());
+    }
+
+    // Bloque un comportement JADE jusqu'à l'échéance, exprimée en temps de cette horloge
+    public abstract void blockUntil(Behaviour behaviour, long dueMs);
+
+    // Le comportement n'attend plus de réveil (terminé ou retiré)
+    public void cancel(Behaviour behaviour) {}
+
+    // Appelé par les lanceurs une fois tous les agents créés
+    public void start() {}
+
+    public abstract String describe();
+
+    static final class SystemClock extends Clock {
+        @Override
+        public long millis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public void blockUntil(Behaviour behaviour, long dueMs) {
+            behaviour.block(Math.max(1, dueMs - millis()));
+        }
+
+        @Override
+        public String describe() {
+            return "temps réel";
+        }
+    }
+}
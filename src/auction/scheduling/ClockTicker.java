@@ -0,0 +1,62 @@
+package auction.scheduling;
+
+import jade.core.Agent;
+import jade.core.behaviours.SimpleBehaviour;
+
+/**
+ * Équivalent de TickerBehaviour cadencé par l'horloge du domaine ({@link Clock}):
+ * en temps réel il se comporte comme TickerBehaviour; en temps accéléré ou
+ * virtuel, la période est exprimée en temps simulé.
+ */
+public abstract class ClockTicker extends SimpleBehaviour {
+
+    private final long periodMs;
+    private long wakeupMs;
+    private int tickCount;
+    private boolean finished;
+
+    protected ClockTicker(Agent agent, long periodMs) {
+        super(agent);
+        if (periodMs <= 0) throw new IllegalArgumentException("Période invalide: " + periodMs);
+        this.periodMs = periodMs;
+    }
+
+    @Override
+    public void onStart() {
+        wakeupMs = Clock.get().millis() + periodMs;
+    }
+
+    @Override
+    public final void action() {
+        Clock clock = Clock.get();
+        long now = clock.millis();
+        if (now >= wakeupMs) {
+            tickCount++;
+            onTick();
+            wakeupMs = now + periodMs;
+        }
+        if (!finished) {
+            clock.blockUntil(this, wakeupMs);
+        }
+    }
+
+    protected abstract void onTick();
+
+    @Override
+    public boolean done() {
+        return finished;
+    }
+
+    public void stop() {
+        finished = true;
+        Clock.get().cancel(this);
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public long getPeriod() {
+        return periodMs;
+    }
+}
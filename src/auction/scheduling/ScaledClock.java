@@ -0,0 +1,30 @@
+package auction.scheduling;
+
+import jade.core.behaviours.Behaviour;
+
+// Temps réel accéléré: chaque milliseconde réelle compte pour speed millisecondes simulées
+public final class ScaledClock extends Clock {
+
+    private final double speed;
+    private final long originMs = System.currentTimeMillis();
+
+    public ScaledClock(double speed) {
+        if (speed <= 0) throw new IllegalArgumentException("Facteur d'accélération invalide: " + speed);
+        this.speed = speed;
+    }
+
+    @Override
+    public long millis() {
+        return originMs + (long) ((System.currentTimeMillis() - originMs) * speed);
+    }
+
+    @Override
+    public void blockUntil(Behaviour behaviour, long dueMs) {
+        behaviour.block(Math.max(1, (long) Math.ceil((dueMs - millis()) / speed)));
+    }
+
+    @Override
+    public String describe() {
+        return "temps accéléré x" + speed;
+    }
+}
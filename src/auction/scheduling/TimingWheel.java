@@ -0,0 +1,193 @@
+package auction.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Roue temporelle hiérarchique (hashed hierarchical timing wheel).
+ *
+ * Le niveau 0 possède {@code wheelSize} cases de {@code tickMs}; chaque niveau
+ * supérieur couvre {@code wheelSize} fois l'horizon du précédent. Insertion et
+ * annulation sont en O(1) (listes doublement chaînées par case); un échéancier
+ * est déclenché au plus {@code tickMs} après son échéance, jamais avant, plus
+ * l'intervalle entre deux appels à {@link #advance}.
+ * Non thread-safe: destinée à être pilotée par le thread de l'agent propriétaire.
+ */
+public class TimingWheel<T> {
+
+    public static final class Timeout<T> {
+        private final T payload;
+        private long deadline;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        public T getPayload() { return payload; }
+        public long getDeadline() { return deadline; }
+        public boolean isPending() { return bucket != null; }
+    }
+
+    private static final class Bucket<T> {
+        Timeout<T> head;
+        Timeout<T> tail;
+
+        void append(Timeout<T> t) {
+            t.bucket = this;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) head = t; else tail.next = t;
+            tail = t;
+        }
+
+        void unlink(Timeout<T> t) {
+            if (t.prev == null) head = t.next; else t.prev.next = t.next;
+            if (t.next == null) tail = t.prev; else t.next.prev = t.prev;
+            t.bucket = null;
+            t.prev = null;
+            t.next = null;
+        }
+
+        Timeout<T> drain() {
+            Timeout<T> first = head;
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<Bucket<T>[]> levels = new ArrayList<>();
+    // Prochaine case du niveau 0 à traiter, en nombre de ticks depuis l'époque
+    private long cursor;
+    private int size;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs > 0 et wheelSize >= 2 requis");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.cursor = startMs / tickMs;
+        addLevel();
+    }
+
+    public Timeout<T> schedule(T payload, long deadlineMs) {
+        Timeout<T> t = new Timeout<>(payload, deadlineMs);
+        insert(t);
+        size++;
+        return t;
+    }
+
+    public boolean cancel(Timeout<T> t) {
+        if (t == null || t.bucket == null) return false;
+        t.bucket.unlink(t);
+        size--;
+        return true;
+    }
+
+    // Déplace l'échéance (prolongation ou avancement) sans réallouer le handle
+    public boolean reschedule(Timeout<T> t, long newDeadlineMs) {
+        if (t == null || t.bucket == null) return false;
+        t.bucket.unlink(t);
+        t.deadline = newDeadlineMs;
+        insert(t);
+        return true;
+    }
+
+    /**
+     * Fait avancer la roue jusqu'à {@code nowMs} et transmet à {@code onExpire}
+     * chaque échéancier arrivé à terme. Retourne le nombre d'échéanciers déclenchés.
+     */
+    public int advance(long nowMs, Consumer<T> onExpire) {
+        long nowSlot = nowMs / tickMs;
+        if (size == 0) {
+            cursor = Math.max(cursor, nowSlot);
+            return 0;
+        }
+
+        int fired = 0;
+        while (cursor < nowSlot && size > 0) {
+            cascade();
+            Timeout<T> t = levels.get(0)[(int) (cursor % wheelSize)].drain();
+            while (t != null) {
+                Timeout<T> next = t.next;
+                t.bucket = null;
+                t.prev = null;
+                t.next = null;
+                size--;
+                fired++;
+                onExpire.accept(t.payload);
+                t = next;
+            }
+            cursor++;
+        }
+        if (size == 0) {
+            cursor = Math.max(cursor, nowSlot);
+        }
+        return fired;
+    }
+
+    public int size() { return size; }
+    public long getTickMs() { return tickMs; }
+
+    // Quand le curseur franchit une frontière de niveau, redescend la case correspondante
+    private void cascade() {
+        long span = 1;
+        int top = 0;
+        for (int level = 1; level < levels.size(); level++) {
+            span *= wheelSize;
+            if (cursor % span != 0) break;
+            top = level;
+        }
+
+        span = 1;
+        for (int level = 1; level <= top; level++) span *= wheelSize;
+
+        for (int level = top; level >= 1; level--) {
+            long levelCursor = cursor / span;
+            Timeout<T> t = levels.get(level)[(int) (levelCursor % wheelSize)].drain();
+            while (t != null) {
+                Timeout<T> next = t.next;
+                t.bucket = null;
+                insert(t);
+                t = next;
+            }
+            span /= wheelSize;
+        }
+    }
+
+    private void insert(Timeout<T> t) {
+        long slot = t.deadline / tickMs;
+        if (slot < cursor) {
+            // Déjà échu: déclenché au prochain advance()
+            slot = cursor;
+        }
+
+        long levelSlot = slot;
+        long levelCursor = cursor;
+        int level = 0;
+        while (levelSlot - levelCursor >= wheelSize) {
+            levelSlot /= wheelSize;
+            levelCursor /= wheelSize;
+            level++;
+            if (level == levels.size()) addLevel();
+        }
+        levels.get(level)[(int) (levelSlot % wheelSize)].append(t);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void addLevel() {
+        Bucket<T>[] buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        levels.add(buckets);
+    }
+}
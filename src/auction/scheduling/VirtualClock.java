@@ -0,0 +1,234 @@
+package auction.scheduling;
+
+import jade.core.Agent;
+import jade.core.behaviours.Behaviour;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Horloge de simulation à événements discrets.
+ *
+ * Le temps ne s'écoule pas: un thread pilote attend que la plateforme soit au
+ * repos, puis saute directement à la prochaine échéance enregistrée par
+ * blockUntil() et réveille les comportements concernés. Une journée de marché
+ * se rejoue ainsi en quelques dizaines de secondes.
+ *
+ * Repos: aucun comportement réveillé encore en cours (il se rebloque via
+ * blockUntil() ou s'arrête via cancel()) et boîtes aux lettres des agents
+ * observés inchangées sur plusieurs relevés consécutifs (vides, ou contenant
+ * des messages qu'aucun modèle de l'agent n'accepte). C'est une approximation:
+ * un agent peut traiter un message retiré de sa boîte entre deux relevés, d'où
+ * les relevés répétés. Les agents sans comportement cadencé par l'horloge ne
+ * sont pas observés.
+ *
+ * Les échéances sont arrondies à la résolution (-Dauction.clockResolutionMs)
+ * pour regrouper les réveils proches en un seul pas.
+ */
+public final class VirtualClock extends Clock {
+
+    private static final int SETTLE_POLLS = 4;
+    private static final long POLL_NANOS = 50_000;
+    private static final long STALL_NANOS = 2_000_000_000L;
+    private static final long REPORT_EVERY_MS = 3_600_000;
+
+    private static final class Wakeup implements Comparable<Wakeup> {
+        final Behaviour behaviour;
+        final long dueMs;
+        boolean fired;
+        boolean cancelled;
+
+        Wakeup(Behaviour behaviour, long dueMs) {
+            this.behaviour = behaviour;
+            this.dueMs = dueMs;
+        }
+
+        @Override
+        public int compareTo(Wakeup other) {
+            return Long.compare(dueMs, other.dueMs);
+        }
+    }
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private final long resolutionMs;
+    private final long limitMs;
+    private final PriorityQueue<Wakeup> queue = new PriorityQueue<>();
+    private final Map<Behaviour, Wakeup> pending = new IdentityHashMap<>();
+    // Agents observés et taille de leur boîte au dernier relevé
+    private final Map<Agent, Integer> watched = new ConcurrentHashMap<>();
+    // Comportements réveillés qui ne se sont pas encore rebloqués
+    private final AtomicInteger running = new AtomicInteger();
+    private Thread driver;
+    private long steps;
+
+    // limitMs: durée simulée après laquelle le temps s'arrête (0 = sans limite)
+    public VirtualClock(long resolutionMs, long limitMs) {
+        this.resolutionMs = Math.max(1, resolutionMs);
+        this.limitMs = limitMs;
+    }
+
+    @Override
+    public long millis() {
+        return now.get();
+    }
+
+    @Override
+    public void blockUntil(Behaviour behaviour, long dueMs) {
+        // Bloquer avant d'enregistrer: un réveil immédiat du pilote n'est pas perdu
+        behaviour.block();
+        long slot = (dueMs + resolutionMs - 1) / resolutionMs * resolutionMs;
+
+        synchronized (this) {
+            Wakeup previous = pending.get(behaviour);
+            if (previous != null) {
+                if (previous.fired) {
+                    running.decrementAndGet();
+                } else if (previous.dueMs == slot) {
+                    return;  // réveil parasite (message reçu): l'échéance est déjà enregistrée
+                } else {
+                    previous.cancelled = true;
+                }
+            }
+            Wakeup wakeup = new Wakeup(behaviour, slot);
+            pending.put(behaviour, wakeup);
+            queue.add(wakeup);
+            notifyAll();
+        }
+        Agent agent = behaviour.getAgent();
+        if (agent != null) {
+            watched.putIfAbsent(agent, 0);
+        }
+    }
+
+    @Override
+    public synchronized void cancel(Behaviour behaviour) {
+        Wakeup wakeup = pending.remove(behaviour);
+        if (wakeup == null) return;
+        if (wakeup.fired) {
+            running.decrementAndGet();
+        } else {
+            wakeup.cancelled = true;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (driver != null) return;
+        driver = new Thread(this::drive, "virtual-clock");
+        driver.setDaemon(true);
+        driver.start();
+        System.out.println("⏱️ Horloge virtuelle démarrée (résolution " + resolutionMs + " ms" +
+                         (limitMs > 0 ? String.format(", arrêt après %.1f h simulées", limitMs / 3.6e6) : "") + ")");
+    }
+
+    public synchronized long getSteps() {
+        return steps;
+    }
+
+    @Override
+    public String describe() {
+        return "temps virtuel (événements discrets)";
+    }
+
+    private void drive() {
+        long simStart = now.get();
+        long wallStart = System.nanoTime();
+        long nextReport = simStart + REPORT_EVERY_MS;
+        Wakeup[] due = new Wakeup[64];
+
+        while (true) {
+            awaitQuiescence();
+
+            int count = 0;
+            synchronized (this) {
+                Wakeup next;
+                while ((next = queue.peek()) != null && next.cancelled) {
+                    queue.poll();
+                }
+                if (next == null) {
+                    try {
+                        wait(10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    continue;
+                }
+                if (limitMs > 0 && next.dueMs - simStart > limitMs) {
+                    System.out.printf("⏱️ Simulation terminée: %.1f h simulées en %.1f s réelles (%,d pas)%n",
+                                      (now.get() - simStart) / 3.6e6, (System.nanoTime() - wallStart) / 1e9, steps);
+                    return;
+                }
+
+                now.set(Math.max(now.get(), next.dueMs));
+                while ((next = queue.peek()) != null && next.dueMs <= now.get()) {
+                    queue.poll();
+                    if (next.cancelled) continue;
+                    next.fired = true;
+                    running.incrementAndGet();
+                    if (count == due.length) {
+                        due = Arrays.copyOf(due, 2 * count);
+                    }
+                    due[count++] = next;
+                }
+                steps++;
+            }
+
+            for (int i = 0; i < count; i++) {
+                due[i].behaviour.restart();
+                due[i] = null;
+            }
+
+            if (now.get() >= nextReport) {
+                System.out.printf("⏱️ %.0f h simulées en %.1f s réelles%n",
+                                  (now.get() - simStart) / 3.6e6, (System.nanoTime() - wallStart) / 1e9);
+                nextReport += REPORT_EVERY_MS;
+            }
+        }
+    }
+
+    private void awaitQuiescence() {
+        long stallAt = System.nanoTime() + STALL_NANOS;
+        int calm = 0;
+        while (calm < SETTLE_POLLS) {
+            boolean mailboxesSettled = mailboxesSettled();
+            if (running.get() == 0 && mailboxesSettled) {
+                calm++;
+            } else {
+                calm = 0;
+                if (mailboxesSettled && System.nanoTime() > stallAt) {
+                    // Comportement réveillé puis disparu (agent supprimé): ne pas bloquer la simulation
+                    System.err.println("⚠️ Horloge virtuelle: " + running.get() + " réveil(s) sans suite, ignoré(s)");
+                    running.set(0);
+                    synchronized (this) {
+                        pending.values().removeIf(w -> w.fired);
+                    }
+                    stallAt = System.nanoTime() + STALL_NANOS;
+                }
+            }
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+    }
+
+    // Vrai si aucune boîte observée n'a changé de taille depuis le relevé précédent
+    private boolean mailboxesSettled() {
+        boolean settled = true;
+        for (Map.Entry<Agent, Integer> entry : watched.entrySet()) {
+            Agent agent = entry.getKey();
+            if (agent.getState() == Agent.AP_DELETED) {
+                watched.remove(agent);
+                continue;
+            }
+            int size = agent.getCurQueueSize();
+            if (size != entry.getValue()) {
+                entry.setValue(size);
+                settled = false;
+            }
+        }
+        return settled;
+    }
+}
@@ -0,0 +1,138 @@
+package auction.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences log-linéaire (à la HdrHistogram), sans verrou.
+ *
+ * Les valeurs (nanosecondes) sont rangées dans des cases dont la largeur double
+ * à chaque puissance de deux, avec 64 sous-cases par puissance: l'erreur
+ * relative d'un percentile reste sous 1 %, pour 3 712 compteurs au total.
+ * record() est un incrément atomique appelable depuis n'importe quel thread;
+ * drainTo() vide l'histogramme d'intervalle dans un cumul, case par case.
+ * Mémoire fixe: aucune allocation après la construction.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_HALF = 1 << (SUB_BITS - 1);
+    private static final int LINEAR = 1 << SUB_BITS;
+    private static final int BUCKETS = (63 - SUB_BITS + 1) * SUB_HALF + LINEAR;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+    private final LongAdder sum = new LongAdder();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // réessai: un autre thread a relevé le maximum entre-temps
+        }
+    }
+
+    // Transfère les comptes vers le cumul et remet cet histogramme à zéro
+    public void drainTo(LatencyHistogram total) {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) != 0) {
+                total.counts.addAndGet(i, counts.getAndSet(i, 0));
+            }
+        }
+        total.sum.add(sum.sumThenReset());
+        long drainedMax = max.getAndSet(0);
+        long current;
+        while (drainedMax > (current = total.max.get()) && !total.max.compareAndSet(current, drainedMax)) {
+            // réessai
+        }
+    }
+
+    // Ajoute les comptes à un autre histogramme sans modifier celui-ci
+    public void addTo(LatencyHistogram total) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                total.counts.addAndGet(i, count);
+            }
+        }
+        total.sum.add(sum.sum());
+        long current;
+        long value = max.get();
+        while (value > (current = total.max.get()) && !total.max.compareAndSet(current, value)) {
+            // réessai
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+        sum.reset();
+    }
+
+    public long count() {
+        long sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            sum += counts.get(i);
+        }
+        return sum;
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    // Somme des valeurs enregistrées (ns)
+    public long sum() {
+        return sum.sum();
+    }
+
+    // Mesures dont la case est entièrement sous le seuil (cases cumulatives « le » de Prometheus)
+    public long countAtOrBelow(long nanos) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS && upperBound(i) <= nanos; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    // Valeur sous laquelle tombe la fraction q des mesures (q dans [0, 1]); 0 si vide
+    public long percentile(double q) {
+        long total = count();
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(midpoint(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS + 1;
+        return shift * SUB_HALF + (int) (value >>> shift);
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR) return index;
+        int shift = index / SUB_HALF - 1;
+        long sub = index - (long) shift * SUB_HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    private static long midpoint(int index) {
+        if (index < LINEAR) return index;
+        int shift = index / SUB_HALF - 1;
+        long sub = index - (long) shift * SUB_HALF;
+        return (sub << shift) + ((1L << shift) >> 1);
+    }
+}
@@ -0,0 +1,105 @@
+package auction.stats;
+
+/**
+ * Latences par étape du cycle de vie d'une offre, du PROPOSE de
+ * l'enchérisseur à la trame BID_UPDATE envoyée au navigateur.
+ *
+ * Chaque étape a trois histogrammes de taille fixe: « live » (écrit sans
+ * verrou par les agents et le serveur WebSocket), « intervalle » (contenu de
+ * live au dernier rollInterval()) et cumul depuis le démarrage ou reset().
+ * Seuls rollInterval() et reset() sont synchronisés entre eux; les
+ * enregistrements ne prennent jamais de verrou.
+ */
+public final class LatencyStages {
+
+    public enum Stage {
+        MAILBOX_DWELL("mailbox_dwell"),    // dépôt du PROPOSE dans la boîte -> lecture (résolution ms de JADE)
+        PARSE("parse"),                    // décodage du message
+        VALIDATION("validation"),          // article, prix plancher, solvabilité
+        STATE_UPDATE("state_update"),      // prix, meneur, marge, historique, journal
+        LOG_COMMIT("log_commit"),          // commit groupé du journal d'événements
+        FANOUT("fanout"),                  // BID_UPDATE vers les enchérisseurs
+        WS_BROADCAST("ws_broadcast");      // envoi d'une trame aux clients WebSocket
+
+        public final String metricName;
+
+        Stage(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final LatencyStages INSTANCE = new LatencyStages();
+
+    private final LatencyHistogram[] live = histograms();
+    private final LatencyHistogram[] interval = histograms();
+    private final LatencyHistogram[] cumulative = histograms();
+    private volatile long intervalStartMs = System.currentTimeMillis();
+    private volatile long intervalEndMs = intervalStartMs;
+
+    private LatencyStages() {}
+
+    public static LatencyStages get() {
+        return INSTANCE;
+    }
+
+    public void record(Stage stage, long nanos) {
+        live[stage.ordinal()].record(nanos);
+    }
+
+    // Clôt l'intervalle courant: live -> intervalle (remis à zéro avant) -> cumul
+    public synchronized void rollInterval() {
+        for (int i = 0; i < STAGES.length; i++) {
+            interval[i].reset();
+            live[i].drainTo(interval[i]);
+            interval[i].addTo(cumulative[i]);
+        }
+        intervalStartMs = intervalEndMs;
+        intervalEndMs = System.currentTimeMillis();
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < STAGES.length; i++) {
+            live[i].reset();
+            interval[i].reset();
+            cumulative[i].reset();
+        }
+        intervalStartMs = intervalEndMs = System.currentTimeMillis();
+    }
+
+    // Dernier intervalle clos (lecture seule)
+    public LatencyHistogram interval(Stage stage) {
+        return interval[stage.ordinal()];
+    }
+
+    // Cumul des intervalles clos (lecture seule)
+    public LatencyHistogram cumulative(Stage stage) {
+        return cumulative[stage.ordinal()];
+    }
+
+    public long getIntervalMs() {
+        return intervalEndMs - intervalStartMs;
+    }
+
+    // Résumé d'une ligne du dernier intervalle, étapes sans mesure omises
+    public String describeInterval() {
+        StringBuilder sb = new StringBuilder();
+        for (Stage stage : STAGES) {
+            LatencyHistogram h = interval(stage);
+            long count = h.count();
+            if (count == 0) continue;
+            sb.append(String.format("%n   %-14s n=%-8d p50 %8.3f ms  p99 %8.3f ms  p999 %8.3f ms  max %8.3f ms",
+                                    stage.metricName, count, h.percentile(0.50) / 1e6, h.percentile(0.99) / 1e6,
+                                    h.percentile(0.999) / 1e6, h.max() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    private static LatencyHistogram[] histograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[STAGES.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+}
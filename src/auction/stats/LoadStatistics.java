@@ -0,0 +1,45 @@
+package auction.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs partagés par les enchérisseurs synthétiques d'un test de charge
+ * (voir LoadTestLauncher). Seules les offres émises pendant la fenêtre de
+ * mesure sont comptées; la latence est celle de l'aller-retour offre -> ACCEPT.
+ */
+public final class LoadStatistics {
+
+    private static final LoadStatistics INSTANCE = new LoadStatistics();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram acceptLatency = new LatencyHistogram();
+    private volatile boolean measuring;
+
+    private LoadStatistics() {}
+
+    public static LoadStatistics get() {
+        return INSTANCE;
+    }
+
+    public void start() { measuring = true; }
+    public void stop() { measuring = false; }
+    public boolean isMeasuring() { return measuring; }
+
+    public void bidSent() { sent.increment(); }
+
+    public void bidAccepted(long latencyNanos) {
+        accepted.increment();
+        acceptLatency.record(latencyNanos);
+    }
+
+    public void bidRejected() { rejected.increment(); }
+
+    public long getSent() { return sent.sum(); }
+    public long getAccepted() { return accepted.sum(); }
+    public long getRejected() { return rejected.sum(); }
+
+    // Latences depuis le dernier drainTo(): à vider chaque seconde dans un cumul
+    public LatencyHistogram getAcceptLatency() { return acceptLatency; }
+}
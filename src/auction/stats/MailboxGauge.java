@@ -0,0 +1,49 @@
+package auction.stats;
+
+import jade.core.Agent;
+import jade.core.behaviours.TickerBehaviour;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Profondeur de la boîte aux lettres de chaque agent, publiée par l'agent
+ * lui-même depuis son propre thread: la file JADE est synchronisée, un
+ * lecteur externe (scrape /api/metrics) prendrait son verrou. Ici il ne lit
+ * qu'un entier atomique, au prix d'une valeur vieille d'au plus une période.
+ * L'entrée disparaît quand le relevé s'arrête ou que l'agent se termine
+ * (unregister dans son takeDown: JADE n'appelle pas onEnd à la suppression).
+ */
+public class MailboxGauge extends TickerBehaviour {
+
+    private static final Map<String, AtomicInteger> DEPTHS = new ConcurrentHashMap<>();
+
+    private final AtomicInteger depth = new AtomicInteger();
+
+    public MailboxGauge(Agent agent, long periodMs) {
+        super(agent, periodMs);
+        DEPTHS.put(agent.getLocalName(), depth);
+    }
+
+    @Override
+    protected void onTick() {
+        depth.set(myAgent.getCurQueueSize());
+    }
+
+    @Override
+    public int onEnd() {
+        DEPTHS.remove(myAgent.getLocalName(), depth);
+        return super.onEnd();
+    }
+
+    // Retire l'agent du scrape; à appeler depuis son takeDown
+    public static void unregister(Agent agent) {
+        DEPTHS.remove(agent.getLocalName());
+    }
+
+    // Agent -> messages en attente au dernier relevé (vue non modifiable)
+    public static Map<String, AtomicInteger> depths() {
+        return Collections.unmodifiableMap(DEPTHS);
+    }
+}
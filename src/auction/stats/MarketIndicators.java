@@ -0,0 +1,48 @@
+package auction.stats;
+
+import java.util.List;
+
+/**
+ * Indicateurs calculés sur l'historique des prix d'un article, partagés par
+ * l'analyste de marché et l'enchérisseur intelligent. Fonctions pures, sans
+ * état: mesurables isolément (module benchmarks).
+ */
+public final class MarketIndicators {
+
+    private MarketIndicators() {}
+
+    // Écart-type rapporté à la moyenne
+    public static double volatility(List<Double> prices) {
+        double mean = prices.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double variance = prices.stream()
+            .mapToDouble(p -> Math.pow(p - mean, 2))
+            .average()
+            .orElse(0);
+        return Math.sqrt(variance) / mean;
+    }
+
+    // Compare la moyenne du premier tiers à celle du dernier tiers
+    public static String trend(List<Double> prices) {
+        if (prices.size() < 3) return "NEUTRE";
+
+        double firstThird = prices.subList(0, prices.size() / 3).stream()
+            .mapToDouble(Double::doubleValue).average().orElse(0);
+        double lastThird = prices.subList(2 * prices.size() / 3, prices.size()).stream()
+            .mapToDouble(Double::doubleValue).average().orElse(0);
+
+        double change = (lastThird - firstThird) / firstThird;
+
+        if (change > 0.1) return "📈 HAUSSIÈRE";
+        if (change < -0.1) return "📉 BAISSIÈRE";
+        return "➡️ STABLE";
+    }
+
+    // Croissance relative moyenne d'un prix au suivant
+    public static double averageGrowth(List<Double> prices) {
+        double totalGrowth = 0;
+        for (int i = 1; i < prices.size(); i++) {
+            totalGrowth += (prices.get(i) - prices.get(i-1)) / prices.get(i-1);
+        }
+        return totalGrowth / (prices.size() - 1);
+    }
+}
@@ -0,0 +1,131 @@
+package auction.stats;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Agrégats de la plateforme mis à jour en O(1) à chaque événement
+ * (ouverture, offre acceptée, clôture) par toutes les partitions.
+ * Les montants sont tenus en centimes pour éviter la dérive des doubles:
+ * totalVolumeCents est la valeur des enchères ouvertes (prix courants, elle
+ * baisse à chaque clôture), salesCents le cumul des ventes conclues.
+ */
+public final class PlatformStatistics {
+
+    private static final PlatformStatistics INSTANCE = new PlatformStatistics();
+
+    // Fenêtre glissante du débit d'offres: une case par seconde, seconde (32 bits hauts) et
+    // compte (32 bits bas) dans un même mot pour que la remise à zéro ne perde aucun incrément
+    private static final int RATE_SLOTS = 8;
+    private static final int RATE_WINDOW_SECONDS = 5;
+
+    private final AtomicInteger activeAuctions = new AtomicInteger();
+    private final AtomicLong totalVolumeCents = new AtomicLong();
+    private final AtomicLong salesCents = new AtomicLong();
+    private final AtomicLong totalBids = new AtomicLong();
+    private final AtomicLongArray bidsPerSlot = new AtomicLongArray(RATE_SLOTS);
+    private volatile int agentCount;
+    // Réponses aux PROPOSE: acceptations et rejets par motif
+    private final LongAdder acceptances = new LongAdder();
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private PlatformStatistics() {}
+
+    public static PlatformStatistics get() {
+        return INSTANCE;
+    }
+
+    public void auctionOpened(double startPrice) {
+        activeAuctions.incrementAndGet();
+        totalVolumeCents.addAndGet(toCents(startPrice));
+        dirty.set(true);
+    }
+
+    public void bidAccepted(double previousPrice, double newPrice) {
+        adjustVolume(previousPrice, newPrice);
+        bidRecorded();
+    }
+
+    // Offre entrée au carnet (scellée, multi-unités): le prix courant ne bouge pas
+    public void bidRecorded() {
+        totalBids.incrementAndGet();
+        countBid(System.currentTimeMillis() / 1000);
+        dirty.set(true);
+    }
+
+    // Réévaluation d'une enchère ouverte sans nouvelle offre (dépouillement d'un carnet)
+    public void adjustVolume(double previousValue, double newValue) {
+        totalVolumeCents.addAndGet(toCents(newValue) - toCents(previousValue));
+        dirty.set(true);
+    }
+
+    public void auctionClosed(double finalPrice) {
+        activeAuctions.decrementAndGet();
+        totalVolumeCents.addAndGet(-toCents(finalPrice));
+        dirty.set(true);
+    }
+
+    // Vente conclue à la clôture (prix adjugé, ou total du lot multi-unités)
+    public void auctionSold(double amount) {
+        salesCents.addAndGet(toCents(amount));
+        dirty.set(true);
+    }
+
+    public void countAcceptance() {
+        acceptances.increment();
+    }
+
+    public void countRejection(String reason) {
+        rejections.computeIfAbsent(reason, r -> new LongAdder()).increment();
+    }
+
+    public void setAgentCount(int count) {
+        if (agentCount != count) {
+            agentCount = count;
+            dirty.set(true);
+        }
+    }
+
+    public int getActiveAuctions() { return activeAuctions.get(); }
+    public int getAgentCount() { return agentCount; }
+    public long getTotalBids() { return totalBids.get(); }
+    public double getTotalVolume() { return totalVolumeCents.get() / 100.0; }
+    public double getSalesVolume() { return salesCents.get() / 100.0; }
+    public long getAcceptances() { return acceptances.sum(); }
+    public Map<String, LongAdder> getRejections() { return rejections; }
+
+    // Moyenne sur les dernières secondes complètes
+    public double getBidsPerSecond() {
+        long current = System.currentTimeMillis() / 1000;
+        long sum = 0;
+        for (long second = current - RATE_WINDOW_SECONDS; second < current; second++) {
+            int slot = (int) (second % RATE_SLOTS);
+            long word = bidsPerSlot.get(slot);
+            if (word >>> 32 == second) {
+                sum += word & 0xFFFFFFFFL;
+            }
+        }
+        return (double) sum / RATE_WINDOW_SECONDS;
+    }
+
+    // Vrai si un agrégat a changé depuis le dernier appel
+    boolean consumeDirty() {
+        return dirty.getAndSet(false);
+    }
+
+    private void countBid(long second) {
+        int slot = (int) (second % RATE_SLOTS);
+        long word;
+        long next;
+        do {
+            word = bidsPerSlot.get(slot);
+            next = word >>> 32 == second ? word + 1 : second << 32 | 1;
+        } while (!bidsPerSlot.compareAndSet(slot, word, next));
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+}
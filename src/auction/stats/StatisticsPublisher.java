@@ -0,0 +1,67 @@
+package auction.stats;
+
+import auction.AuctionConfig;
+import auction.web.WebInterface;
+import java.util.concurrent.*;
+
+/**
+ * Publie au plus une trame STATS_UPDATE par intervalle, quel que soit le
+ * nombre d'offres reçues entre-temps, et seulement si un agrégat a changé
+ * ou si le débit d'offres (fenêtre glissante, qui décroît sans événement)
+ * diffère de la dernière valeur publiée.
+ * Clôt aussi, à son propre rythme, l'intervalle des latences par étape.
+ */
+public final class StatisticsPublisher {
+
+    private static ScheduledExecutorService scheduler;
+    // Lu et écrit par le seul thread stats-publisher
+    private static double lastBidsPerSecond;
+
+    private StatisticsPublisher() {}
+
+    public static synchronized void start(long intervalMs) {
+        if (scheduler != null) return;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stats-publisher");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(StatisticsPublisher::publishIfDirty,
+                                      intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        long latencyMs = AuctionConfig.latencyIntervalMs();
+        scheduler.scheduleAtFixedRate(StatisticsPublisher::rollLatencies,
+                                      latencyMs, latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private static void rollLatencies() {
+        LatencyStages stages = LatencyStages.get();
+        stages.rollInterval();
+        String summary = stages.describeInterval();
+        if (!summary.isEmpty()) {
+            System.out.println("⏱️ Latences par étape (" + stages.getIntervalMs() / 1000 + " s):" + summary);
+        }
+    }
+
+    private static void publishIfDirty() {
+        PlatformStatistics stats = PlatformStatistics.get();
+        double bidsPerSecond = stats.getBidsPerSecond();
+        boolean dirty = stats.consumeDirty();
+        if (!dirty && bidsPerSecond == lastBidsPerSecond) return;
+        lastBidsPerSecond = bidsPerSecond;
+
+        try {
+            WebInterface.updateStatistics(stats.getActiveAuctions(), stats.getAgentCount(),
+                                          stats.getTotalVolume(), bidsPerSecond);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
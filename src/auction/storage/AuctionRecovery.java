@@ -0,0 +1,80 @@
+package auction.storage;
+
+import auction.clearing.SealedBidBook;
+import auction.clearing.UniformPriceClearing;
+import auction.models.AuctionItem;
+import java.util.*;
+
+// Reconstruit l'état d'un auctioneer (enchères ouvertes, carnets, historique) par rejeu du journal.
+// Les événements issus d'un instantané sont présentés avec un LSN de -1.
+public class AuctionRecovery implements EventLog.EventVisitor {
+    private final Map<String, AuctionItem> auctions = new LinkedHashMap<>();
+    private final Map<String, SealedBidBook> sealedBooks = new HashMap<>();
+    private final Map<String, UniformPriceClearing> multiUnitBooks = new HashMap<>();
+    private final BidHistoryStore bidHistory;
+    private long lastItemNumber;
+    private long events;
+
+    public AuctionRecovery(BidHistoryStore bidHistory) {
+        this.bidHistory = bidHistory;
+    }
+
+    @Override
+    public void newAuction(long lsn, AuctionItem item, long timestamp) {
+        if (lsn >= 0) events++;
+        auctions.put(item.getId(), item);
+        if (item.getFormat().isMultiUnit()) {
+            multiUnitBooks.put(item.getId(), new UniformPriceClearing());
+        } else if (item.getFormat().isSealed()) {
+            sealedBooks.put(item.getId(), new SealedBidBook());
+        }
+
+        // Les identifiants se terminent par un compteur (ITEM-n, ITEM-partition-n)
+        String id = item.getId();
+        try {
+            lastItemNumber = Math.max(lastItemNumber, Long.parseLong(id.substring(id.lastIndexOf('-') + 1)));
+        } catch (NumberFormatException e) {
+            // identifiant sans compteur: rien à reprendre
+        }
+    }
+
+    @Override
+    public void bidAccepted(long lsn, String itemId, String bidderId, double amount, long quantity, long timestamp) {
+        if (lsn >= 0) events++;
+        AuctionItem item = auctions.get(itemId);
+        if (item == null) return;
+
+        long cents = Math.round(amount * 100);
+        if (item.getFormat().isMultiUnit()) {
+            multiUnitBooks.get(itemId).submit(bidderId, quantity, cents);
+        } else if (item.getFormat().isSealed()) {
+            sealedBooks.get(itemId).submit(bidderId, cents);
+        } else {
+            item.setCurrentPrice(amount);
+            item.setCurrentWinner(bidderId);
+        }
+        bidHistory.append(itemId, bidderId, amount, timestamp);
+    }
+
+    @Override
+    // Clôture journalisée: gagnant déjà notifié et réglé, l'enchère ne sera pas reclôturée
+    public void auctionClosed(long lsn, String itemId, String winnerId, double price, long timestamp) {
+        events++;
+        if (auctions.remove(itemId) != null) {
+            sealedBooks.remove(itemId);
+            multiUnitBooks.remove(itemId);
+            bidHistory.release(itemId);
+        }
+    }
+
+    // Compteur repris d'un instantané (les articles déjà clôturés n'y figurent plus)
+    public void noteItemNumber(long itemNumber) {
+        lastItemNumber = Math.max(lastItemNumber, itemNumber);
+    }
+
+    public Map<String, AuctionItem> getAuctions() { return auctions; }
+    public Map<String, SealedBidBook> getSealedBooks() { return sealedBooks; }
+    public Map<String, UniformPriceClearing> getMultiUnitBooks() { return multiUnitBooks; }
+    public long getLastItemNumber() { return lastItemNumber; }
+    public long getEvents() { return events; }
+}
@@ -0,0 +1,86 @@
+package auction.storage;
+
+import auction.clearing.UniformPriceClearing;
+import auction.models.AuctionFormat;
+import auction.models.AuctionItem;
+import java.io.*;
+import java.util.*;
+
+/**
+ * Format binaire de l'instantané d'un auctioneer: compteur d'articles puis, pour
+ * chaque enchère ouverte, ses caractéristiques et ses offres dans l'ordre
+ * d'arrivée. La restauration rejoue ces offres dans {@link AuctionRecovery},
+ * ce qui reconstruit prix courant, carnets scellés/multi-unités et historique
+ * exactement comme le rejeu du journal.
+ */
+public final class AuctionSnapshot {
+
+    private AuctionSnapshot() {}
+
+    // Capture sur le thread de l'agent: simple copie mémoire, l'écriture disque est différée
+    public static byte[] capture(long itemCounter, Collection<AuctionItem> auctions, BidHistoryStore bidHistory,
+                                 Map<String, UniformPriceClearing> multiUnitBooks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeLong(itemCounter);
+        out.writeInt(auctions.size());
+        for (AuctionItem item : auctions) {
+            out.writeUTF(item.getId());
+            out.writeUTF(item.getName());
+            out.writeDouble(item.getStartingPrice());
+            out.writeDouble(item.getReservePrice());
+            out.writeByte(item.getFormat().ordinal());
+            out.writeLong(item.getQuantity());
+            out.writeLong(item.getEndTime().getTime());
+
+            // Carnet multi-unités et historique sont alimentés ensemble: même ordre, même taille
+            UniformPriceClearing book = multiUnitBooks.get(item.getId());
+            out.writeInt(bidHistory.count(item.getId()));
+            int[] index = {0};
+            IOException[] failure = {null};
+            bidHistory.forEachBid(item.getId(), (bidder, cents, timestamp) -> {
+                try {
+                    out.writeUTF(bidHistory.bidderName(bidder));
+                    out.writeLong(cents);
+                    out.writeLong(book != null ? book.quantity(index[0]) : 1);
+                    out.writeLong(timestamp);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+                index[0]++;
+            });
+            if (failure[0] != null) throw failure[0];
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static void restore(DataInputStream in, AuctionRecovery recovery) throws IOException {
+        recovery.noteItemNumber(in.readLong());
+        int auctions = in.readInt();
+        for (int i = 0; i < auctions; i++) {
+            String id = in.readUTF();
+            String name = in.readUTF();
+            double startingPrice = in.readDouble();
+            double reservePrice = in.readDouble();
+            AuctionFormat format = AuctionFormat.values()[in.readByte()];
+            long quantity = in.readLong();
+            long endTime = in.readLong();
+
+            AuctionItem item = new AuctionItem(id, name, startingPrice, reservePrice, format, quantity);
+            item.setEndTime(new Date(endTime));
+            recovery.newAuction(-1, item, 0);
+
+            int bids = in.readInt();
+            for (int b = 0; b < bids; b++) {
+                String bidder = in.readUTF();
+                long cents = in.readLong();
+                long bidQuantity = in.readLong();
+                long timestamp = in.readLong();
+                recovery.bidAccepted(-1, id, bidder, cents / 100.0, bidQuantity, timestamp);
+            }
+        }
+    }
+}
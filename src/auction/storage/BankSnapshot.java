@@ -0,0 +1,87 @@
+package auction.storage;
+
+import auction.bank.HoldManager;
+import auction.bank.Ledger;
+import java.io.*;
+
+// Format binaire de l'instantané de la banque: soldes et montants bloqués de chaque compte (en euros),
+// puis les blocages en cours, puis la position du journal des transactions à la capture (chacune de
+// ces deux sections absente des instantanés antérieurs; la position aussi des migrations de comptes)
+public final class BankSnapshot {
+
+    private BankSnapshot() {}
+
+    // journalPosition: TransactionJournal.size() au moment de la capture, sur le thread qui poste les opérations
+    public static byte[] capture(Ledger ledger, HoldManager holds, long journalPosition) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(capture(ledger, holds));
+        new DataOutputStream(bytes).writeLong(journalPosition);
+        return bytes.toByteArray();
+    }
+
+    public static byte[] capture(Ledger ledger, HoldManager holds) throws IOException {
+        ByteArrayOutputStream entries = new ByteArrayOutputStream(64 + ledger.size() * 48);
+        DataOutputStream out = new DataOutputStream(entries);
+        int[] count = {0};
+
+        ledger.forEach((owner, balanceCents, blockedCents) -> {
+            try {
+                out.writeUTF(owner);
+                out.writeDouble(balanceCents / 100.0);
+                out.writeDouble(blockedCents / 100.0);
+                count[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+
+        ByteArrayOutputStream holdEntries = new ByteArrayOutputStream(16 + holds.size() * 64);
+        DataOutputStream holdOut = new DataOutputStream(holdEntries);
+        holdOut.writeInt(holds.size());
+        holds.forEach((bidderId, itemId, auctioneer, cents, expiresAt) -> {
+            try {
+                holdOut.writeUTF(bidderId);
+                holdOut.writeUTF(itemId);
+                holdOut.writeUTF(auctioneer);
+                holdOut.writeLong(cents);
+                holdOut.writeLong(expiresAt);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        holdOut.flush();
+
+        // Nombre de comptes en tête, compté pendant le parcours (des comptes peuvent s'ouvrir entre-temps)
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 + entries.size() + holdEntries.size());
+        new DataOutputStream(bytes).writeInt(count[0]);
+        entries.writeTo(bytes);
+        holdEntries.writeTo(bytes);
+        return bytes.toByteArray();
+    }
+
+    // Montants ramenés au centime: le format en euros (double) reste celui des instantanés existants
+    public static int restore(DataInputStream in, Ledger ledger, HoldManager holds) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String owner = in.readUTF();
+            long balance = Ledger.toCents(in.readDouble());
+            long blocked = Ledger.toCents(in.readDouble());
+            ledger.restore(owner, balance, Math.min(blocked, balance));
+        }
+
+        // Blocages: déjà comptés dans les montants bloqués ci-dessus
+        if (in.available() > 0) {
+            int holdCount = in.readInt();
+            for (int i = 0; i < holdCount; i++) {
+                holds.restore(in.readUTF(), in.readUTF(), in.readUTF(), in.readLong(), in.readLong());
+            }
+        }
+        return count;
+    }
+
+    // À lire après restore(): transactions du journal déjà comprises dans l'instantané, -1 si inconnu
+    public static long readJournalPosition(DataInputStream in) throws IOException {
+        return in.available() >= 8 ? in.readLong() : -1;
+    }
+}
@@ -0,0 +1,236 @@
+package auction.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Historique des offres en colonnes primitives hors tas.
+ *
+ * Chaque segment est un ByteBuffer direct de {@link #ROWS_PER_SEGMENT} lignes
+ * organisé en quatre colonnes: article (int), enchérisseur (int), prix en
+ * centimes (long) et horodatage (long), soit 24 octets par offre. Chaque article
+ * garde la liste de ses numéros de ligne; à la clôture, {@link #release} libère
+ * ces lignes et un segment entièrement libéré retourne au pool pour être réutilisé.
+ * Les parcours et le top-K ne créent aucun objet par offre.
+ */
+public class BidHistoryStore {
+
+    public static final int ROWS_PER_SEGMENT = 1 << 16;
+    public static final int BYTES_PER_ROW = 4 + 4 + 8 + 8;
+
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int ROW_MASK = ROWS_PER_SEGMENT - 1;
+    private static final int BIDDER_OFFSET = 4 * ROWS_PER_SEGMENT;
+    private static final int PRICE_OFFSET = 8 * ROWS_PER_SEGMENT;
+    private static final int TIME_OFFSET = 16 * ROWS_PER_SEGMENT;
+
+    @FunctionalInterface
+    public interface BidVisitor {
+        void visit(int bidderIndex, long priceCents, long timestamp);
+    }
+
+    // Liste de numéros de ligne d'un article
+    private static final class RowList {
+        int[] rows = new int[8];
+        int size;
+
+        void add(int row) {
+            if (size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+            rows[size++] = row;
+        }
+    }
+
+    private final SymbolTable items = new SymbolTable();
+    private final SymbolTable bidders = new SymbolTable();
+    private final Map<String, RowList> rowsByItem = new HashMap<>();
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private int[] liveRows = new int[4];
+    private final Deque<Integer> freeSegments = new ArrayDeque<>();
+    private final Deque<ByteBuffer> bufferPool = new ArrayDeque<>();
+
+    private int writeSegment = -1;
+    private int writeRow = ROWS_PER_SEGMENT;
+    private long liveBids;
+
+    public void append(String itemId, String bidderId, double amount, long timestamp) {
+        RowList list = rowsByItem.get(itemId);
+        if (list == null) {
+            list = new RowList();
+            rowsByItem.put(itemId, list);
+        }
+
+        if (writeRow == ROWS_PER_SEGMENT) {
+            nextSegment();
+        }
+
+        ByteBuffer seg = segments.get(writeSegment);
+        int r = writeRow++;
+        seg.putInt(r << 2, items.intern(itemId));
+        seg.putInt(BIDDER_OFFSET + (r << 2), bidders.intern(bidderId));
+        seg.putLong(PRICE_OFFSET + (r << 3), Math.round(amount * 100));
+        seg.putLong(TIME_OFFSET + (r << 3), timestamp);
+
+        list.add((writeSegment << SEGMENT_SHIFT) | r);
+        liveRows[writeSegment]++;
+        liveBids++;
+    }
+
+    public int count(String itemId) {
+        RowList list = rowsByItem.get(itemId);
+        return list != null ? list.size : 0;
+    }
+
+    public void forEachBid(String itemId, BidVisitor visitor) {
+        RowList list = rowsByItem.get(itemId);
+        if (list == null) return;
+
+        for (int i = 0; i < list.size; i++) {
+            int row = list.rows[i];
+            visitor.visit(bidderIndex(row), priceCents(row), timestamp(row));
+        }
+    }
+
+    /**
+     * Remplit {@code out} avec les numéros de ligne des {@code out.length} meilleures
+     * offres (prix décroissant) et retourne leur nombre. Tas minimal primitif.
+     */
+    public int topK(String itemId, int[] out) {
+        RowList list = rowsByItem.get(itemId);
+        if (list == null || out.length == 0) return 0;
+
+        int k = out.length;
+        int n = 0;
+        for (int i = 0; i < list.size; i++) {
+            int row = list.rows[i];
+            long price = priceCents(row);
+            if (n < k) {
+                out[n] = row;
+                siftUp(out, n++);
+            } else if (price > priceCents(out[0])) {
+                out[0] = row;
+                siftDown(out, 0, n);
+            }
+        }
+
+        // Tri du tas par prix décroissant (extraction successive du minimum)
+        for (int end = n - 1; end > 0; end--) {
+            int tmp = out[0];
+            out[0] = out[end];
+            out[end] = tmp;
+            siftDown(out, 0, end);
+        }
+        return n;
+    }
+
+    // Libère l'historique d'un article clôturé
+    public void release(String itemId) {
+        RowList list = rowsByItem.remove(itemId);
+        if (list == null) return;
+
+        for (int i = 0; i < list.size; i++) {
+            int seg = list.rows[i] >>> SEGMENT_SHIFT;
+            if (--liveRows[seg] == 0 && seg != writeSegment) {
+                recycle(seg);
+            }
+        }
+        liveBids -= list.size;
+        items.release(itemId);
+    }
+
+    public int bidderIndex(int row) {
+        return segments.get(row >>> SEGMENT_SHIFT).getInt(BIDDER_OFFSET + ((row & ROW_MASK) << 2));
+    }
+
+    public long priceCents(int row) {
+        return segments.get(row >>> SEGMENT_SHIFT).getLong(PRICE_OFFSET + ((row & ROW_MASK) << 3));
+    }
+
+    public long timestamp(int row) {
+        return segments.get(row >>> SEGMENT_SHIFT).getLong(TIME_OFFSET + ((row & ROW_MASK) << 3));
+    }
+
+    public String bidderName(int bidderIndex) {
+        return bidders.symbol(bidderIndex);
+    }
+
+    public long getLiveBids() { return liveBids; }
+
+    public int getAllocatedSegments() {
+        return segments.size() - freeSegments.size();
+    }
+
+    public long offHeapBytes() {
+        return (long) getAllocatedSegments() * ROWS_PER_SEGMENT * BYTES_PER_ROW;
+    }
+
+    // Octets du tas consommés par les index de lignes par article
+    public long indexBytes() {
+        long bytes = 0;
+        for (RowList list : rowsByItem.values()) {
+            bytes += 16L + 16L + 4L * list.rows.length;
+        }
+        return bytes;
+    }
+
+    public double bytesPerBid() {
+        return liveBids == 0 ? 0 : (double) (offHeapBytes() + indexBytes()) / liveBids;
+    }
+
+    private void nextSegment() {
+        if (writeSegment >= 0 && liveRows[writeSegment] == 0) {
+            // Segment courant déjà entièrement libéré: on le réutilise tel quel
+            writeRow = 0;
+            return;
+        }
+
+        if (!freeSegments.isEmpty()) {
+            writeSegment = freeSegments.pop();
+            segments.set(writeSegment, bufferPool.pop());
+        } else {
+            writeSegment = segments.size();
+            if (writeSegment >= (1 << (31 - SEGMENT_SHIFT))) {
+                throw new IllegalStateException("Capacité de l'historique des offres dépassée");
+            }
+            segments.add(ByteBuffer.allocateDirect(ROWS_PER_SEGMENT * BYTES_PER_ROW)
+                                   .order(ByteOrder.nativeOrder()));
+            if (writeSegment == liveRows.length) {
+                liveRows = Arrays.copyOf(liveRows, liveRows.length * 2);
+            }
+        }
+        writeRow = 0;
+    }
+
+    private void recycle(int seg) {
+        bufferPool.push(segments.get(seg));
+        segments.set(seg, null);
+        freeSegments.push(seg);
+    }
+
+    private void siftUp(int[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (priceCents(heap[i]) >= priceCents(heap[parent])) break;
+            int tmp = heap[i];
+            heap[i] = heap[parent];
+            heap[parent] = tmp;
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int i, int n) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= n) break;
+            int smallest = left;
+            int right = left + 1;
+            if (right < n && priceCents(heap[right]) < priceCents(heap[left])) smallest = right;
+            if (priceCents(heap[i]) <= priceCents(heap[smallest])) break;
+            int tmp = heap[i];
+            heap[i] = heap[smallest];
+            heap[smallest] = tmp;
+            i = smallest;
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package auction.storage;
+
+import auction.models.AuctionFormat;
+import auction.models.AuctionItem;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Journal d'événements en ajout seul (write-ahead log) d'un auctioneer.
+ *
+ * Les enregistrements sont encodés dans un tampon direct puis écrits par
+ * FileChannel dans des segments nommés par le LSN de leur premier événement.
+ * Un commit() écrit tout le tampon en un seul appel système et ne synchronise
+ * le disque qu'une fois pour le groupe (group commit), selon la politique:
+ * ALWAYS (fsync par événement), GROUP (fsync par commit), INTERVAL (au plus un
+ * fsync par intervalle) ou NONE (laissé au système).
+ *
+ * Format d'un enregistrement: longueur (int), crc32 (int), type (byte),
+ * lsn (long), charge utile. La clôture porte le gagnant (vide si aucun) et le
+ * prix adjugé; un journal antérieur, sans ces champs, se relit quand même. Au rejeu, une fin de segment tronquée ou corrompue
+ * (écriture interrompue par un arrêt brutal) est ignorée puis coupée.
+ */
+public class EventLog implements Closeable {
+
+    public static final byte NEW_AUCTION = 1;
+    public static final byte BID_ACCEPTED = 2;
+    public static final byte AUCTION_CLOSED = 3;
+
+    public enum FsyncPolicy {
+        ALWAYS, GROUP, INTERVAL, NONE;
+
+        public static FsyncPolicy parse(String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+
+    public interface EventVisitor {
+        void newAuction(long lsn, AuctionItem item, long timestamp);
+        void bidAccepted(long lsn, String itemId, String bidderId, double amount, long quantity, long timestamp);
+        void auctionClosed(long lsn, String itemId, String winnerId, double price, long timestamp);
+    }
+
+    private static final int PREFIX_BYTES = 8;           // longueur + crc
+    private static final int HEADER_BYTES = PREFIX_BYTES + 1 + 8;
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+    private static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final long fsyncIntervalMs;
+    private final long segmentBytes;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CRC32 crc = new CRC32();
+    private byte[] scratch = new byte[256];
+
+    private FileChannel segment;
+    private long segmentSize;
+    private long bufferFirstLsn;
+    private long nextLsn;
+    private int recordStart;
+    private boolean unsynced;
+    private long lastSegmentEnd;
+    private long lastForceMs;
+
+    private long appendedEvents;
+    private long commits;
+    private long forces;
+
+    public EventLog(Path directory, FsyncPolicy policy, long fsyncIntervalMs) throws IOException {
+        this(directory, policy, fsyncIntervalMs, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public EventLog(Path directory, FsyncPolicy policy, long fsyncIntervalMs, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.policy = policy;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+    }
+
+    // ========================================================================
+    // ÉCRITURE
+    // ========================================================================
+
+    public long newAuction(AuctionItem item, long timestamp) throws IOException {
+        byte[] id = utf8(item.getId());
+        byte[] name = utf8(item.getName());
+        begin(NEW_AUCTION, 2 + id.length + 2 + name.length + 8 + 8 + 1 + 8 + 8 + 8);
+        putString(id);
+        putString(name);
+        buffer.putDouble(item.getStartingPrice());
+        buffer.putDouble(item.getReservePrice());
+        buffer.put((byte) item.getFormat().ordinal());
+        buffer.putLong(item.getQuantity());
+        buffer.putLong(item.getEndTime().getTime());
+        buffer.putLong(timestamp);
+        return end();
+    }
+
+    public long bidAccepted(String itemId, String bidderId, double amount, long quantity, long timestamp)
+            throws IOException {
+        byte[] id = utf8(itemId);
+        byte[] bidder = utf8(bidderId);
+        begin(BID_ACCEPTED, 2 + id.length + 2 + bidder.length + 8 + 8 + 8);
+        putString(id);
+        putString(bidder);
+        buffer.putDouble(amount);
+        buffer.putLong(quantity);
+        buffer.putLong(timestamp);
+        return end();
+    }
+
+    // winnerId null: enchère échouée
+    public long auctionClosed(String itemId, String winnerId, double price, long timestamp) throws IOException {
+        byte[] id = utf8(itemId);
+        byte[] winner = utf8(winnerId != null ? winnerId : "");
+        begin(AUCTION_CLOSED, 2 + id.length + 8 + 2 + winner.length + 8);
+        putString(id);
+        buffer.putLong(timestamp);
+        putString(winner);
+        buffer.putDouble(price);
+        return end();
+    }
+
+    // Rend durables (selon la politique) tous les événements ajoutés depuis le dernier commit
+    public void commit() throws IOException {
+        flushBuffer();
+        commits++;
+        if (!unsynced) return;
+
+        switch (policy) {
+            case ALWAYS:
+            case GROUP:
+                force();
+                break;
+            case INTERVAL:
+                if (System.currentTimeMillis() - lastForceMs >= fsyncIntervalMs) force();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void begin(byte type, int payloadBytes) throws IOException {
+        if (segment == null) {
+            throw new IllegalStateException("Journal non rejoué: appeler replay() avant d'écrire");
+        }
+        if (buffer.remaining() < HEADER_BYTES + payloadBytes) {
+            flushBuffer();
+        }
+        if (buffer.position() == 0) {
+            bufferFirstLsn = nextLsn;
+        }
+        recordStart = buffer.position();
+        buffer.position(recordStart + PREFIX_BYTES);
+        buffer.put(type);
+        buffer.putLong(nextLsn);
+    }
+
+    private long end() throws IOException {
+        int recordEnd = buffer.position();
+        ByteBuffer body = buffer.duplicate();
+        body.position(recordStart + PREFIX_BYTES).limit(recordEnd);
+        crc.reset();
+        crc.update(body);
+        buffer.putInt(recordStart, recordEnd - recordStart - PREFIX_BYTES);
+        buffer.putInt(recordStart + 4, (int) crc.getValue());
+
+        appendedEvents++;
+        long lsn = nextLsn++;
+        if (policy == FsyncPolicy.ALWAYS) {
+            commit();
+        }
+        return lsn;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) return;
+
+        // Segments à taille souple: la bascule se fait entre deux écritures du tampon
+        if (segmentSize > 0 && segmentSize + buffer.position() > segmentBytes) {
+            rollSegment(bufferFirstLsn);
+        }
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segmentSize += segment.write(buffer);
+        }
+        buffer.clear();
+        unsynced = true;
+    }
+
+    private void force() throws IOException {
+        segment.force(false);
+        forces++;
+        unsynced = false;
+        lastForceMs = System.currentTimeMillis();
+    }
+
+    private void rollSegment(long firstLsn) throws IOException {
+        if (policy != FsyncPolicy.NONE && unsynced) force();
+        segment.close();
+        openSegment(segmentPath(firstLsn), 0);
+    }
+
+    private void openSegment(Path path, long size) throws IOException {
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segment.truncate(size);
+        segment.position(size);
+        segmentSize = size;
+    }
+
+    private void putString(byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static byte[] utf8(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Chaîne trop longue pour le journal: " + bytes.length + " octets");
+        }
+        return bytes;
+    }
+
+    // ========================================================================
+    // REJEU
+    // ========================================================================
+
+    public long replay(EventVisitor visitor) throws IOException {
+        return replay(visitor, 0);
+    }
+
+    /**
+     * Relit les segments dans l'ordre et présente au visiteur (null = simple
+     * vérification) chaque événement valide de LSN >= {@code fromLsn}; les
+     * segments entièrement antérieurs, déjà couverts par un instantané, ne sont
+     * pas lus. Coupe la fin tronquée du dernier segment puis ouvre le journal en
+     * écriture à la suite.
+     *
+     * @return nombre d'événements présentés au visiteur
+     */
+    public long replay(EventVisitor visitor, long fromLsn) throws IOException {
+        if (segment != null) {
+            throw new IllegalStateException("Journal déjà ouvert en écriture");
+        }
+
+        List<Path> segments = listSegments();
+        long events = readSegments(segments, visitor, fromLsn);
+
+        // Journal plus court que l'instantané (segments supprimés): on repart de sa position
+        nextLsn = Math.max(nextLsn, fromLsn);
+        if (segments.isEmpty()) {
+            openSegment(segmentPath(nextLsn), 0);
+        } else {
+            openSegment(segments.get(segments.size() - 1), lastSegmentEnd);
+        }
+        return events;
+    }
+
+    /**
+     * Lecture seule d'un journal (outils hors ligne, backtests): présente
+     * chaque événement valide au visiteur sans couper la fin tronquée ni ouvrir
+     * le journal en écriture. Un auctioneer peut écrire pendant la lecture: les
+     * enregistrements encore incomplets sont ignorés.
+     *
+     * @return nombre d'événements présentés au visiteur
+     */
+    public static long scan(Path directory, EventVisitor visitor) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new NoSuchFileException(directory.toString());
+        }
+        EventLog log = new EventLog(directory, FsyncPolicy.NONE, 0);
+        return log.readSegments(log.listSegments(), visitor, 0);
+    }
+
+    // Parcourt les segments; lastSegmentEnd reçoit la fin valide du dernier segment lu
+    private long readSegments(List<Path> segments, EventVisitor visitor, long fromLsn) throws IOException {
+        ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        long events = 0;
+        long validEnd = 0;
+
+        for (int i = 0; i < segments.size(); i++) {
+            Path path = segments.get(i);
+            if (i < segments.size() - 1 && firstLsn(segments.get(i + 1)) <= fromLsn) continue;
+            long segmentEvents = 0;
+            validEnd = 0;
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long fileSize = channel.size();
+                long bufferOffset = 0;  // position fichier du début de 'in'
+                boolean eof = false;
+                boolean corrupt = false;
+                in.clear();
+
+                while (!corrupt && !(eof && in.position() == 0)) {
+                    if (!eof && channel.read(in) < 0) eof = true;
+                    if (!eof && in.hasRemaining()) continue;
+                    in.flip();
+
+                    while (in.remaining() >= PREFIX_BYTES) {
+                        int start = in.position();
+                        int length = in.getInt(start);
+                        if (length < 9 || length > BUFFER_BYTES - PREFIX_BYTES) {
+                            corrupt = true;
+                            break;
+                        }
+                        if (in.remaining() < PREFIX_BYTES + length) break;
+
+                        ByteBuffer body = in.duplicate();
+                        body.position(start + PREFIX_BYTES).limit(start + PREFIX_BYTES + length);
+                        crc.reset();
+                        crc.update(body);
+                        if ((int) crc.getValue() != in.getInt(start + 4)) {
+                            corrupt = true;
+                            break;
+                        }
+
+                        in.position(start + PREFIX_BYTES);
+                        byte type = in.get();
+                        long lsn = in.getLong();
+                        if (lsn >= fromLsn) {
+                            if (visitor != null) decode(type, lsn, in, start + PREFIX_BYTES + length, visitor);
+                            segmentEvents++;
+                        }
+                        in.position(start + PREFIX_BYTES + length);
+                        nextLsn = lsn + 1;
+                        validEnd = bufferOffset + in.position();
+                    }
+
+                    if (eof) {
+                        // Reliquat incomplet en fin de fichier: écriture interrompue
+                        if (in.hasRemaining()) corrupt = true;
+                        break;
+                    }
+                    bufferOffset += in.position();
+                    in.compact();
+                }
+
+                if (validEnd < fileSize) {
+                    if (i < segments.size() - 1) {
+                        throw new IOException("Segment corrompu au milieu du journal: " + path +
+                                              " (octet " + validEnd + ")");
+                    }
+                    System.out.println("⚠️ Journal " + path.getFileName() + ": fin tronquée ignorée (" +
+                                     (fileSize - validEnd) + " octets)");
+                }
+            }
+            events += segmentEvents;
+        }
+        lastSegmentEnd = validEnd;
+        return events;
+    }
+
+    private void decode(byte type, long lsn, ByteBuffer in, int end, EventVisitor visitor) {
+        switch (type) {
+            case NEW_AUCTION: {
+                String id = getString(in);
+                String name = getString(in);
+                double startingPrice = in.getDouble();
+                double reservePrice = in.getDouble();
+                AuctionFormat format = AuctionFormat.values()[in.get()];
+                long quantity = in.getLong();
+                long endTime = in.getLong();
+                long timestamp = in.getLong();
+                AuctionItem item = new AuctionItem(id, name, startingPrice, reservePrice, format, quantity);
+                item.setEndTime(new Date(endTime));
+                visitor.newAuction(lsn, item, timestamp);
+                break;
+            }
+            case BID_ACCEPTED: {
+                String itemId = getString(in);
+                String bidderId = getString(in);
+                double amount = in.getDouble();
+                long quantity = in.getLong();
+                long timestamp = in.getLong();
+                visitor.bidAccepted(lsn, itemId, bidderId, amount, quantity, timestamp);
+                break;
+            }
+            case AUCTION_CLOSED: {
+                String itemId = getString(in);
+                long timestamp = in.getLong();
+                String winnerId = null;
+                double price = 0;
+                if (in.position() < end) {
+                    String winner = getString(in);
+                    winnerId = winner.isEmpty() ? null : winner;
+                    price = in.getDouble();
+                }
+                visitor.auctionClosed(lsn, itemId, winnerId, price, timestamp);
+                break;
+            }
+            default:
+                throw new IllegalStateException("Type d'événement inconnu " + type + " (lsn " + lsn + ")");
+        }
+    }
+
+    private String getString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+        in.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path path : stream) segments.add(path);
+        }
+        // Noms à largeur fixe: l'ordre lexicographique est l'ordre des LSN
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Supprime les segments dont tous les événements précèdent {@code lsn}
+     * (couverts par un instantané durable). Le segment courant est conservé.
+     *
+     * @return nombre de segments supprimés
+     */
+    public int truncateBefore(long lsn) throws IOException {
+        List<Path> segments = listSegments();
+        int deleted = 0;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (firstLsn(segments.get(i + 1)) > lsn) break;
+            Files.deleteIfExists(segments.get(i));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    private static long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private Path segmentPath(long firstLsn) {
+        return directory.resolve(String.format("%020d%s", firstLsn, SUFFIX));
+    }
+
+    // ========================================================================
+    // ÉTAT
+    // ========================================================================
+
+    public long getNextLsn() { return nextLsn; }
+    public long getAppendedEvents() { return appendedEvents; }
+    public long getCommits() { return commits; }
+    public long getForces() { return forces; }
+    public FsyncPolicy getPolicy() { return policy; }
+
+    @Override
+    public void close() throws IOException {
+        if (segment == null) return;
+        flushBuffer();
+        if (unsynced) force();
+        segment.close();
+        segment = null;
+    }
+}
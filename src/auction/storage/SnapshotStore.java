@@ -0,0 +1,165 @@
+package auction.storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Instantanés binaires d'un agent, écrits hors du thread de l'agent.
+ *
+ * L'agent capture son état en un tableau d'octets (copie mémoire, sans E/S) puis
+ * le confie au thread d'écriture, qui l'écrit dans un fichier temporaire, le
+ * synchronise et le renomme atomiquement. Chaque instantané porte la position du
+ * journal qu'il couvre (LSN du premier événement non inclus); les plus anciens
+ * au-delà de {@code keep} sont supprimés.
+ *
+ * Fichier: magic (int), version (int), lsn (long), longueur (int), données, crc32 (int).
+ */
+public class SnapshotStore implements Closeable {
+
+    private static final int MAGIC = 0x534E4150;  // "SNAP"
+    private static final int VERSION = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    public static final class Snapshot {
+        public final long lsn;
+        public final DataInputStream data;
+
+        Snapshot(long lsn, byte[] data) {
+            this.lsn = lsn;
+            this.data = new DataInputStream(new ByteArrayInputStream(data));
+        }
+    }
+
+    private final Path directory;
+    private final int keep;
+    private final ExecutorService writer;
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private volatile long lastWrittenLsn = -1;
+    private volatile long lastWriteMs;
+
+    public SnapshotStore(Path directory, int keep) throws IOException {
+        this.directory = directory;
+        this.keep = Math.max(1, keep);
+        Files.createDirectories(directory);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "snapshot-writer-" + directory.getFileName());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Un seul instantané en vol: si le précédent n'est pas encore écrit, celui-ci est ignoré
+    public boolean writeAsync(long lsn, byte[] data) {
+        if (!writing.compareAndSet(false, true)) return false;
+        writer.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                write(lsn, data);
+                lastWrittenLsn = lsn;
+                lastWriteMs = (System.nanoTime() - start) / 1_000_000;
+                prune();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                writing.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void write(long lsn, byte[] data) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        ByteBuffer header = ByteBuffer.allocate(20);
+        header.putInt(MAGIC).putInt(VERSION).putLong(lsn).putInt(data.length).flip();
+        ByteBuffer trailer = ByteBuffer.allocate(4);
+        trailer.putInt((int) crc.getValue()).flip();
+
+        Path tmp = directory.resolve(PREFIX + "tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] parts = { header, ByteBuffer.wrap(data), trailer };
+            while (trailer.hasRemaining()) {
+                channel.write(parts);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, snapshotPath(lsn), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void prune() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (int i = 0; i < snapshots.size() - keep; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    /**
+     * Instantané valide le plus récent (un fichier tronqué ou corrompu est ignoré
+     * au profit du précédent), ou null s'il n'y en a aucun.
+     */
+    public Snapshot loadLatest() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Snapshot snapshot = read(snapshots.get(i));
+            if (snapshot != null) return snapshot;
+            System.out.println("⚠️ Instantané invalide ignoré: " + snapshots.get(i).getFileName());
+        }
+        return null;
+    }
+
+    private Snapshot read(Path path) throws IOException {
+        byte[] file = Files.readAllBytes(path);
+        if (file.length < 24) return null;
+
+        ByteBuffer in = ByteBuffer.wrap(file);
+        if (in.getInt() != MAGIC || in.getInt() != VERSION) return null;
+        long lsn = in.getLong();
+        int length = in.getInt();
+        if (length < 0 || length != file.length - 24) return null;
+
+        byte[] data = new byte[length];
+        in.get(data);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        if ((int) crc.getValue() != in.getInt()) return null;
+
+        return new Snapshot(lsn, data);
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : stream) snapshots.add(path);
+        }
+        Collections.sort(snapshots);
+        return snapshots;
+    }
+
+    private Path snapshotPath(long lsn) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, lsn, SUFFIX));
+    }
+
+    // LSN du dernier instantané durable (-1 si aucun depuis le démarrage)
+    public long getLastWrittenLsn() { return lastWrittenLsn; }
+    public long getLastWriteMs() { return lastWriteMs; }
+
+    // Attend la fin de l'écriture en cours
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package auction.storage;
+
+import java.util.*;
+
+// Dictionnaire chaîne <-> index compact, pour stocker des identifiants en colonnes primitives
+public class SymbolTable {
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> symbols = new ArrayList<>();
+    private final Deque<Integer> freeIndexes = new ArrayDeque<>();
+
+    public int intern(String symbol) {
+        Integer index = indexes.get(symbol);
+        if (index != null) return index;
+
+        int idx;
+        if (!freeIndexes.isEmpty()) {
+            idx = freeIndexes.pop();
+            symbols.set(idx, symbol);
+        } else {
+            idx = symbols.size();
+            symbols.add(symbol);
+        }
+        indexes.put(symbol, idx);
+        return idx;
+    }
+
+    // -1 si le symbole est inconnu
+    public int indexOf(String symbol) {
+        Integer index = indexes.get(symbol);
+        return index != null ? index : -1;
+    }
+
+    public String symbol(int index) {
+        return symbols.get(index);
+    }
+
+    public void release(String symbol) {
+        Integer index = indexes.remove(symbol);
+        if (index != null) {
+            symbols.set(index, null);
+            freeIndexes.push(index);
+        }
+    }
+
+    public int size() {
+        return indexes.size();
+    }
+}
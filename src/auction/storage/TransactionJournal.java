@@ -0,0 +1,348 @@
+package auction.storage;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal des transactions bancaires en ajout seul, projeté en mémoire.
+ *
+ * Les enregistrements, de taille fixe ({@link #RECORD_BYTES} octets), sont
+ * écrits dans des segments de {@link #RECORDS_PER_SEGMENT} enregistrements
+ * projetés par FileChannel.map: une écriture est une copie mémoire, le système
+ * les reporte sur disque (force() à l'arrêt et aux instantanés).
+ *
+ * Format: compte (int), type (byte), 3 octets de bourrage, montant en centimes
+ * (long), horodatage (long), enregistrement précédent du même compte (long) et
+ * dernier point de saut du compte avant celui-ci (long), -1 si aucun. Chaque
+ * compte forme ainsi une chaîne sur disque: le tas ne garde que sa tête, quel
+ * que soit le nombre de transactions. Un enregistrement sur {@link #SKIP} de
+ * chaque compte est un point de saut: un relevé par plage de dates saute de
+ * point en point jusqu'à la fin de la plage puis ne lit que les
+ * enregistrements de la plage (horodatages croissants par compte supposés).
+ *
+ * Le type est écrit en dernier: un enregistrement réservé mais jamais écrit
+ * (arrêt brutal) reste à zéro et est ignoré à la réouverture.
+ *
+ * Les comptes reçoivent un numéro stable, consigné dans accounts.idx. Les
+ * ajouts d'un même compte sont sérialisés par sa tête de chaîne; ceux de
+ * comptes différents écrivent en parallèle dans des zones disjointes.
+ */
+public class TransactionJournal implements Closeable {
+
+    public static final byte CREDIT = 1;
+    public static final byte DEBIT = 2;
+    public static final byte CAPTURE = 3;
+    public static final byte TRANSFER_OUT = 4;
+    public static final byte TRANSFER_IN = 5;
+    public static final byte OPEN = 6;
+
+    public static final int RECORD_BYTES = 40;
+    public static final int RECORDS_PER_SEGMENT = 1 << 20;
+    public static final int SKIP = 64;
+
+    private static final int SEGMENT_SHIFT = 20;
+    private static final int RECORD_MASK = RECORDS_PER_SEGMENT - 1;
+    private static final long SEGMENT_BYTES = (long) RECORDS_PER_SEGMENT * RECORD_BYTES;
+
+    private static final int TYPE_OFFSET = 4;
+    private static final int AMOUNT_OFFSET = 8;
+    private static final int TIME_OFFSET = 16;
+    private static final int PREV_OFFSET = 24;
+    private static final int SKIP_OFFSET = 32;
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".dat";
+    private static final String ACCOUNTS_FILE = "accounts.idx";
+
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void entry(byte type, long cents, long timestamp);
+    }
+
+    public interface RecordVisitor {
+        void record(String ownerId, byte type, long cents, long timestamp);
+    }
+
+    // Tête de chaîne d'un compte: seul état en tas par compte
+    private static final class Chain {
+        final int account;
+        long last = -1;
+        long lastCheckpoint = -1;
+        long count;
+
+        Chain(int account) {
+            this.account = account;
+        }
+    }
+
+    private final Path directory;
+    private final ConcurrentHashMap<String, Chain> chains = new ConcurrentHashMap<>();
+    private final AtomicLong nextRecord = new AtomicLong();
+    private final DataOutputStream accountsOut;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private int forcedSegments;
+    private long dropped;
+
+    public TransactionJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        loadAccounts();
+        recover();
+        accountsOut = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(directory.resolve(ACCOUNTS_FILE).toFile(), true)));
+    }
+
+    public static String typeName(byte type) {
+        switch (type) {
+            case CREDIT: return "CREDIT";
+            case DEBIT: return "DEBIT";
+            case CAPTURE: return "CAPTURE";
+            case TRANSFER_OUT: return "TRANSFER_OUT";
+            case TRANSFER_IN: return "TRANSFER_IN";
+            case OPEN: return "OPEN";
+            default: return "UNKNOWN";
+        }
+    }
+
+    /**
+     * Ajoute une transaction au journal du compte. Une erreur d'E/S (projection
+     * d'un nouveau segment impossible) est signalée une fois et l'enregistrement
+     * perdu: le journal est un historique, il ne bloque pas les paiements.
+     */
+    public void append(String ownerId, byte type, long cents, long timestamp) {
+        Chain chain = chainOf(ownerId);
+        if (chain == null) return;
+
+        synchronized (chain) {
+            long record = nextRecord.getAndIncrement();
+            MappedByteBuffer segment = segment((int) (record >>> SEGMENT_SHIFT));
+            if (segment == null) return;
+
+            // Écritures absolues dans une zone réservée à ce seul thread
+            int position = (int) (record & RECORD_MASK) * RECORD_BYTES;
+            segment.putInt(position, chain.account);
+            segment.putLong(position + AMOUNT_OFFSET, cents);
+            segment.putLong(position + TIME_OFFSET, timestamp);
+            segment.putLong(position + PREV_OFFSET, chain.last);
+            segment.putLong(position + SKIP_OFFSET, chain.lastCheckpoint);
+            segment.put(position + TYPE_OFFSET, type);
+            link(chain, record);
+        }
+    }
+
+    /**
+     * Relevé d'un compte entre fromMs et toMs inclus, dans l'ordre
+     * chronologique, limité aux {@code limit} transactions les plus récentes
+     * de la plage. Retourne le nombre de transactions visitées.
+     */
+    public int statement(String ownerId, long fromMs, long toMs, int limit, EntryVisitor visitor) {
+        Chain chain = chains.get(ownerId);
+        if (chain == null || limit <= 0) return 0;
+
+        long record;
+        synchronized (chain) {
+            record = chain.last;
+        }
+
+        // Saut de point en point tant que le point suivant reste après la plage
+        while (record >= 0 && timeOf(record) > toMs) {
+            long checkpoint = readLong(record, SKIP_OFFSET);
+            record = checkpoint >= 0 && timeOf(checkpoint) > toMs ? checkpoint : readLong(record, PREV_OFFSET);
+        }
+
+        long[] found = new long[Math.min(limit, 64)];
+        int size = 0;
+        while (record >= 0 && size < limit && timeOf(record) >= fromMs) {
+            if (size == found.length) found = Arrays.copyOf(found, Math.min(limit, size * 2));
+            found[size++] = record;
+            record = readLong(record, PREV_OFFSET);
+        }
+
+        for (int i = size - 1; i >= 0; i--) {
+            MappedByteBuffer segment = segments[(int) (found[i] >>> SEGMENT_SHIFT)];
+            int position = (int) (found[i] & RECORD_MASK) * RECORD_BYTES;
+            visitor.entry(segment.get(position + TYPE_OFFSET), segment.getLong(position + AMOUNT_OFFSET),
+                          segment.getLong(position + TIME_OFFSET));
+        }
+        return size;
+    }
+
+    /**
+     * Parcourt, dans l'ordre d'ajout, les transactions à partir de l'enregistrement
+     * fromRecord (une position donnée par size()). Retourne le nombre de
+     * transactions visitées.
+     */
+    public long replay(long fromRecord, RecordVisitor visitor) {
+        String[] owners = new String[chains.size()];
+        for (Map.Entry<String, Chain> entry : chains.entrySet()) {
+            int account = entry.getValue().account;
+            if (account < owners.length) owners[account] = entry.getKey();
+        }
+
+        long end = nextRecord.get();
+        long visited = 0;
+        for (long record = Math.max(0, fromRecord); record < end; record++) {
+            MappedByteBuffer segment = segment((int) (record >>> SEGMENT_SHIFT));
+            if (segment == null) break;
+            int position = (int) (record & RECORD_MASK) * RECORD_BYTES;
+            byte type = segment.get(position + TYPE_OFFSET);
+            int account = segment.getInt(position);
+            if (type == 0 || account < 0 || account >= owners.length || owners[account] == null) continue;
+            visitor.record(owners[account], type, segment.getLong(position + AMOUNT_OFFSET),
+                           segment.getLong(position + TIME_OFFSET));
+            visited++;
+        }
+        return visited;
+    }
+
+    public long size() {
+        return nextRecord.get();
+    }
+
+    public int accounts() {
+        return chains.size();
+    }
+
+    public synchronized long dropped() {
+        return dropped;
+    }
+
+    // Reporte sur disque les segments modifiés depuis le dernier appel
+    public synchronized void force() {
+        MappedByteBuffer[] mapped = segments;
+        for (int i = Math.max(0, forcedSegments - 1); i < mapped.length; i++) {
+            if (mapped[i] != null) mapped[i].force();
+        }
+        forcedSegments = mapped.length;
+    }
+
+    @Override
+    public synchronized void close() {
+        force();
+        try {
+            accountsOut.close();
+        } catch (IOException e) {
+            System.err.println("❌ Fermeture du journal des transactions: " + e.getMessage());
+        }
+    }
+
+    private Chain chainOf(String ownerId) {
+        Chain chain = chains.get(ownerId);
+        if (chain != null) return chain;
+
+        synchronized (this) {
+            chain = chains.get(ownerId);
+            if (chain != null) return chain;
+            chain = new Chain(chains.size());
+            try {
+                accountsOut.writeInt(chain.account);
+                accountsOut.writeUTF(ownerId);
+                accountsOut.flush();
+            } catch (IOException e) {
+                reportDrop("compte " + ownerId, e);
+                return null;
+            }
+            chains.put(ownerId, chain);
+            return chain;
+        }
+    }
+
+    private static void link(Chain chain, long record) {
+        if (chain.count % SKIP == 0) chain.lastCheckpoint = record;
+        chain.last = record;
+        chain.count++;
+    }
+
+    private MappedByteBuffer segment(int index) {
+        MappedByteBuffer[] mapped = segments;
+        if (index < mapped.length && mapped[index] != null) return mapped[index];
+
+        synchronized (this) {
+            if (index < segments.length && segments[index] != null) return segments[index];
+            try {
+                MappedByteBuffer segment = map(index);
+                MappedByteBuffer[] grown = Arrays.copyOf(segments, Math.max(segments.length, index + 1));
+                grown[index] = segment;
+                segments = grown;
+                return segment;
+            } catch (IOException e) {
+                reportDrop("segment " + index, e);
+                return null;
+            }
+        }
+    }
+
+    private MappedByteBuffer map(int index) throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", PREFIX, index, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            // La projection reste valide après la fermeture du canal
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+        }
+    }
+
+    private void reportDrop(String what, IOException e) {
+        if (dropped++ == 0) {
+            System.err.println("❌ Journal des transactions (" + what + "): " + e.getMessage());
+        }
+    }
+
+    private long timeOf(long record) {
+        return readLong(record, TIME_OFFSET);
+    }
+
+    private long readLong(long record, int offset) {
+        MappedByteBuffer segment = segments[(int) (record >>> SEGMENT_SHIFT)];
+        return segment.getLong((int) (record & RECORD_MASK) * RECORD_BYTES + offset);
+    }
+
+    private void loadAccounts() throws IOException {
+        Path file = directory.resolve(ACCOUNTS_FILE);
+        if (!Files.exists(file)) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int account = in.readInt();
+                chains.put(in.readUTF(), new Chain(account));
+            }
+        } catch (EOFException e) {
+            // Fin du fichier (ou dernière entrée tronquée par un arrêt brutal)
+        }
+    }
+
+    // Reconstruit les têtes de chaîne en relisant les segments dans l'ordre
+    private void recover() throws IOException {
+        Chain[] byAccount = new Chain[chains.size()];
+        for (Chain chain : chains.values()) {
+            if (chain.account < byAccount.length) byAccount[chain.account] = chain;
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : stream) files.add(file);
+        }
+        Collections.sort(files);
+
+        long end = 0;
+        for (int index = 0; index < files.size(); index++) {
+            MappedByteBuffer segment = segment(index);
+            if (segment == null) throw new IOException("Segment " + index + " illisible");
+            for (int row = 0; row < RECORDS_PER_SEGMENT; row++) {
+                int position = row * RECORD_BYTES;
+                if (segment.get(position + TYPE_OFFSET) == 0) continue;
+                int account = segment.getInt(position);
+                if (account < 0 || account >= byAccount.length || byAccount[account] == null) continue;
+                long record = ((long) index << SEGMENT_SHIFT) | row;
+                link(byAccount[account], record);
+                end = record + 1;
+            }
+        }
+        nextRecord.set(end);
+        forcedSegments = segments.length;
+    }
+}
@@ -0,0 +1,53 @@
+package auction.strategy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Surenchérit de 20 % sur tout article suivi tant que l'offre reste sous 80 % du budget
+public class AggressiveStrategy extends BidderStrategy {
+
+    public static final double DEFAULT_AGGRESSIVENESS = 1.2;
+
+    private final Map<String, Double> trackedAuctions = new HashMap<>();
+    private final double aggressiveness;
+
+    public AggressiveStrategy(String id, double budget, long firstDecisionMs) {
+        this(id, budget, firstDecisionMs, DEFAULT_AGGRESSIVENESS);
+    }
+
+    // aggressiveness: multiplicateur appliqué au dernier prix connu
+    public AggressiveStrategy(String id, double budget, long firstDecisionMs, double aggressiveness) {
+        super(id, budget, 1000, firstDecisionMs);
+        this.aggressiveness = aggressiveness;
+    }
+
+    @Override
+    public String getStyle() {
+        return "aggressive";
+    }
+
+    @Override
+    public void onNewAuction(String itemId, double price, long now) {
+        trackedAuctions.put(itemId, price);
+    }
+
+    @Override
+    public void onBidUpdate(String itemId, double price, long now) {
+        trackedAuctions.put(itemId, price);
+    }
+
+    @Override
+    public void forget(String itemId) {
+        trackedAuctions.remove(itemId);
+    }
+
+    @Override
+    protected void decide(long now, BidSink out) {
+        for (Map.Entry<String, Double> entry : trackedAuctions.entrySet()) {
+            double myBid = entry.getValue() * aggressiveness;
+            if (myBid <= budget * 0.8) {
+                out.bid(this, entry.getKey(), myBid);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package auction.strategy;
+
+import java.util.Random;
+
+/**
+ * Logique d'un enchérisseur, sans agent ni thread: plusieurs milliers
+ * d'instances tournent dans un même BidderHostAgent.
+ *
+ * L'hôte appelle tous les callbacks depuis le thread de son agent: une
+ * stratégie n'a besoin d'aucune synchronisation. tick() est appelé à chaque
+ * tick de l'hôte; la stratégie ne décide qu'à l'échéance de sa propre période,
+ * décalée d'une instance à l'autre pour lisser la charge.
+ */
+public abstract class BidderStrategy {
+
+    // Offres émises pendant un tick, envoyées groupées par l'hôte à la fin du tick
+    public interface BidSink {
+        void bid(BidderStrategy bidder, String itemId, double amount);
+    }
+
+    protected final String id;
+    protected final double budget;
+    private final long periodMs;
+    private long nextDecisionMs;
+
+    protected BidderStrategy(String id, double budget, long periodMs, long firstDecisionMs) {
+        this.id = id;
+        this.budget = budget;
+        this.periodMs = periodMs;
+        this.nextDecisionMs = firstDecisionMs;
+    }
+
+    public static BidderStrategy create(String style, String id, double budget, long firstDecisionMs) {
+        switch (style) {
+            case "aggressive":   return new AggressiveStrategy(id, budget, firstDecisionMs);
+            case "conservative": return new ConservativeStrategy(id, budget, firstDecisionMs);
+            case "intelligent":  return new IntelligentStrategy(id, budget, firstDecisionMs);
+            default: throw new IllegalArgumentException("Stratégie inconnue: " + style);
+        }
+    }
+
+    // Mêmes fourchettes de budget que les agents du lanceur intégré
+    public static double initialBudget(String style, Random random) {
+        switch (style) {
+            case "aggressive":   return 5000.0 + random.nextDouble() * 5000;
+            case "conservative": return 3000.0 + random.nextDouble() * 3000;
+            default:             return 8000.0 + random.nextDouble() * 4000;
+        }
+    }
+
+    public String getId() { return id; }
+    public double getBudget() { return budget; }
+    public long getPeriodMs() { return periodMs; }
+    public long getNextDecisionMs() { return nextDecisionMs; }
+
+    // Décale la première décision d'une fraction de période
+    public void delayFirstDecision(double fraction) {
+        nextDecisionMs += (long) (fraction * periodMs);
+    }
+
+    public final void tick(long now, BidSink out) {
+        if (now < nextDecisionMs) return;
+        // Pas de rattrapage après un tick en retard: une seule décision
+        nextDecisionMs = Math.max(nextDecisionMs + periodMs, now + 1);
+        decide(now, out);
+    }
+
+    public abstract String getStyle();
+
+    public abstract void onNewAuction(String itemId, double price, long now);
+
+    public abstract void onBidUpdate(String itemId, double price, long now);
+
+    // Enchère close ou inconnue de l'auctioneer: l'article n'est plus suivi
+    public abstract void forget(String itemId);
+
+    protected abstract void decide(long now, BidSink out);
+}
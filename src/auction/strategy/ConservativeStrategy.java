@@ -0,0 +1,70 @@
+package auction.strategy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Sniping: n'enchérit (+5 %) que sur un article resté sans offre depuis 4 minutes
+public class ConservativeStrategy extends BidderStrategy {
+
+    public static final long DEFAULT_QUIET_MS = 240000;
+
+    private static final class AuctionInfo {
+        double currentPrice;
+        long lastUpdate;
+
+        AuctionInfo(double price, long now) {
+            this.currentPrice = price;
+            this.lastUpdate = now;
+        }
+    }
+
+    private final Map<String, AuctionInfo> trackedAuctions = new HashMap<>();
+    private final long quietMs;
+
+    public ConservativeStrategy(String id, double budget, long firstDecisionMs) {
+        this(id, budget, firstDecisionMs, DEFAULT_QUIET_MS);
+    }
+
+    // quietMs: durée sans offre au-delà de laquelle un article est jugé délaissé
+    public ConservativeStrategy(String id, double budget, long firstDecisionMs, long quietMs) {
+        super(id, budget, 3000, firstDecisionMs);
+        this.quietMs = quietMs;
+    }
+
+    @Override
+    public String getStyle() {
+        return "conservative";
+    }
+
+    @Override
+    public void onNewAuction(String itemId, double price, long now) {
+        trackedAuctions.put(itemId, new AuctionInfo(price, now));
+    }
+
+    @Override
+    public void onBidUpdate(String itemId, double price, long now) {
+        AuctionInfo info = trackedAuctions.get(itemId);
+        if (info != null) {
+            info.currentPrice = price;
+            info.lastUpdate = now;
+        }
+    }
+
+    @Override
+    public void forget(String itemId) {
+        trackedAuctions.remove(itemId);
+    }
+
+    @Override
+    protected void decide(long now, BidSink out) {
+        for (Map.Entry<String, AuctionInfo> entry : trackedAuctions.entrySet()) {
+            AuctionInfo info = entry.getValue();
+            if (now - info.lastUpdate > quietMs) {
+                double myBid = info.currentPrice * 1.05;
+                if (myBid <= budget * 0.4) {
+                    out.bid(this, entry.getKey(), myBid);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package auction.strategy;
+
+import auction.stats.MarketIndicators;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Extrapole le prix final de chaque article (croissance moyenne) et n'enchérit que sous 90 % de cette prévision
+public class IntelligentStrategy extends BidderStrategy {
+
+    private static final long LEARN_PERIOD_MS = 5000;
+    public static final double DEFAULT_HORIZON = 3;
+
+    private final Map<String, List<Double>> priceHistory = new HashMap<>();
+    private final Map<String, Double> predictedMaxPrices = new HashMap<>();
+    private final double horizon;
+    private long nextLearnMs;
+
+    public IntelligentStrategy(String id, double budget, long firstDecisionMs) {
+        this(id, budget, firstDecisionMs, DEFAULT_HORIZON);
+    }
+
+    // horizon: nombre d'offres à venir sur lequel la croissance moyenne est extrapolée
+    public IntelligentStrategy(String id, double budget, long firstDecisionMs, double horizon) {
+        super(id, budget, 2000, firstDecisionMs);
+        this.horizon = horizon;
+        nextLearnMs = firstDecisionMs;
+    }
+
+    @Override
+    public String getStyle() {
+        return "intelligent";
+    }
+
+    @Override
+    public void onNewAuction(String itemId, double price, long now) {
+        priceHistory.computeIfAbsent(itemId, k -> new ArrayList<>()).add(price);
+    }
+
+    @Override
+    public void onBidUpdate(String itemId, double price, long now) {
+        List<Double> prices = priceHistory.get(itemId);
+        if (prices != null) {
+            prices.add(price);
+        }
+    }
+
+    @Override
+    public void forget(String itemId) {
+        priceHistory.remove(itemId);
+        predictedMaxPrices.remove(itemId);
+    }
+
+    @Override
+    protected void decide(long now, BidSink out) {
+        if (now >= nextLearnMs) {
+            learn();
+            nextLearnMs = now + LEARN_PERIOD_MS;
+        }
+
+        for (Map.Entry<String, List<Double>> entry : priceHistory.entrySet()) {
+            List<Double> prices = entry.getValue();
+            Double predictedMax = predictedMaxPrices.get(entry.getKey());
+            if (prices.isEmpty() || predictedMax == null || predictedMax >= budget * 0.6) continue;
+
+            double optimalBid = prices.get(prices.size() - 1) * 1.08;
+            if (optimalBid < predictedMax * 0.9) {
+                out.bid(this, entry.getKey(), optimalBid);
+            }
+        }
+    }
+
+    private void learn() {
+        for (Map.Entry<String, List<Double>> entry : priceHistory.entrySet()) {
+            List<Double> prices = entry.getValue();
+            if (prices.size() >= 3) {
+                double avgGrowth = MarketIndicators.averageGrowth(prices);
+                predictedMaxPrices.put(entry.getKey(), prices.get(prices.size() - 1) * (1 + avgGrowth * horizon));
+            }
+        }
+    }
+}
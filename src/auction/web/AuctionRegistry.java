@@ -0,0 +1,48 @@
+package auction.web;
+
+import auction.models.AuctionItem;
+import auction.scheduling.Clock;
+import javax.json.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Vue partagée des enchères actives de chaque partition (auctioneer),
+// fusionnée à la demande par /api/auctions.
+public class AuctionRegistry {
+
+    private static final Map<String, Map<String, AuctionItem>> shards = new ConcurrentHashMap<>();
+
+    public static void register(String shardName, Map<String, AuctionItem> activeAuctions) {
+        shards.put(shardName, activeAuctions);
+    }
+
+    public static void unregister(String shardName) {
+        shards.remove(shardName);
+    }
+
+    public static int shardCount() {
+        return shards.size();
+    }
+
+    public static String toJSON() {
+        long now = Clock.get().millis();
+        JsonArrayBuilder array = Json.createArrayBuilder();
+
+        for (Map.Entry<String, Map<String, AuctionItem>> shard : shards.entrySet()) {
+            for (AuctionItem item : shard.getValue().values()) {
+                String winner = item.getCurrentWinner();
+                long timeLeft = Math.max(0, (item.getEndTime().getTime() - now) / 1000);
+
+                array.add(Json.createObjectBuilder()
+                    .add("id", item.getId())
+                    .add("name", item.getName())
+                    .add("currentPrice", item.getCurrentPrice())
+                    .add("maxPrice", item.getReservePrice())
+                    .add("winner", winner != null ? winner : "")
+                    .add("timeLeft", timeLeft)
+                    .add("shard", shard.getKey()));
+            }
+        }
+        return array.build().toString();
+    }
+}
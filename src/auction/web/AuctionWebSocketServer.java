@@ -1,6 +1,8 @@
 package auction.web;
 
+import auction.stats.LatencyStages;
 import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
 import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
 import javax.json.*;
@@ -52,10 +54,27 @@ public class AuctionWebSocketServer extends WebSocketServer {
     // BROADCAST GENERIC
     // ------------------------------------------------
     public void broadcast(String msg) {
+        long start = System.nanoTime();
         for (WebSocket client : clients) {
             try { client.send(msg); }
             catch(Exception e){ e.printStackTrace(); }
         }
+        LatencyStages.get().record(LatencyStages.Stage.WS_BROADCAST, System.nanoTime() - start);
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    // Trames en attente d'écriture, tous clients confondus (clients lents)
+    public int getSendBacklog() {
+        int frames = 0;
+        for (WebSocket client : clients) {
+            if (client instanceof WebSocketImpl) {
+                frames += ((WebSocketImpl) client).outQueue.size();
+            }
+        }
+        return frames;
     }
 
     // ------------------------------------------------
@@ -63,6 +82,35 @@ public class AuctionWebSocketServer extends WebSocketServer {
     // ------------------------------------------------
 
     public void broadcastNewAuction(String id, String name, double start, double max) {
+        broadcast(newAuctionJson(id, name, start, max));
+    }
+
+    public void broadcastBidUpdate(String id, double price, String bidder) {
+        broadcast(bidUpdateJson(id, price, bidder));
+    }
+
+    public void broadcastAuctionEnd(String id, String winner, double finalPrice) {
+        broadcast(auctionEndJson(id, winner, finalPrice));
+    }
+
+    public void broadcastAgentUpdate(String name, String type, double budget, int bids) {
+        broadcast(agentUpdateJson(name, type, budget, bids));
+    }
+
+    public void broadcastLog(String message, String level) {
+        broadcast(logJson(message, level, System.currentTimeMillis()));
+    }
+
+    public void broadcastStatistics(int activeAuctions, int activeAgents, double totalVolume,
+                                    double bidsPerSecond) {
+        broadcast(statisticsJson(activeAuctions, activeAgents, totalVolume, bidsPerSecond));
+    }
+
+    // ------------------------------------------------
+    //   TRAMES JSON (sans envoi, mesurables isolément)
+    // ------------------------------------------------
+
+    public static String newAuctionJson(String id, String name, double start, double max) {
         JsonObject json = Json.createObjectBuilder()
             .add("type", "NEW_AUCTION")
             .add("data", Json.createObjectBuilder()
@@ -73,10 +121,10 @@ public class AuctionWebSocketServer extends WebSocketServer {
                 .add("winner", "")
                 .add("timeLeft", 300)
             ).build();
-        broadcast(json.toString());
+        return json.toString();
     }
 
-    public void broadcastBidUpdate(String id, double price, String bidder) {
+    public static String bidUpdateJson(String id, double price, String bidder) {
         JsonObject json = Json.createObjectBuilder()
             .add("type", "BID_UPDATE")
             .add("data", Json.createObjectBuilder()
@@ -84,10 +132,10 @@ public class AuctionWebSocketServer extends WebSocketServer {
                 .add("currentPrice", price)
                 .add("winner", bidder)
             ).build();
-        broadcast(json.toString());
+        return json.toString();
     }
 
-    public void broadcastAuctionEnd(String id, String winner, double finalPrice) {
+    public static String auctionEndJson(String id, String winner, double finalPrice) {
         JsonObject json = Json.createObjectBuilder()
             .add("type", "AUCTION_END")
             .add("data", Json.createObjectBuilder()
@@ -95,10 +143,10 @@ public class AuctionWebSocketServer extends WebSocketServer {
                 .add("winner", winner)
                 .add("finalPrice", finalPrice)
             ).build();
-        broadcast(json.toString());
+        return json.toString();
     }
 
-    public void broadcastAgentUpdate(String name, String type, double budget, int bids) {
+    public static String agentUpdateJson(String name, String type, double budget, int bids) {
         JsonObject json = Json.createObjectBuilder()
             .add("type", "AGENT_UPDATE")
             .add("data", Json.createObjectBuilder()
@@ -108,29 +156,31 @@ public class AuctionWebSocketServer extends WebSocketServer {
                 .add("bids", bids)
                 .add("activity", "Actif")
             ).build();
-        broadcast(json.toString());
+        return json.toString();
     }
 
-    public void broadcastLog(String message, String level) {
+    public static String logJson(String message, String level, long ts) {
         JsonObject json = Json.createObjectBuilder()
             .add("type", "LOG")
             .add("data", Json.createObjectBuilder()
                 .add("message", message)
                 .add("level", level)
-                .add("ts", System.currentTimeMillis())
+                .add("ts", ts)
             ).build();
-        broadcast(json.toString());
+        return json.toString();
     }
 
-    public void broadcastStatistics(int activeAuctions, int activeAgents, double totalVolume) {
+    public static String statisticsJson(int activeAuctions, int activeAgents, double totalVolume,
+                                        double bidsPerSecond) {
         JsonObject json = Json.createObjectBuilder()
             .add("type", "STATS_UPDATE")
             .add("data", Json.createObjectBuilder()
                 .add("activeAuctions", activeAuctions)
                 .add("activeAgents", activeAgents)
                 .add("totalVolume", totalVolume)
+                .add("bidsPerSecond", bidsPerSecond)
             ).build();
-        broadcast(json.toString());
+        return json.toString();
     }
 
     // ------------------------------------------------
@@ -0,0 +1,153 @@
+package auction.web;
+
+import auction.stats.LatencyHistogram;
+import auction.stats.LatencyStages;
+import auction.stats.MailboxGauge;
+import auction.stats.PlatformStatistics;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exposition des métriques de la plateforme au format texte Prometheus
+ * (version 0.0.4), servie par /api/metrics.
+ *
+ * Tout est lu dans des compteurs atomiques ou des LongAdder alimentés par les
+ * agents: un scrape ne prend aucun verrou partagé avec un thread d'agent. Les
+ * latences par étape sont exportées en histogramme cumulatif (cases « le »
+ * fixes) et, pour le dernier intervalle clos, en quantiles.
+ */
+public final class PrometheusMetrics {
+
+    // Bornes des cases exportées, en secondes (100 µs à 5 s)
+    private static final double[] BUCKETS_S = {
+        0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5
+    };
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private PrometheusMetrics() {}
+
+    public static String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        platform(out);
+        mailboxes(out);
+        webSocket(out);
+        jvm(out);
+        latencies(out);
+        return out.toString();
+    }
+
+    private static void platform(StringBuilder out) {
+        PlatformStatistics stats = PlatformStatistics.get();
+
+        header(out, "auction_bids_total", "counter", "Offres retenues par les auctioneers (nouveau prix courant ou entrée au carnet)");
+        sample(out, "auction_bids_total", "", stats.getTotalBids());
+        header(out, "auction_bids_per_second", "gauge", "Débit d'offres moyen sur les dernières secondes complètes");
+        sample(out, "auction_bids_per_second", "", stats.getBidsPerSecond());
+        header(out, "auction_bids_accepted_total", "counter", "Offres acceptées (ACCEPT_PROPOSAL)");
+        sample(out, "auction_bids_accepted_total", "", stats.getAcceptances());
+        header(out, "auction_bids_rejected_total", "counter", "Offres rejetées (REJECT_PROPOSAL), par motif");
+        for (Map.Entry<String, LongAdder> entry : stats.getRejections().entrySet()) {
+            sample(out, "auction_bids_rejected_total", label("reason", entry.getKey()), entry.getValue().sum());
+        }
+        header(out, "auction_active_auctions", "gauge", "Enchères ouvertes, toutes partitions");
+        sample(out, "auction_active_auctions", "", stats.getActiveAuctions());
+        header(out, "auction_agents", "gauge", "Agents recensés sur la plateforme");
+        sample(out, "auction_agents", "", stats.getAgentCount());
+        header(out, "auction_open_value_euros", "gauge", "Somme des prix courants des enchères ouvertes");
+        sample(out, "auction_open_value_euros", "", stats.getTotalVolume());
+        header(out, "auction_sales_euros_total", "counter", "Volume des ventes conclues");
+        sample(out, "auction_sales_euros_total", "", stats.getSalesVolume());
+    }
+
+    private static void mailboxes(StringBuilder out) {
+        header(out, "auction_mailbox_depth", "gauge", "Messages en attente dans la boîte de chaque agent");
+        for (Map.Entry<String, AtomicInteger> entry : MailboxGauge.depths().entrySet()) {
+            sample(out, "auction_mailbox_depth", label("agent", entry.getKey()), entry.getValue().get());
+        }
+    }
+
+    private static void webSocket(StringBuilder out) {
+        header(out, "auction_websocket_clients", "gauge", "Clients WebSocket connectés");
+        sample(out, "auction_websocket_clients", "", WebInterface.clientCount());
+        header(out, "auction_websocket_send_backlog_frames", "gauge", "Trames en attente d'envoi vers les clients");
+        sample(out, "auction_websocket_send_backlog_frames", "", WebInterface.sendBacklog());
+    }
+
+    private static void jvm(StringBuilder out) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        header(out, "jvm_memory_heap_used_bytes", "gauge", "Tas utilisé");
+        sample(out, "jvm_memory_heap_used_bytes", "", heap.getUsed());
+        header(out, "jvm_memory_heap_committed_bytes", "gauge", "Tas réservé auprès du système");
+        sample(out, "jvm_memory_heap_committed_bytes", "", heap.getCommitted());
+        header(out, "jvm_memory_heap_max_bytes", "gauge", "Taille maximale du tas (-1 si non bornée)");
+        sample(out, "jvm_memory_heap_max_bytes", "", heap.getMax());
+
+        header(out, "jvm_gc_collections_total", "counter", "Collections effectuées, par collecteur");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(out, "jvm_gc_collections_total", label("gc", gc.getName()), Math.max(0, gc.getCollectionCount()));
+        }
+        header(out, "jvm_gc_collection_seconds_total", "counter", "Temps cumulé de collection, par collecteur");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(out, "jvm_gc_collection_seconds_total", label("gc", gc.getName()),
+                   Math.max(0, gc.getCollectionTime()) / 1e3);
+        }
+    }
+
+    private static void latencies(StringBuilder out) {
+        LatencyStages stages = LatencyStages.get();
+
+        // Cumul des intervalles clos: mis à jour à chaque rollInterval()
+        header(out, "auction_stage_latency_seconds", "histogram", "Latence par étape du cycle de vie d'une offre");
+        for (LatencyStages.Stage stage : LatencyStages.Stage.values()) {
+            LatencyHistogram histogram = stages.cumulative(stage);
+            String stageLabel = label("stage", stage.metricName);
+            for (double bound : BUCKETS_S) {
+                String le = label("le", BigDecimal.valueOf(bound).stripTrailingZeros().toPlainString());
+                sample(out, "auction_stage_latency_seconds_bucket", stageLabel + "," + le,
+                       histogram.countAtOrBelow((long) (bound * 1e9)));
+            }
+            long count = histogram.count();
+            sample(out, "auction_stage_latency_seconds_bucket", stageLabel + "," + label("le", "+Inf"), count);
+            sample(out, "auction_stage_latency_seconds_sum", stageLabel, histogram.sum() / 1e9);
+            sample(out, "auction_stage_latency_seconds_count", stageLabel, count);
+        }
+
+        header(out, "auction_stage_latency_interval_seconds", "gauge",
+               "Quantiles de latence par étape sur le dernier intervalle clos");
+        for (LatencyStages.Stage stage : LatencyStages.Stage.values()) {
+            LatencyHistogram histogram = stages.interval(stage);
+            for (double q : QUANTILES) {
+                sample(out, "auction_stage_latency_interval_seconds",
+                       label("stage", stage.metricName) + "," + label("quantile", Double.toString(q)),
+                       histogram.percentile(q) / 1e9);
+            }
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String label(String name, String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+            ? Long.toString((long) value) : Double.toString(value);
+    }
+}
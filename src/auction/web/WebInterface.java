@@ -40,6 +40,18 @@ public class WebInterface {
     }
 
     public static void updateStatistics(int active, int agents, double volume) {
-        if (ws != null) ws.broadcastStatistics(active, agents, volume);
+        updateStatistics(active, agents, volume, 0);
+    }
+
+    public static void updateStatistics(int active, int agents, double volume, double bidsPerSecond) {
+        if (ws != null) ws.broadcastStatistics(active, agents, volume, bidsPerSecond);
+    }
+
+    public static int clientCount() {
+        return ws != null ? ws.getClientCount() : 0;
+    }
+
+    public static int sendBacklog() {
+        return ws != null ? ws.getSendBacklog() : 0;
     }
 }
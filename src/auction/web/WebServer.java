@@ -25,6 +25,7 @@ public class WebServer {
         server.createContext("/api/auctions", new AuctionsHandler());
         server.createContext("/api/agents", new AgentsHandler());
         server.createContext("/api/logs", new LogsHandler());
+        server.createContext("/api/metrics", new MetricsHandler());
         
         server.setExecutor(null);
         server.start();
@@ -100,28 +101,14 @@ public class WebServer {
             exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
             exchange.getResponseHeaders().add("Content-Type", "application/json");
             
-            // Récupérer les données des enchères depuis JADE
-            // TODO: Intégrer avec les agents JADE
+            // Fusion des enchères actives de toutes les partitions
+            byte[] jsonResponse = AuctionRegistry.toJSON().getBytes("UTF-8");
             
-            String jsonResponse = getAuctionsJSON();
-            
-            exchange.sendResponseHeaders(200, jsonResponse.length());
+            exchange.sendResponseHeaders(200, jsonResponse.length);
             OutputStream os = exchange.getResponseBody();
-            os.write(jsonResponse.getBytes());
+            os.write(jsonResponse);
             os.close();
         }
-        
-        private String getAuctionsJSON() {
-            // Exemple de données
-            return "[{" +
-                "\"id\": \"ITEM-1\"," +
-                "\"name\": \"Article Premium 1\"," +
-                "\"currentPrice\": 245.50," +
-                "\"maxPrice\": 500," +
-                "\"winner\": \"aggressive1\"," +
-                "\"timeLeft\": 180" +
-                "}]";
-        }
     }
     
    
@@ -167,5 +154,21 @@ public class WebServer {
             os.close();
         }
     }
+    
+   
+    
+    static class MetricsHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            // Format texte Prometheus, lu sans verrou dans les compteurs des agents
+            exchange.getResponseHeaders().add("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            
+            byte[] response = PrometheusMetrics.scrape().getBytes("UTF-8");
+            
+            exchange.sendResponseHeaders(200, response.length);
+            OutputStream os = exchange.getResponseBody();
+            os.write(response);
+            os.close();
+        }
+    }
 }
-
@@ -200,6 +200,7 @@ function handleStatsUpdate(stats) {
     appState.stats.activeAuctions = stats.activeAuctions;
     appState.stats.activeAgents = stats.activeAgents;
     appState.stats.totalVolume = stats.totalVolume;
+    appState.stats.bidsPerSecond = stats.bidsPerSecond || 0;
     
     // Mettre à jour l'affichage
     updateUI();